@@ -0,0 +1,402 @@
+package com.graphlib.graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.graphlib.graph.core.Edge;
+import com.graphlib.graph.core.Graph;
+
+/**
+ * Level-synchronous breadth first search over a snapshot of a graph. Each
+ * level expands the whole frontier at once, either top-down, from the
+ * frontier to its unvisited successors, or bottom-up, from the unvisited
+ * vertices to a predecessor in the frontier (Beamer's direction-optimizing
+ * search). Bottom-up is chosen while the frontier has more outgoing edges
+ * than a fraction of the unexplored ones, which saves most edge checks on
+ * the large middle levels of low-diameter graphs.
+ *
+ * <p>
+ * Visited vertices are kept in a bitset set with atomic test-and-set, so a
+ * frontier can be expanded in parallel on a {@link ForkJoinPool}. Distances
+ * do not depend on the pool; with a pool, the parent chosen for a vertex
+ * and the order within a level may.
+ */
+public final class BreadthFirstSearch<V, E extends Edge<V, E>> {
+
+	/*
+	 * Switch to bottom-up when the frontier has more than 1/ALPHA of the
+	 * unexplored edges and at least 1/BETA of the vertices, and back once it
+	 * holds less than 1/BETA of the vertices.
+	 */
+	private static final int ALPHA = 14;
+
+	private static final int BETA = 24;
+
+	private static final int THRESHOLD = 2048;
+
+	private final DenseAdjacency<V> adjacency;
+
+	/**
+	 * Takes a snapshot of the given graph; later changes to the graph are not
+	 * seen by the searches.
+	 *
+	 * @param graph
+	 */
+	public BreadthFirstSearch(final Graph<V, E> graph) {
+		this.adjacency = DenseAdjacency.of(graph);
+	}
+
+	/**
+	 * Searches from the given vertex.
+	 *
+	 * @param source
+	 * @return Distances and parents of the reached vertices
+	 */
+	public Result<V> search(final V source) {
+		Traversal traversal = new Traversal(id(source), null);
+		while (traversal.frontierSize > 0) {
+			traversal.step();
+		}
+		return new Result<>(adjacency, traversal.distances, traversal.parents, traversal.reached);
+	}
+
+	/**
+	 * Searches from the given vertex, expanding large frontiers in parallel on
+	 * the given pool.
+	 *
+	 * @param source
+	 * @param pool
+	 * @return Distances and parents of the reached vertices
+	 */
+	public Result<V> search(final V source, final ForkJoinPool pool) {
+		if (pool == null) {
+			throw new IllegalArgumentException("Pool cannot be null.");
+		}
+		Traversal traversal = new Traversal(id(source), pool);
+		while (traversal.frontierSize > 0) {
+			traversal.step();
+		}
+		return new Result<>(adjacency, traversal.distances, traversal.parents, traversal.reached);
+	}
+
+	/**
+	 * Returns the levels reachable from the given vertex, starting with the
+	 * vertex itself. Each level is computed when it is requested.
+	 *
+	 * @param source
+	 * @return Vertices by distance from the source
+	 */
+	public Iterator<List<V>> levels(final V source) {
+		final Traversal traversal = new Traversal(id(source), null);
+		return new Iterator<List<V>>() {
+
+			private boolean pending;
+
+			@Override
+			public boolean hasNext() {
+				if (pending) {
+					traversal.step();
+					pending = false;
+				}
+				return traversal.frontierSize > 0;
+			}
+
+			@Override
+			public List<V> next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				List<V> level = new ArrayList<>(traversal.frontierSize);
+				for (int i = 0; i < traversal.frontierSize; i++) {
+					level.add(adjacency.vertex(traversal.frontier[i]));
+				}
+				pending = true;
+				return level;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException("Levels cannot be removed.");
+			}
+		};
+	}
+
+	private int id(final V source) {
+		int id = adjacency.id(source);
+		if (id < 0) {
+			throw new IllegalArgumentException("Graph does not contain the source vertex.");
+		}
+		return id;
+	}
+
+	/**
+	 * Distances and breadth first tree of one search.
+	 */
+	public static final class Result<V> {
+
+		private final DenseAdjacency<V> adjacency;
+
+		private final int[] distances;
+
+		private final int[] parents;
+
+		private final int reached;
+
+		Result(DenseAdjacency<V> adjacency, int[] distances, int[] parents, int reached) {
+			this.adjacency = adjacency;
+			this.distances = distances;
+			this.parents = parents;
+			this.reached = reached;
+		}
+
+		/**
+		 * Returns the number of vertices reached, including the source.
+		 */
+		public int getReachedCount() {
+			return reached;
+		}
+
+		/**
+		 * Returns the number of edges on a shortest path from the source to
+		 * the given vertex, or -1 if it is not reached.
+		 */
+		public int getDistance(final V vertex) {
+			return distances[id(vertex)];
+		}
+
+		/**
+		 * Returns the predecessor of the given vertex in the breadth first
+		 * tree, or null for the source and unreached vertices.
+		 */
+		public V getParent(final V vertex) {
+			int parent = parents[id(vertex)];
+			return parent < 0 ? null : adjacency.vertex(parent);
+		}
+
+		/**
+		 * Returns the distance of every vertex, -1 if unreached, indexed by
+		 * the position of the vertex in the vertex set, or by its id in a
+		 * {@link com.graphlib.graph.core.CsrGraph}.
+		 *
+		 * @return A copy of the distances
+		 */
+		public int[] getDistances() {
+			return distances.clone();
+		}
+
+		/**
+		 * Returns the index of the parent of every vertex, -1 for the source
+		 * and unreached vertices, indexed like {@link #getDistances()}.
+		 *
+		 * @return A copy of the parents
+		 */
+		public int[] getParents() {
+			return parents.clone();
+		}
+
+		/**
+		 * Returns the vertex at the given index of {@link #getDistances()}.
+		 */
+		public V getVertex(final int index) {
+			if (index < 0 || index >= adjacency.vertexCount) {
+				throw new IllegalArgumentException("No such vertex : " + index);
+			}
+			return adjacency.vertex(index);
+		}
+
+		private int id(final V vertex) {
+			int id = adjacency.id(vertex);
+			if (id < 0) {
+				throw new IllegalArgumentException("No such vertex : " + vertex);
+			}
+			return id;
+		}
+	}
+
+	/**
+	 * State of one search, advanced a level at a time.
+	 */
+	private final class Traversal {
+
+		private final ForkJoinPool pool;
+
+		final int[] distances;
+
+		final int[] parents;
+
+		final AtomicLongArray visited;
+
+		int[] frontier;
+
+		int frontierSize;
+
+		int[] next;
+
+		final AtomicInteger nextSize = new AtomicInteger();
+
+		int level;
+
+		int reached;
+
+		boolean bottomUp;
+
+		long frontierEdges;
+
+		long unexploredEdges;
+
+		Traversal(int source, ForkJoinPool pool) {
+			int n = adjacency.vertexCount;
+			this.pool = pool;
+			this.distances = new int[n];
+			this.parents = new int[n];
+			Arrays.fill(distances, -1);
+			Arrays.fill(parents, -1);
+			this.visited = new AtomicLongArray((n + 63) >>> 6);
+			this.frontier = new int[n];
+			this.next = new int[n];
+			mark(source);
+			distances[source] = 0;
+			frontier[frontierSize++] = source;
+			reached = 1;
+			frontierEdges = outDegree(source);
+			unexploredEdges = adjacency.targets.length - frontierEdges;
+		}
+
+		boolean mark(final int v) {
+			int word = v >>> 6;
+			long bit = 1L << v;
+			while (true) {
+				long bits = visited.get(word);
+				if ((bits & bit) != 0) {
+					return false;
+				}
+				if (visited.compareAndSet(word, bits, bits | bit)) {
+					return true;
+				}
+			}
+		}
+
+		boolean isVisited(final int v) {
+			return (visited.get(v >>> 6) & (1L << v)) != 0;
+		}
+
+		int outDegree(final int v) {
+			return adjacency.offsets[v + 1] - adjacency.offsets[v];
+		}
+
+		void step() {
+			int n = adjacency.vertexCount;
+			if (!bottomUp && frontierEdges > unexploredEdges / ALPHA && frontierSize >= n / BETA) {
+				bottomUp = true;
+				// Builds the reverse adjacency before any task reads it.
+				adjacency.inOffsets();
+			} else if (bottomUp && frontierSize < n / BETA) {
+				bottomUp = false;
+			}
+
+			nextSize.set(0);
+			int size = bottomUp ? n : frontierSize;
+			LevelTask task = new LevelTask(this, 0, size);
+			if (pool == null || size <= THRESHOLD) {
+				task.expand(0, size);
+			} else {
+				pool.invoke(task);
+			}
+
+			int[] t = frontier;
+			frontier = next;
+			next = t;
+			frontierSize = nextSize.get();
+			level++;
+			reached += frontierSize;
+			frontierEdges = 0;
+			for (int i = 0; i < frontierSize; i++) {
+				frontierEdges += outDegree(frontier[i]);
+			}
+			unexploredEdges -= frontierEdges;
+		}
+
+		void topDown(final int from, final int to) {
+			int[] offsets = adjacency.offsets;
+			int[] targets = adjacency.targets;
+			for (int j = from; j < to; j++) {
+				int v = frontier[j];
+				for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+					int w = targets[i];
+					if (mark(w)) {
+						parents[w] = v;
+						distances[w] = level + 1;
+						next[nextSize.getAndIncrement()] = w;
+					}
+				}
+			}
+		}
+
+		void bottomUp(final int from, final int to) {
+			int[] inOffsets = adjacency.inOffsets();
+			int[] sources = adjacency.sources();
+			for (int v = from; v < to; v++) {
+				if (isVisited(v)) {
+					continue;
+				}
+				for (int i = inOffsets[v]; i < inOffsets[v + 1]; i++) {
+					int u = sources[i];
+					// Vertices found on this level hold level + 1, never level.
+					if (distances[u] == level) {
+						mark(v);
+						parents[v] = u;
+						distances[v] = level + 1;
+						next[nextSize.getAndIncrement()] = v;
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Expands a range of the frontier top-down, or a range of the vertices
+	 * bottom-up.
+	 */
+	private static final class LevelTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final BreadthFirstSearch<?, ?>.Traversal traversal;
+
+		private final int from;
+
+		private final int to;
+
+		LevelTask(BreadthFirstSearch<?, ?>.Traversal traversal, int from, int to) {
+			this.traversal = traversal;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > THRESHOLD) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new LevelTask(traversal, from, middle), new LevelTask(traversal, middle, to));
+				return;
+			}
+			expand(from, to);
+		}
+
+		void expand(final int from, final int to) {
+			if (traversal.bottomUp) {
+				traversal.bottomUp(from, to);
+			} else {
+				traversal.topDown(from, to);
+			}
+		}
+	}
+}
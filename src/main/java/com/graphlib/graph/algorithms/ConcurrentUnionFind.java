@@ -0,0 +1,91 @@
+package com.graphlib.graph.algorithms;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free disjoint sets over the ints 0..n-1, with union by rank and path
+ * halving. The rank and parent of each element share one atomic word, so a
+ * root is only linked, or has its rank raised, if neither changed since it
+ * was read. Links always go from the lesser to the greater (rank, element)
+ * pair, which keeps the parent pointers acyclic under concurrent unions.
+ */
+final class ConcurrentUnionFind {
+
+	private static final long PARENT_MASK = 0xFFFFFFFFL;
+
+	private final AtomicLongArray nodes;
+
+	ConcurrentUnionFind(final int size) {
+		nodes = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			nodes.set(i, i);
+		}
+	}
+
+	int size() {
+		return nodes.length();
+	}
+
+	int find(int x) {
+		while (true) {
+			long node = nodes.get(x);
+			int parent = parent(node);
+			if (parent == x) {
+				return x;
+			}
+			long parentNode = nodes.get(parent);
+			int grandparent = parent(parentNode);
+			if (grandparent != parent) {
+				// Ranks of non-roots never change, so only the parent is swapped.
+				nodes.compareAndSet(x, node, (node & ~PARENT_MASK) | grandparent);
+			}
+			x = parent;
+		}
+	}
+
+	/**
+	 * Merges the sets of the given elements.
+	 *
+	 * @return Whether the sets were distinct
+	 */
+	boolean union(final int a, final int b) {
+		int x = a;
+		int y = b;
+		while (true) {
+			x = find(x);
+			y = find(y);
+			if (x == y) {
+				return false;
+			}
+			long xNode = nodes.get(x);
+			long yNode = nodes.get(y);
+			if (parent(xNode) != x || parent(yNode) != y) {
+				continue;
+			}
+			int xRank = rank(xNode);
+			int yRank = rank(yNode);
+			if (xRank > yRank || (xRank == yRank && x > y)) {
+				int t = x;
+				x = y;
+				y = t;
+				long tNode = xNode;
+				xNode = yNode;
+				yNode = tNode;
+			}
+			if (nodes.compareAndSet(x, xNode, (xNode & ~PARENT_MASK) | y)) {
+				if (rank(xNode) == rank(yNode)) {
+					nodes.compareAndSet(y, yNode, yNode + (1L << 32));
+				}
+				return true;
+			}
+		}
+	}
+
+	private static int parent(final long node) {
+		return (int) (node & PARENT_MASK);
+	}
+
+	private static int rank(final long node) {
+		return (int) (node >>> 32);
+	}
+}
@@ -0,0 +1,225 @@
+package com.graphlib.graph.algorithms;
+
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Weakly or strongly connected components of a graph, as one component id per
+ * vertex. Components are numbered from 0 in the order of their first vertex
+ * in the vertex set. The vertex sets of the components are read-only views,
+ * whose members are grouped on first use.
+ *
+ * @see ConnectivityAnalyzer
+ * @see StrongConnectivityAnalyzer
+ */
+public final class ConnectedComponents<V> {
+
+	final DenseAdjacency<V> adjacency;
+
+	final int[] componentIds;
+
+	final int componentCount;
+
+	/*
+	 * Vertex ids grouped by component, built lazily: the members of component
+	 * c are members[starts[c], starts[c+1]).
+	 */
+	private volatile int[] starts;
+
+	private int[] members;
+
+	ConnectedComponents(final DenseAdjacency<V> adjacency, final int[] componentIds, final int componentCount) {
+		this.adjacency = adjacency;
+		this.componentIds = componentIds;
+		this.componentCount = componentCount;
+	}
+
+	/**
+	 * Numbers the given labels in the order of their first vertex.
+	 *
+	 * @param labels
+	 *            Label of every vertex, from 0 to the number of vertices
+	 */
+	static <V> ConnectedComponents<V> of(final DenseAdjacency<V> adjacency, final int[] labels) {
+		int n = adjacency.vertexCount;
+		int[] numbers = new int[n];
+		Arrays.fill(numbers, -1);
+		int[] componentIds = new int[n];
+		int count = 0;
+		for (int v = 0; v < n; v++) {
+			if (numbers[labels[v]] < 0) {
+				numbers[labels[v]] = count++;
+			}
+			componentIds[v] = numbers[labels[v]];
+		}
+		return new ConnectedComponents<>(adjacency, componentIds, count);
+	}
+
+	public int getComponentCount() {
+		return componentCount;
+	}
+
+	/**
+	 * Returns the component id of every vertex, indexed by the position of
+	 * the vertex in the vertex set, or by its id in a
+	 * {@link com.graphlib.graph.core.CsrGraph}.
+	 *
+	 * @return A copy of the component ids
+	 */
+	public int[] getComponentIds() {
+		return componentIds.clone();
+	}
+
+	/**
+	 * Returns the id of the component of the given vertex.
+	 *
+	 * @param vertex
+	 * @return Component id
+	 * @throws IllegalArgumentException
+	 *             If the vertex is not in the graph
+	 */
+	public int getComponentId(final V vertex) {
+		int id = adjacency.id(vertex);
+		if (id < 0) {
+			throw new IllegalArgumentException("No such vertex : " + vertex);
+		}
+		return componentIds[id];
+	}
+
+	/**
+	 * Returns whether the given vertices are in the same component, without
+	 * materializing either component.
+	 *
+	 * @param u
+	 * @param v
+	 * @return Whether u and v are connected
+	 * @throws IllegalArgumentException
+	 *             If either vertex is not in the graph
+	 */
+	public boolean sameComponent(final V u, final V v) {
+		return getComponentId(u) == getComponentId(v);
+	}
+
+	/**
+	 * Returns a read-only view of the vertices of a component.
+	 *
+	 * @param component
+	 *            Component id
+	 * @return Vertices of the component
+	 */
+	public Set<V> getComponent(final int component) {
+		if (component < 0 || component >= componentCount) {
+			throw new IllegalArgumentException("No such component : " + component);
+		}
+		return new ComponentView(component);
+	}
+
+	/**
+	 * Returns read-only views of all components, by component id.
+	 *
+	 * @return Vertices by component
+	 */
+	public List<Set<V>> getComponents() {
+		return new AbstractList<Set<V>>() {
+
+			@Override
+			public Set<V> get(int index) {
+				return getComponent(index);
+			}
+
+			@Override
+			public int size() {
+				return componentCount;
+			}
+		};
+	}
+
+	private int[] starts() {
+		int[] result = starts;
+		if (result == null) {
+			synchronized (this) {
+				result = starts;
+				if (result == null) {
+					result = group();
+					starts = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * Counting sort of the vertex ids by component.
+	 */
+	private int[] group() {
+		int[] offsets = new int[componentCount + 1];
+		for (int c : componentIds) {
+			offsets[c + 1]++;
+		}
+		for (int c = 0; c < componentCount; c++) {
+			offsets[c + 1] += offsets[c];
+		}
+		int[] next = new int[componentCount];
+		System.arraycopy(offsets, 0, next, 0, componentCount);
+		int[] grouped = new int[componentIds.length];
+		for (int v = 0; v < componentIds.length; v++) {
+			grouped[next[componentIds[v]]++] = v;
+		}
+		members = grouped;
+		return offsets;
+	}
+
+	private final class ComponentView extends AbstractSet<V> {
+
+		private final int component;
+
+		ComponentView(int component) {
+			this.component = component;
+		}
+
+		@Override
+		public int size() {
+			int[] s = starts();
+			return s[component + 1] - s[component];
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean contains(Object o) {
+			int id = adjacency.id((V) o);
+			return id >= 0 && componentIds[id] == component;
+		}
+
+		@Override
+		public Iterator<V> iterator() {
+			final int[] s = starts();
+			return new Iterator<V>() {
+
+				private int next = s[component];
+
+				@Override
+				public boolean hasNext() {
+					return next < s[component + 1];
+				}
+
+				@Override
+				public V next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					return adjacency.vertex(members[next++]);
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException("Component views are read-only.");
+				}
+			};
+		}
+	}
+}
@@ -2,10 +2,17 @@ package com.graphlib.graph.algorithms;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import com.graphlib.graph.core.Edge;
 import com.graphlib.graph.core.Graph;
 
+/**
+ * Finds the weakly connected components of a graph with a lock-free
+ * union-find structure, sequentially or in parallel on a
+ * {@link ForkJoinPool}. Runs in near linear time without recursion.
+ */
 public final class ConnectivityAnalyzer<V, E extends Edge<V, E>> {
 
 	private Graph<V, E> graph;
@@ -21,33 +28,95 @@ public final class ConnectivityAnalyzer<V, E extends Edge<V, E>> {
 		this.graph = g;
 	}
 	
+	/**
+	 * Returns the vertex sets of the weakly connected components, as read-only
+	 * views.
+	 *
+	 * @return Components
+	 * @see #analyze()
+	 */
 	public Set<Set<V>> getComponents() {
-		Set<Set<V>> components = new HashSet<>();
-		
-		Set<V> visited = new HashSet<>();
-		for(V v : graph.getAllVertices()) {
-			Set<V> component = new HashSet<>();
-			if(!visited.contains(v)) {
-				traverseComponent(v, component);
-				components.add(component);
-				visited.addAll(component);
-			}
+		return new HashSet<>(analyze().getComponents());
+	}
+
+	/**
+	 * Labels the weakly connected components of the graph by merging the ends
+	 * of every edge in a union-find structure.
+	 *
+	 * @return Component of every vertex
+	 */
+	public ConnectedComponents<V> analyze() {
+		DenseAdjacency<V> adjacency = DenseAdjacency.of(graph);
+		ConcurrentUnionFind sets = new ConcurrentUnionFind(adjacency.vertexCount);
+		new UnionTask(adjacency.offsets, adjacency.targets, sets, 0, adjacency.vertexCount).compute();
+		return label(adjacency, sets);
+	}
+
+	/**
+	 * Labels the weakly connected components of the graph, merging the ends
+	 * of the edges in parallel on the given pool.
+	 *
+	 * @param pool
+	 * @return Component of every vertex
+	 */
+	public ConnectedComponents<V> analyze(final ForkJoinPool pool) {
+		if (pool == null) {
+			throw new IllegalArgumentException("Pool cannot be null.");
 		}
-		
-		return components;
+		DenseAdjacency<V> adjacency = DenseAdjacency.of(graph);
+		ConcurrentUnionFind sets = new ConcurrentUnionFind(adjacency.vertexCount);
+		pool.invoke(new UnionTask(adjacency.offsets, adjacency.targets, sets, 0, adjacency.vertexCount));
+		return label(adjacency, sets);
 	}
 
-	private void traverseComponent(V v, Set<V> visited) {
-		visited.add(v);
-		for(E e : graph.getIncomingEdgesFor(v)) {
-			if(!visited.contains(e.getSourceVertex())) {
-				traverseComponent(e.getSourceVertex(), visited);
-			}
+	private static <V> ConnectedComponents<V> label(final DenseAdjacency<V> adjacency, final ConcurrentUnionFind sets) {
+		int[] roots = new int[adjacency.vertexCount];
+		for (int v = 0; v < roots.length; v++) {
+			roots[v] = sets.find(v);
 		}
-		
-		for(E e : graph.getOutgoingEdgesFor(v)) {
-			if(!visited.contains(e.getTargetVertex())) {
-				traverseComponent(e.getTargetVertex(), visited);
+		return ConnectedComponents.of(adjacency, roots);
+	}
+
+	/**
+	 * Unions the ends of the edges leaving a range of vertices, splitting
+	 * ranges with many edges.
+	 */
+	private static final class UnionTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private static final int THRESHOLD = 8192;
+
+		private final int[] offsets;
+
+		private final int[] targets;
+
+		private final ConcurrentUnionFind sets;
+
+		private final int from;
+
+		private final int to;
+
+		UnionTask(int[] offsets, int[] targets, ConcurrentUnionFind sets, int from, int to) {
+			this.offsets = offsets;
+			this.targets = targets;
+			this.sets = sets;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1 && offsets[to] - offsets[from] > THRESHOLD && getPool() != null) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new UnionTask(offsets, targets, sets, from, middle),
+						new UnionTask(offsets, targets, sets, middle, to));
+				return;
+			}
+			for (int v = from; v < to; v++) {
+				for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+					sets.union(v, targets[i]);
+				}
 			}
 		}
 	}
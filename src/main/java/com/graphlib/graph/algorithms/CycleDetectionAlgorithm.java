@@ -1,63 +1,94 @@
 package com.graphlib.graph.algorithms;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import com.graphlib.graph.core.Edge;
 import com.graphlib.graph.core.Graph;
 
+/**
+ * Detects directed cycles by depth-first search over dense vertex ids. The
+ * search keeps an explicit stack and a color per vertex in primitive arrays,
+ * so it runs in O(V + E) time and does not depend on the depth of the graph.
+ */
 public final class CycleDetectionAlgorithm<V, E extends Edge<V, E>> {
 
-    private enum VertexState {
-        BLACK, GREY, WHITE,
-    }
-
-    public final boolean isCyclic(final Graph<V, E> graph) {
-
-        Map<V, VertexState> vertexState = new HashMap<>();
+    private static final byte WHITE = 0;
 
-        // Initialize the vertex states
-        Collection<V> vertices = graph.getAllVertices();
-        for (V vertex : vertices) {
-            vertexState.put(vertex, VertexState.WHITE);
-        }
+    private static final byte GREY = 1;
 
-        for (V vertex : vertices) {
-            if (vertexState.get(vertex) == VertexState.WHITE) {
-                if (isCyclicAt(vertex, vertexState, graph)) {
-                    return true;
-                }
-            }
-        }
+    private static final byte BLACK = 2;
 
-        return false;
+    public final boolean isCyclic(final Graph<V, E> graph) {
+        return !findCycle(graph).isEmpty();
     }
 
-    private boolean isCyclicAt(final V vertex, final Map<V, VertexState> vertexState,
-            final Graph<V, E> diGraph) {
-
-        // Processing the vertex
-        vertexState.put(vertex, VertexState.GREY);
+    /**
+     * Returns the vertices of a directed cycle in path order: each vertex has
+     * an edge to the next and the last has an edge to the first. A self loop
+     * is reported as a single vertex.
+     *
+     * @param graph
+     * @return Vertices of a cycle, or an empty list if the graph is acyclic
+     */
+    public final List<V> findCycle(final Graph<V, E> graph) {
+        DenseAdjacency<V> adjacency = DenseAdjacency.of(graph);
+        int n = adjacency.vertexCount;
+        int[] offsets = adjacency.offsets;
+        int[] targets = adjacency.targets;
 
-        for (E edge : diGraph.getOutgoingEdgesFor(vertex)) {
-            V targetVertex = edge.getTargetVertex();
+        byte[] colors = new byte[n];
+        // Next outgoing edge to explore for each vertex on the stack.
+        int[] cursors = new int[n];
+        // The grey vertices form the stack, which is the current DFS path.
+        int[] stack = new int[n];
 
-            switch (vertexState.get(targetVertex)) {
-            case WHITE:
-                if (isCyclicAt(targetVertex, vertexState, diGraph)) {
-                    return true;
+        for (int root = 0; root < n; root++) {
+            if (colors[root] != WHITE) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = root;
+            colors[root] = GREY;
+            cursors[root] = offsets[root];
+            while (top > 0) {
+                int v = stack[top - 1];
+                if (cursors[v] == offsets[v + 1]) {
+                    colors[v] = BLACK;
+                    top--;
+                    continue;
+                }
+                int w = targets[cursors[v]++];
+                switch (colors[w]) {
+                case WHITE:
+                    colors[w] = GREY;
+                    cursors[w] = offsets[w];
+                    stack[top++] = w;
+                    break;
+                case GREY:
+                    return cycle(adjacency, stack, top, w);
+                default:
                 }
-                break;
-            case GREY:
-                return true;
-            default:
             }
         }
 
-        // Processed the vertex
-        vertexState.put(vertex, VertexState.BLACK);
+        return Collections.emptyList();
+    }
 
-        return false;
+    /*
+     * The back edge closes the cycle from the grey vertex w down to the top
+     * of the stack.
+     */
+    private List<V> cycle(final DenseAdjacency<V> adjacency, final int[] stack, final int top, final int w) {
+        int start = top - 1;
+        while (stack[start] != w) {
+            start--;
+        }
+        List<V> cycle = new ArrayList<>(top - start);
+        for (int i = start; i < top; i++) {
+            cycle.add(adjacency.vertex(stack[i]));
+        }
+        return cycle;
     }
 }
@@ -0,0 +1,31 @@
+package com.graphlib.graph.algorithms;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Thrown when an operation that needs an acyclic graph finds a cycle. The
+ * exception carries the vertices of a strongly connected component with a
+ * cycle, so that the offending part of the graph can be reported.
+ */
+public class CyclicGraphException extends UnsupportedOperationException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Set<?> component;
+
+	public CyclicGraphException(final String message, final Set<?> component) {
+		super(message);
+		this.component = Collections.unmodifiableSet(component);
+	}
+
+	/**
+	 * Returns the vertices of the strongly connected component that contains
+	 * the cycle.
+	 *
+	 * @return Vertices of the component
+	 */
+	public Set<?> getComponent() {
+		return component;
+	}
+}
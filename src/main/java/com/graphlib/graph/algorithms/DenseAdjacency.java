@@ -0,0 +1,243 @@
+package com.graphlib.graph.algorithms;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.graphlib.graph.core.CsrGraph;
+import com.graphlib.graph.core.Edge;
+import com.graphlib.graph.core.Graph;
+
+/**
+ * Snapshot of the adjacency of a graph over dense vertex ids, in primitive
+ * arrays, for algorithms that make linear passes over a graph. Vertex ids
+ * follow the iteration order of the vertex set, or the ids of a
+ * {@link CsrGraph}. Successors of v are {@code targets[offsets[v],
+ * offsets[v+1])}; parallel edges appear once per edge.
+ */
+final class DenseAdjacency<V> {
+
+	final int vertexCount;
+
+	final Object[] vertices;
+
+	final int[] offsets;
+
+	final int[] targets;
+
+	private int[] inOffsets;
+
+	private int[] sources;
+
+	private volatile Map<V, Integer> ids;
+
+	private DenseAdjacency(final Object[] vertices, final int[] offsets, final int[] targets) {
+		this.vertexCount = vertices.length;
+		this.vertices = vertices;
+		this.offsets = offsets;
+		this.targets = targets;
+	}
+
+	static <V, E extends Edge<V, E>> DenseAdjacency<V> of(final Graph<V, E> graph) {
+		if (graph == null) {
+			throw new IllegalArgumentException("Graph cannot be null.");
+		}
+		if (graph instanceof CsrGraph) {
+			return of((CsrGraph<V, E>) graph);
+		}
+		Object[] vertices = graph.getAllVertices().toArray();
+		Map<V, Integer> ids = new HashMap<>(Math.max(16, (int) (vertices.length / .75f) + 1));
+		for (int i = 0; i < vertices.length; i++) {
+			@SuppressWarnings("unchecked")
+			V v = (V) vertices[i];
+			ids.put(v, i);
+		}
+
+		/*
+		 * Counting sort of the edges by source, from one copy of the edge
+		 * set. On a graph changed concurrently, edges whose ends were added
+		 * after the vertices were read are left out.
+		 */
+		Object[] edges = graph.getAllEdges().toArray();
+		int[] edgeSources = new int[edges.length];
+		int[] edgeTargets = new int[edges.length];
+		int[] offsets = new int[vertices.length + 1];
+		int m = 0;
+		for (Object o : edges) {
+			@SuppressWarnings("unchecked")
+			E e = (E) o;
+			Integer source = ids.get(e.getSourceVertex());
+			Integer target = ids.get(e.getTargetVertex());
+			if (source == null || target == null) {
+				continue;
+			}
+			edgeSources[m] = source;
+			edgeTargets[m] = target;
+			offsets[source + 1]++;
+			m++;
+		}
+		for (int v = 0; v < vertices.length; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+		int[] next = new int[vertices.length];
+		System.arraycopy(offsets, 0, next, 0, vertices.length);
+		int[] targets = new int[m];
+		for (int e = 0; e < m; e++) {
+			targets[next[edgeSources[e]]++] = edgeTargets[e];
+		}
+		DenseAdjacency<V> adjacency = new DenseAdjacency<>(vertices, offsets, targets);
+		adjacency.ids = ids;
+		return adjacency;
+	}
+
+	private static <V, E extends Edge<V, E>> DenseAdjacency<V> of(final CsrGraph<V, E> csr) {
+		int n = csr.getVertexCount();
+		Object[] vertices = new Object[n];
+		int[] offsets = new int[n + 1];
+		int[] targets = new int[csr.getEdgeCount()];
+		int m = 0;
+		for (int v = 0; v < n; v++) {
+			vertices[v] = csr.getVertex(v);
+			for (int i = 0; i < csr.getOutDegree(v); i++) {
+				targets[m++] = csr.getOutNeighbor(v, i);
+			}
+			offsets[v + 1] = m;
+		}
+		return new DenseAdjacency<>(vertices, offsets, targets);
+	}
+
+	@SuppressWarnings("unchecked")
+	V vertex(final int id) {
+		return (V) vertices[id];
+	}
+
+	/**
+	 * Returns the id of the given vertex, or -1 if it is not in the snapshot.
+	 */
+	int id(final V vertex) {
+		Map<V, Integer> map = ids;
+		if (map == null) {
+			map = new HashMap<>(Math.max(16, (int) (vertexCount / .75f) + 1));
+			for (int i = 0; i < vertexCount; i++) {
+				map.put(vertex(i), i);
+			}
+			ids = map;
+		}
+		Integer id = map.get(vertex);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Returns the offsets of the predecessor lists, building the reverse
+	 * adjacency on first use.
+	 */
+	int[] inOffsets() {
+		if (inOffsets == null) {
+			reverse();
+		}
+		return inOffsets;
+	}
+
+	/**
+	 * Returns the predecessor lists: the predecessors of v are
+	 * {@code sources[inOffsets[v], inOffsets[v+1])}.
+	 */
+	int[] sources() {
+		if (sources == null) {
+			reverse();
+		}
+		return sources;
+	}
+
+	int[] inDegrees() {
+		int[] degrees = new int[vertexCount];
+		for (int target : targets) {
+			degrees[target]++;
+		}
+		return degrees;
+	}
+
+	private void reverse() {
+		int[] in = new int[vertexCount + 1];
+		for (int target : targets) {
+			in[target + 1]++;
+		}
+		for (int v = 0; v < vertexCount; v++) {
+			in[v + 1] += in[v];
+		}
+		int[] next = new int[vertexCount];
+		System.arraycopy(in, 0, next, 0, vertexCount);
+		int[] reversed = new int[targets.length];
+		for (int v = 0; v < vertexCount; v++) {
+			for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+				reversed[next[targets[i]]++] = v;
+			}
+		}
+		inOffsets = in;
+		sources = reversed;
+	}
+
+	/**
+	 * Returns a strongly connected component with a cycle, among the vertices
+	 * left with a positive in-degree by an in-degree counting sort.
+	 *
+	 * @param inDegrees
+	 *            Remaining in-degrees, counting unsorted predecessors only
+	 */
+	Set<V> cyclicComponent(final int[] inDegrees) {
+		/*
+		 * Every unsorted vertex has an unsorted predecessor, so walking
+		 * backwards through unsorted vertices must revisit one, which lies on
+		 * a cycle. Its component is the intersection of what it reaches and
+		 * what reaches it, among the unsorted vertices.
+		 */
+		int n = vertexCount;
+		int[] inOffsets = inOffsets();
+		int[] sources = sources();
+		boolean[] seen = new boolean[n];
+
+		int v = 0;
+		while (inDegrees[v] == 0) {
+			v++;
+		}
+		while (!seen[v]) {
+			seen[v] = true;
+			int i = inOffsets[v];
+			while (inDegrees[sources[i]] == 0) {
+				i++;
+			}
+			v = sources[i];
+		}
+
+		boolean[] forward = reach(v, offsets, targets, inDegrees);
+		boolean[] backward = reach(v, inOffsets, sources, inDegrees);
+		Set<V> component = new LinkedHashSet<>();
+		for (int w = 0; w < n; w++) {
+			if (forward[w] && backward[w]) {
+				component.add(vertex(w));
+			}
+		}
+		return component;
+	}
+
+	private static boolean[] reach(final int root, final int[] offsets, final int[] adjacent, final int[] inDegrees) {
+		int n = inDegrees.length;
+		boolean[] reached = new boolean[n];
+		int[] stack = new int[n];
+		int top = 0;
+		reached[root] = true;
+		stack[top++] = root;
+		while (top > 0) {
+			int v = stack[--top];
+			for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+				int w = adjacent[i];
+				if (!reached[w] && inDegrees[w] > 0) {
+					reached[w] = true;
+					stack[top++] = w;
+				}
+			}
+		}
+		return reached;
+	}
+}
@@ -0,0 +1,333 @@
+package com.graphlib.graph.algorithms;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.graphlib.graph.core.Edge;
+import com.graphlib.graph.core.Graph;
+import com.graphlib.graph.core.GraphDelegator;
+
+/**
+ * A graph that stays acyclic, keeping a topological order of its vertices as
+ * edges are added (Pearce and Kelly's dynamic topological sort). An edge that
+ * agrees with the order is added in O(1). An edge u -&gt; v that does not is
+ * checked by searching forward from v and backward from u, only through the
+ * vertices placed between v and u, and those vertices are then moved to make
+ * room for the edge. An edge that would close a cycle is rejected with a
+ * {@link CyclicGraphException} and leaves the graph unchanged.
+ *
+ * <p>
+ * Removing edges or vertices keeps the order valid. Changes made to the base
+ * graph directly are not seen.
+ *
+ * <p>
+ * The searches walk the base graph's incoming and outgoing edges, so they only
+ * stay within the affected region when the base answers those in time
+ * proportional to the degree, as {@link com.graphlib.graph.core.IndexedGraph}
+ * does. On a plain {@link com.graphlib.graph.core.AbstractGraph} every step
+ * scans all edges.
+ */
+public class DynamicTopologicalOrder<V, E extends Edge<V, E>> extends GraphDelegator<V, E> {
+
+	private final Map<V, Integer> positions = new HashMap<>();
+
+	/*
+	 * Vertices by position, with null where a vertex was removed. Positions
+	 * from 0 up are in slots and negative positions, taken by vertices put in
+	 * front of all the others, in front: position -1 - i is front.get(i).
+	 */
+	private final List<V> slots = new ArrayList<>();
+
+	private final List<V> front = new ArrayList<>();
+
+	private int removed;
+
+	private final Comparator<V> byPosition = new Comparator<V>() {
+
+		@Override
+		public int compare(V o1, V o2) {
+			return Integer.compare(positions.get(o1), positions.get(o2));
+		}
+	};
+
+	/**
+	 * Wraps the given graph, ordering its vertices topologically.
+	 *
+	 * @param g
+	 *            Base graph
+	 * @throws CyclicGraphException
+	 *             If the base graph has a cycle
+	 */
+	public DynamicTopologicalOrder(final Graph<V, E> g) {
+		super(g);
+		this.vertices = new HashSet<>();
+		this.edges = new HashSet<>();
+		this.setEdgeFactory(g.getEdgeFactory());
+		for (V v : TopologicalSort.apply(g)) {
+			place(v);
+		}
+	}
+
+	/**
+	 * Returns the vertices in the current topological order.
+	 */
+	public List<V> getOrder() {
+		List<V> order = new ArrayList<>(positions.size());
+		for (int i = front.size() - 1; i >= 0; i--) {
+			if (front.get(i) != null) {
+				order.add(front.get(i));
+			}
+		}
+		for (V v : slots) {
+			if (v != null) {
+				order.add(v);
+			}
+		}
+		return order;
+	}
+
+	/**
+	 * Returns whether u currently precedes v in the order. Every edge goes
+	 * from a vertex to a later one.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If either vertex is not in the graph
+	 */
+	public boolean precedes(final V u, final V v) {
+		return position(u) < position(v);
+	}
+
+	@Override
+	public boolean addVertex(final V vertex) {
+		boolean added = super.addVertex(vertex);
+		if (added) {
+			place(vertex);
+		}
+		return added;
+	}
+
+	@Override
+	public boolean addVertices(final Set<V> vertices) {
+		boolean result = false;
+		for (V v : vertices) {
+			result |= addVertex(v);
+		}
+		return result;
+	}
+
+	/**
+	 * Adds the edge, reordering the vertices between its ends if needed. A
+	 * new source is put first and a new target last, in O(1).
+	 *
+	 * @throws CyclicGraphException
+	 *             If the edge would close a cycle; the graph is unchanged
+	 */
+	@Override
+	public boolean addEdge(final E edge) {
+		V source = edge.getSourceVertex();
+		V target = edge.getTargetVertex();
+		boolean hasSource = positions.containsKey(source);
+		boolean hasTarget = positions.containsKey(target);
+		if (hasSource && hasTarget) {
+			reorder(edge, source, target);
+		} else if (source.equals(target)) {
+			throw cycle(edge, Collections.singletonList(source));
+		} else if (hasTarget) {
+			// A new source has no incoming edges and can go first.
+			placeFirst(source);
+		} else {
+			// A new target has no outgoing edges and can go last.
+			if (!hasSource) {
+				place(source);
+			}
+			place(target);
+		}
+		return super.addEdge(edge);
+	}
+
+	@Override
+	public boolean addEdges(final Set<E> edges) {
+		boolean result = false;
+		for (E e : edges) {
+			result |= addEdge(e);
+		}
+		return result;
+	}
+
+	@Override
+	public boolean removeVertex(final V vertex) {
+		boolean result = super.removeVertex(vertex);
+		Integer position = positions.remove(vertex);
+		if (position != null) {
+			move(null, position);
+			removed++;
+			if (removed > 16 && removed > (slots.size() + front.size()) / 2) {
+				compact();
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void removeAllVertices() {
+		super.removeAllVertices();
+		positions.clear();
+		slots.clear();
+		front.clear();
+		removed = 0;
+	}
+
+	/**
+	 * Always false, as edges that would close a cycle are rejected.
+	 */
+	@Override
+	public boolean hasCycles() {
+		return false;
+	}
+
+	private int position(final V v) {
+		Integer position = positions.get(v);
+		if (position == null) {
+			throw new IllegalArgumentException("No such vertex : " + v);
+		}
+		return position;
+	}
+
+	private void place(final V v) {
+		positions.put(v, slots.size());
+		slots.add(v);
+	}
+
+	private void placeFirst(final V v) {
+		front.add(v);
+		positions.put(v, -front.size());
+	}
+
+	private void compact() {
+		List<V> order = getOrder();
+		slots.clear();
+		front.clear();
+		for (V v : order) {
+			place(v);
+		}
+		removed = 0;
+	}
+
+	/*
+	 * Makes room for source -> target when target comes first: the vertices
+	 * reachable from target and those reaching source, all placed between the
+	 * two, swap sides while keeping their relative order.
+	 */
+	private void reorder(final E edge, final V source, final V target) {
+		int lower = positions.get(target);
+		int upper = positions.get(source);
+		if (source.equals(target)) {
+			throw cycle(edge, Collections.singletonList(source));
+		}
+		if (lower > upper) {
+			return;
+		}
+
+		List<V> forward = forward(edge, target, source, upper);
+		List<V> backward = backward(source, lower);
+		Collections.sort(forward, byPosition);
+		Collections.sort(backward, byPosition);
+
+		int[] freed = new int[forward.size() + backward.size()];
+		int k = 0;
+		for (V v : backward) {
+			freed[k++] = positions.get(v);
+		}
+		for (V v : forward) {
+			freed[k++] = positions.get(v);
+		}
+		Arrays.sort(freed);
+		k = 0;
+		for (V v : backward) {
+			move(v, freed[k++]);
+		}
+		for (V v : forward) {
+			move(v, freed[k++]);
+		}
+	}
+
+	private void move(final V v, final int position) {
+		if (v != null) {
+			positions.put(v, position);
+		}
+		if (position >= 0) {
+			slots.set(position, v);
+		} else {
+			front.set(-1 - position, v);
+		}
+	}
+
+	/*
+	 * Depth-first search from target through vertices placed up to source.
+	 * The stack holds the current path, which closes a cycle if it reaches
+	 * source.
+	 */
+	private List<V> forward(final E edge, final V target, final V source, final int upper) {
+		Set<V> visited = new LinkedHashSet<>();
+		Deque<V> path = new ArrayDeque<>();
+		Deque<Iterator<E>> iterators = new ArrayDeque<>();
+		visited.add(target);
+		path.push(target);
+		iterators.push(delegate.getOutgoingEdgesFor(target).iterator());
+		while (!iterators.isEmpty()) {
+			Iterator<E> it = iterators.peek();
+			if (!it.hasNext()) {
+				iterators.pop();
+				path.pop();
+				continue;
+			}
+			V w = it.next().getTargetVertex();
+			if (w.equals(source)) {
+				List<V> cycle = new ArrayList<>(path);
+				Collections.reverse(cycle);
+				cycle.add(0, source);
+				throw cycle(edge, cycle);
+			}
+			if (positions.get(w) < upper && visited.add(w)) {
+				path.push(w);
+				iterators.push(delegate.getOutgoingEdgesFor(w).iterator());
+			}
+		}
+		return new ArrayList<>(visited);
+	}
+
+	private List<V> backward(final V source, final int lower) {
+		Set<V> visited = new HashSet<>();
+		List<V> reached = new ArrayList<>();
+		Deque<V> stack = new ArrayDeque<>();
+		visited.add(source);
+		stack.push(source);
+		while (!stack.isEmpty()) {
+			V v = stack.pop();
+			reached.add(v);
+			for (E e : delegate.getIncomingEdgesFor(v)) {
+				V w = e.getSourceVertex();
+				if (positions.get(w) > lower && visited.add(w)) {
+					stack.push(w);
+				}
+			}
+		}
+		return reached;
+	}
+
+	private CyclicGraphException cycle(final E edge, final List<V> cycle) {
+		return new CyclicGraphException("Edge " + edge + " would close a cycle through " + cycle.size()
+				+ " vertices, including " + cycle.get(0) + ".", new LinkedHashSet<>(cycle));
+	}
+}
@@ -0,0 +1,345 @@
+package com.graphlib.graph.algorithms;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.graphlib.graph.core.Edge;
+import com.graphlib.graph.core.GraphListener;
+import com.graphlib.graph.core.ListenableGraph;
+import com.graphlib.graph.event.GraphEdgeChangeEvent;
+import com.graphlib.graph.event.GraphVertexChangeEvent;
+
+/**
+ * Weakly connected components of a {@link ListenableGraph}, kept up to date
+ * from its change events so that connectivity queries do not traverse the
+ * graph.
+ *
+ * <p>
+ * Added edges are merged into a union-find structure in O(&alpha;(n)). The
+ * edges that merged two components form a spanning forest; removing any other
+ * edge leaves the components unchanged. Removing a forest edge only marks its
+ * component stale, and a stale component is rebuilt from its own vertices and
+ * edges when a query next needs it. Bulk operations that bypass the events of
+ * the graph, such as {@code removeAllEdges()}, are not tracked.
+ *
+ * <p>
+ * The constructor registers the instance as a listener of the graph;
+ * {@link ListenableGraph#removeListener} detaches it.
+ */
+public class IncrementalConnectivity<V, E extends Edge<V, E>> implements GraphListener<V, E> {
+
+	private final ListenableGraph<V, E> graph;
+
+	private final Map<V, Integer> ids = new HashMap<>();
+
+	private Object[] vertices;
+
+	private int[] parents;
+
+	private int[] ranks;
+
+	/*
+	 * Members of each set form a ring through next, so that a set can be
+	 * enumerated from its root and two rings are spliced in O(1).
+	 */
+	private int[] next;
+
+	private boolean[] stale;
+
+	private int size;
+
+	/*
+	 * Ids of removed vertices, reused by added ones.
+	 */
+	private int[] free = new int[16];
+
+	private int freeCount;
+
+	private int staleCount;
+
+	private int componentCount;
+
+	private final Set<E> forestEdges = new HashSet<>();
+
+	public IncrementalConnectivity(final ListenableGraph<V, E> graph) {
+		if (graph == null) {
+			throw new IllegalArgumentException("Graph cannot be null.");
+		}
+		this.graph = graph;
+		int capacity = Math.max(16, graph.getAllVertices().size());
+		vertices = new Object[capacity];
+		parents = new int[capacity];
+		ranks = new int[capacity];
+		next = new int[capacity];
+		stale = new boolean[capacity];
+		for (V v : graph.getAllVertices()) {
+			id(v);
+		}
+		for (E e : graph.getAllEdges()) {
+			merge(e);
+		}
+		graph.addListener(this);
+	}
+
+	/**
+	 * Returns whether the graph is weakly connected. A graph without vertices
+	 * is connected.
+	 */
+	public boolean isConnected() {
+		return getComponentCount() <= 1;
+	}
+
+	public int getComponentCount() {
+		if (staleCount > 0) {
+			for (int v = 0; v < size; v++) {
+				if (stale[v] && parents[v] == v) {
+					rebuild(v);
+				}
+			}
+		}
+		return componentCount;
+	}
+
+	/**
+	 * Returns whether the given vertices are in the same component.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If either vertex is not in the graph
+	 */
+	public boolean sameComponent(final V u, final V v) {
+		return root(existingId(u)) == root(existingId(v));
+	}
+
+	/**
+	 * Returns the vertices of the component of the given vertex.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If the vertex is not in the graph
+	 */
+	public Set<V> getComponent(final V vertex) {
+		return members(root(existingId(vertex)));
+	}
+
+	public Set<Set<V>> getComponents() {
+		getComponentCount();
+		Set<Set<V>> components = new HashSet<>();
+		for (int v = 0; v < size; v++) {
+			if (vertices[v] != null && parents[v] == v) {
+				components.add(members(v));
+			}
+		}
+		return components;
+	}
+
+	@Override
+	public void vertexAdded(final GraphVertexChangeEvent<V, E> e) {
+		id(e.getVertex());
+	}
+
+	@Override
+	public void vertexRemoved(final GraphVertexChangeEvent<V, E> e) {
+		Integer id = ids.remove(e.getVertex());
+		if (id == null) {
+			return;
+		}
+		/*
+		 * The edges of the vertex are removed first, so it is either alone in
+		 * its set, or in a stale set whose rebuild releases it.
+		 */
+		vertices[id] = null;
+		if (next[id] == id) {
+			if (stale[id]) {
+				stale[id] = false;
+				staleCount--;
+			}
+			componentCount--;
+			release(id);
+		} else {
+			markStale(find(id));
+		}
+	}
+
+	@Override
+	public void edgeAdded(final GraphEdgeChangeEvent<V, E> e) {
+		merge(e.getEdge());
+	}
+
+	@Override
+	public void edgeRemoved(final GraphEdgeChangeEvent<V, E> e) {
+		if (forestEdges.remove(e.getEdge())) {
+			Integer source = ids.get(e.getEdgeSource());
+			if (source != null) {
+				markStale(find(source));
+			}
+		}
+	}
+
+	private void merge(final E e) {
+		if (union(id(e.getSourceVertex()), id(e.getTargetVertex()))) {
+			forestEdges.add(e);
+		}
+	}
+
+	private int existingId(final V vertex) {
+		Integer id = ids.get(vertex);
+		if (id == null) {
+			throw new IllegalArgumentException("No such vertex : " + vertex);
+		}
+		return id;
+	}
+
+	private int id(final V vertex) {
+		Integer id = ids.get(vertex);
+		if (id != null) {
+			return id;
+		}
+		int v;
+		if (freeCount > 0) {
+			v = free[--freeCount];
+		} else {
+			if (size == parents.length) {
+				grow();
+			}
+			v = size++;
+		}
+		vertices[v] = vertex;
+		parents[v] = v;
+		ranks[v] = 0;
+		next[v] = v;
+		stale[v] = false;
+		ids.put(vertex, v);
+		componentCount++;
+		return v;
+	}
+
+	private void grow() {
+		int capacity = parents.length + (parents.length >> 1);
+		vertices = Arrays.copyOf(vertices, capacity);
+		parents = Arrays.copyOf(parents, capacity);
+		ranks = Arrays.copyOf(ranks, capacity);
+		next = Arrays.copyOf(next, capacity);
+		stale = Arrays.copyOf(stale, capacity);
+	}
+
+	private void release(final int v) {
+		if (freeCount == free.length) {
+			free = Arrays.copyOf(free, freeCount * 2);
+		}
+		free[freeCount++] = v;
+	}
+
+	private void markStale(final int root) {
+		if (!stale[root]) {
+			stale[root] = true;
+			staleCount++;
+		}
+	}
+
+	/*
+	 * Root of the set of v, with the set rebuilt first if it is stale.
+	 */
+	private int root(final int v) {
+		int root = find(v);
+		if (stale[root]) {
+			rebuild(root);
+			root = find(v);
+		}
+		return root;
+	}
+
+	private int find(int v) {
+		while (parents[v] != v) {
+			parents[v] = parents[parents[v]];
+			v = parents[v];
+		}
+		return v;
+	}
+
+	private boolean union(final int a, final int b) {
+		int x = find(a);
+		int y = find(b);
+		if (x == y) {
+			return false;
+		}
+		if (ranks[x] > ranks[y]) {
+			int t = x;
+			x = y;
+			y = t;
+		} else if (ranks[x] == ranks[y]) {
+			ranks[y]++;
+		}
+		parents[x] = y;
+		int t = next[x];
+		next[x] = next[y];
+		next[y] = t;
+		if (stale[x]) {
+			stale[x] = false;
+			if (stale[y]) {
+				staleCount--;
+			} else {
+				stale[y] = true;
+			}
+		}
+		componentCount--;
+		return true;
+	}
+
+	/*
+	 * Splits the set of the given root into singletons and merges them again
+	 * along the current edges of its vertices, which all stay inside the set.
+	 */
+	private void rebuild(final int root) {
+		stale[root] = false;
+		staleCount--;
+		componentCount--;
+
+		int count = 0;
+		int[] members = new int[16];
+		int v = root;
+		do {
+			if (count == members.length) {
+				members = Arrays.copyOf(members, count * 2);
+			}
+			members[count++] = v;
+			v = next[v];
+		} while (v != root);
+
+		int alive = 0;
+		for (int i = 0; i < count; i++) {
+			int m = members[i];
+			parents[m] = m;
+			ranks[m] = 0;
+			next[m] = m;
+			if (vertices[m] == null) {
+				release(m);
+			} else {
+				members[alive++] = m;
+				componentCount++;
+			}
+		}
+		for (int i = 0; i < alive; i++) {
+			@SuppressWarnings("unchecked")
+			V vertex = (V) vertices[members[i]];
+			for (E e : graph.getOutgoingEdgesFor(vertex)) {
+				forestEdges.remove(e);
+				merge(e);
+			}
+		}
+	}
+
+	private Set<V> members(final int root) {
+		Set<V> members = new LinkedHashSet<>();
+		int v = root;
+		do {
+			@SuppressWarnings("unchecked")
+			V vertex = (V) vertices[v];
+			members.add(vertex);
+			v = next[v];
+		} while (v != root);
+		return members;
+	}
+}
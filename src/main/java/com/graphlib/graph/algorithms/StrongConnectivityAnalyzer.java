@@ -0,0 +1,399 @@
+package com.graphlib.graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.graphlib.graph.core.Edge;
+import com.graphlib.graph.core.Graph;
+import com.graphlib.graph.core.IntAdjacencyGraph;
+import com.graphlib.graph.core.IntEdge;
+import com.graphlib.graph.core.IntGraphs;
+
+/**
+ * Finds the strongly connected components of a graph: the maximal sets of
+ * vertices that can all reach each other. Every cycle lies inside one
+ * component, and the graph of components, the condensation, is acyclic.
+ *
+ * <p>
+ * {@link #analyze()} runs Tarjan's algorithm with an explicit stack in O(V +
+ * E). {@link #analyze(ForkJoinPool)} first trims the vertices without
+ * predecessors or successors, then splits the rest by forward-backward
+ * reachability from a pivot, solving the three remaining parts in parallel
+ * and small parts with Tarjan's algorithm. Both number the components the
+ * same way.
+ */
+public final class StrongConnectivityAnalyzer<V, E extends Edge<V, E>> {
+
+	/*
+	 * Part size below which a part is solved sequentially.
+	 */
+	private static final int THRESHOLD = 4096;
+
+	private final Graph<V, E> graph;
+
+	public StrongConnectivityAnalyzer(final Graph<V, E> g) {
+		if (g == null) {
+			throw new IllegalArgumentException("Graph cannot be null.");
+		}
+		this.graph = g;
+	}
+
+	/**
+	 * Labels the strongly connected components of the graph.
+	 *
+	 * @return Component of every vertex
+	 */
+	public ConnectedComponents<V> analyze() {
+		DenseAdjacency<V> adjacency = DenseAdjacency.of(graph);
+		int n = adjacency.vertexCount;
+		Search search = new Search(adjacency.offsets, adjacency.targets, null, null, new int[n], new int[n],
+				new int[n], new int[n], new AtomicInteger());
+		int[] members = new int[n];
+		for (int v = 0; v < n; v++) {
+			members[v] = v;
+		}
+		search.tarjan(members, 0);
+		return ConnectedComponents.of(adjacency, search.componentOf);
+	}
+
+	/**
+	 * Labels the strongly connected components of the graph, solving
+	 * independent parts in parallel on the given pool.
+	 *
+	 * @param pool
+	 * @return Component of every vertex
+	 */
+	public ConnectedComponents<V> analyze(final ForkJoinPool pool) {
+		if (pool == null) {
+			throw new IllegalArgumentException("Pool cannot be null.");
+		}
+		DenseAdjacency<V> adjacency = DenseAdjacency.of(graph);
+		int n = adjacency.vertexCount;
+		Search search = new Search(adjacency.offsets, adjacency.targets, adjacency.inOffsets(), adjacency.sources(),
+				new int[n], new int[n], new int[n], new int[n], new AtomicInteger());
+		int[] members = search.trim();
+		pool.invoke(new PartTask(search, members, search.labels.getAndIncrement()));
+		return ConnectedComponents.of(adjacency, search.componentOf);
+	}
+
+	/**
+	 * Returns the condensation of the graph: a vertex for every component,
+	 * numbered as in the given components, and an edge between two components
+	 * weighted by the number of edges between their vertices. The condensation
+	 * is acyclic.
+	 *
+	 * @param components
+	 *            Strongly connected components of the graph
+	 * @return Condensation graph
+	 */
+	public Graph<Integer, IntEdge> condense(final ConnectedComponents<V> components) {
+		if (components == null) {
+			throw new IllegalArgumentException("Components cannot be null.");
+		}
+		DenseAdjacency<V> adjacency = components.adjacency;
+		int[] componentIds = components.componentIds;
+		int count = components.componentCount;
+
+		// Vertices grouped by component, so each component's edges are merged in one pass.
+		int[] starts = new int[count + 1];
+		for (int c : componentIds) {
+			starts[c + 1]++;
+		}
+		for (int c = 0; c < count; c++) {
+			starts[c + 1] += starts[c];
+		}
+		int[] next = Arrays.copyOf(starts, count);
+		int[] grouped = new int[componentIds.length];
+		for (int v = 0; v < componentIds.length; v++) {
+			grouped[next[componentIds[v]]++] = v;
+		}
+
+		IntAdjacencyGraph condensation = new IntAdjacencyGraph(count, count);
+		condensation.addVertices(count);
+		int[] seen = new int[count];
+		Arrays.fill(seen, -1);
+		int[] weights = new int[count];
+		int[] successors = new int[count];
+		for (int c = 0; c < count; c++) {
+			int successorCount = 0;
+			for (int j = starts[c]; j < starts[c + 1]; j++) {
+				int v = grouped[j];
+				for (int i = adjacency.offsets[v]; i < adjacency.offsets[v + 1]; i++) {
+					int d = componentIds[adjacency.targets[i]];
+					if (d == c) {
+						continue;
+					}
+					if (seen[d] != c) {
+						seen[d] = c;
+						weights[d] = 0;
+						successors[successorCount++] = d;
+					}
+					weights[d]++;
+				}
+			}
+			for (int k = 0; k < successorCount; k++) {
+				condensation.addEdge(c, successors[k], weights[successors[k]]);
+			}
+		}
+		return IntGraphs.asGraph(condensation);
+	}
+
+	/**
+	 * Arrays shared by the parts of one analysis. Parts are disjoint and only
+	 * write the entries of their own vertices; a vertex belongs to the part
+	 * whose label it holds, or to no part once its component is known.
+	 */
+	private static final class Search {
+
+		private static final int DONE = -1;
+
+		final int[] offsets;
+
+		final int[] targets;
+
+		final int[] inOffsets;
+
+		final int[] sources;
+
+		final int[] part;
+
+		final int[] componentOf;
+
+		final int[] index;
+
+		final int[] low;
+
+		final AtomicInteger components;
+
+		final AtomicInteger labels = new AtomicInteger();
+
+		Search(int[] offsets, int[] targets, int[] inOffsets, int[] sources, int[] part, int[] componentOf,
+				int[] index, int[] low, AtomicInteger components) {
+			this.offsets = offsets;
+			this.targets = targets;
+			this.inOffsets = inOffsets;
+			this.sources = sources;
+			this.part = part;
+			this.componentOf = componentOf;
+			this.index = index;
+			this.low = low;
+			this.components = components;
+		}
+
+		/*
+		 * Removes the vertices that have no predecessor or no successor left,
+		 * which are components of their own, and returns the rest.
+		 */
+		int[] trim() {
+			int n = part.length;
+			int[] inDegrees = new int[n];
+			int[] outDegrees = new int[n];
+			int[] queue = new int[n];
+			int tail = 0;
+			for (int v = 0; v < n; v++) {
+				inDegrees[v] = inOffsets[v + 1] - inOffsets[v];
+				outDegrees[v] = offsets[v + 1] - offsets[v];
+				if (inDegrees[v] == 0 || outDegrees[v] == 0) {
+					part[v] = DONE;
+					queue[tail++] = v;
+				}
+			}
+			for (int head = 0; head < tail; head++) {
+				int v = queue[head];
+				componentOf[v] = components.getAndIncrement();
+				for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+					int w = targets[i];
+					if (part[w] != DONE && --inDegrees[w] == 0) {
+						part[w] = DONE;
+						queue[tail++] = w;
+					}
+				}
+				for (int i = inOffsets[v]; i < inOffsets[v + 1]; i++) {
+					int w = sources[i];
+					if (part[w] != DONE && --outDegrees[w] == 0) {
+						part[w] = DONE;
+						queue[tail++] = w;
+					}
+				}
+			}
+			int[] rest = new int[n - tail];
+			int k = 0;
+			for (int v = 0; v < n; v++) {
+				if (part[v] != DONE) {
+					rest[k++] = v;
+				}
+			}
+			return rest;
+		}
+
+		/*
+		 * Tarjan's algorithm over the vertices of one part, with the DFS call
+		 * stack in arrays. A visited vertex of the part that is not DONE yet is
+		 * on the component stack.
+		 */
+		void tarjan(final int[] members, final int label) {
+			int k = members.length;
+			int[] stack = new int[k];
+			int top = 0;
+			int[] calls = new int[k];
+			int[] cursors = new int[k];
+			int depth = 0;
+			int counter = 0;
+			for (int root : members) {
+				if (part[root] != label || index[root] != 0) {
+					continue;
+				}
+				index[root] = low[root] = ++counter;
+				stack[top++] = root;
+				calls[depth] = root;
+				cursors[depth++] = offsets[root];
+				while (depth > 0) {
+					int v = calls[depth - 1];
+					if (cursors[depth - 1] < offsets[v + 1]) {
+						int w = targets[cursors[depth - 1]++];
+						if (part[w] != label) {
+							continue;
+						}
+						if (index[w] == 0) {
+							index[w] = low[w] = ++counter;
+							stack[top++] = w;
+							calls[depth] = w;
+							cursors[depth++] = offsets[w];
+						} else if (index[w] < low[v]) {
+							low[v] = index[w];
+						}
+						continue;
+					}
+					depth--;
+					if (low[v] == index[v]) {
+						int component = components.getAndIncrement();
+						int w;
+						do {
+							w = stack[--top];
+							part[w] = DONE;
+							componentOf[w] = component;
+						} while (w != v);
+					}
+					if (depth > 0) {
+						int u = calls[depth - 1];
+						if (low[v] < low[u]) {
+							low[u] = low[v];
+						}
+					}
+				}
+			}
+		}
+
+		/*
+		 * Splits a part by what the pivot reaches and what reaches it. Their
+		 * intersection is the component of the pivot; the vertices reached
+		 * only forward, only backward, or not at all form three new parts, as
+		 * no component spans two of them.
+		 */
+		int[][] split(final int[] members, final int label) {
+			int pivot = members[0];
+			int forwardLabel = labels.getAndIncrement();
+			int backwardLabel = labels.getAndIncrement();
+			int[] queue = new int[members.length];
+
+			int tail = 0;
+			part[pivot] = forwardLabel;
+			queue[tail++] = pivot;
+			for (int head = 0; head < tail; head++) {
+				int v = queue[head];
+				for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+					int w = targets[i];
+					if (part[w] == label) {
+						part[w] = forwardLabel;
+						queue[tail++] = w;
+					}
+				}
+			}
+
+			int component = components.getAndIncrement();
+			tail = 0;
+			part[pivot] = DONE;
+			componentOf[pivot] = component;
+			queue[tail++] = pivot;
+			for (int head = 0; head < tail; head++) {
+				int v = queue[head];
+				for (int i = inOffsets[v]; i < inOffsets[v + 1]; i++) {
+					int w = sources[i];
+					if (part[w] == forwardLabel) {
+						part[w] = DONE;
+						componentOf[w] = component;
+						queue[tail++] = w;
+					} else if (part[w] == label) {
+						part[w] = backwardLabel;
+						queue[tail++] = w;
+					}
+				}
+			}
+
+			return new int[][] { select(members, forwardLabel), select(members, backwardLabel),
+					select(members, label) };
+		}
+
+		private int[] select(final int[] members, final int label) {
+			int count = 0;
+			for (int v : members) {
+				if (part[v] == label) {
+					count++;
+				}
+			}
+			int[] selected = new int[count];
+			count = 0;
+			for (int v : members) {
+				if (part[v] == label) {
+					selected[count++] = v;
+				}
+			}
+			return selected;
+		}
+	}
+
+	private static final class PartTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Search search;
+
+		private final int[] members;
+
+		private final int label;
+
+		PartTask(Search search, int[] members, int label) {
+			this.search = search;
+			this.members = members;
+			this.label = label;
+		}
+
+		@Override
+		protected void compute() {
+			int[] rest = members;
+			List<PartTask> forked = new ArrayList<>();
+			// The part that is not reached is split in this task, to bound recursion.
+			while (rest.length > THRESHOLD) {
+				int[][] parts = search.split(rest, label);
+				for (int i = 0; i < 2; i++) {
+					if (parts[i].length > 0) {
+						PartTask task = new PartTask(search, parts[i], search.part[parts[i][0]]);
+						task.fork();
+						forked.add(task);
+					}
+				}
+				rest = parts[2];
+			}
+			if (rest.length > 0) {
+				search.tarjan(rest, label);
+			}
+			for (PartTask task : forked) {
+				task.join();
+			}
+		}
+	}
+}
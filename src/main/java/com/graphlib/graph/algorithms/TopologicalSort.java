@@ -1,58 +1,195 @@
 package com.graphlib.graph.algorithms;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Stack;
+import java.util.Set;
 
 import com.graphlib.graph.core.Edge;
 import com.graphlib.graph.core.Graph;
 
+/**
+ * Topological sort by in-degree counting (Kahn's algorithm) over primitive
+ * arrays, in O(V + E) time. Vertices whose in-degree never drops to zero lie
+ * on or behind a cycle; the sort then fails with a
+ * {@link CyclicGraphException} that reports a strongly connected component
+ * with a cycle, found in the same linear bound.
+ *
+ * <p>
+ * Ready vertices are taken first in, first out by {@link #apply(Graph)}. The
+ * other variants use a priority queue: {@link #applyStable(Graph)} takes the
+ * ready vertex that comes first in the vertex set, and
+ * {@link #apply(Graph, Comparator)} the least ready vertex, which gives the
+ * lexicographically smallest order.
+ */
 public class TopologicalSort {
 
 	public static <V, E extends Edge<V, E>> List<V> apply(final Graph<V, E> graph) {
+		return sort(DenseAdjacency.of(graph), null, false);
+	}
 
-		if (graph.hasCycles())
-			throw new UnsupportedOperationException("Topological sort not supported on graphs with cycles");
-
-		List<V> sortedVertices = new ArrayList<V>();
+	/**
+	 * Returns the topological order that keeps unrelated vertices in the
+	 * iteration order of the vertex set.
+	 *
+	 * @param graph
+	 * @return Sorted vertices
+	 * @throws CyclicGraphException
+	 *             If the graph has a cycle
+	 */
+	public static <V, E extends Edge<V, E>> List<V> applyStable(final Graph<V, E> graph) {
+		return sort(DenseAdjacency.of(graph), null, true);
+	}
 
-		Stack<V> stack = new Stack<V>();
-		for (V v : graph.getAllVertices()) {
-			if (sortedVertices.contains(v))
-				continue;
+	/**
+	 * Returns the topological order that is least according to the given
+	 * comparator. Vertices that compare equal keep the iteration order of the
+	 * vertex set.
+	 *
+	 * @param graph
+	 * @param comparator
+	 * @return Sorted vertices
+	 * @throws CyclicGraphException
+	 *             If the graph has a cycle
+	 */
+	public static <V, E extends Edge<V, E>> List<V> apply(final Graph<V, E> graph,
+			final Comparator<? super V> comparator) {
+		if (comparator == null) {
+			throw new IllegalArgumentException("Comparator cannot be null.");
+		}
+		return sort(DenseAdjacency.of(graph), comparator, true);
+	}
 
-			stack.push(v);
+	private static <V> List<V> sort(final DenseAdjacency<V> graph, final Comparator<? super V> comparator,
+			final boolean prioritized) {
+		int n = graph.vertexCount;
+		int[] inDegrees = graph.inDegrees();
+		int[] order = new int[n];
+		int sorted = 0;
 
-			while (!stack.isEmpty()) {
-				V vertex = stack.peek();
-				if (sortedVertices.contains(vertex)) {
-					stack.pop();
-					continue;
+		if (!prioritized) {
+			// The order array doubles as the queue of ready vertices.
+			for (int v = 0; v < n; v++) {
+				if (inDegrees[v] == 0) {
+					order[sorted++] = v;
 				}
-
-				if (graph.getIncomingEdgesFor(vertex).isEmpty()) {
-					sortedVertices.add(vertex);
-					continue;
+			}
+			for (int head = 0; head < sorted; head++) {
+				int v = order[head];
+				for (int i = graph.offsets[v]; i < graph.offsets[v + 1]; i++) {
+					int w = graph.targets[i];
+					if (--inDegrees[w] == 0) {
+						order[sorted++] = w;
+					}
+				}
+			}
+		} else {
+			IntHeap<V> ready = new IntHeap<>(graph, comparator);
+			for (int v = 0; v < n; v++) {
+				if (inDegrees[v] == 0) {
+					ready.add(v);
 				}
+			}
+			while (!ready.isEmpty()) {
+				int v = ready.poll();
+				order[sorted++] = v;
+				for (int i = graph.offsets[v]; i < graph.offsets[v + 1]; i++) {
+					int w = graph.targets[i];
+					if (--inDegrees[w] == 0) {
+						ready.add(w);
+					}
+				}
+			}
+		}
 
-				boolean flag = true;
+		if (sorted < n) {
+			throw cycle(graph, inDegrees);
+		}
+		List<V> result = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			result.add(graph.vertex(order[i]));
+		}
+		return result;
+	}
 
-				for (E e : graph.getIncomingEdgesFor(vertex)) {
-					if (sortedVertices.contains(e.getSourceVertex()))
-						continue;
-					else {
-						stack.push(e.getSourceVertex());
-						flag = false;
-					}
+	/**
+	 * Returns the exception for a sort that left vertices with the given
+	 * remaining in-degrees unsorted.
+	 */
+	static <V> CyclicGraphException cycle(final DenseAdjacency<V> graph, final int[] inDegrees) {
+		Set<V> component = graph.cyclicComponent(inDegrees);
+		return new CyclicGraphException("Topological sort not supported on graphs with cycles: " + component.size()
+				+ " vertices form a cycle, including " + component.iterator().next() + ".", component);
+	}
+
+	/**
+	 * Binary min-heap of vertex ids, ordered by a comparator of the vertices
+	 * and then by id.
+	 */
+	private static final class IntHeap<V> {
+
+		private final DenseAdjacency<V> graph;
+
+		private final Comparator<? super V> comparator;
+
+		private int[] heap;
+
+		private int size;
+
+		IntHeap(DenseAdjacency<V> graph, Comparator<? super V> comparator) {
+			this.graph = graph;
+			this.comparator = comparator;
+			this.heap = new int[Math.max(16, graph.vertexCount)];
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		void add(final int v) {
+			int i = size++;
+			while (i > 0) {
+				int parent = (i - 1) >>> 1;
+				if (!less(v, heap[parent])) {
+					break;
+				}
+				heap[i] = heap[parent];
+				i = parent;
+			}
+			heap[i] = v;
+		}
+
+		int poll() {
+			int result = heap[0];
+			int last = heap[--size];
+			int i = 0;
+			while (true) {
+				int child = 2 * i + 1;
+				if (child >= size) {
+					break;
 				}
+				if (child + 1 < size && less(heap[child + 1], heap[child])) {
+					child++;
+				}
+				if (!less(heap[child], last)) {
+					break;
+				}
+				heap[i] = heap[child];
+				i = child;
+			}
+			heap[i] = last;
+			return result;
+		}
 
-				if (flag) {
-					stack.pop();
-					sortedVertices.add(vertex);
+		private boolean less(final int a, final int b) {
+			if (comparator != null) {
+				int c = comparator.compare(graph.vertex(a), graph.vertex(b));
+				if (c != 0) {
+					return c < 0;
 				}
 			}
+			return a < b;
 		}
-		return sortedVertices;
 	}
 
 	private TopologicalSort() {
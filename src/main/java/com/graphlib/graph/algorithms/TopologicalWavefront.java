@@ -0,0 +1,370 @@
+package com.graphlib.graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.graphlib.graph.core.Edge;
+import com.graphlib.graph.core.Graph;
+
+/**
+ * Level-synchronous scheduling of a directed acyclic graph. The level of a
+ * vertex is the length of the longest path that reaches it, so the vertices of
+ * a level only depend on earlier levels and can run concurrently.
+ *
+ * <p>
+ * {@link #levels(Graph, ForkJoinPool)} computes the levels with atomic
+ * in-degree counters, expanding each frontier in parallel.
+ * {@link #execute(Graph, VertexAction, Executor)} drives a task graph without
+ * level barriers: the action of a vertex is submitted as soon as the actions
+ * of all its predecessors have finished. Graphs with a cycle are rejected
+ * with a {@link CyclicGraphException} before any action runs.
+ *
+ * @see TopologicalSort
+ */
+public final class TopologicalWavefront {
+
+	/*
+	 * Frontier size below which a frontier is expanded without forking.
+	 */
+	private static final int THRESHOLD = 1024;
+
+	/**
+	 * Work done for a vertex by {@link TopologicalWavefront#execute}.
+	 */
+	public interface VertexAction<V> {
+
+		public void execute(V vertex) throws Exception;
+	}
+
+	/**
+	 * Returns the levels of the given graph, each in the iteration order of
+	 * the vertex set.
+	 *
+	 * @param graph
+	 * @return Vertices by level
+	 * @throws CyclicGraphException
+	 *             If the graph has a cycle
+	 */
+	public static <V, E extends Edge<V, E>> List<List<V>> levels(final Graph<V, E> graph) {
+		DenseAdjacency<V> adjacency = DenseAdjacency.of(graph);
+		int n = adjacency.vertexCount;
+		int[] inDegrees = adjacency.inDegrees();
+
+		// Vertices in level order; level i is order[bounds[i], bounds[i+1]).
+		int[] order = new int[n];
+		List<Integer> bounds = new ArrayList<>();
+		int tail = 0;
+		for (int v = 0; v < n; v++) {
+			if (inDegrees[v] == 0) {
+				order[tail++] = v;
+			}
+		}
+		int start = 0;
+		while (start < tail) {
+			bounds.add(start);
+			int end = tail;
+			for (int j = start; j < end; j++) {
+				int v = order[j];
+				for (int i = adjacency.offsets[v]; i < adjacency.offsets[v + 1]; i++) {
+					int w = adjacency.targets[i];
+					if (--inDegrees[w] == 0) {
+						order[tail++] = w;
+					}
+				}
+			}
+			Arrays.sort(order, end, tail);
+			start = end;
+		}
+		if (tail < n) {
+			throw TopologicalSort.cycle(adjacency, inDegrees);
+		}
+		bounds.add(tail);
+		return toLevels(adjacency, order, bounds);
+	}
+
+	/**
+	 * Returns the levels of the given graph, expanding each frontier in
+	 * parallel on the given pool. Each level is in the iteration order of the
+	 * vertex set.
+	 *
+	 * @param graph
+	 * @param pool
+	 * @return Vertices by level
+	 * @throws CyclicGraphException
+	 *             If the graph has a cycle
+	 */
+	public static <V, E extends Edge<V, E>> List<List<V>> levels(final Graph<V, E> graph, final ForkJoinPool pool) {
+		if (pool == null) {
+			throw new IllegalArgumentException("Pool cannot be null.");
+		}
+		DenseAdjacency<V> adjacency = DenseAdjacency.of(graph);
+		int n = adjacency.vertexCount;
+		AtomicIntegerArray inDegrees = new AtomicIntegerArray(adjacency.inDegrees());
+
+		/*
+		 * Frontier tasks append the vertices of the next level after the
+		 * current one; every vertex is appended exactly once.
+		 */
+		int[] order = new int[n];
+		AtomicInteger tail = new AtomicInteger();
+		for (int v = 0; v < n; v++) {
+			if (inDegrees.get(v) == 0) {
+				order[tail.getAndIncrement()] = v;
+			}
+		}
+		List<Integer> bounds = new ArrayList<>();
+		int start = 0;
+		while (start < tail.get()) {
+			bounds.add(start);
+			int end = tail.get();
+			FrontierTask task = new FrontierTask(adjacency.offsets, adjacency.targets, inDegrees, order, tail, start,
+					end);
+			if (end - start <= THRESHOLD) {
+				task.compute();
+			} else {
+				pool.invoke(task);
+			}
+			Arrays.sort(order, end, tail.get());
+			start = end;
+		}
+		if (tail.get() < n) {
+			int[] remaining = new int[n];
+			for (int v = 0; v < n; v++) {
+				remaining[v] = inDegrees.get(v);
+			}
+			throw TopologicalSort.cycle(adjacency, remaining);
+		}
+		bounds.add(tail.get());
+		return toLevels(adjacency, order, bounds);
+	}
+
+	private static <V> List<List<V>> toLevels(final DenseAdjacency<V> adjacency, final int[] order,
+			final List<Integer> bounds) {
+		List<List<V>> levels = new ArrayList<>(bounds.size() - 1);
+		for (int l = 0; l + 1 < bounds.size(); l++) {
+			List<V> level = new ArrayList<>(bounds.get(l + 1) - bounds.get(l));
+			for (int i = bounds.get(l); i < bounds.get(l + 1); i++) {
+				level.add(adjacency.vertex(order[i]));
+			}
+			levels.add(level);
+		}
+		return levels;
+	}
+
+	private static final class FrontierTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int[] offsets;
+
+		private final int[] targets;
+
+		private final AtomicIntegerArray inDegrees;
+
+		private final int[] order;
+
+		private final AtomicInteger tail;
+
+		private final int from;
+
+		private final int to;
+
+		FrontierTask(int[] offsets, int[] targets, AtomicIntegerArray inDegrees, int[] order, AtomicInteger tail,
+				int from, int to) {
+			this.offsets = offsets;
+			this.targets = targets;
+			this.inDegrees = inDegrees;
+			this.order = order;
+			this.tail = tail;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > THRESHOLD) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new FrontierTask(offsets, targets, inDegrees, order, tail, from, middle),
+						new FrontierTask(offsets, targets, inDegrees, order, tail, middle, to));
+				return;
+			}
+			for (int j = from; j < to; j++) {
+				int v = order[j];
+				for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+					int w = targets[i];
+					if (inDegrees.decrementAndGet(w) == 0) {
+						order[tail.getAndIncrement()] = w;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs the given action for every vertex of the graph on the given
+	 * executor, starting the action of a vertex as soon as the actions of all
+	 * its predecessors have finished, and waits for them to finish. If an
+	 * action fails, no further actions are started and the first failure is
+	 * thrown once the running actions have finished.
+	 *
+	 * @param graph
+	 * @param action
+	 * @param executor
+	 *            Runs the actions, typically a {@link ForkJoinPool}
+	 * @throws CyclicGraphException
+	 *             If the graph has a cycle; no action is run
+	 * @throws ExecutionException
+	 *             If an action failed, with the failure as its cause
+	 * @throws InterruptedException
+	 *             If interrupted while waiting; no further actions are started
+	 */
+	public static <V, E extends Edge<V, E>> void execute(final Graph<V, E> graph,
+			final VertexAction<? super V> action, final Executor executor) throws ExecutionException,
+			InterruptedException {
+		if (action == null || executor == null) {
+			throw new IllegalArgumentException("Action and executor cannot be null.");
+		}
+		DenseAdjacency<V> adjacency = DenseAdjacency.of(graph);
+		int[] inDegrees = adjacency.inDegrees();
+		checkAcyclic(adjacency, inDegrees.clone());
+		new Execution<>(adjacency, inDegrees, action, executor).run();
+	}
+
+	private static void checkAcyclic(final DenseAdjacency<?> adjacency, final int[] inDegrees) {
+		int n = adjacency.vertexCount;
+		int[] queue = new int[n];
+		int tail = 0;
+		for (int v = 0; v < n; v++) {
+			if (inDegrees[v] == 0) {
+				queue[tail++] = v;
+			}
+		}
+		for (int head = 0; head < tail; head++) {
+			int v = queue[head];
+			for (int i = adjacency.offsets[v]; i < adjacency.offsets[v + 1]; i++) {
+				if (--inDegrees[adjacency.targets[i]] == 0) {
+					queue[tail++] = adjacency.targets[i];
+				}
+			}
+		}
+		if (tail < n) {
+			throw TopologicalSort.cycle(adjacency, inDegrees);
+		}
+	}
+
+	/**
+	 * State of one {@link TopologicalWavefront#execute} call.
+	 */
+	private static final class Execution<V> {
+
+		private final DenseAdjacency<V> adjacency;
+
+		private final AtomicIntegerArray pending;
+
+		private final VertexAction<? super V> action;
+
+		private final Executor executor;
+
+		/*
+		 * Submitted actions that have not finished, plus one held by the
+		 * submitting thread until all sources are submitted.
+		 */
+		private final AtomicInteger running = new AtomicInteger(1);
+
+		private final AtomicBoolean stopped = new AtomicBoolean();
+
+		private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		private final CountDownLatch done = new CountDownLatch(1);
+
+		Execution(DenseAdjacency<V> adjacency, int[] inDegrees, VertexAction<? super V> action, Executor executor) {
+			this.adjacency = adjacency;
+			this.pending = new AtomicIntegerArray(inDegrees);
+			this.action = action;
+			this.executor = executor;
+		}
+
+		void run() throws ExecutionException, InterruptedException {
+			// Sources are collected first, as running actions release others.
+			int[] sources = new int[adjacency.vertexCount];
+			int count = 0;
+			for (int v = 0; v < adjacency.vertexCount; v++) {
+				if (pending.get(v) == 0) {
+					sources[count++] = v;
+				}
+			}
+			for (int i = 0; i < count && !stopped.get(); i++) {
+				submit(sources[i]);
+			}
+			finish();
+			try {
+				done.await();
+			} catch (InterruptedException e) {
+				stopped.set(true);
+				throw e;
+			}
+			if (failure.get() != null) {
+				throw new ExecutionException("Action failed.", failure.get());
+			}
+		}
+
+		private void submit(final int v) {
+			running.incrementAndGet();
+			try {
+				executor.execute(new Runnable() {
+
+					@Override
+					public void run() {
+						runAction(v);
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				fail(e);
+				finish();
+			}
+		}
+
+		private void runAction(final int v) {
+			try {
+				if (!stopped.get()) {
+					action.execute(adjacency.vertex(v));
+					for (int i = adjacency.offsets[v]; i < adjacency.offsets[v + 1] && !stopped.get(); i++) {
+						int w = adjacency.targets[i];
+						if (pending.decrementAndGet(w) == 0) {
+							submit(w);
+						}
+					}
+				}
+			} catch (Throwable t) {
+				fail(t);
+			} finally {
+				finish();
+			}
+		}
+
+		private void fail(final Throwable t) {
+			failure.compareAndSet(null, t);
+			stopped.set(true);
+		}
+
+		private void finish() {
+			if (running.decrementAndGet() == 0) {
+				done.countDown();
+			}
+		}
+	}
+
+	private TopologicalWavefront() {
+	}
+}
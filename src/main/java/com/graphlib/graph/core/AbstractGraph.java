@@ -13,13 +13,109 @@ public abstract class AbstractGraph<V, E extends Edge<V, E>> implements Graph<V,
 
 	protected Set<E> edges;
 
+	/*
+	 * Number of structural modifications made to the graph. Iterators over
+	 * live views fail fast when it changes.
+	 */
+	protected int modCount;
+
+	protected boolean liveViews;
+
+	/*
+	 * Edges keyed on their vertex pair, or null when the graph is not pair
+	 * indexed.
+	 */
+	protected VertexPairIndex<V, E> pairIndex;
+
+	/**
+	 * Checks whether the graph returns live views instead of copies.
+	 * 
+	 * @return true if live views are returned, false otherwise
+	 * @see #setLiveViews(boolean)
+	 */
+	public boolean isLiveViews() {
+		return liveViews;
+	}
+
+	/**
+	 * Switches {@link #getAllVertices()} and {@link #getAllEdges()} between
+	 * returning copies of the backing sets and returning unmodifiable live
+	 * views of them. Graphs that index the edges of each vertex return live
+	 * views of their incoming and outgoing edges as well. A live view costs
+	 * O(1) to obtain and reflects later changes to the graph.
+	 * 
+	 * <p>
+	 * Iterators over live views are fail-fast: once the graph is structurally
+	 * modified, i.e. a vertex or an edge is added or removed, the next call on
+	 * an iterator obtained earlier throws a
+	 * {@link java.util.ConcurrentModificationException}. Code that modifies
+	 * the graph while iterating over a view must iterate over a copy instead.
+	 * 
+	 * @param liveViews
+	 *            true to return live views, false to return copies
+	 */
+	public void setLiveViews(final boolean liveViews) {
+		this.liveViews = liveViews;
+	}
+
+	/**
+	 * Checks whether the edges are indexed on their vertex pair.
+	 * 
+	 * @return true if the vertex pair index is kept, false otherwise
+	 * @see #setPairIndexed(boolean)
+	 */
+	public boolean isPairIndexed() {
+		return pairIndex != null;
+	}
+
+	/**
+	 * Turns the vertex pair index on or off. While it is on, the edges are
+	 * kept in buckets keyed on their (source, target) pair and
+	 * {@link #getEdges(Object, Object)} and
+	 * {@link #removeAllEdges(Object, Object)} cost O(multiplicity) instead of a
+	 * scan over all the edges. The index is worth its memory for multigraphs
+	 * queried by vertex pair.
+	 * 
+	 * @param pairIndexed
+	 *            true to build and maintain the index, false to drop it
+	 */
+	public void setPairIndexed(final boolean pairIndexed) {
+		if (!pairIndexed) {
+			pairIndex = null;
+		} else if (pairIndex == null) {
+			pairIndex = new VertexPairIndex<V, E>(edges);
+		}
+	}
+
+	/*
+	 * Keep the vertex pair index in sync. Subclasses that add or remove edges
+	 * without calling the methods of this class call these instead.
+	 */
+	protected void indexEdge(final E edge) {
+		if (pairIndex != null) {
+			pairIndex.add(edge);
+		}
+	}
+
+	protected void unindexEdge(final E edge) {
+		if (pairIndex != null) {
+			pairIndex.remove(edge);
+		}
+	}
+
 	public Set<V> getAllVertices() {
+		if (liveViews) {
+			return new LiveSetView<V>(this, vertices);
+		}
 		Set<V> vSet = new HashSet<V>();
 		vSet.addAll(vertices);
 		return vSet;
 	}
 
 	public Set<E> getAllEdges() {
+		if (liveViews) {
+			return new LiveSetView<E>(this, edges);
+		}
 		Set<E> edgeSet = new HashSet<E>();
 		edgeSet.addAll(edges);
 		return edgeSet;
@@ -36,11 +132,20 @@ public abstract class AbstractGraph<V, E extends Edge<V, E>> implements Graph<V,
 	}
 
 	public boolean addVertex(final V vertex) {
-		return vertices.add(vertex);
+		if (vertices.add(vertex)) {
+			modCount++;
+			return true;
+		}
+		return false;
 	}
 
 	public Set<E> getEdges(final V v1, final V v2) {
 		Set<E> result = new HashSet<E>();
+		if (pairIndex != null) {
+			pairIndex.collect(v1, v2, result);
+			pairIndex.collect(v2, v1, result);
+			return result;
+		}
 		for (E e : edges) {
 			if (e.getSourceVertex().equals(v1) && e.getTargetVertex().equals(v2)) {
 				result.add(e);
@@ -71,7 +176,11 @@ public abstract class AbstractGraph<V, E extends Edge<V, E>> implements Graph<V,
 		result |= addVertex(edge.getTargetVertex());
 
 		// add the edge into the graph
-		result |= edges.add(edge);
+		if (edges.add(edge)) {
+			indexEdge(edge);
+			modCount++;
+			result = true;
+		}
 
 		return result;
 	}
@@ -114,8 +223,19 @@ public abstract class AbstractGraph<V, E extends Edge<V, E>> implements Graph<V,
 		return incomingEdges;
 	}
 
+	/**
+	 * Counts the incoming edges in O(E). Graphs that index the edges of each
+	 * vertex, such as {@link IndexedGraph} and {@link Subgraph}, answer in
+	 * O(1).
+	 */
 	public int getInDegreeFor(final V vertex) {
-		return getIncomingEdgesFor(vertex).size();
+		int degree = 0;
+		for (E edge : edges) {
+			if (edge.getTargetVertex().equals(vertex)) {
+				degree++;
+			}
+		}
+		return degree;
 	}
 
 	public Set<E> getOutgoingEdgesFor(final V vertex) {
@@ -130,16 +250,36 @@ public abstract class AbstractGraph<V, E extends Edge<V, E>> implements Graph<V,
 		return outgoingEdges;
 	}
 
+	/**
+	 * Counts the outgoing edges in O(E). Graphs that index the edges of each
+	 * vertex, such as {@link IndexedGraph} and {@link Subgraph}, answer in
+	 * O(1).
+	 */
 	public int getOutDegreeFor(final V vertex) {
-		return getOutgoingEdgesFor(vertex).size();
+		int degree = 0;
+		for (E edge : edges) {
+			if (edge.getSourceVertex().equals(vertex)) {
+				degree++;
+			}
+		}
+		return degree;
 	}
 
 	public boolean removeEdge(final E edge) {
-		return edges.remove(edge);
+		if (edges.remove(edge)) {
+			unindexEdge(edge);
+			modCount++;
+			return true;
+		}
+		return false;
 	}
 
 	public void removeAllEdges() {
 		edges.clear();
+		if (pairIndex != null) {
+			pairIndex.clear();
+		}
+		modCount++;
 	}
 
 	public boolean removeAllEdges(final Set<E> edges) {
@@ -161,11 +301,11 @@ public abstract class AbstractGraph<V, E extends Edge<V, E>> implements Graph<V,
 	}
 
 	public boolean removeAllIncomingEdges(final V vertex) {
-		return removeAllEdges(getIncomingEdgesFor(vertex));
+		return removeAllEdges(new HashSet<E>(getIncomingEdgesFor(vertex)));
 	}
 
 	public boolean removeAllOutgoingEdges(final V vertex) {
-		return removeAllEdges(getOutgoingEdgesFor(vertex));
+		return removeAllEdges(new HashSet<E>(getOutgoingEdgesFor(vertex)));
 	}
 
 	public boolean removeVertex(final V vertex) {
@@ -175,7 +315,10 @@ public abstract class AbstractGraph<V, E extends Edge<V, E>> implements Graph<V,
 		result |= removeAllEdges(vertex);
 
 		// remove vertex
-		result |= vertices.remove(vertex);
+		if (vertices.remove(vertex)) {
+			modCount++;
+			result = true;
+		}
 
 		return result;
 	}
@@ -193,6 +336,7 @@ public abstract class AbstractGraph<V, E extends Edge<V, E>> implements Graph<V,
 	public void removeAllVertices() {
 		removeAllEdges();
 		vertices.clear();
+		modCount++;
 	}
 
 	public boolean allowsMultiplicity() {
@@ -205,15 +349,15 @@ public abstract class AbstractGraph<V, E extends Edge<V, E>> implements Graph<V,
 	}
 	
 	public boolean isConnected() {
-		if (this.getAllVertices().isEmpty()) {
+		if (vertices.isEmpty()) {
 			return true;
 		}
 
 		Set<V> visited = new HashSet<>();
 
-		findReachableVertices(visited, this.getAllVertices().iterator().next());
+		findReachableVertices(visited, vertices.iterator().next());
 
-		return !(visited.size() != this.getAllVertices().size());
+		return !(visited.size() != vertices.size());
 	}
 	
 	private void findReachableVertices(Set<V> visited, V v) {
@@ -0,0 +1,502 @@
+package com.graphlib.graph.core;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A read-only {@link IntGraph} with compressed adjacency, for sparse graphs
+ * too large to keep as int arrays. Successor and predecessor lists are sorted
+ * and stored as gaps between consecutive vertex ids in variable-length byte
+ * codes, which takes one or two bytes per edge on graphs with locality, e.g.
+ * after {@link VertexReordering}. A list may also be encoded relative to the
+ * list of one of the preceding vertices: a bit mask tells which entries of the
+ * reference list are copied and only the remaining entries are stored as gaps.
+ * Reference chains are bounded, so decoding a list touches a bounded number of
+ * other lists.
+ *
+ * <p>
+ * An offset index gives random access to the list of every vertex, and lists
+ * are decoded lazily as their cursors advance. Edge ids follow the order of the
+ * successor lists, so {@link #getOutgoingEdges(int)} and the degrees cost no
+ * decoding at all; {@link #getEdgeSource(int)} costs O(log n) and
+ * {@link #getEdgeTarget(int)} decodes the successor list of the source.
+ * Weights are kept only if some edge has a weight other than 1. The
+ * {@link Graph} read API is available through {@link IntGraphs#asGraph(IntGraph)},
+ * which builds edges from the edge ids and the successor or predecessor lists
+ * walked together and so never decodes a list per edge.
+ */
+public final class CompressedGraph implements IntGraph {
+
+	/**
+	 * Number of preceding vertices whose lists are considered as references.
+	 */
+	public static final int DEFAULT_WINDOW = 7;
+
+	/**
+	 * Longest chain of lists encoded relative to each other.
+	 */
+	public static final int DEFAULT_MAX_REFERENCE_CHAIN = 3;
+
+	private final int vertexCount;
+
+	private final int edgeCount;
+
+	/*
+	 * Outgoing edges of vertex v are the edge ids in the range [outOffsets[v],
+	 * outOffsets[v + 1]); inOffsets delimits the incoming edges the same way.
+	 */
+	private final int[] outOffsets;
+
+	private final int[] inOffsets;
+
+	private final EncodedLists successors;
+
+	private final EncodedLists predecessors;
+
+	/*
+	 * Ids of the incoming edges of every vertex, ascending and gap encoded.
+	 */
+	private final EncodedLists inEdges;
+
+	private final int[] edgeWeights;
+
+	public CompressedGraph(final IntGraph graph) {
+		this(graph, DEFAULT_WINDOW, DEFAULT_MAX_REFERENCE_CHAIN);
+	}
+
+	/**
+	 * Compresses the given graph. A larger window and longer reference chains
+	 * give better compression at the cost of slower compression and decoding.
+	 *
+	 * @param graph
+	 * @param window
+	 *            Number of preceding lists considered as references, 0 to
+	 *            disable reference compression
+	 * @param maxReferenceChain
+	 *            Longest chain of lists encoded relative to each other
+	 */
+	public CompressedGraph(final IntGraph graph, final int window, final int maxReferenceChain) {
+		if (graph == null) {
+			throw new IllegalArgumentException("Graph cannot be null.");
+		}
+		if (window < 0 || maxReferenceChain < 0) {
+			throw new IllegalArgumentException("Window and reference chain cannot be negative.");
+		}
+		int n = graph.getVertexCount();
+		int m = graph.getEdgeCount();
+		this.vertexCount = n;
+		this.edgeCount = m;
+		this.outOffsets = new int[n + 1];
+		this.inOffsets = new int[n + 1];
+
+		/*
+		 * Renumber the edges in the order of their source, then target. The
+		 * successor lists are sorted along the way.
+		 */
+		int[] ids = new int[m];
+		int[] weights = new int[m];
+		boolean weighted = false;
+		int[][] successorLists = new int[n][];
+		int id = 0;
+		for (int v = 0; v < n; v++) {
+			outOffsets[v] = id;
+			long[] pairs = new long[graph.getOutDegree(v)];
+			IntCursor out = graph.getOutgoingEdges(v);
+			for (int i = 0; out.hasNext(); i++) {
+				int e = out.next();
+				pairs[i] = ((long) graph.getEdgeTarget(e) << 32) | e;
+			}
+			Arrays.sort(pairs);
+			int[] list = new int[pairs.length];
+			for (int i = 0; i < pairs.length; i++) {
+				int e = (int) pairs[i];
+				list[i] = (int) (pairs[i] >>> 32);
+				ids[e] = id;
+				weights[id] = graph.getEdgeWeight(e);
+				weighted |= weights[id] != 1;
+				id++;
+			}
+			successorLists[v] = list;
+		}
+		outOffsets[n] = id;
+		this.edgeWeights = weighted ? weights : null;
+
+		/*
+		 * Incoming edge ids in ascending order are also ordered by source.
+		 */
+		int[][] predecessorLists = new int[n][];
+		int[][] inEdgeLists = new int[n][];
+		for (int v = 0; v < n; v++) {
+			inOffsets[v + 1] = inOffsets[v] + graph.getInDegree(v);
+			int[] in = new int[graph.getInDegree(v)];
+			IntCursor cursor = graph.getIncomingEdges(v);
+			for (int i = 0; cursor.hasNext(); i++) {
+				in[i] = ids[cursor.next()];
+			}
+			Arrays.sort(in);
+			int[] sources = new int[in.length];
+			for (int i = 0; i < in.length; i++) {
+				sources[i] = getEdgeSource(in[i]);
+			}
+			inEdgeLists[v] = in;
+			predecessorLists[v] = sources;
+		}
+
+		this.successors = EncodedLists.encode(successorLists, outOffsets, window, maxReferenceChain);
+		this.predecessors = EncodedLists.encode(predecessorLists, inOffsets, window, maxReferenceChain);
+		this.inEdges = EncodedLists.encode(inEdgeLists, inOffsets, 0, 0);
+	}
+
+	/**
+	 * Returns the number of bytes taken by the encoded successor and
+	 * predecessor lists and incoming edge ids.
+	 *
+	 * @return Size of the encoded adjacency
+	 */
+	public long getEncodedSize() {
+		return (long) successors.size + predecessors.size + inEdges.size;
+	}
+
+	@Override
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	@Override
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	@Override
+	public int getEdgeSource(final int edge) {
+		if (edge < 0 || edge >= edgeCount) {
+			throw new IllegalArgumentException("No edge with id " + edge + ".");
+		}
+		// Last vertex whose outgoing edges start at or before the edge.
+		int low = 0;
+		int high = vertexCount - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (outOffsets[mid] <= edge) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	@Override
+	public int getEdgeTarget(final int edge) {
+		int source = getEdgeSource(edge);
+		IntCursor cursor = getSuccessors(source);
+		for (int i = outOffsets[source]; i < edge; i++) {
+			cursor.next();
+		}
+		return cursor.next();
+	}
+
+	@Override
+	public int getEdgeWeight(final int edge) {
+		if (edge < 0 || edge >= edgeCount) {
+			throw new IllegalArgumentException("No edge with id " + edge + ".");
+		}
+		return edgeWeights == null ? 1 : edgeWeights[edge];
+	}
+
+	@Override
+	public int getOutDegree(final int vertex) {
+		return outOffsets[vertex + 1] - outOffsets[vertex];
+	}
+
+	@Override
+	public int getInDegree(final int vertex) {
+		return inOffsets[vertex + 1] - inOffsets[vertex];
+	}
+
+	@Override
+	public int[] getOutDegrees() {
+		return degrees(outOffsets);
+	}
+
+	@Override
+	public int[] getInDegrees() {
+		return degrees(inOffsets);
+	}
+
+	private static int[] degrees(final int[] offsets) {
+		int[] result = new int[offsets.length - 1];
+		for (int v = 0; v < result.length; v++) {
+			result[v] = offsets[v + 1] - offsets[v];
+		}
+		return result;
+	}
+
+	@Override
+	public IntCursor getOutgoingEdges(final int vertex) {
+		return new IntArrayCursor(null, outOffsets[vertex], outOffsets[vertex + 1], null);
+	}
+
+	@Override
+	public IntCursor getIncomingEdges(final int vertex) {
+		return new ListCursor(inEdges, inOffsets, vertex);
+	}
+
+	@Override
+	public IntCursor getSuccessors(final int vertex) {
+		return new ListCursor(successors, outOffsets, vertex);
+	}
+
+	@Override
+	public IntCursor getPredecessors(final int vertex) {
+		return new ListCursor(predecessors, inOffsets, vertex);
+	}
+
+	/**
+	 * Sorted int lists, one per vertex, encoded back to back in a byte array.
+	 *
+	 * <pre>
+	 * list of vertex v, empty lists take no bytes:
+	 *   varint    reference    r &gt; 0 if encoded relative to the list of v - r
+	 *   bytes     copy mask    with a reference, one bit per entry of its list
+	 *   varint    first        first remaining entry, zig-zag encoded relative to v
+	 *   varint... gaps         gaps between the remaining entries
+	 * </pre>
+	 */
+	private static final class EncodedLists {
+
+		final byte[] data;
+
+		final int[] positions;
+
+		final int size;
+
+		private EncodedLists(byte[] data, int[] positions, int size) {
+			this.data = data;
+			this.positions = positions;
+			this.size = size;
+		}
+
+		static EncodedLists encode(final int[][] lists, final int[] offsets, final int window,
+				final int maxReferenceChain) {
+			int n = lists.length;
+			int[] positions = new int[n + 1];
+			int[] chain = new int[n];
+			ByteSink sink = new ByteSink(Math.max(16, offsets[n] * 2));
+			ByteSink best = new ByteSink(64);
+			ByteSink candidate = new ByteSink(64);
+			for (int v = 0; v < n; v++) {
+				positions[v] = sink.size;
+				int[] list = lists[v];
+				if (list.length == 0) {
+					continue;
+				}
+				best.size = 0;
+				encode(v, list, 0, null, best);
+				int bestReference = 0;
+				for (int r = 1; r <= window && r <= v; r++) {
+					int[] reference = lists[v - r];
+					if (reference.length == 0 || chain[v - r] >= maxReferenceChain) {
+						continue;
+					}
+					candidate.size = 0;
+					encode(v, list, r, reference, candidate);
+					if (candidate.size < best.size) {
+						ByteSink t = best;
+						best = candidate;
+						candidate = t;
+						bestReference = r;
+					}
+				}
+				chain[v] = bestReference == 0 ? 0 : chain[v - bestReference] + 1;
+				sink.write(best);
+			}
+			positions[n] = sink.size;
+			return new EncodedLists(Arrays.copyOf(sink.buffer, sink.size), positions, sink.size);
+		}
+
+		private static void encode(final int v, final int[] list, final int r, final int[] reference,
+				final ByteSink out) {
+			out.writeVarint(r);
+			int[] residuals = list;
+			int count = list.length;
+			if (reference != null) {
+				/*
+				 * Merge the two sorted lists, marking the entries of the
+				 * reference that are copied and collecting the others.
+				 */
+				byte[] mask = new byte[(reference.length + 7) >>> 3];
+				residuals = new int[list.length];
+				count = 0;
+				int i = 0;
+				int j = 0;
+				while (j < list.length) {
+					if (i < reference.length && reference[i] == list[j]) {
+						mask[i >>> 3] |= 1 << (i & 7);
+						i++;
+						j++;
+					} else if (i < reference.length && reference[i] < list[j]) {
+						i++;
+					} else {
+						residuals[count++] = list[j++];
+					}
+				}
+				out.write(mask, mask.length);
+			}
+			int previous = v;
+			for (int k = 0; k < count; k++) {
+				int gap = residuals[k] - previous;
+				out.writeVarint(k == 0 ? (gap << 1) ^ (gap >> 31) : gap);
+				previous = residuals[k];
+			}
+		}
+	}
+
+	/**
+	 * Lazily decodes the list of a vertex, merging the entries copied from
+	 * its reference list with the remaining entries.
+	 */
+	private static final class ListCursor implements IntCursor {
+
+		private final byte[] data;
+
+		private int position;
+
+		private int remaining;
+
+		private int residuals;
+
+		private int nextResidual;
+
+		private boolean hasResidual;
+
+		private ListCursor reference;
+
+		private int referenceIndex;
+
+		private int maskPosition;
+
+		private int nextCopied;
+
+		private boolean hasCopied;
+
+		ListCursor(final EncodedLists lists, final int[] offsets, final int vertex) {
+			this.data = lists.data;
+			this.remaining = offsets[vertex + 1] - offsets[vertex];
+			this.residuals = remaining;
+			if (remaining == 0) {
+				return;
+			}
+			this.position = lists.positions[vertex];
+			int r = readVarint();
+			if (r > 0) {
+				this.reference = new ListCursor(lists, offsets, vertex - r);
+				this.maskPosition = position;
+				position += (reference.remaining + 7) >>> 3;
+				for (int i = maskPosition; i < position; i++) {
+					residuals -= Integer.bitCount(data[i] & 0xff);
+				}
+				advanceCopied();
+			}
+			if (residuals > 0) {
+				int gap = readVarint();
+				residuals--;
+				nextResidual = vertex + ((gap >>> 1) ^ -(gap & 1));
+				hasResidual = true;
+			}
+		}
+
+		private int readVarint() {
+			int value = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = data[position++];
+				value |= (b & 0x7f) << shift;
+				shift += 7;
+			} while (b < 0);
+			return value;
+		}
+
+		private void advanceResidual() {
+			hasResidual = residuals > 0;
+			if (hasResidual) {
+				nextResidual += readVarint();
+				residuals--;
+			}
+		}
+
+		private void advanceCopied() {
+			hasCopied = false;
+			while (reference.hasNext()) {
+				int value = reference.next();
+				int i = referenceIndex++;
+				if ((data[maskPosition + (i >>> 3)] & (1 << (i & 7))) != 0) {
+					nextCopied = value;
+					hasCopied = true;
+					return;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0;
+		}
+
+		@Override
+		public int next() {
+			if (remaining == 0) {
+				throw new NoSuchElementException();
+			}
+			remaining--;
+			if (hasResidual && (!hasCopied || nextResidual <= nextCopied)) {
+				int value = nextResidual;
+				advanceResidual();
+				return value;
+			}
+			int value = nextCopied;
+			advanceCopied();
+			return value;
+		}
+	}
+
+	/**
+	 * Growable byte buffer with variable-length int encoding.
+	 */
+	private static final class ByteSink {
+
+		byte[] buffer;
+
+		int size;
+
+		ByteSink(int capacity) {
+			this.buffer = new byte[capacity];
+		}
+
+		private void ensure(final int extra) {
+			if (size + extra > buffer.length) {
+				buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+			}
+		}
+
+		void writeVarint(int value) {
+			ensure(5);
+			while ((value & ~0x7f) != 0) {
+				buffer[size++] = (byte) ((value & 0x7f) | 0x80);
+				value >>>= 7;
+			}
+			buffer[size++] = (byte) value;
+		}
+
+		void write(final byte[] bytes, final int length) {
+			ensure(length);
+			System.arraycopy(bytes, 0, buffer, size, length);
+			size += length;
+		}
+
+		void write(final ByteSink other) {
+			write(other.buffer, other.size);
+		}
+	}
+}
@@ -0,0 +1,312 @@
+package com.graphlib.graph.core;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe {@link Graph} for graphs that are mutated by many threads
+ * while other threads traverse them.
+ *
+ * <p>
+ * Adjacency is kept in concurrent per-vertex edge sets. Mutations lock only
+ * the stripes of the vertices they touch, so edges between disjoint vertices
+ * are added and removed in parallel. Queries never lock: the sets returned by
+ * the query methods are unmodifiable, weakly consistent views that never throw
+ * {@link java.util.ConcurrentModificationException} and may or may not reflect
+ * changes made after they were obtained. Bulk operations such as
+ * {@link #removeAllEdges()} are not atomic.
+ *
+ * @param <V>
+ *            Vertex type
+ * @param <E>
+ *            Edge type
+ */
+public class ConcurrentGraph<V, E extends Edge<V, E>> extends AbstractGraph<V, E> {
+
+	public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+	private final ConcurrentMap<V, Adjacency<E>> adjacency;
+
+	private final ReentrantLock[] locks;
+
+	public ConcurrentGraph() {
+		this(null);
+	}
+
+	public ConcurrentGraph(final EdgeFactory<V, E> edgeFactory) {
+		this(edgeFactory, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	/**
+	 * Creates a graph whose mutations are striped over locks for the given
+	 * number of concurrently writing threads.
+	 *
+	 * @param edgeFactory
+	 * @param concurrencyLevel
+	 *            Estimated number of concurrently writing threads
+	 */
+	public ConcurrentGraph(final EdgeFactory<V, E> edgeFactory, final int concurrencyLevel) {
+		super();
+		if (concurrencyLevel <= 0) {
+			throw new IllegalArgumentException("Concurrency level must be positive.");
+		}
+		int stripes = 1;
+		while (stripes < concurrencyLevel && stripes < (1 << 16)) {
+			stripes <<= 1;
+		}
+		this.locks = new ReentrantLock[stripes];
+		for (int i = 0; i < stripes; i++) {
+			locks[i] = new ReentrantLock();
+		}
+		this.adjacency = new ConcurrentHashMap<>(DEFAULT_CONCURRENCY_LEVEL, 0.75f, stripes);
+		this.vertices = adjacency.keySet();
+		this.edges = Collections.newSetFromMap(new ConcurrentHashMap<E, Boolean>(DEFAULT_CONCURRENCY_LEVEL, 0.75f,
+				stripes));
+		this.edgeFactory = edgeFactory;
+	}
+
+	private int stripe(final V vertex) {
+		int h = vertex.hashCode();
+		h ^= (h >>> 16);
+		return h & (locks.length - 1);
+	}
+
+	/*
+	 * Locks the stripes of both endpoints in stripe order, so that threads
+	 * locking the same pair of stripes cannot deadlock.
+	 */
+	private void lock(final int s1, final int s2) {
+		locks[Math.min(s1, s2)].lock();
+		if (s1 != s2) {
+			locks[Math.max(s1, s2)].lock();
+		}
+	}
+
+	private void unlock(final int s1, final int s2) {
+		if (s1 != s2) {
+			locks[Math.max(s1, s2)].unlock();
+		}
+		locks[Math.min(s1, s2)].unlock();
+	}
+
+	@Override
+	public boolean addVertex(final V vertex) {
+		if (adjacency.containsKey(vertex)) {
+			return false;
+		}
+		return adjacency.putIfAbsent(vertex, new Adjacency<E>()) == null;
+	}
+
+	@Override
+	public boolean addEdge(final E edge) {
+		V source = edge.getSourceVertex();
+		V target = edge.getTargetVertex();
+		int s1 = stripe(source);
+		int s2 = stripe(target);
+		lock(s1, s2);
+		try {
+			boolean result = false;
+
+			/*
+			 * Add vertices if not present. A vertex that is removed
+			 * concurrently is added back, since its removal cannot complete
+			 * while its stripe is locked here.
+			 */
+			result |= addVertex(source);
+			result |= addVertex(target);
+
+			if (edges.add(edge)) {
+				adjacency.get(source).outgoing.add(edge);
+				adjacency.get(target).incoming.add(edge);
+				result = true;
+			}
+			return result;
+		} finally {
+			unlock(s1, s2);
+		}
+	}
+
+	@Override
+	public boolean removeEdge(final E edge) {
+		V source = edge.getSourceVertex();
+		V target = edge.getTargetVertex();
+		int s1 = stripe(source);
+		int s2 = stripe(target);
+		lock(s1, s2);
+		try {
+			if (!edges.remove(edge)) {
+				return false;
+			}
+			/*
+			 * The endpoints of an edge in the graph cannot be removed while
+			 * their stripes are locked, so their adjacency is present.
+			 */
+			adjacency.get(source).outgoing.remove(edge);
+			adjacency.get(target).incoming.remove(edge);
+			return true;
+		} finally {
+			unlock(s1, s2);
+		}
+	}
+
+	@Override
+	public void removeAllEdges() {
+		for (E e : edges) {
+			removeEdge(e);
+		}
+	}
+
+	@Override
+	public boolean removeVertex(final V vertex) {
+		Adjacency<E> adj = adjacency.get(vertex);
+		if (adj == null) {
+			return false;
+		}
+
+		int s = stripe(vertex);
+		while (true) {
+			for (E e : adj.incoming) {
+				removeEdge(e);
+			}
+			for (E e : adj.outgoing) {
+				removeEdge(e);
+			}
+
+			/*
+			 * Edges added concurrently, before the stripe is locked, are
+			 * removed in another round.
+			 */
+			locks[s].lock();
+			try {
+				if (adjacency.get(vertex) != adj) {
+					return false;
+				}
+				if (adj.incoming.isEmpty() && adj.outgoing.isEmpty()) {
+					adjacency.remove(vertex);
+					return true;
+				}
+			} finally {
+				locks[s].unlock();
+			}
+		}
+	}
+
+	@Override
+	public void removeAllVertices() {
+		for (V v : adjacency.keySet()) {
+			removeVertex(v);
+		}
+	}
+
+	@Override
+	public boolean contains(final E edge) {
+		return edges.contains(edge);
+	}
+
+	@Override
+	public boolean contains(final V vertex) {
+		return adjacency.containsKey(vertex);
+	}
+
+	@Override
+	public Set<V> getAllVertices() {
+		return Collections.unmodifiableSet(vertices);
+	}
+
+	@Override
+	public Set<E> getAllEdges() {
+		return Collections.unmodifiableSet(edges);
+	}
+
+	@Override
+	public Set<E> getAllEdges(final V vertex) {
+		Set<E> result = new HashSet<E>();
+		Adjacency<E> adj = adjacency.get(vertex);
+		if (adj != null) {
+			result.addAll(adj.incoming);
+			result.addAll(adj.outgoing);
+		}
+		return result;
+	}
+
+	@Override
+	public Set<E> getEdges(final V v1, final V v2) {
+		Set<E> result = new HashSet<E>();
+		Adjacency<E> adj1 = adjacency.get(v1);
+		Adjacency<E> adj2 = adjacency.get(v2);
+		if (adj1 == null || adj2 == null) {
+			return result;
+		}
+		for (E e : adj1.outgoing) {
+			if (e.getTargetVertex().equals(v2)) {
+				result.add(e);
+			}
+		}
+		for (E e : adj2.outgoing) {
+			if (e.getTargetVertex().equals(v1)) {
+				result.add(e);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Set<E> getIncomingEdgesFor(final V vertex) {
+		Adjacency<E> adj = adjacency.get(vertex);
+		return adj == null ? Collections.<E> emptySet() : Collections.unmodifiableSet(adj.incoming);
+	}
+
+	@Override
+	public int getInDegreeFor(final V vertex) {
+		Adjacency<E> adj = adjacency.get(vertex);
+		return adj == null ? 0 : adj.incoming.size();
+	}
+
+	@Override
+	public Set<E> getOutgoingEdgesFor(final V vertex) {
+		Adjacency<E> adj = adjacency.get(vertex);
+		return adj == null ? Collections.<E> emptySet() : Collections.unmodifiableSet(adj.outgoing);
+	}
+
+	@Override
+	public int getOutDegreeFor(final V vertex) {
+		Adjacency<E> adj = adjacency.get(vertex);
+		return adj == null ? 0 : adj.outgoing.size();
+	}
+
+	/**
+	 * Always true, the graph returns weakly consistent views.
+	 */
+	@Override
+	public boolean isLiveViews() {
+		return true;
+	}
+
+	@Override
+	public void setLiveViews(final boolean liveViews) {
+		if (!liveViews) {
+			throw new UnsupportedOperationException("Concurrent graph always returns live views.");
+		}
+	}
+
+	/**
+	 * Not supported, the vertex pair index is not thread-safe.
+	 */
+	@Override
+	public void setPairIndexed(final boolean pairIndexed) {
+		if (pairIndexed) {
+			throw new UnsupportedOperationException("Concurrent graph does not support a vertex pair index.");
+		}
+	}
+
+	private static final class Adjacency<E> {
+
+		final Set<E> incoming = Collections.newSetFromMap(new ConcurrentHashMap<E, Boolean>(4, 0.75f, 1));
+
+		final Set<E> outgoing = Collections.newSetFromMap(new ConcurrentHashMap<E, Boolean>(4, 0.75f, 1));
+	}
+}
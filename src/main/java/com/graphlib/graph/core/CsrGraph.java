@@ -0,0 +1,547 @@
+package com.graphlib.graph.core;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of a {@link Graph} in compressed sparse row form.
+ * Vertices are interned to dense ids in the range [0, vertexCount) and edges
+ * to dense ids in the range [0, edgeCount), with edges of the same source
+ * vertex occupying consecutive ids. Outgoing and incoming adjacency is kept in
+ * primitive offset and target arrays.
+ *
+ * <p>
+ * The snapshot implements the read API of {@link Graph}, so the algorithms in
+ * this library run on it unchanged. The sets it returns are unmodifiable views
+ * over the snapshot and all mutators throw
+ * {@link UnsupportedOperationException}. The snapshot also implements
+ * {@link IntGraph} over the dense ids, with edge weights taken from
+ * {@link WeightedEdge#getEdgeWeight()}, and exposes indexed accessors for
+ * allocation-free traversal:
+ *
+ * <pre>
+ * for (int i = 0; i &lt; csr.getOutDegree(v); i++) {
+ * 	int w = csr.getOutNeighbor(v, i);
+ * 	...
+ * }
+ * </pre>
+ *
+ * @param <V>
+ *            Vertex type
+ * @param <E>
+ *            Edge type
+ */
+public class CsrGraph<V, E extends Edge<V, E>> extends AbstractGraph<V, E> implements IntGraph {
+
+	private final Object[] vertexTable;
+
+	private final Map<V, Integer> vertexIds;
+
+	/*
+	 * Edges ordered by source vertex. The position of an edge in this table is
+	 * its id.
+	 */
+	private final Object[] edgeTable;
+
+	private final int[] edgeSources;
+
+	private final int[] edgeTargets;
+
+	private final int[] edgeWeights;
+
+	/*
+	 * Outgoing edges of vertex v are the edge ids in the range [outOffsets[v],
+	 * outOffsets[v + 1]).
+	 */
+	private final int[] outOffsets;
+
+	/*
+	 * Incoming edges of vertex v are inEdges[inOffsets[v]] to
+	 * inEdges[inOffsets[v + 1] - 1], with their source vertices at the same
+	 * positions in inSources.
+	 */
+	private final int[] inOffsets;
+
+	private final int[] inEdges;
+
+	private final int[] inSources;
+
+	public CsrGraph(final Graph<V, E> graph) {
+		this(graph, null);
+	}
+
+	/*
+	 * Creates the snapshot with the vertices numbered in the given order, or
+	 * in the iteration order of the vertex set if the order is null.
+	 */
+	@SuppressWarnings("unchecked")
+	private CsrGraph(final Graph<V, E> graph, final Object[] vertexOrder) {
+		super();
+		if (graph == null) {
+			throw new IllegalArgumentException("Graph cannot be null.");
+		}
+
+		this.vertexTable = vertexOrder != null ? vertexOrder : graph.getAllVertices().toArray();
+		int vertexCount = vertexTable.length;
+		this.vertexIds = new HashMap<>(Math.max(16, (int) (vertexCount / 0.75f) + 1));
+		for (int id = 0; id < vertexCount; id++) {
+			vertexIds.put((V) vertexTable[id], id);
+		}
+
+		Set<E> sourceEdges = graph.getAllEdges();
+		int edgeCount = sourceEdges.size();
+		Object[] unordered = sourceEdges.toArray();
+		int[] sources = new int[edgeCount];
+		int[] targets = new int[edgeCount];
+		this.outOffsets = new int[vertexCount + 1];
+		this.inOffsets = new int[vertexCount + 1];
+		for (int i = 0; i < edgeCount; i++) {
+			@SuppressWarnings("unchecked")
+			E e = (E) unordered[i];
+			sources[i] = idOf(e.getSourceVertex());
+			targets[i] = idOf(e.getTargetVertex());
+			outOffsets[sources[i] + 1]++;
+			inOffsets[targets[i] + 1]++;
+		}
+		for (int v = 0; v < vertexCount; v++) {
+			outOffsets[v + 1] += outOffsets[v];
+			inOffsets[v + 1] += inOffsets[v];
+		}
+
+		/*
+		 * Counting sort of the edges on their target vertex, then a stable one
+		 * on their source vertex, so that the outgoing edges of a vertex are
+		 * ordered by target. The edge ids are the positions in the sorted
+		 * order.
+		 */
+		int[] byTarget = new int[edgeCount];
+		int[] next = new int[vertexCount];
+		System.arraycopy(inOffsets, 0, next, 0, vertexCount);
+		for (int i = 0; i < edgeCount; i++) {
+			byTarget[next[targets[i]]++] = i;
+		}
+		this.edgeTable = new Object[edgeCount];
+		this.edgeSources = new int[edgeCount];
+		this.edgeTargets = new int[edgeCount];
+		this.edgeWeights = new int[edgeCount];
+		System.arraycopy(outOffsets, 0, next, 0, vertexCount);
+		for (int i : byTarget) {
+			int pos = next[sources[i]]++;
+			edgeTable[pos] = unordered[i];
+			edgeSources[pos] = sources[i];
+			edgeTargets[pos] = targets[i];
+			edgeWeights[pos] = unordered[i] instanceof WeightedEdge ? ((WeightedEdge<?, ?>) unordered[i])
+					.getEdgeWeight() : 1;
+		}
+
+		this.inEdges = new int[edgeCount];
+		this.inSources = new int[edgeCount];
+		System.arraycopy(inOffsets, 0, next, 0, vertexCount);
+		for (int e = 0; e < edgeCount; e++) {
+			int pos = next[edgeTargets[e]]++;
+			inEdges[pos] = e;
+			inSources[pos] = edgeSources[e];
+		}
+
+		this.vertices = Collections.unmodifiableSet(vertexIds.keySet());
+		this.edges = new EdgeRange(0, edgeCount, null);
+		this.edgeFactory = graph.getEdgeFactory();
+	}
+
+	/**
+	 * Returns a copy of this snapshot with the vertex ids permuted. Vertex
+	 * {@code v} of this snapshot has id {@code permutation[v]} in the copy.
+	 * Renumbering vertices so that neighbors get nearby ids improves the
+	 * memory locality of traversals on large graphs.
+	 *
+	 * @param permutation
+	 *            New id of every vertex
+	 * @return Permuted snapshot
+	 * @see VertexReordering
+	 */
+	public CsrGraph<V, E> permute(final int[] permutation) {
+		int vertexCount = vertexTable.length;
+		if (permutation == null || permutation.length != vertexCount) {
+			throw new IllegalArgumentException("Permutation must have an entry for every vertex.");
+		}
+		Object[] order = new Object[vertexCount];
+		for (int v = 0; v < vertexCount; v++) {
+			int id = permutation[v];
+			if (id < 0 || id >= vertexCount || order[id] != null) {
+				throw new IllegalArgumentException("Not a permutation of the vertex ids.");
+			}
+			order[id] = vertexTable[v];
+		}
+		return new CsrGraph<V, E>(this, order);
+	}
+
+	private int idOf(final V vertex) {
+		Integer id = vertexIds.get(vertex);
+		if (id == null) {
+			throw new IllegalArgumentException("Edge endpoint " + vertex + " is not a vertex of the graph.");
+		}
+		return id;
+	}
+
+	@Override
+	public int getVertexCount() {
+		return vertexTable.length;
+	}
+
+	@Override
+	public int getEdgeCount() {
+		return edgeTable.length;
+	}
+
+	/**
+	 * Returns the dense id of the given vertex.
+	 *
+	 * @param vertex
+	 * @return Id of the vertex, or -1 if the vertex is not in the snapshot
+	 */
+	public int getVertexId(final V vertex) {
+		Integer id = vertexIds.get(vertex);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Returns the vertex with the given dense id.
+	 *
+	 * @param id
+	 * @return Vertex
+	 */
+	@SuppressWarnings("unchecked")
+	public V getVertex(final int id) {
+		return (V) vertexTable[id];
+	}
+
+	/**
+	 * Returns the edge with the given dense id.
+	 *
+	 * @param id
+	 * @return Edge
+	 */
+	@SuppressWarnings("unchecked")
+	public E getEdge(final int id) {
+		return (E) edgeTable[id];
+	}
+
+	@Override
+	public int getEdgeSource(final int edge) {
+		return edgeSources[edge];
+	}
+
+	@Override
+	public int getEdgeTarget(final int edge) {
+		return edgeTargets[edge];
+	}
+
+	@Override
+	public int getEdgeWeight(final int edge) {
+		return edgeWeights[edge];
+	}
+
+	@Override
+	public int getOutDegree(final int vertex) {
+		return outOffsets[vertex + 1] - outOffsets[vertex];
+	}
+
+	@Override
+	public int getInDegree(final int vertex) {
+		return inOffsets[vertex + 1] - inOffsets[vertex];
+	}
+
+	@Override
+	public int[] getOutDegrees() {
+		return degrees(outOffsets);
+	}
+
+	@Override
+	public int[] getInDegrees() {
+		return degrees(inOffsets);
+	}
+
+	private static int[] degrees(final int[] offsets) {
+		int[] result = new int[offsets.length - 1];
+		for (int v = 0; v < result.length; v++) {
+			result[v] = offsets[v + 1] - offsets[v];
+		}
+		return result;
+	}
+
+	@Override
+	public IntCursor getOutgoingEdges(final int vertex) {
+		return new IntArrayCursor(null, outOffsets[vertex], outOffsets[vertex + 1], null);
+	}
+
+	@Override
+	public IntCursor getIncomingEdges(final int vertex) {
+		return new IntArrayCursor(inEdges, inOffsets[vertex], inOffsets[vertex + 1], null);
+	}
+
+	@Override
+	public IntCursor getSuccessors(final int vertex) {
+		return new IntArrayCursor(edgeTargets, outOffsets[vertex], outOffsets[vertex + 1], null);
+	}
+
+	@Override
+	public IntCursor getPredecessors(final int vertex) {
+		return new IntArrayCursor(inSources, inOffsets[vertex], inOffsets[vertex + 1], null);
+	}
+
+	/**
+	 * Returns the id of the i-th outgoing edge of the given vertex.
+	 *
+	 * @param vertex
+	 *            Vertex id
+	 * @param i
+	 *            Index in the range [0, getOutDegree(vertex))
+	 * @return Edge id
+	 */
+	public int getOutEdge(final int vertex, final int i) {
+		return outOffsets[vertex] + i;
+	}
+
+	/**
+	 * Returns the target of the i-th outgoing edge of the given vertex.
+	 *
+	 * @param vertex
+	 *            Vertex id
+	 * @param i
+	 *            Index in the range [0, getOutDegree(vertex))
+	 * @return Vertex id
+	 */
+	public int getOutNeighbor(final int vertex, final int i) {
+		return edgeTargets[outOffsets[vertex] + i];
+	}
+
+	/**
+	 * Returns the id of the i-th incoming edge of the given vertex.
+	 *
+	 * @param vertex
+	 *            Vertex id
+	 * @param i
+	 *            Index in the range [0, getInDegree(vertex))
+	 * @return Edge id
+	 */
+	public int getInEdge(final int vertex, final int i) {
+		return inEdges[inOffsets[vertex] + i];
+	}
+
+	/**
+	 * Returns the source of the i-th incoming edge of the given vertex.
+	 *
+	 * @param vertex
+	 *            Vertex id
+	 * @param i
+	 *            Index in the range [0, getInDegree(vertex))
+	 * @return Vertex id
+	 */
+	public int getInNeighbor(final int vertex, final int i) {
+		return inSources[inOffsets[vertex] + i];
+	}
+
+	@Override
+	public Set<V> getAllVertices() {
+		return vertices;
+	}
+
+	@Override
+	public Set<E> getAllEdges() {
+		return edges;
+	}
+
+	@Override
+	public Set<E> getAllEdges(final V vertex) {
+		Set<E> result = new HashSet<E>();
+		int v = getVertexId(vertex);
+		if (v >= 0) {
+			result.addAll(getIncomingEdgesFor(vertex));
+			result.addAll(getOutgoingEdgesFor(vertex));
+		}
+		return result;
+	}
+
+	@Override
+	public Set<E> getEdges(final V v1, final V v2) {
+		if (pairIndex != null) {
+			return super.getEdges(v1, v2);
+		}
+		Set<E> result = new HashSet<E>();
+		int s = getVertexId(v1);
+		int t = getVertexId(v2);
+		if (s < 0 || t < 0) {
+			return result;
+		}
+		for (int e = outOffsets[s]; e < outOffsets[s + 1]; e++) {
+			if (edgeTargets[e] == t) {
+				result.add(getEdge(e));
+			}
+		}
+		for (int e = outOffsets[t]; e < outOffsets[t + 1]; e++) {
+			if (edgeTargets[e] == s) {
+				result.add(getEdge(e));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public boolean contains(final E edge) {
+		int s = getVertexId(edge.getSourceVertex());
+		if (s < 0) {
+			return false;
+		}
+		for (int e = outOffsets[s]; e < outOffsets[s + 1]; e++) {
+			if (edgeTable[e].equals(edge)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean contains(final V vertex) {
+		return vertexIds.containsKey(vertex);
+	}
+
+	@Override
+	public Set<E> getIncomingEdgesFor(final V vertex) {
+		int v = getVertexId(vertex);
+		if (v < 0) {
+			return Collections.emptySet();
+		}
+		return new EdgeRange(inOffsets[v], inOffsets[v + 1], inEdges);
+	}
+
+	@Override
+	public int getInDegreeFor(final V vertex) {
+		int v = getVertexId(vertex);
+		return v < 0 ? 0 : getInDegree(v);
+	}
+
+	@Override
+	public Set<E> getOutgoingEdgesFor(final V vertex) {
+		int v = getVertexId(vertex);
+		if (v < 0) {
+			return Collections.emptySet();
+		}
+		return new EdgeRange(outOffsets[v], outOffsets[v + 1], null);
+	}
+
+	@Override
+	public int getOutDegreeFor(final V vertex) {
+		int v = getVertexId(vertex);
+		return v < 0 ? 0 : getOutDegree(v);
+	}
+
+	@Override
+	public boolean addVertex(final V vertex) {
+		throw new UnsupportedOperationException("CSR graph is immutable.");
+	}
+
+	@Override
+	public boolean addEdge(final E edge) {
+		throw new UnsupportedOperationException("CSR graph is immutable.");
+	}
+
+	@Override
+	public boolean removeEdge(final E edge) {
+		throw new UnsupportedOperationException("CSR graph is immutable.");
+	}
+
+	@Override
+	public void removeAllEdges() {
+		throw new UnsupportedOperationException("CSR graph is immutable.");
+	}
+
+	@Override
+	public boolean removeVertex(final V vertex) {
+		throw new UnsupportedOperationException("CSR graph is immutable.");
+	}
+
+	@Override
+	public void removeAllVertices() {
+		throw new UnsupportedOperationException("CSR graph is immutable.");
+	}
+
+	@Override
+	public void setEdgeFactory(final EdgeFactory<V, E> edgeFactory) {
+		throw new UnsupportedOperationException("CSR graph is immutable.");
+	}
+
+	/**
+	 * Unmodifiable view over a range of edge ids, either directly or through
+	 * an index array.
+	 */
+	private final class EdgeRange extends AbstractSet<E> {
+
+		private final int from;
+
+		private final int to;
+
+		private final int[] index;
+
+		EdgeRange(final int from, final int to, final int[] index) {
+			this.from = from;
+			this.to = to;
+			this.index = index;
+		}
+
+		@Override
+		public int size() {
+			return to - from;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean contains(final Object o) {
+			if (!(o instanceof Edge)) {
+				return false;
+			}
+			if (from == 0 && to == edgeTable.length && index == null) {
+				return CsrGraph.this.contains((E) o);
+			}
+			for (int i = from; i < to; i++) {
+				if (edgeTable[index == null ? i : index[i]].equals(o)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public Iterator<E> iterator() {
+			return new Iterator<E>() {
+
+				private int position = from;
+
+				@Override
+				public boolean hasNext() {
+					return position < to;
+				}
+
+				@Override
+				public E next() {
+					if (position >= to) {
+						throw new NoSuchElementException();
+					}
+					int e = index == null ? position : index[position];
+					position++;
+					return getEdge(e);
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException("CSR graph is immutable.");
+				}
+			};
+		}
+	}
+}
@@ -141,7 +141,7 @@ public class DefaultListenableGraph<V, E extends Edge<V, E>> extends GraphDelega
 				targetVertex);
 
 		for (GraphListener<V, E> l : listeners) {
-			l.edgeRemoved(e);
+			l.edgeAdded(e);
 		}
 	}
 
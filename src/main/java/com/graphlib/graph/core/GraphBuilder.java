@@ -0,0 +1,353 @@
+package com.graphlib.graph.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Bulk loader for large graphs. Vertices and edges are collected into
+ * presized buffers and the graph is built once by {@link #build()}: the edges
+ * are grouped by endpoint with a counting sort and the adjacency sets of every
+ * vertex are allocated at their final size, so no set is rehashed during the
+ * load.
+ *
+ * <pre>
+ * IndexedGraph&lt;City, Flight&gt; graph = new GraphBuilder&lt;City, Flight&gt;(factory)
+ * 		.expectedVertices(cities).expectedEdges(flights)
+ * 		.addEdges(flightIterator).parallel(true).build();
+ * </pre>
+ *
+ * Duplicate vertices and edges are dropped, as they are by
+ * {@link Graph#addEdge(Edge)}. A builder can be reused after a build; later
+ * builds include everything added so far.
+ *
+ * @param <V>
+ *            Vertex type
+ * @param <E>
+ *            Edge type
+ */
+public class GraphBuilder<V, E extends Edge<V, E>> {
+
+	/*
+	 * Vertex ranges below this size are filled in a single task.
+	 */
+	private static final int PARALLEL_THRESHOLD = 4096;
+
+	private final EdgeFactory<V, E> edgeFactory;
+
+	private int expectedVertices;
+
+	private int expectedEdges;
+
+	private boolean parallel;
+
+	private ForkJoinPool pool;
+
+	private final List<V> vertexBuffer = new ArrayList<>();
+
+	private final ArrayList<E> edgeBuffer = new ArrayList<>();
+
+	public GraphBuilder() {
+		this(null);
+	}
+
+	public GraphBuilder(final EdgeFactory<V, E> edgeFactory) {
+		this.edgeFactory = edgeFactory;
+	}
+
+	/**
+	 * Sets the expected number of vertices, used to presize the graph.
+	 *
+	 * @param count
+	 * @return This builder
+	 */
+	public GraphBuilder<V, E> expectedVertices(final int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("Expected vertex count cannot be negative.");
+		}
+		this.expectedVertices = count;
+		return this;
+	}
+
+	/**
+	 * Sets the expected number of edges, used to presize the graph and the
+	 * edge buffer.
+	 *
+	 * @param count
+	 * @return This builder
+	 */
+	public GraphBuilder<V, E> expectedEdges(final int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("Expected edge count cannot be negative.");
+		}
+		this.expectedEdges = count;
+		edgeBuffer.ensureCapacity(count);
+		return this;
+	}
+
+	/**
+	 * Fills the adjacency sets of the vertices in parallel, on a fork/join
+	 * pool created for each build.
+	 *
+	 * @param parallel
+	 * @return This builder
+	 */
+	public GraphBuilder<V, E> parallel(final boolean parallel) {
+		this.parallel = parallel;
+		return this;
+	}
+
+	/**
+	 * Fills the adjacency sets of the vertices in parallel on the given pool.
+	 *
+	 * @param pool
+	 * @return This builder
+	 */
+	public GraphBuilder<V, E> parallel(final ForkJoinPool pool) {
+		if (pool == null) {
+			throw new IllegalArgumentException("Pool cannot be null.");
+		}
+		this.parallel = true;
+		this.pool = pool;
+		return this;
+	}
+
+	public GraphBuilder<V, E> addVertex(final V vertex) {
+		if (vertex == null) {
+			throw new IllegalArgumentException("Vertex cannot be null.");
+		}
+		vertexBuffer.add(vertex);
+		return this;
+	}
+
+	public GraphBuilder<V, E> addEdge(final E edge) {
+		if (edge == null) {
+			throw new IllegalArgumentException("Edge cannot be null.");
+		}
+		edgeBuffer.add(edge);
+		return this;
+	}
+
+	/**
+	 * Adds an edge between the two vertices created by the edge factory.
+	 *
+	 * @param source
+	 * @param target
+	 * @return This builder
+	 */
+	public GraphBuilder<V, E> addEdge(final V source, final V target) {
+		if (edgeFactory == null) {
+			throw new UnsupportedOperationException("No edge factory to create the edge with.");
+		}
+		return addEdge(edgeFactory.createEdge(source, target));
+	}
+
+	public GraphBuilder<V, E> addEdges(final E[] edges) {
+		return addEdges(Arrays.asList(edges).iterator());
+	}
+
+	public GraphBuilder<V, E> addEdges(final Iterable<? extends E> edges) {
+		return addEdges(edges.iterator());
+	}
+
+	/**
+	 * Adds the remaining edges of the iterator. Edges read from a stream or a
+	 * file can be loaded this way without being collected first.
+	 *
+	 * @param edges
+	 * @return This builder
+	 */
+	public GraphBuilder<V, E> addEdges(final Iterator<? extends E> edges) {
+		while (edges.hasNext()) {
+			addEdge(edges.next());
+		}
+		return this;
+	}
+
+	/**
+	 * Builds an {@link IndexedGraph} of the vertices and edges added so far.
+	 *
+	 * @return The graph
+	 */
+	@SuppressWarnings("unchecked")
+	public IndexedGraph<V, E> build() {
+		int edgeCapacity = Math.max(expectedEdges, edgeBuffer.size());
+		Set<E> edges = new HashSet<>(IndexedGraph.capacityFor(edgeCapacity));
+		for (E e : edgeBuffer) {
+			edges.add(e);
+		}
+
+		/*
+		 * Intern the vertices to dense ids, in insertion order.
+		 */
+		int vertexCapacity = Math.max(expectedVertices, vertexBuffer.size());
+		Map<V, Integer> ids = new HashMap<>(IndexedGraph.capacityFor(vertexCapacity));
+		List<V> order = new ArrayList<>(vertexCapacity);
+		for (V v : vertexBuffer) {
+			intern(v, ids, order);
+		}
+		int edgeCount = edges.size();
+		Object[] edgeTable = edges.toArray();
+		int[] sources = new int[edgeCount];
+		int[] targets = new int[edgeCount];
+		for (int i = 0; i < edgeCount; i++) {
+			E e = (E) edgeTable[i];
+			sources[i] = intern(e.getSourceVertex(), ids, order);
+			targets[i] = intern(e.getTargetVertex(), ids, order);
+		}
+
+		int vertexCount = order.size();
+		int[] outOffsets = offsets(sources, vertexCount);
+		int[] inOffsets = offsets(targets, vertexCount);
+		int[] outOrder = sort(sources, outOffsets);
+		int[] inOrder = sort(targets, inOffsets);
+
+		Set<V> vertices = new HashSet<>(IndexedGraph.capacityFor(vertexCount));
+		Map<V, Set<E>> incoming = new HashMap<>(IndexedGraph.capacityFor(vertexCount));
+		Map<V, Set<E>> outgoing = new HashMap<>(IndexedGraph.capacityFor(vertexCount));
+		Object[] inSets = new Object[vertexCount];
+		Object[] outSets = new Object[vertexCount];
+		for (int v = 0; v < vertexCount; v++) {
+			V vertex = order.get(v);
+			Set<E> in = new HashSet<>(IndexedGraph.capacityFor(inOffsets[v + 1] - inOffsets[v]));
+			Set<E> out = new HashSet<>(IndexedGraph.capacityFor(outOffsets[v + 1] - outOffsets[v]));
+			vertices.add(vertex);
+			incoming.put(vertex, in);
+			outgoing.put(vertex, out);
+			inSets[v] = in;
+			outSets[v] = out;
+		}
+
+		FillTask fill = new FillTask(edgeTable, inSets, inOffsets, inOrder, outSets, outOffsets, outOrder, 0,
+				vertexCount);
+		if (parallel && vertexCount > PARALLEL_THRESHOLD) {
+			if (pool != null) {
+				pool.invoke(fill);
+			} else {
+				ForkJoinPool buildPool = new ForkJoinPool();
+				try {
+					buildPool.invoke(fill);
+				} finally {
+					buildPool.shutdown();
+				}
+			}
+		} else {
+			fill.fillRange();
+		}
+
+		return new IndexedGraph<V, E>(edgeFactory, vertices, edges, incoming, outgoing);
+	}
+
+	private static <V> int intern(final V vertex, final Map<V, Integer> ids, final List<V> order) {
+		Integer id = ids.get(vertex);
+		if (id == null) {
+			id = order.size();
+			ids.put(vertex, id);
+			order.add(vertex);
+		}
+		return id;
+	}
+
+	/*
+	 * Offsets of the groups of a counting sort on the given keys.
+	 */
+	private static int[] offsets(final int[] keys, final int keyCount) {
+		int[] offsets = new int[keyCount + 1];
+		for (int k : keys) {
+			offsets[k + 1]++;
+		}
+		for (int k = 0; k < keyCount; k++) {
+			offsets[k + 1] += offsets[k];
+		}
+		return offsets;
+	}
+
+	/*
+	 * Counting sort of the positions 0..keys.length - 1 on their keys.
+	 */
+	private static int[] sort(final int[] keys, final int[] offsets) {
+		int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+		int[] sorted = new int[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			sorted[next[keys[i]]++] = i;
+		}
+		return sorted;
+	}
+
+	/**
+	 * Fills the adjacency sets of a range of vertices from the sorted edges.
+	 * Every set is written by exactly one task.
+	 */
+	private static final class FillTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Object[] edgeTable;
+
+		private final Object[] inSets;
+
+		private final int[] inOffsets;
+
+		private final int[] inOrder;
+
+		private final Object[] outSets;
+
+		private final int[] outOffsets;
+
+		private final int[] outOrder;
+
+		private final int from;
+
+		private final int to;
+
+		FillTask(Object[] edgeTable, Object[] inSets, int[] inOffsets, int[] inOrder, Object[] outSets,
+				int[] outOffsets, int[] outOrder, int from, int to) {
+			this.edgeTable = edgeTable;
+			this.inSets = inSets;
+			this.inOffsets = inOffsets;
+			this.inOrder = inOrder;
+			this.outSets = outSets;
+			this.outOffsets = outOffsets;
+			this.outOrder = outOrder;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > PARALLEL_THRESHOLD) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new FillTask(edgeTable, inSets, inOffsets, inOrder, outSets, outOffsets, outOrder, from,
+						mid), new FillTask(edgeTable, inSets, inOffsets, inOrder, outSets, outOffsets, outOrder,
+						mid, to));
+				return;
+			}
+			fillRange();
+		}
+
+		/*
+		 * Fills the whole range in the calling thread, without forking.
+		 */
+		void fillRange() {
+			for (int v = from; v < to; v++) {
+				fill(inSets[v], inOffsets, inOrder, v);
+				fill(outSets[v], outOffsets, outOrder, v);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private void fill(final Object set, final int[] offsets, final int[] order, final int v) {
+			Set<Object> adjacent = (Set<Object>) set;
+			for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+				adjacent.add(edgeTable[order[i]]);
+			}
+		}
+	}
+}
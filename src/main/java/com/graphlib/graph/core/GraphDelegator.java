@@ -85,11 +85,21 @@ public class GraphDelegator<V, E extends Edge<V, E>> extends AbstractGraph<V, E>
 		return delegate.getIncomingEdgesFor(vertex);
 	}
 
+	@Override
+	public int getInDegreeFor(final V vertex) {
+		return delegate.getInDegreeFor(vertex);
+	}
+
 	@Override
 	public Set<E> getOutgoingEdgesFor(final V vertex) {
 		return delegate.getOutgoingEdgesFor(vertex);
 	}
 
+	@Override
+	public int getOutDegreeFor(final V vertex) {
+		return delegate.getOutDegreeFor(vertex);
+	}
+
 	@Override
 	public boolean removeEdge(final E edge) {
 		return delegate.removeEdge(edge);
@@ -0,0 +1,239 @@
+package com.graphlib.graph.core;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link Graph} that keeps the incoming and outgoing edges of every vertex
+ * alongside the vertex and edge sets. Neighborhood queries cost O(degree)
+ * instead of a scan over all the edges in the graph.
+ *
+ * <p>
+ * Subclasses of {@link AbstractGraph} can opt in by extending this class
+ * instead and leaving the initialization of the vertex and edge sets to its
+ * constructor.
+ *
+ * @param <V>
+ *            Vertex type
+ * @param <E>
+ *            Edge type
+ */
+public class IndexedGraph<V, E extends Edge<V, E>> extends AbstractGraph<V, E> {
+
+	/*
+	 * Incoming and outgoing edges of each vertex, keyed on the vertex. Every
+	 * vertex in the graph has an entry in both maps.
+	 */
+	protected Map<V, Set<E>> incomingEdges;
+
+	protected Map<V, Set<E>> outgoingEdges;
+
+	public IndexedGraph() {
+		this(null);
+	}
+
+	public IndexedGraph(final EdgeFactory<V, E> edgeFactory) {
+		super();
+		this.vertices = new HashSet<>();
+		this.edges = new HashSet<>();
+		this.incomingEdges = new HashMap<>();
+		this.outgoingEdges = new HashMap<>();
+		this.edgeFactory = edgeFactory;
+	}
+
+	/**
+	 * Creates a graph sized to hold the given number of vertices and edges
+	 * without rehashing.
+	 *
+	 * @param edgeFactory
+	 * @param expectedVertices
+	 * @param expectedEdges
+	 */
+	public IndexedGraph(final EdgeFactory<V, E> edgeFactory, final int expectedVertices, final int expectedEdges) {
+		this(edgeFactory, new HashSet<V>(capacityFor(expectedVertices)), new HashSet<E>(capacityFor(expectedEdges)),
+				new HashMap<V, Set<E>>(capacityFor(expectedVertices)), new HashMap<V, Set<E>>(
+						capacityFor(expectedVertices)));
+	}
+
+	/*
+	 * Adopts vertex, edge and adjacency sets that are already consistent with
+	 * each other, as built by GraphBuilder.
+	 */
+	IndexedGraph(final EdgeFactory<V, E> edgeFactory, final Set<V> vertices, final Set<E> edges,
+			final Map<V, Set<E>> incomingEdges, final Map<V, Set<E>> outgoingEdges) {
+		super();
+		this.vertices = vertices;
+		this.edges = edges;
+		this.incomingEdges = incomingEdges;
+		this.outgoingEdges = outgoingEdges;
+		this.edgeFactory = edgeFactory;
+	}
+
+	/*
+	 * Initial capacity of a hash based collection that holds the given number
+	 * of elements without rehashing.
+	 */
+	static int capacityFor(final int expected) {
+		if (expected < 0) {
+			throw new IllegalArgumentException("Expected size cannot be negative.");
+		}
+		return Math.max(16, (int) (expected / 0.75f) + 1);
+	}
+
+	@Override
+	public boolean addVertex(final V vertex) {
+		if (!vertices.add(vertex)) {
+			return false;
+		}
+
+		incomingEdges.put(vertex, new HashSet<E>());
+		outgoingEdges.put(vertex, new HashSet<E>());
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public boolean addEdge(final E edge) {
+		boolean result = false;
+
+		/*
+		 * Add vertices if not present.
+		 */
+		result |= addVertex(edge.getSourceVertex());
+		result |= addVertex(edge.getTargetVertex());
+
+		// add the edge into the graph and index it on both endpoints
+		if (edges.add(edge)) {
+			outgoingEdges.get(edge.getSourceVertex()).add(edge);
+			incomingEdges.get(edge.getTargetVertex()).add(edge);
+			indexEdge(edge);
+			modCount++;
+			result = true;
+		}
+
+		return result;
+	}
+
+	@Override
+	public boolean removeEdge(final E edge) {
+		if (!edges.remove(edge)) {
+			return false;
+		}
+
+		outgoingEdges.get(edge.getSourceVertex()).remove(edge);
+		incomingEdges.get(edge.getTargetVertex()).remove(edge);
+		unindexEdge(edge);
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public void removeAllEdges() {
+		super.removeAllEdges();
+		for (Set<E> in : incomingEdges.values()) {
+			in.clear();
+		}
+		for (Set<E> out : outgoingEdges.values()) {
+			out.clear();
+		}
+	}
+
+	@Override
+	public boolean removeVertex(final V vertex) {
+		boolean result = super.removeVertex(vertex);
+
+		incomingEdges.remove(vertex);
+		outgoingEdges.remove(vertex);
+
+		return result;
+	}
+
+	@Override
+	public void removeAllVertices() {
+		super.removeAllVertices();
+		incomingEdges.clear();
+		outgoingEdges.clear();
+	}
+
+	@Override
+	public Set<E> getAllEdges(final V vertex) {
+		Set<E> result = new HashSet<E>();
+		if (contains(vertex)) {
+			result.addAll(incomingEdges.get(vertex));
+			result.addAll(outgoingEdges.get(vertex));
+		}
+		return result;
+	}
+
+	@Override
+	public Set<E> getEdges(final V v1, final V v2) {
+		if (pairIndex != null) {
+			return super.getEdges(v1, v2);
+		}
+		Set<E> result = new HashSet<E>();
+		if (contains(v1) && contains(v2)) {
+			collectEdges(v1, v2, result);
+			collectEdges(v2, v1, result);
+		}
+		return result;
+	}
+
+	/*
+	 * Collects the edges from source to target by scanning the smaller of the
+	 * two adjacency sets that must contain them.
+	 */
+	private void collectEdges(final V source, final V target, final Set<E> result) {
+		Set<E> out = outgoingEdges.get(source);
+		Set<E> in = incomingEdges.get(target);
+		if (out.size() <= in.size()) {
+			for (E e : out) {
+				if (e.getTargetVertex().equals(target)) {
+					result.add(e);
+				}
+			}
+		} else {
+			for (E e : in) {
+				if (e.getSourceVertex().equals(source)) {
+					result.add(e);
+				}
+			}
+		}
+	}
+
+	@Override
+	public Set<E> getIncomingEdgesFor(final V vertex) {
+		return edgesFor(incomingEdges.get(vertex));
+	}
+
+	@Override
+	public int getInDegreeFor(final V vertex) {
+		Set<E> in = incomingEdges.get(vertex);
+		return in == null ? 0 : in.size();
+	}
+
+	@Override
+	public Set<E> getOutgoingEdgesFor(final V vertex) {
+		return edgesFor(outgoingEdges.get(vertex));
+	}
+
+	@Override
+	public int getOutDegreeFor(final V vertex) {
+		Set<E> out = outgoingEdges.get(vertex);
+		return out == null ? 0 : out.size();
+	}
+
+	/*
+	 * Returns a copy or, in live view mode, a view of the given adjacency set.
+	 * A view of the edges of a vertex stays valid while the vertex is in the
+	 * graph.
+	 */
+	private Set<E> edgesFor(final Set<E> adjacent) {
+		if (adjacent == null) {
+			return liveViews ? Collections.<E> emptySet() : new HashSet<E>();
+		}
+		return liveViews ? new LiveSetView<E>(this, adjacent) : new HashSet<E>(adjacent);
+	}
+}
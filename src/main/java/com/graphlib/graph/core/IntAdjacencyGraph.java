@@ -0,0 +1,235 @@
+package com.graphlib.graph.core;
+
+import java.util.Arrays;
+
+/**
+ * A growable {@link IntGraph} backed by primitive arrays. Vertices and edges
+ * are appended and receive consecutive ids; every vertex keeps the ids of its
+ * incoming and outgoing edges in an int array, and edge weights are kept in
+ * an int array indexed by edge id.
+ */
+public class IntAdjacencyGraph implements IntGraph {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private static final int INITIAL_DEGREE_CAPACITY = 4;
+
+	private static final int[] EMPTY = new int[0];
+
+	private int vertexCount;
+
+	private int edgeCount;
+
+	private int[] edgeSources;
+
+	private int[] edgeTargets;
+
+	private int[] edgeWeights;
+
+	private int[][] outEdges;
+
+	private int[][] inEdges;
+
+	/*
+	 * Number of used slots in the per-vertex edge arrays, i.e. the degrees.
+	 */
+	private int[] outDegrees;
+
+	private int[] inDegrees;
+
+	public IntAdjacencyGraph() {
+		this(INITIAL_CAPACITY, INITIAL_CAPACITY);
+	}
+
+	public IntAdjacencyGraph(int expectedVertices, int expectedEdges) {
+		if (expectedVertices < 0 || expectedEdges < 0) {
+			throw new IllegalArgumentException("Expected sizes cannot be negative.");
+		}
+		this.edgeSources = new int[expectedEdges];
+		this.edgeTargets = new int[expectedEdges];
+		this.edgeWeights = new int[expectedEdges];
+		this.outEdges = new int[expectedVertices][];
+		this.inEdges = new int[expectedVertices][];
+		this.outDegrees = new int[expectedVertices];
+		this.inDegrees = new int[expectedVertices];
+	}
+
+	/**
+	 * Adds a vertex to the graph.
+	 * 
+	 * @return Id of the new vertex
+	 */
+	public int addVertex() {
+		if (vertexCount == outEdges.length) {
+			int capacity = grow(vertexCount);
+			outEdges = Arrays.copyOf(outEdges, capacity);
+			inEdges = Arrays.copyOf(inEdges, capacity);
+			outDegrees = Arrays.copyOf(outDegrees, capacity);
+			inDegrees = Arrays.copyOf(inDegrees, capacity);
+		}
+		outEdges[vertexCount] = EMPTY;
+		inEdges[vertexCount] = EMPTY;
+		return vertexCount++;
+	}
+
+	/**
+	 * Adds the given number of vertices to the graph.
+	 * 
+	 * @param count
+	 * @return Id of the first of the new vertices
+	 */
+	public int addVertices(int count) {
+		int first = vertexCount;
+		for (int i = 0; i < count; i++) {
+			addVertex();
+		}
+		return first;
+	}
+
+	/**
+	 * Adds an edge of weight 1 between two existing vertices.
+	 * 
+	 * @param source
+	 *            Source vertex id
+	 * @param target
+	 *            Target vertex id
+	 * @return Id of the new edge
+	 */
+	public int addEdge(int source, int target) {
+		return addEdge(source, target, 1);
+	}
+
+	/**
+	 * Adds a weighted edge between two existing vertices.
+	 * 
+	 * @param source
+	 *            Source vertex id
+	 * @param target
+	 *            Target vertex id
+	 * @param weight
+	 *            Edge weight
+	 * @return Id of the new edge
+	 */
+	public int addEdge(int source, int target, int weight) {
+		checkVertex(source);
+		checkVertex(target);
+		if (edgeCount == edgeSources.length) {
+			int capacity = grow(edgeCount);
+			edgeSources = Arrays.copyOf(edgeSources, capacity);
+			edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+			edgeWeights = Arrays.copyOf(edgeWeights, capacity);
+		}
+		int edge = edgeCount++;
+		edgeSources[edge] = source;
+		edgeTargets[edge] = target;
+		edgeWeights[edge] = weight;
+
+		outEdges[source] = append(outEdges[source], outDegrees[source]++, edge);
+		inEdges[target] = append(inEdges[target], inDegrees[target]++, edge);
+		return edge;
+	}
+
+	public void setEdgeWeight(int edge, int weight) {
+		checkEdge(edge);
+		edgeWeights[edge] = weight;
+	}
+
+	@Override
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	@Override
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	@Override
+	public int getEdgeSource(int edge) {
+		checkEdge(edge);
+		return edgeSources[edge];
+	}
+
+	@Override
+	public int getEdgeTarget(int edge) {
+		checkEdge(edge);
+		return edgeTargets[edge];
+	}
+
+	@Override
+	public int getEdgeWeight(int edge) {
+		checkEdge(edge);
+		return edgeWeights[edge];
+	}
+
+	@Override
+	public int getOutDegree(int vertex) {
+		checkVertex(vertex);
+		return outDegrees[vertex];
+	}
+
+	@Override
+	public int getInDegree(int vertex) {
+		checkVertex(vertex);
+		return inDegrees[vertex];
+	}
+
+	@Override
+	public int[] getOutDegrees() {
+		return Arrays.copyOf(outDegrees, vertexCount);
+	}
+
+	@Override
+	public int[] getInDegrees() {
+		return Arrays.copyOf(inDegrees, vertexCount);
+	}
+
+	@Override
+	public IntCursor getOutgoingEdges(int vertex) {
+		checkVertex(vertex);
+		return new IntArrayCursor(outEdges[vertex], 0, outDegrees[vertex], null);
+	}
+
+	@Override
+	public IntCursor getIncomingEdges(int vertex) {
+		checkVertex(vertex);
+		return new IntArrayCursor(inEdges[vertex], 0, inDegrees[vertex], null);
+	}
+
+	@Override
+	public IntCursor getSuccessors(int vertex) {
+		checkVertex(vertex);
+		return new IntArrayCursor(outEdges[vertex], 0, outDegrees[vertex], edgeTargets);
+	}
+
+	@Override
+	public IntCursor getPredecessors(int vertex) {
+		checkVertex(vertex);
+		return new IntArrayCursor(inEdges[vertex], 0, inDegrees[vertex], edgeSources);
+	}
+
+	private void checkVertex(int vertex) {
+		if (vertex < 0 || vertex >= vertexCount) {
+			throw new IllegalArgumentException("No such vertex : " + vertex);
+		}
+	}
+
+	private void checkEdge(int edge) {
+		if (edge < 0 || edge >= edgeCount) {
+			throw new IllegalArgumentException("No such edge : " + edge);
+		}
+	}
+
+	private static int[] append(int[] array, int size, int value) {
+		if (size == array.length) {
+			array = Arrays.copyOf(array, size == 0 ? INITIAL_DEGREE_CAPACITY : grow(size));
+		}
+		array[size] = value;
+		return array;
+	}
+
+	private static int grow(int size) {
+		int capacity = size + (size >> 1) + 1;
+		return capacity < 0 ? Integer.MAX_VALUE - 8 : capacity;
+	}
+}
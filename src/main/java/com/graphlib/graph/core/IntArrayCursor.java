@@ -0,0 +1,41 @@
+package com.graphlib.graph.core;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Cursor over a range of an int array. A null array stands for the range
+ * itself, and an optional lookup array maps every value before it is
+ * returned.
+ */
+final class IntArrayCursor implements IntCursor {
+
+	private final int[] values;
+
+	private final int[] lookup;
+
+	private final int to;
+
+	private int position;
+
+	IntArrayCursor(final int[] values, final int from, final int to, final int[] lookup) {
+		this.values = values;
+		this.lookup = lookup;
+		this.position = from;
+		this.to = to;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return position < to;
+	}
+
+	@Override
+	public int next() {
+		if (position >= to) {
+			throw new NoSuchElementException();
+		}
+		int value = values == null ? position : values[position];
+		position++;
+		return lookup == null ? value : lookup[value];
+	}
+}
@@ -0,0 +1,22 @@
+package com.graphlib.graph.core;
+
+/**
+ * Forward-only cursor over primitive int values, such as the edge or vertex
+ * ids adjacent to a vertex of an {@link IntGraph}.
+ */
+public interface IntCursor {
+
+	/**
+	 * Checks if the cursor has more values.
+	 * 
+	 * @return true if there are more values, false otherwise
+	 */
+	public boolean hasNext();
+
+	/**
+	 * Returns the next value and advances the cursor.
+	 * 
+	 * @return Next value
+	 */
+	public int next();
+}
@@ -0,0 +1,101 @@
+package com.graphlib.graph.core;
+
+/**
+ * Lightweight, immutable handle for an edge of an {@link IntGraph} exposed
+ * through the {@link Graph} API. Handles are created on demand and compare
+ * equal when they refer to the same edge.
+ * 
+ * @see IntGraphs#asGraph(IntGraph)
+ */
+public final class IntEdge implements WeightedEdge<Integer, IntEdge> {
+
+	private final int id;
+
+	private final int source;
+
+	private final int target;
+
+	private final int weight;
+
+	public IntEdge(int id, int source, int target, int weight) {
+		this.id = id;
+		this.source = source;
+		this.target = target;
+		this.weight = weight;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public int getSource() {
+		return source;
+	}
+
+	public int getTarget() {
+		return target;
+	}
+
+	@Override
+	public Integer getSourceVertex() {
+		return source;
+	}
+
+	@Override
+	public void setSourceVertex(Integer source) {
+		throw new UnsupportedOperationException("Int edge handles are immutable.");
+	}
+
+	@Override
+	public Integer getTargetVertex() {
+		return target;
+	}
+
+	@Override
+	public void setTargetVertex(Integer target) {
+		throw new UnsupportedOperationException("Int edge handles are immutable.");
+	}
+
+	@Override
+	public int getEdgeWeight() {
+		return weight;
+	}
+
+	@Override
+	public void setEdgeWeight(int weight) {
+		throw new UnsupportedOperationException("Int edge handles are immutable.");
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + id;
+		result = prime * result + source;
+		result = prime * result + target;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		IntEdge other = (IntEdge) obj;
+		if (id != other.id)
+			return false;
+		if (source != other.source)
+			return false;
+		if (target != other.target)
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return source + " -> " + target;
+	}
+}
@@ -0,0 +1,128 @@
+package com.graphlib.graph.core;
+
+/**
+ * Interface for a directed graph whose vertices and edges are primitive ints.
+ * Vertices are identified by ids in the range [0, getVertexCount()) and edges
+ * by ids in the range [0, getEdgeCount()). Neighbor iteration goes through
+ * {@link IntCursor}s, so traversals pay neither for boxing nor for
+ * {@code equals}/{@code hashCode} calls.
+ * 
+ * @see IntGraphs
+ */
+public interface IntGraph {
+
+	/**
+	 * Returns the number of vertices in the graph.
+	 * 
+	 * @return Number of vertices
+	 */
+	public int getVertexCount();
+
+	/**
+	 * Returns the number of edges in the graph.
+	 * 
+	 * @return Number of edges
+	 */
+	public int getEdgeCount();
+
+	/**
+	 * Returns the source vertex of the given edge.
+	 * 
+	 * @param edge
+	 *            Edge id
+	 * @return Vertex id
+	 */
+	public int getEdgeSource(int edge);
+
+	/**
+	 * Returns the target vertex of the given edge.
+	 * 
+	 * @param edge
+	 *            Edge id
+	 * @return Vertex id
+	 */
+	public int getEdgeTarget(int edge);
+
+	/**
+	 * Returns the weight of the given edge. This mirrors
+	 * {@link WeightedEdge#getEdgeWeight()}; edges that carry no weight have a
+	 * weight of 1.
+	 * 
+	 * @param edge
+	 *            Edge id
+	 * @return Edge weight
+	 */
+	public int getEdgeWeight(int edge);
+
+	/**
+	 * Gets the number of outgoing edges for the given vertex.
+	 * 
+	 * @param vertex
+	 *            Vertex id
+	 * @return Number of outgoing edges
+	 */
+	public int getOutDegree(int vertex);
+
+	/**
+	 * Gets the number of incoming edges for the given vertex.
+	 * 
+	 * @param vertex
+	 *            Vertex id
+	 * @return Number of incoming edges
+	 */
+	public int getInDegree(int vertex);
+
+	/**
+	 * Returns the out-degrees of all the vertices, indexed on the vertex id.
+	 * The array is a copy and may be modified by the caller.
+	 * 
+	 * @return Out-degree sequence
+	 */
+	public int[] getOutDegrees();
+
+	/**
+	 * Returns the in-degrees of all the vertices, indexed on the vertex id.
+	 * The array is a copy and may be modified by the caller.
+	 * 
+	 * @return In-degree sequence
+	 */
+	public int[] getInDegrees();
+
+	/**
+	 * Returns a cursor over the ids of the outgoing edges of the given vertex.
+	 * 
+	 * @param vertex
+	 *            Vertex id
+	 * @return Cursor over edge ids
+	 */
+	public IntCursor getOutgoingEdges(int vertex);
+
+	/**
+	 * Returns a cursor over the ids of the incoming edges of the given vertex.
+	 * 
+	 * @param vertex
+	 *            Vertex id
+	 * @return Cursor over edge ids
+	 */
+	public IntCursor getIncomingEdges(int vertex);
+
+	/**
+	 * Returns a cursor over the targets of the outgoing edges of the given
+	 * vertex, in the same order as {@link #getOutgoingEdges(int)}.
+	 * 
+	 * @param vertex
+	 *            Vertex id
+	 * @return Cursor over vertex ids
+	 */
+	public IntCursor getSuccessors(int vertex);
+
+	/**
+	 * Returns a cursor over the sources of the incoming edges of the given
+	 * vertex, in the same order as {@link #getIncomingEdges(int)}.
+	 * 
+	 * @param vertex
+	 *            Vertex id
+	 * @return Cursor over vertex ids
+	 */
+	public IntCursor getPredecessors(int vertex);
+}
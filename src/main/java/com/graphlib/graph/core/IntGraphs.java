@@ -0,0 +1,313 @@
+package com.graphlib.graph.core;
+
+import java.util.AbstractSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Adapters between {@link Graph} and {@link IntGraph}.
+ */
+public final class IntGraphs {
+
+	/**
+	 * Returns an {@link IntGraph} for the given graph. The result is a
+	 * {@link CsrGraph} snapshot, which also maps the dense ids back to the
+	 * vertices and edges of the given graph.
+	 * 
+	 * @param graph
+	 * @return Snapshot of the graph
+	 */
+	public static <V, E extends Edge<V, E>> CsrGraph<V, E> fromGraph(final Graph<V, E> graph) {
+		if (graph instanceof CsrGraph) {
+			return (CsrGraph<V, E>) graph;
+		}
+		return new CsrGraph<>(graph);
+	}
+
+	/**
+	 * Returns a read-only {@link Graph} view of the given int graph. Vertices
+	 * are the vertex ids and edges are {@link IntEdge} handles created on
+	 * demand. The view reflects later changes to the underlying graph.
+	 * 
+	 * @param graph
+	 * @return Graph view
+	 */
+	public static Graph<Integer, IntEdge> asGraph(final IntGraph graph) {
+		if (graph == null) {
+			throw new IllegalArgumentException("Graph cannot be null.");
+		}
+		return new IntGraphView(graph);
+	}
+
+	private IntGraphs() {
+	}
+
+	private static final class IntGraphView extends AbstractGraph<Integer, IntEdge> {
+
+		private final IntGraph graph;
+
+		IntGraphView(final IntGraph graph) {
+			super();
+			this.graph = graph;
+			this.vertices = new VertexSet();
+			this.edges = new EdgeSet();
+		}
+
+		private IntEdge edge(int e) {
+			return new IntEdge(e, graph.getEdgeSource(e), graph.getEdgeTarget(e), graph.getEdgeWeight(e));
+		}
+
+		private IntEdge edge(int e, int source, int target) {
+			return new IntEdge(e, source, target, graph.getEdgeWeight(e));
+		}
+
+		private boolean isVertex(Object o) {
+			if (!(o instanceof Integer)) {
+				return false;
+			}
+			int v = (Integer) o;
+			return v >= 0 && v < graph.getVertexCount();
+		}
+
+		/*
+		 * Edges are built from the edge ids and the neighbor ids walked side
+		 * by side, as looking up the other end of each edge can be costly,
+		 * e.g. on a CompressedGraph.
+		 */
+		private Set<IntEdge> outgoing(int vertex) {
+			Set<IntEdge> result = new HashSet<>();
+			IntCursor ids = graph.getOutgoingEdges(vertex);
+			IntCursor targets = graph.getSuccessors(vertex);
+			while (ids.hasNext()) {
+				result.add(edge(ids.next(), vertex, targets.next()));
+			}
+			return result;
+		}
+
+		private Set<IntEdge> incoming(int vertex) {
+			Set<IntEdge> result = new HashSet<>();
+			IntCursor ids = graph.getIncomingEdges(vertex);
+			IntCursor sources = graph.getPredecessors(vertex);
+			while (ids.hasNext()) {
+				result.add(edge(ids.next(), sources.next(), vertex));
+			}
+			return result;
+		}
+
+		@Override
+		public Set<Integer> getAllVertices() {
+			return vertices;
+		}
+
+		@Override
+		public Set<IntEdge> getAllEdges() {
+			return edges;
+		}
+
+		@Override
+		public Set<IntEdge> getAllEdges(final Integer vertex) {
+			Set<IntEdge> result = new HashSet<>();
+			if (isVertex(vertex)) {
+				result.addAll(incoming(vertex));
+				result.addAll(outgoing(vertex));
+			}
+			return result;
+		}
+
+		@Override
+		public Set<IntEdge> getEdges(final Integer v1, final Integer v2) {
+			Set<IntEdge> result = new HashSet<>();
+			if (isVertex(v1) && isVertex(v2)) {
+				for (IntEdge e : outgoing(v1)) {
+					if (e.getTarget() == v2) {
+						result.add(e);
+					}
+				}
+				for (IntEdge e : outgoing(v2)) {
+					if (e.getTarget() == v1) {
+						result.add(e);
+					}
+				}
+			}
+			return result;
+		}
+
+		@Override
+		public boolean contains(final IntEdge edge) {
+			return edges.contains(edge);
+		}
+
+		@Override
+		public boolean contains(final Integer vertex) {
+			return isVertex(vertex);
+		}
+
+		@Override
+		public Set<IntEdge> getIncomingEdgesFor(final Integer vertex) {
+			return isVertex(vertex) ? incoming(vertex) : new HashSet<IntEdge>();
+		}
+
+		@Override
+		public int getInDegreeFor(final Integer vertex) {
+			return isVertex(vertex) ? graph.getInDegree(vertex) : 0;
+		}
+
+		@Override
+		public Set<IntEdge> getOutgoingEdgesFor(final Integer vertex) {
+			return isVertex(vertex) ? outgoing(vertex) : new HashSet<IntEdge>();
+		}
+
+		@Override
+		public int getOutDegreeFor(final Integer vertex) {
+			return isVertex(vertex) ? graph.getOutDegree(vertex) : 0;
+		}
+
+		@Override
+		public boolean addVertex(final Integer vertex) {
+			throw new UnsupportedOperationException("Int graph view is read-only.");
+		}
+
+		@Override
+		public boolean addEdge(final IntEdge edge) {
+			throw new UnsupportedOperationException("Int graph view is read-only.");
+		}
+
+		@Override
+		public boolean removeEdge(final IntEdge edge) {
+			throw new UnsupportedOperationException("Int graph view is read-only.");
+		}
+
+		@Override
+		public void removeAllEdges() {
+			throw new UnsupportedOperationException("Int graph view is read-only.");
+		}
+
+		@Override
+		public boolean removeVertex(final Integer vertex) {
+			throw new UnsupportedOperationException("Int graph view is read-only.");
+		}
+
+		@Override
+		public void removeAllVertices() {
+			throw new UnsupportedOperationException("Int graph view is read-only.");
+		}
+
+		private final class VertexSet extends AbstractSet<Integer> {
+
+			@Override
+			public int size() {
+				return graph.getVertexCount();
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return isVertex(o);
+			}
+
+			@Override
+			public Iterator<Integer> iterator() {
+				return new IdIterator<Integer>(graph.getVertexCount()) {
+
+					@Override
+					Integer get(int id) {
+						return id;
+					}
+				};
+			}
+		}
+
+		private final class EdgeSet extends AbstractSet<IntEdge> {
+
+			@Override
+			public int size() {
+				return graph.getEdgeCount();
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				if (!(o instanceof IntEdge)) {
+					return false;
+				}
+				IntEdge e = (IntEdge) o;
+				return e.getId() >= 0 && e.getId() < graph.getEdgeCount() && e.equals(edge(e.getId()));
+			}
+
+			@Override
+			public Iterator<IntEdge> iterator() {
+				return new EdgeIterator();
+			}
+		}
+
+		/*
+		 * Walks the outgoing edges of every vertex in turn, together with the
+		 * successors.
+		 */
+		private final class EdgeIterator implements Iterator<IntEdge> {
+
+			private int vertex = -1;
+
+			private IntCursor ids;
+
+			private IntCursor targets;
+
+			@Override
+			public boolean hasNext() {
+				while (ids == null || !ids.hasNext()) {
+					if (vertex + 1 >= graph.getVertexCount()) {
+						return false;
+					}
+					vertex++;
+					ids = graph.getOutgoingEdges(vertex);
+					targets = graph.getSuccessors(vertex);
+				}
+				return true;
+			}
+
+			@Override
+			public IntEdge next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return edge(ids.next(), vertex, targets.next());
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException("Int graph view is read-only.");
+			}
+		}
+
+		private abstract static class IdIterator<T> implements Iterator<T> {
+
+			private final int count;
+
+			private int next;
+
+			IdIterator(int count) {
+				this.count = count;
+			}
+
+			abstract T get(int id);
+
+			@Override
+			public boolean hasNext() {
+				return next < count;
+			}
+
+			@Override
+			public T next() {
+				if (next >= count) {
+					throw new NoSuchElementException();
+				}
+				return get(next++);
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException("Int graph view is read-only.");
+			}
+		}
+	}
+}
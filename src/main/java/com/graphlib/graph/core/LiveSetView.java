@@ -0,0 +1,72 @@
+package com.graphlib.graph.core;
+
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Unmodifiable live view of a set backing an {@link AbstractGraph}. Iterators
+ * fail fast once the graph is structurally modified.
+ *
+ * @see AbstractGraph#setLiveViews(boolean)
+ */
+final class LiveSetView<T> extends AbstractSet<T> {
+
+	private final AbstractGraph<?, ?> graph;
+
+	private final Set<T> backing;
+
+	LiveSetView(final AbstractGraph<?, ?> graph, final Set<T> backing) {
+		this.graph = graph;
+		this.backing = backing;
+	}
+
+	@Override
+	public int size() {
+		return backing.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return backing.isEmpty();
+	}
+
+	@Override
+	public boolean contains(final Object o) {
+		return backing.contains(o);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+
+			private final Iterator<T> it = backing.iterator();
+
+			private final int expectedModCount = graph.modCount;
+
+			@Override
+			public boolean hasNext() {
+				checkForComodification();
+				return it.hasNext();
+			}
+
+			@Override
+			public T next() {
+				checkForComodification();
+				return it.next();
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException("Graph views are unmodifiable.");
+			}
+
+			private void checkForComodification() {
+				if (graph.modCount != expectedModCount) {
+					throw new ConcurrentModificationException("Graph modified while iterating over a view.");
+				}
+			}
+		};
+	}
+}
@@ -0,0 +1,386 @@
+package com.graphlib.graph.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * A read-only {@link IntGraph} kept off the heap in a memory-mapped file. The
+ * file holds the graph in compressed sparse row form: vertex offsets and
+ * adjacency arrays that are mapped, not read, when the graph is opened. Opening
+ * costs a few system calls regardless of the size of the graph, the pages are
+ * loaded on first access and shared by every process that maps the same file,
+ * and none of the adjacency lives in garbage collected memory.
+ *
+ * <p>
+ * A graph is stored once with {@link #write(IntGraph, Path)} and reopened with
+ * {@link #open(Path)}. The {@link Graph} read API is available through
+ * {@link #asGraph()}, whose vertices and edges are lightweight handles created
+ * on demand. Each array of the graph is mapped separately and must fit in a
+ * single mapping, which limits a stored graph to 2<sup>29</sup> - 1 edges.
+ *
+ * <pre>
+ * File layout, little-endian:
+ *   header    magic, format version, vertex count, edge count
+ *   int[n+1]  out offsets     outgoing edges of v are [out[v], out[v+1])
+ *   int[m]    edge sources    edges ordered by source
+ *   int[m]    edge targets
+ *   int[m]    edge weights
+ *   int[n+1]  in offsets
+ *   int[m]    in edges        incoming edge ids, grouped by target
+ *   int[m]    in sources      sources of the incoming edges
+ * </pre>
+ */
+public final class MappedGraph implements IntGraph, Closeable {
+
+	private static final int MAGIC = 0x474c4d47;
+
+	private static final int FORMAT_VERSION = 1;
+
+	private static final int HEADER_BYTES = 16;
+
+	private static final int MAX_ARRAY_LENGTH = (Integer.MAX_VALUE >> 2) - 1;
+
+	private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+	private final FileChannel channel;
+
+	private final int vertexCount;
+
+	private final int edgeCount;
+
+	private final IntBuffer outOffsets;
+
+	private final IntBuffer edgeSources;
+
+	private final IntBuffer edgeTargets;
+
+	private final IntBuffer edgeWeights;
+
+	private final IntBuffer inOffsets;
+
+	private final IntBuffer inEdges;
+
+	private final IntBuffer inSources;
+
+	private MappedGraph(final FileChannel channel) throws IOException {
+		this.channel = channel;
+		if (channel.size() < HEADER_BYTES) {
+			throw new IOException("Not a mapped graph file.");
+		}
+		ByteBuffer header = map(0, HEADER_BYTES);
+		if (header.getInt() != MAGIC) {
+			throw new IOException("Not a mapped graph file.");
+		}
+		int version = header.getInt();
+		if (version != FORMAT_VERSION) {
+			throw new IOException("Unsupported mapped graph format version " + version + ".");
+		}
+		this.vertexCount = header.getInt();
+		this.edgeCount = header.getInt();
+		if (vertexCount < 0 || edgeCount < 0 || channel.size() != fileSize(vertexCount, edgeCount)) {
+			throw new IOException("Mapped graph file is corrupt.");
+		}
+
+		long position = HEADER_BYTES;
+		this.outOffsets = mapInts(position, vertexCount + 1);
+		position += 4L * (vertexCount + 1);
+		this.edgeSources = mapInts(position, edgeCount);
+		position += 4L * edgeCount;
+		this.edgeTargets = mapInts(position, edgeCount);
+		position += 4L * edgeCount;
+		this.edgeWeights = mapInts(position, edgeCount);
+		position += 4L * edgeCount;
+		this.inOffsets = mapInts(position, vertexCount + 1);
+		position += 4L * (vertexCount + 1);
+		this.inEdges = mapInts(position, edgeCount);
+		position += 4L * edgeCount;
+		this.inSources = mapInts(position, edgeCount);
+	}
+
+	/**
+	 * Opens a graph stored by {@link #write(IntGraph, Path)}. The graph must
+	 * be closed to release the file.
+	 *
+	 * @param file
+	 * @return The graph
+	 * @throws IOException
+	 *             If the file cannot be read or is not a stored graph
+	 */
+	public static MappedGraph open(final Path file) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			return new MappedGraph(channel);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Stores the given graph in a file that can be opened with
+	 * {@link #open(Path)}. Edges are renumbered in the order of their source
+	 * vertex; vertex ids are kept.
+	 *
+	 * @param graph
+	 * @param file
+	 * @throws IOException
+	 *             If the file cannot be written
+	 */
+	public static void write(final IntGraph graph, final Path file) throws IOException {
+		if (graph == null) {
+			throw new IllegalArgumentException("Graph cannot be null.");
+		}
+		int n = graph.getVertexCount();
+		int m = graph.getEdgeCount();
+		if (n >= MAX_ARRAY_LENGTH || m >= MAX_ARRAY_LENGTH) {
+			throw new IllegalArgumentException("Graph is too large to be mapped.");
+		}
+
+		/*
+		 * Edge ids in the file, in the order of the outgoing edges.
+		 */
+		int[] ids = new int[m];
+		int id = 0;
+		for (int v = 0; v < n; v++) {
+			IntCursor out = graph.getOutgoingEdges(v);
+			while (out.hasNext()) {
+				ids[out.next()] = id++;
+			}
+		}
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			IntWriter writer = new IntWriter(channel);
+			writer.write(MAGIC);
+			writer.write(FORMAT_VERSION);
+			writer.write(n);
+			writer.write(m);
+
+			int offset = 0;
+			for (int v = 0; v < n; v++) {
+				writer.write(offset);
+				offset += graph.getOutDegree(v);
+			}
+			writer.write(offset);
+			for (int v = 0; v < n; v++) {
+				for (int i = graph.getOutDegree(v); i > 0; i--) {
+					writer.write(v);
+				}
+			}
+			for (int v = 0; v < n; v++) {
+				IntCursor out = graph.getSuccessors(v);
+				while (out.hasNext()) {
+					writer.write(out.next());
+				}
+			}
+			for (int v = 0; v < n; v++) {
+				IntCursor out = graph.getOutgoingEdges(v);
+				while (out.hasNext()) {
+					writer.write(graph.getEdgeWeight(out.next()));
+				}
+			}
+
+			offset = 0;
+			for (int v = 0; v < n; v++) {
+				writer.write(offset);
+				offset += graph.getInDegree(v);
+			}
+			writer.write(offset);
+			for (int v = 0; v < n; v++) {
+				IntCursor in = graph.getIncomingEdges(v);
+				while (in.hasNext()) {
+					writer.write(ids[in.next()]);
+				}
+			}
+			for (int v = 0; v < n; v++) {
+				IntCursor in = graph.getPredecessors(v);
+				while (in.hasNext()) {
+					writer.write(in.next());
+				}
+			}
+			writer.flush();
+		}
+	}
+
+	private static long fileSize(final int vertexCount, final int edgeCount) {
+		return HEADER_BYTES + 8L * (vertexCount + 1) + 20L * edgeCount;
+	}
+
+	private ByteBuffer map(final long position, final long bytes) throws IOException {
+		return channel.map(MapMode.READ_ONLY, position, bytes).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private IntBuffer mapInts(final long position, final int count) throws IOException {
+		if (count >= MAX_ARRAY_LENGTH) {
+			throw new IOException("Mapped graph is too large to be mapped.");
+		}
+		return map(position, 4L * count).asIntBuffer();
+	}
+
+	/**
+	 * Returns a read-only {@link Graph} view of this graph.
+	 *
+	 * @return Graph view
+	 * @see IntGraphs#asGraph(IntGraph)
+	 */
+	public Graph<Integer, IntEdge> asGraph() {
+		return IntGraphs.asGraph(this);
+	}
+
+	/**
+	 * Closes the file. The mapped pages are released once the graph is no
+	 * longer reachable.
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	@Override
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	@Override
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	@Override
+	public int getEdgeSource(final int edge) {
+		return edgeSources.get(edge);
+	}
+
+	@Override
+	public int getEdgeTarget(final int edge) {
+		return edgeTargets.get(edge);
+	}
+
+	@Override
+	public int getEdgeWeight(final int edge) {
+		return edgeWeights.get(edge);
+	}
+
+	@Override
+	public int getOutDegree(final int vertex) {
+		return outOffsets.get(vertex + 1) - outOffsets.get(vertex);
+	}
+
+	@Override
+	public int getInDegree(final int vertex) {
+		return inOffsets.get(vertex + 1) - inOffsets.get(vertex);
+	}
+
+	@Override
+	public int[] getOutDegrees() {
+		return degrees(outOffsets);
+	}
+
+	@Override
+	public int[] getInDegrees() {
+		return degrees(inOffsets);
+	}
+
+	private int[] degrees(final IntBuffer offsets) {
+		int[] result = new int[vertexCount];
+		int previous = offsets.get(0);
+		for (int v = 0; v < vertexCount; v++) {
+			int next = offsets.get(v + 1);
+			result[v] = next - previous;
+			previous = next;
+		}
+		return result;
+	}
+
+	@Override
+	public IntCursor getOutgoingEdges(final int vertex) {
+		return new BufferCursor(null, outOffsets.get(vertex), outOffsets.get(vertex + 1));
+	}
+
+	@Override
+	public IntCursor getIncomingEdges(final int vertex) {
+		return new BufferCursor(inEdges, inOffsets.get(vertex), inOffsets.get(vertex + 1));
+	}
+
+	@Override
+	public IntCursor getSuccessors(final int vertex) {
+		return new BufferCursor(edgeTargets, outOffsets.get(vertex), outOffsets.get(vertex + 1));
+	}
+
+	@Override
+	public IntCursor getPredecessors(final int vertex) {
+		return new BufferCursor(inSources, inOffsets.get(vertex), inOffsets.get(vertex + 1));
+	}
+
+	/**
+	 * Cursor over a range of a mapped int array. A null buffer stands for the
+	 * range itself.
+	 */
+	private static final class BufferCursor implements IntCursor {
+
+		private final IntBuffer values;
+
+		private final int to;
+
+		private int position;
+
+		BufferCursor(IntBuffer values, int from, int to) {
+			this.values = values;
+			this.position = from;
+			this.to = to;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return position < to;
+		}
+
+		@Override
+		public int next() {
+			if (position >= to) {
+				throw new NoSuchElementException();
+			}
+			int value = values == null ? position : values.get(position);
+			position++;
+			return value;
+		}
+	}
+
+	/**
+	 * Buffered little-endian writer of ints to a channel.
+	 */
+	private static final class IntWriter {
+
+		private final FileChannel channel;
+
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(
+				ByteOrder.LITTLE_ENDIAN);
+
+		IntWriter(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		void write(int value) throws IOException {
+			if (!buffer.hasRemaining()) {
+				flush();
+			}
+			buffer.putInt(value);
+		}
+
+		void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+	}
+}
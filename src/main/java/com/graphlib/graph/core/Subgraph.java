@@ -1,6 +1,8 @@
 package com.graphlib.graph.core;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import com.graphlib.graph.event.GraphEdgeChangeEvent;
@@ -11,6 +13,12 @@ public class Subgraph<V, E extends Edge<V, E>, G extends ListenableGraph<V, E>>
 
 	protected G baseGraph;
 
+	/*
+	 * In-degree and out-degree of the vertices that have edges in the
+	 * subgraph.
+	 */
+	private final Map<V, int[]> degrees = new HashMap<>();
+
 	public Subgraph(G g, Set<V> vertexSubset, Set<E> edgeSubset) {
 		super();
 		if (g == null) {
@@ -28,8 +36,8 @@ public class Subgraph<V, E extends Edge<V, E>, G extends ListenableGraph<V, E>>
 		}
 
 		for (E e : edgeSubset) {
-			if (g.contains(e)) {
-				this.edges.add(e);
+			if (g.contains(e) && this.edges.add(e)) {
+				countDegrees(e, 1);
 			}
 		}
 	}
@@ -59,7 +67,12 @@ public class Subgraph<V, E extends Edge<V, E>, G extends ListenableGraph<V, E>>
 
 		// add the edge into the graph
 		if(baseGraph.contains(edge)) {
-			result |= edges.add(edge);
+			if (edges.add(edge)) {
+				indexEdge(edge);
+				countDegrees(edge, 1);
+				modCount++;
+				result = true;
+			}
 		} else {
 			throw new IllegalArgumentException("No such edge in the base graph.");
 		}
@@ -67,6 +80,50 @@ public class Subgraph<V, E extends Edge<V, E>, G extends ListenableGraph<V, E>>
 		return result;
 	}
 
+	@Override
+	public boolean removeEdge(final E edge) {
+		if (super.removeEdge(edge)) {
+			countDegrees(edge, -1);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void removeAllEdges() {
+		super.removeAllEdges();
+		degrees.clear();
+	}
+
+	@Override
+	public int getInDegreeFor(final V vertex) {
+		int[] d = degrees.get(vertex);
+		return d == null ? 0 : d[0];
+	}
+
+	@Override
+	public int getOutDegreeFor(final V vertex) {
+		int[] d = degrees.get(vertex);
+		return d == null ? 0 : d[1];
+	}
+
+	private void countDegrees(final E edge, final int delta) {
+		count(edge.getTargetVertex(), 0, delta);
+		count(edge.getSourceVertex(), 1, delta);
+	}
+
+	private void count(final V vertex, final int direction, final int delta) {
+		int[] d = degrees.get(vertex);
+		if (d == null) {
+			d = new int[2];
+			degrees.put(vertex, d);
+		}
+		d[direction] += delta;
+		if (d[0] == 0 && d[1] == 0) {
+			degrees.remove(vertex);
+		}
+	}
+
 	@Override
 	public void vertexAdded(GraphVertexChangeEvent<V, E> e) {
 		// Do nothing.
@@ -0,0 +1,860 @@
+package com.graphlib.graph.core;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A multi-version {@link Graph}. Every mutation commits a new version of the
+ * graph, and {@link #snapshot()} returns an immutable {@link Graph} pinned to
+ * the latest committed version in O(1). Long-running algorithms run on a
+ * snapshot and see a consistent graph while writers keep applying updates.
+ *
+ * <p>
+ * The adjacency of a vertex is copied on write into a new record tagged with
+ * the committing version; records of vertices that are not written are shared
+ * by all versions. Writers are serialized by a lock, readers never lock. Old
+ * records are reclaimed once no open snapshot can see them: snapshots are
+ * released by {@link Snapshot#close()}, or when they become unreachable, and
+ * reclamation happens as vertices are written or on {@link #compact()}.
+ *
+ * <p>
+ * Queries on the graph itself read the latest committed version; each call
+ * is consistent on its own, but successive calls may observe different
+ * versions.
+ *
+ * @param <V>
+ *            Vertex type
+ * @param <E>
+ *            Edge type
+ */
+public class VersionedGraph<V, E extends Edge<V, E>> extends AbstractGraph<V, E> {
+
+	private static final Object[] EMPTY = new Object[0];
+
+	/*
+	 * Latest record of every vertex, each linked to the records of older
+	 * versions.
+	 */
+	private final ConcurrentMap<V, Record> records = new ConcurrentHashMap<>();
+
+	/*
+	 * Number of open snapshots for each pinned version.
+	 */
+	private final ConcurrentNavigableMap<Long, AtomicInteger> pins = new ConcurrentSkipListMap<>();
+
+	/*
+	 * Only SnapshotReferences are registered with the queue.
+	 */
+	private final ReferenceQueue<Snapshot> releasedSnapshots = new ReferenceQueue<>();
+
+	private final Set<SnapshotReference> snapshotReferences = Collections
+			.newSetFromMap(new ConcurrentHashMap<SnapshotReference, Boolean>());
+
+	private final ReentrantLock writeLock = new ReentrantLock();
+
+	private volatile long version;
+
+	/*
+	 * Writer state, guarded by the write lock.
+	 */
+	private long pending;
+
+	private long horizon;
+
+	public VersionedGraph() {
+		this(null);
+	}
+
+	public VersionedGraph(final EdgeFactory<V, E> edgeFactory) {
+		super();
+		this.edgeFactory = edgeFactory;
+	}
+
+	/**
+	 * Returns the latest committed version.
+	 *
+	 * @return Version number
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns an immutable view of the graph pinned to the latest committed
+	 * version. The snapshot should be closed once it is no longer needed.
+	 *
+	 * @return Snapshot of the graph
+	 */
+	public Snapshot snapshot() {
+		Snapshot snapshot = pinLatest();
+		SnapshotReference ref = new SnapshotReference(snapshot, releasedSnapshots);
+		snapshot.reference = ref;
+		snapshotReferences.add(ref);
+		return snapshot;
+	}
+
+	/*
+	 * Pins the latest version. The version is read again after pinning; if a
+	 * writer committed in between, the pin may have been missed by the
+	 * writer's reclamation and is retried on the newer version.
+	 */
+	private Snapshot pinLatest() {
+		while (true) {
+			long v = version;
+			pin(v);
+			if (version == v) {
+				return new Snapshot(v);
+			}
+			unpin(v);
+		}
+	}
+
+	private void pin(final long v) {
+		while (true) {
+			AtomicInteger count = pins.get(v);
+			if (count == null) {
+				if (pins.putIfAbsent(v, new AtomicInteger(1)) == null) {
+					return;
+				}
+				continue;
+			}
+			int n = count.get();
+			if (n == 0) {
+				// Being removed by the last unpin; help and retry.
+				pins.remove(v, count);
+			} else if (count.compareAndSet(n, n + 1)) {
+				return;
+			}
+		}
+	}
+
+	private void unpin(final long v) {
+		AtomicInteger count = pins.get(v);
+		if (count.decrementAndGet() == 0) {
+			pins.remove(v, count);
+		}
+	}
+
+	/**
+	 * Reclaims all the records that no open snapshot can see.
+	 */
+	public void compact() {
+		writeLock.lock();
+		try {
+			begin();
+			for (Map.Entry<V, Record> entry : records.entrySet()) {
+				Record r = entry.getValue();
+				if (r.removed && r.version <= horizon) {
+					records.remove(entry.getKey(), r);
+				} else {
+					prune(r);
+				}
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/*
+	 * Starts a write. Releases unreachable snapshots and computes the oldest
+	 * version that must stay visible.
+	 */
+	private void begin() {
+		Reference<? extends Snapshot> ref;
+		while ((ref = releasedSnapshots.poll()) != null) {
+			((VersionedGraph<?, ?>.SnapshotReference) ref).release();
+		}
+		horizon = pins.isEmpty() ? version : Math.min(pins.firstKey(), version);
+		pending = version + 1;
+	}
+
+	private void commit(final boolean changed) {
+		if (changed) {
+			version = pending;
+		}
+	}
+
+	/*
+	 * Drops the records of the chain that are older than the newest record
+	 * visible at the horizon.
+	 */
+	private void prune(Record r) {
+		while (r != null && r.version > horizon) {
+			r = r.previous;
+		}
+		if (r != null) {
+			r.previous = null;
+		}
+	}
+
+	private Record live(final V vertex) {
+		Record r = records.get(vertex);
+		return r == null || r.removed ? null : r;
+	}
+
+	/*
+	 * Writes a new record for the vertex in the pending version.
+	 */
+	private void write(final V vertex, final Object[] incoming, final Object[] outgoing, final boolean removed) {
+		Record current = records.get(vertex);
+		Record previous = current != null && current.version == pending ? current.previous : current;
+		Record r = new Record(pending, incoming, outgoing, removed, previous);
+		prune(r);
+		records.put(vertex, r);
+	}
+
+	private boolean putVertex(final V vertex) {
+		if (live(vertex) != null) {
+			return false;
+		}
+		write(vertex, EMPTY, EMPTY, false);
+		return true;
+	}
+
+	private boolean putEdge(final E edge) {
+		boolean result = false;
+		V source = edge.getSourceVertex();
+		V target = edge.getTargetVertex();
+		result |= putVertex(source);
+		result |= putVertex(target);
+
+		Record s = live(source);
+		if (indexOf(s.outgoing, edge) >= 0) {
+			return result;
+		}
+		write(source, s.incoming, append(s.outgoing, edge), false);
+		Record t = live(target);
+		write(target, append(t.incoming, edge), t.outgoing, false);
+		return true;
+	}
+
+	private boolean deleteEdge(final E edge) {
+		V source = edge.getSourceVertex();
+		V target = edge.getTargetVertex();
+		Record s = live(source);
+		int i = s == null ? -1 : indexOf(s.outgoing, edge);
+		if (i < 0) {
+			return false;
+		}
+		write(source, s.incoming, remove(s.outgoing, i), false);
+		Record t = live(target);
+		write(target, remove(t.incoming, indexOf(t.incoming, edge)), t.outgoing, false);
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	private boolean deleteVertex(final V vertex) {
+		Record r = live(vertex);
+		if (r == null) {
+			return false;
+		}
+		for (Object e : r.incoming) {
+			deleteEdge((E) e);
+		}
+		for (Object e : live(vertex).outgoing) {
+			deleteEdge((E) e);
+		}
+		write(vertex, EMPTY, EMPTY, true);
+		return true;
+	}
+
+	@Override
+	public boolean addVertex(final V vertex) {
+		writeLock.lock();
+		try {
+			begin();
+			boolean result = putVertex(vertex);
+			commit(result);
+			return result;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean addVertices(final Set<V> vertices) {
+		writeLock.lock();
+		try {
+			begin();
+			boolean result = false;
+			for (V v : vertices) {
+				result |= putVertex(v);
+			}
+			commit(result);
+			return result;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean addEdge(final E edge) {
+		writeLock.lock();
+		try {
+			begin();
+			boolean result = putEdge(edge);
+			commit(result);
+			return result;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean addEdges(final Set<E> edges) {
+		writeLock.lock();
+		try {
+			begin();
+			boolean result = false;
+			for (E e : edges) {
+				result |= putEdge(e);
+			}
+			commit(result);
+			return result;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean removeEdge(final E edge) {
+		writeLock.lock();
+		try {
+			begin();
+			boolean result = deleteEdge(edge);
+			commit(result);
+			return result;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean removeAllEdges(final Set<E> edges) {
+		writeLock.lock();
+		try {
+			begin();
+			boolean result = false;
+			for (E e : edges) {
+				result |= deleteEdge(e);
+			}
+			commit(result);
+			return result;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	@Override
+	public void removeAllEdges() {
+		writeLock.lock();
+		try {
+			begin();
+			boolean result = false;
+			for (Map.Entry<V, Record> entry : records.entrySet()) {
+				Record r = entry.getValue();
+				if (!r.removed && (r.incoming.length > 0 || r.outgoing.length > 0)) {
+					write(entry.getKey(), EMPTY, EMPTY, false);
+					result = true;
+				}
+			}
+			commit(result);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean removeVertex(final V vertex) {
+		writeLock.lock();
+		try {
+			begin();
+			boolean result = deleteVertex(vertex);
+			commit(result);
+			return result;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean removeAllVertices(final Set<V> vertices) {
+		writeLock.lock();
+		try {
+			begin();
+			boolean result = false;
+			for (V v : vertices) {
+				result |= deleteVertex(v);
+			}
+			commit(result);
+			return result;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	@Override
+	public void removeAllVertices() {
+		writeLock.lock();
+		try {
+			begin();
+			boolean result = false;
+			for (Map.Entry<V, Record> entry : records.entrySet()) {
+				if (!entry.getValue().removed) {
+					write(entry.getKey(), EMPTY, EMPTY, true);
+					result = true;
+				}
+			}
+			commit(result);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	@Override
+	public Set<V> getAllVertices() {
+		Snapshot s = pinLatest();
+		try {
+			return s.getAllVertices();
+		} finally {
+			s.close();
+		}
+	}
+
+	@Override
+	public Set<E> getAllEdges() {
+		Snapshot s = pinLatest();
+		try {
+			return s.getAllEdges();
+		} finally {
+			s.close();
+		}
+	}
+
+	@Override
+	public Set<E> getAllEdges(final V vertex) {
+		Snapshot s = pinLatest();
+		try {
+			return s.getAllEdges(vertex);
+		} finally {
+			s.close();
+		}
+	}
+
+	@Override
+	public Set<E> getEdges(final V v1, final V v2) {
+		Snapshot s = pinLatest();
+		try {
+			return s.getEdges(v1, v2);
+		} finally {
+			s.close();
+		}
+	}
+
+	@Override
+	public boolean contains(final E edge) {
+		Snapshot s = pinLatest();
+		try {
+			return s.contains(edge);
+		} finally {
+			s.close();
+		}
+	}
+
+	@Override
+	public boolean contains(final V vertex) {
+		Snapshot s = pinLatest();
+		try {
+			return s.contains(vertex);
+		} finally {
+			s.close();
+		}
+	}
+
+	@Override
+	public Set<E> getIncomingEdgesFor(final V vertex) {
+		Snapshot s = pinLatest();
+		try {
+			return s.getIncomingEdgesFor(vertex);
+		} finally {
+			s.close();
+		}
+	}
+
+	@Override
+	public int getInDegreeFor(final V vertex) {
+		Snapshot s = pinLatest();
+		try {
+			return s.getInDegreeFor(vertex);
+		} finally {
+			s.close();
+		}
+	}
+
+	@Override
+	public Set<E> getOutgoingEdgesFor(final V vertex) {
+		Snapshot s = pinLatest();
+		try {
+			return s.getOutgoingEdgesFor(vertex);
+		} finally {
+			s.close();
+		}
+	}
+
+	@Override
+	public int getOutDegreeFor(final V vertex) {
+		Snapshot s = pinLatest();
+		try {
+			return s.getOutDegreeFor(vertex);
+		} finally {
+			s.close();
+		}
+	}
+
+	@Override
+	public boolean hasCycles() {
+		Snapshot s = pinLatest();
+		try {
+			return s.hasCycles();
+		} finally {
+			s.close();
+		}
+	}
+
+	@Override
+	public boolean isConnected() {
+		Snapshot s = pinLatest();
+		try {
+			return s.isConnected();
+		} finally {
+			s.close();
+		}
+	}
+
+	/**
+	 * Not supported, versions do not carry a vertex pair index.
+	 */
+	@Override
+	public void setPairIndexed(final boolean pairIndexed) {
+		if (pairIndexed) {
+			throw new UnsupportedOperationException("Versioned graph does not support a vertex pair index.");
+		}
+	}
+
+	private static Object[] append(final Object[] array, final Object value) {
+		Object[] result = Arrays.copyOf(array, array.length + 1);
+		result[array.length] = value;
+		return result;
+	}
+
+	private static Object[] remove(final Object[] array, final int index) {
+		Object[] result = new Object[array.length - 1];
+		System.arraycopy(array, 0, result, 0, index);
+		System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+		return result;
+	}
+
+	private static int indexOf(final Object[] array, final Object value) {
+		for (int i = 0; i < array.length; i++) {
+			if (array[i].equals(value)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Adjacency of a vertex as of a version. Records are immutable apart from
+	 * the link to the older record, which is cut during reclamation.
+	 */
+	private static final class Record {
+
+		final long version;
+
+		final Object[] incoming;
+
+		final Object[] outgoing;
+
+		final boolean removed;
+
+		volatile Record previous;
+
+		Record(long version, Object[] incoming, Object[] outgoing, boolean removed, Record previous) {
+			this.version = version;
+			this.incoming = incoming;
+			this.outgoing = outgoing;
+			this.removed = removed;
+			this.previous = previous;
+		}
+	}
+
+	/**
+	 * Releases the pin of a snapshot that was closed or became unreachable.
+	 */
+	private final class SnapshotReference extends WeakReference<Snapshot> {
+
+		private final long pinned;
+
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		SnapshotReference(Snapshot snapshot, ReferenceQueue<Snapshot> queue) {
+			super(snapshot, queue);
+			this.pinned = snapshot.getVersion();
+		}
+
+		void release() {
+			if (released.compareAndSet(false, true)) {
+				snapshotReferences.remove(this);
+				unpin(pinned);
+			}
+		}
+	}
+
+	/**
+	 * An immutable view of a {@link VersionedGraph} pinned to a version. The
+	 * vertex and edge sets are computed once, on first use.
+	 */
+	public final class Snapshot extends AbstractGraph<V, E> implements AutoCloseable {
+
+		private final long pinned;
+
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		private SnapshotReference reference;
+
+		/*
+		 * Built on first use without locking; racing readers may each build
+		 * them, and any of the equal results is kept.
+		 */
+		private volatile Set<V> allVertices;
+
+		private volatile Set<E> allEdges;
+
+		private Snapshot(final long pinned) {
+			super();
+			this.pinned = pinned;
+			this.edgeFactory = VersionedGraph.this.edgeFactory;
+		}
+
+		public long getVersion() {
+			return pinned;
+		}
+
+		/**
+		 * Releases the version pinned by the snapshot. The snapshot must not
+		 * be used afterwards.
+		 */
+		@Override
+		public void close() {
+			if (closed.compareAndSet(false, true)) {
+				if (reference != null) {
+					reference.release();
+				} else {
+					unpin(pinned);
+				}
+			}
+		}
+
+		private Record visible(final Object vertex) {
+			Record r = records.get(vertex);
+			while (r != null && r.version > pinned) {
+				r = r.previous;
+			}
+			return r == null || r.removed ? null : r;
+		}
+
+		@SuppressWarnings("unchecked")
+		private Set<E> edgeSet(final Object[] array) {
+			Set<E> result = new HashSet<E>();
+			for (Object e : array) {
+				result.add((E) e);
+			}
+			return result;
+		}
+
+		@Override
+		public Set<V> getAllVertices() {
+			Set<V> result = allVertices;
+			if (result == null) {
+				Set<V> set = new HashSet<V>();
+				for (Map.Entry<V, Record> entry : records.entrySet()) {
+					if (visible(entry.getKey()) != null) {
+						set.add(entry.getKey());
+					}
+				}
+				result = Collections.unmodifiableSet(set);
+				allVertices = result;
+			}
+			return result;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Set<E> getAllEdges() {
+			Set<E> result = allEdges;
+			if (result == null) {
+				Set<E> set = new HashSet<E>();
+				for (V v : getAllVertices()) {
+					for (Object e : visible(v).outgoing) {
+						set.add((E) e);
+					}
+				}
+				result = Collections.unmodifiableSet(set);
+				allEdges = result;
+			}
+			return result;
+		}
+
+		@Override
+		public Set<E> getAllEdges(final V vertex) {
+			Record r = visible(vertex);
+			if (r == null) {
+				return new HashSet<E>();
+			}
+			Set<E> result = edgeSet(r.incoming);
+			result.addAll(edgeSet(r.outgoing));
+			return result;
+		}
+
+		@Override
+		public Set<E> getEdges(final V v1, final V v2) {
+			Set<E> result = new HashSet<E>();
+			Record r1 = visible(v1);
+			Record r2 = visible(v2);
+			if (r1 == null || r2 == null) {
+				return result;
+			}
+			for (E e : edgeSet(r1.outgoing)) {
+				if (e.getTargetVertex().equals(v2)) {
+					result.add(e);
+				}
+			}
+			for (E e : edgeSet(r2.outgoing)) {
+				if (e.getTargetVertex().equals(v1)) {
+					result.add(e);
+				}
+			}
+			return result;
+		}
+
+		@Override
+		public boolean contains(final E edge) {
+			Record r = visible(edge.getSourceVertex());
+			return r != null && indexOf(r.outgoing, edge) >= 0;
+		}
+
+		@Override
+		public boolean contains(final V vertex) {
+			return visible(vertex) != null;
+		}
+
+		@Override
+		public Set<E> getIncomingEdgesFor(final V vertex) {
+			Record r = visible(vertex);
+			return r == null ? new HashSet<E>() : edgeSet(r.incoming);
+		}
+
+		@Override
+		public int getInDegreeFor(final V vertex) {
+			Record r = visible(vertex);
+			return r == null ? 0 : r.incoming.length;
+		}
+
+		@Override
+		public Set<E> getOutgoingEdgesFor(final V vertex) {
+			Record r = visible(vertex);
+			return r == null ? new HashSet<E>() : edgeSet(r.outgoing);
+		}
+
+		@Override
+		public int getOutDegreeFor(final V vertex) {
+			Record r = visible(vertex);
+			return r == null ? 0 : r.outgoing.length;
+		}
+
+		/*
+		 * Walks the records visible in the snapshot, ignoring edge
+		 * directions; the inherited walk reads the vertex set of
+		 * AbstractGraph, which a snapshot does not fill.
+		 */
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean isConnected() {
+			Set<V> all = getAllVertices();
+			if (all.isEmpty()) {
+				return true;
+			}
+			V first = all.iterator().next();
+			Set<V> visited = new HashSet<V>();
+			Deque<V> stack = new ArrayDeque<V>();
+			visited.add(first);
+			stack.push(first);
+			while (!stack.isEmpty()) {
+				Record r = visible(stack.pop());
+				for (Object e : r.outgoing) {
+					V w = ((E) e).getTargetVertex();
+					if (visited.add(w)) {
+						stack.push(w);
+					}
+				}
+				for (Object e : r.incoming) {
+					V w = ((E) e).getSourceVertex();
+					if (visited.add(w)) {
+						stack.push(w);
+					}
+				}
+			}
+			return visited.size() == all.size();
+		}
+
+		@Override
+		public void setPairIndexed(final boolean pairIndexed) {
+			VersionedGraph.this.setPairIndexed(pairIndexed);
+		}
+
+		@Override
+		public boolean addVertex(final V vertex) {
+			throw new UnsupportedOperationException("Snapshot is immutable.");
+		}
+
+		@Override
+		public boolean addEdge(final E edge) {
+			throw new UnsupportedOperationException("Snapshot is immutable.");
+		}
+
+		@Override
+		public boolean removeEdge(final E edge) {
+			throw new UnsupportedOperationException("Snapshot is immutable.");
+		}
+
+		@Override
+		public void removeAllEdges() {
+			throw new UnsupportedOperationException("Snapshot is immutable.");
+		}
+
+		@Override
+		public boolean removeVertex(final V vertex) {
+			throw new UnsupportedOperationException("Snapshot is immutable.");
+		}
+
+		@Override
+		public void removeAllVertices() {
+			throw new UnsupportedOperationException("Snapshot is immutable.");
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package com.graphlib.graph.core;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the edges of a graph keyed on their ordered (source, target) vertex
+ * pair. The edges between two vertices in either direction are found with two
+ * lookups, in O(multiplicity).
+ *
+ * @param <V>
+ *            Vertex type
+ * @param <E>
+ *            Edge type
+ */
+final class VertexPairIndex<V, E extends Edge<V, E>> {
+
+	private final Map<VertexPair<V>, Set<E>> buckets;
+
+	VertexPairIndex(final Set<E> edges) {
+		this.buckets = new HashMap<>(Math.max(16, (int) (edges.size() / 0.75f) + 1));
+		for (E e : edges) {
+			add(e);
+		}
+	}
+
+	void add(final E edge) {
+		VertexPair<V> key = new VertexPair<V>(edge.getSourceVertex(), edge.getTargetVertex());
+		Set<E> bucket = buckets.get(key);
+		if (bucket == null) {
+			bucket = new HashSet<E>(4);
+			buckets.put(key, bucket);
+		}
+		bucket.add(edge);
+	}
+
+	void remove(final E edge) {
+		VertexPair<V> key = new VertexPair<V>(edge.getSourceVertex(), edge.getTargetVertex());
+		Set<E> bucket = buckets.get(key);
+		if (bucket != null && bucket.remove(edge) && bucket.isEmpty()) {
+			buckets.remove(key);
+		}
+	}
+
+	void clear() {
+		buckets.clear();
+	}
+
+	/**
+	 * Collects the edges from source to target.
+	 */
+	void collect(final V source, final V target, final Set<E> result) {
+		Set<E> bucket = buckets.get(new VertexPair<V>(source, target));
+		if (bucket != null) {
+			result.addAll(bucket);
+		}
+	}
+
+	private static final class VertexPair<V> {
+
+		private final V source;
+
+		private final V target;
+
+		VertexPair(V source, V target) {
+			this.source = source;
+			this.target = target;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * source.hashCode() + target.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof VertexPair)) {
+				return false;
+			}
+			VertexPair<?> other = (VertexPair<?>) obj;
+			return source.equals(other.source) && target.equals(other.target);
+		}
+	}
+}
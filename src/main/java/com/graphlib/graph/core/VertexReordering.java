@@ -0,0 +1,194 @@
+package com.graphlib.graph.core;
+
+import java.util.Arrays;
+
+/**
+ * Vertex orderings that improve the memory locality of traversals over an
+ * {@link IntGraph}. Each ordering is returned as a permutation that maps the
+ * current id of a vertex to its new id, ready for
+ * {@link CsrGraph#permute(int[])}:
+ *
+ * <pre>
+ * int[] permutation = VertexReordering.reverseCuthillMcKee(csr);
+ * CsrGraph&lt;V, E&gt; local = csr.permute(permutation);
+ * </pre>
+ *
+ * Results computed on ids of the permuted graph are mapped back with the
+ * {@link #invert(int[]) inverse} permutation. Edge directions are ignored when
+ * computing the orderings.
+ */
+public final class VertexReordering {
+
+	private VertexReordering() {
+	}
+
+	/**
+	 * Numbers the vertices in breadth first order, starting each component
+	 * from its lowest id.
+	 *
+	 * @param graph
+	 * @return Permutation from current to new ids
+	 */
+	public static int[] breadthFirst(final IntGraph graph) {
+		int n = graph.getVertexCount();
+		int[] order = new int[n];
+		boolean[] visited = new boolean[n];
+		int tail = 0;
+		for (int root = 0; root < n; root++) {
+			if (!visited[root]) {
+				tail = traverse(graph, root, visited, order, tail, null);
+			}
+		}
+		return invert(order);
+	}
+
+	/**
+	 * Numbers the vertices in reverse Cuthill-McKee order, which keeps the ids
+	 * of adjacent vertices close together. Each component is traversed
+	 * breadth first from a vertex of minimum degree, visiting neighbors in
+	 * increasing order of degree, and the resulting order is reversed.
+	 *
+	 * @param graph
+	 * @return Permutation from current to new ids
+	 */
+	public static int[] reverseCuthillMcKee(final IntGraph graph) {
+		int n = graph.getVertexCount();
+		int[] degrees = degrees(graph);
+		int[] byDegree = sortByDegree(degrees, false);
+		int[] order = new int[n];
+		boolean[] visited = new boolean[n];
+		int tail = 0;
+		for (int root : byDegree) {
+			if (!visited[root]) {
+				tail = traverse(graph, root, visited, order, tail, degrees);
+			}
+		}
+		for (int i = 0, j = n - 1; i < j; i++, j--) {
+			int t = order[i];
+			order[i] = order[j];
+			order[j] = t;
+		}
+		return invert(order);
+	}
+
+	/**
+	 * Numbers the vertices in decreasing order of degree, keeping the hubs
+	 * that most traversals touch together at the lowest ids. Vertices of equal
+	 * degree keep their relative order.
+	 *
+	 * @param graph
+	 * @return Permutation from current to new ids
+	 */
+	public static int[] degreeDescending(final IntGraph graph) {
+		return invert(sortByDegree(degrees(graph), true));
+	}
+
+	/**
+	 * Returns the inverse of a permutation, i.e. the map from new ids back to
+	 * current ids. The inverse of a vertex order is the permutation that
+	 * numbers the vertices in that order.
+	 *
+	 * @param permutation
+	 * @return Inverse permutation
+	 */
+	public static int[] invert(final int[] permutation) {
+		int[] inverse = new int[permutation.length];
+		for (int v = 0; v < permutation.length; v++) {
+			inverse[permutation[v]] = v;
+		}
+		return inverse;
+	}
+
+	/*
+	 * Appends the vertices reachable from root to order in breadth first
+	 * order, using order itself as the queue. With degrees given, the
+	 * unvisited neighbors of every vertex are appended in increasing order of
+	 * degree.
+	 */
+	private static int traverse(final IntGraph graph, final int root, final boolean[] visited, final int[] order,
+			int tail, final int[] degrees) {
+		int head = tail;
+		visited[root] = true;
+		order[tail++] = root;
+		while (head < tail) {
+			int v = order[head++];
+			int first = tail;
+			tail = visit(graph.getSuccessors(v), visited, order, tail);
+			tail = visit(graph.getPredecessors(v), visited, order, tail);
+			if (degrees != null) {
+				sortByDegree(order, first, tail, degrees);
+			}
+		}
+		return tail;
+	}
+
+	/*
+	 * Sorts order[from, to) on the degrees of the vertices. Short ranges are
+	 * insertion sorted; long ones are sorted as (degree, vertex) pairs packed
+	 * into longs.
+	 */
+	private static void sortByDegree(final int[] order, final int from, final int to, final int[] degrees) {
+		if (to - from <= 32) {
+			for (int i = from + 1; i < to; i++) {
+				int w = order[i];
+				int j = i - 1;
+				while (j >= from && degrees[order[j]] > degrees[w]) {
+					order[j + 1] = order[j];
+					j--;
+				}
+				order[j + 1] = w;
+			}
+			return;
+		}
+		long[] keys = new long[to - from];
+		for (int i = from; i < to; i++) {
+			keys[i - from] = ((long) degrees[order[i]] << 32) | order[i];
+		}
+		Arrays.sort(keys);
+		for (int i = from; i < to; i++) {
+			order[i] = (int) keys[i - from];
+		}
+	}
+
+	private static int visit(final IntCursor neighbors, final boolean[] visited, final int[] order, int tail) {
+		while (neighbors.hasNext()) {
+			int w = neighbors.next();
+			if (!visited[w]) {
+				visited[w] = true;
+				order[tail++] = w;
+			}
+		}
+		return tail;
+	}
+
+	private static int[] degrees(final IntGraph graph) {
+		int[] degrees = graph.getOutDegrees();
+		int[] in = graph.getInDegrees();
+		for (int v = 0; v < degrees.length; v++) {
+			degrees[v] += in[v];
+		}
+		return degrees;
+	}
+
+	/*
+	 * Stable counting sort of the vertex ids on their degree.
+	 */
+	private static int[] sortByDegree(final int[] degrees, final boolean descending) {
+		int max = 0;
+		for (int d : degrees) {
+			max = Math.max(max, d);
+		}
+		int[] offsets = new int[max + 2];
+		for (int d : degrees) {
+			offsets[(descending ? max - d : d) + 1]++;
+		}
+		for (int i = 0; i <= max; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+		int[] sorted = new int[degrees.length];
+		for (int v = 0; v < degrees.length; v++) {
+			sorted[offsets[descending ? max - degrees[v] : degrees[v]]++] = v;
+		}
+		return sorted;
+	}
+}
@@ -0,0 +1,120 @@
+package com.graphlib.graph.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Interns byte string keys to dense ids without creating a String per key.
+ * Keys are copied into a byte arena and found through an open addressing hash
+ * table.
+ */
+final class ByteKeyTable {
+
+	private byte[] arena = new byte[1 << 12];
+
+	private int arenaSize;
+
+	private int[] keyOffsets = new int[64];
+
+	private int[] keyLengths = new int[64];
+
+	private int[] keyHashes = new int[64];
+
+	/*
+	 * Id + 1 of the key in each slot, 0 for an empty slot.
+	 */
+	private int[] slots = new int[128];
+
+	private int size;
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the id of the key in buffer[from, to), adding it if absent.
+	 */
+	int intern(final ByteBuffer buffer, final int from, final int to) {
+		int hash = 1;
+		for (int i = from; i < to; i++) {
+			hash = 31 * hash + buffer.get(i);
+		}
+		int mask = slots.length - 1;
+		for (int slot = mix(hash) & mask;; slot = (slot + 1) & mask) {
+			int id = slots[slot] - 1;
+			if (id < 0) {
+				id = add(hash, to - from);
+				for (int i = from; i < to; i++) {
+					arena[keyOffsets[id] + i - from] = buffer.get(i);
+				}
+				slots[slot] = id + 1;
+				if (size * 2 > slots.length) {
+					rehash();
+				}
+				return id;
+			}
+			if (keyHashes[id] == hash && equals(id, buffer, from, to)) {
+				return id;
+			}
+		}
+	}
+
+	/**
+	 * Returns the id of the given key of another table, adding it if absent.
+	 */
+	int intern(final ByteKeyTable other, final int otherId) {
+		ByteBuffer key = ByteBuffer.wrap(other.arena, other.keyOffsets[otherId], other.keyLengths[otherId]);
+		return intern(key, key.position(), key.limit());
+	}
+
+	String key(final int id) {
+		return new String(arena, keyOffsets[id], keyLengths[id], StandardCharsets.UTF_8);
+	}
+
+	private boolean equals(final int id, final ByteBuffer buffer, final int from, final int to) {
+		if (keyLengths[id] != to - from) {
+			return false;
+		}
+		int offset = keyOffsets[id];
+		for (int i = from; i < to; i++) {
+			if (arena[offset++] != buffer.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int add(final int hash, final int length) {
+		if (size == keyOffsets.length) {
+			keyOffsets = Arrays.copyOf(keyOffsets, size * 2);
+			keyLengths = Arrays.copyOf(keyLengths, size * 2);
+			keyHashes = Arrays.copyOf(keyHashes, size * 2);
+		}
+		if (arenaSize + length > arena.length) {
+			arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + length));
+		}
+		keyOffsets[size] = arenaSize;
+		keyLengths[size] = length;
+		keyHashes[size] = hash;
+		arenaSize += length;
+		return size++;
+	}
+
+	private void rehash() {
+		slots = new int[slots.length * 2];
+		int mask = slots.length - 1;
+		for (int id = 0; id < size; id++) {
+			int slot = mix(keyHashes[id]) & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = id + 1;
+		}
+	}
+
+	private static int mix(final int hash) {
+		int h = hash * 0x9e3779b9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,42 @@
+package com.graphlib.graph.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import com.graphlib.graph.core.Edge;
+
+/**
+ * Converts edges to and from their binary form in the graph format of
+ * {@link GraphWriter} and {@link GraphReader}. The format stores the endpoints
+ * and, for {@link com.graphlib.graph.core.WeightedEdge}s, the weights itself;
+ * the codec handles whatever else identifies an edge.
+ *
+ * @param <V>
+ *            Vertex type
+ * @param <E>
+ *            Edge type
+ */
+public interface EdgeCodec<V, E extends Edge<V, E>> {
+
+	/**
+	 * Writes the data of the given edge other than its endpoints and weight.
+	 * 
+	 * @param edge
+	 * @param out
+	 * @throws IOException
+	 */
+	public void encode(E edge, DataOutput out) throws IOException;
+
+	/**
+	 * Reads an edge written by {@link #encode(Edge, DataOutput)} and creates it
+	 * between the given vertices.
+	 * 
+	 * @param source
+	 * @param target
+	 * @param in
+	 * @return The edge
+	 * @throws IOException
+	 */
+	public E decode(V source, V target, DataInput in) throws IOException;
+}
@@ -0,0 +1,124 @@
+package com.graphlib.graph.io;
+
+import com.graphlib.graph.core.GraphBuilder;
+import com.graphlib.graph.core.IndexedGraph;
+import com.graphlib.graph.core.IntAdjacencyGraph;
+import com.graphlib.graph.core.WeightedEdge;
+import com.graphlib.graph.core.WeightedEdgeFactory;
+
+/**
+ * Edges read by an {@link EdgeListReader}, in file order. Vertex keys are
+ * interned to dense ids in the order they first appear.
+ */
+public final class EdgeList {
+
+	private final ByteKeyTable keys;
+
+	private final int edgeCount;
+
+	private final int[] sources;
+
+	private final int[] targets;
+
+	private final int[] weights;
+
+	EdgeList(final ByteKeyTable keys, final int edgeCount, final int[] sources, final int[] targets,
+			final int[] weights) {
+		this.keys = keys;
+		this.edgeCount = edgeCount;
+		this.sources = sources;
+		this.targets = targets;
+		this.weights = weights;
+	}
+
+	public int getVertexCount() {
+		return keys.size();
+	}
+
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * Returns the key of the vertex with the given id, as it appears in the
+	 * file.
+	 *
+	 * @param vertex
+	 *            Vertex id
+	 * @return Vertex key
+	 */
+	public String getVertexKey(final int vertex) {
+		if (vertex < 0 || vertex >= keys.size()) {
+			throw new IllegalArgumentException("No vertex with id " + vertex + ".");
+		}
+		return keys.key(vertex);
+	}
+
+	public int getSource(final int edge) {
+		checkEdge(edge);
+		return sources[edge];
+	}
+
+	public int getTarget(final int edge) {
+		checkEdge(edge);
+		return targets[edge];
+	}
+
+	/**
+	 * Returns the weight of the given edge, 1 for edges without a weight.
+	 *
+	 * @param edge
+	 * @return Edge weight
+	 */
+	public int getWeight(final int edge) {
+		checkEdge(edge);
+		return weights[edge];
+	}
+
+	private void checkEdge(final int edge) {
+		if (edge < 0 || edge >= edgeCount) {
+			throw new IllegalArgumentException("No edge with id " + edge + ".");
+		}
+	}
+
+	/**
+	 * Returns the edges as an int graph over the vertex ids. Edge ids are the
+	 * line order of the edges.
+	 *
+	 * @return The graph
+	 */
+	public IntAdjacencyGraph toIntGraph() {
+		IntAdjacencyGraph graph = new IntAdjacencyGraph(keys.size(), edgeCount);
+		graph.addVertices(keys.size());
+		for (int e = 0; e < edgeCount; e++) {
+			graph.addEdge(sources[e], targets[e], weights[e]);
+		}
+		return graph;
+	}
+
+	/**
+	 * Returns the edges as a graph whose vertices are the vertex keys, bulk
+	 * loaded through a {@link GraphBuilder}.
+	 *
+	 * @param edgeFactory
+	 *            Creates the edges from their endpoints and weights
+	 * @return The graph
+	 */
+	public <E extends WeightedEdge<String, E>> IndexedGraph<String, E> toGraph(
+			final WeightedEdgeFactory<String, E> edgeFactory) {
+		if (edgeFactory == null) {
+			throw new IllegalArgumentException("Edge factory cannot be null.");
+		}
+		String[] vertices = new String[keys.size()];
+		GraphBuilder<String, E> builder = new GraphBuilder<String, E>().expectedVertices(vertices.length)
+				.expectedEdges(edgeCount);
+		for (int v = 0; v < vertices.length; v++) {
+			vertices[v] = keys.key(v);
+			builder.addVertex(vertices[v]);
+		}
+		for (int e = 0; e < edgeCount; e++) {
+			builder.addEdge(edgeFactory.createWeightedEdge(vertices[sources[e]], vertices[targets[e]], weights[e]));
+		}
+		return builder.build();
+	}
+}
@@ -0,0 +1,452 @@
+package com.graphlib.graph.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads delimited edge lists, one {@code source target [weight]} record per
+ * line, straight from a {@link FileChannel} into direct byte buffers. Vertex
+ * keys are interned to ids from their bytes, so no String is created per line;
+ * only the distinct keys are decoded, on demand. Blank lines and lines starting
+ * with {@code #} or {@code %} are skipped, and spaces around fields are
+ * ignored.
+ *
+ * <p>
+ * With a parallelism above one, the file is split into chunks at line
+ * boundaries that are parsed concurrently and merged in file order. Progress
+ * and throughput are published through {@link #getMetrics()} while a file is
+ * read.
+ *
+ * <pre>
+ * EdgeList edges = new EdgeListReader().delimiter(',').parallelism(8).read(path);
+ * IntAdjacencyGraph graph = edges.toIntGraph();
+ * </pre>
+ */
+public class EdgeListReader {
+
+	private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+	private byte delimiter = '\t';
+
+	private int parallelism = 1;
+
+	private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+	private final Metrics metrics = new Metrics();
+
+	/**
+	 * Sets the field delimiter, a tab by default.
+	 *
+	 * @param delimiter
+	 *            An ASCII character
+	 * @return This reader
+	 */
+	public EdgeListReader delimiter(final char delimiter) {
+		if (delimiter > 0x7f || delimiter == '\n' || delimiter == '\r') {
+			throw new IllegalArgumentException("Delimiter must be an ASCII character other than a line break.");
+		}
+		this.delimiter = (byte) delimiter;
+		return this;
+	}
+
+	/**
+	 * Sets the number of chunks parsed concurrently, 1 by default.
+	 *
+	 * @param parallelism
+	 * @return This reader
+	 */
+	public EdgeListReader parallelism(final int parallelism) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("Parallelism must be positive.");
+		}
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * Sets the size of the read buffer of every chunk, which bounds the length
+	 * of a line. A file is split into chunks of at least this size.
+	 *
+	 * @param bufferSize
+	 *            Size in bytes
+	 * @return This reader
+	 */
+	public EdgeListReader bufferSize(final int bufferSize) {
+		if (bufferSize < 64) {
+			throw new IllegalArgumentException("Buffer size must be at least 64 bytes.");
+		}
+		this.bufferSize = bufferSize;
+		return this;
+	}
+
+	/**
+	 * Returns the metrics of the current or last read.
+	 *
+	 * @return Metrics
+	 */
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Reads the edge list in the given file.
+	 *
+	 * @param file
+	 * @return The edges
+	 * @throws IOException
+	 *             If the file cannot be read or has a malformed line
+	 */
+	public EdgeList read(final Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return read(channel);
+		}
+	}
+
+	/**
+	 * Reads the edge list in the given channel, from its start to its size at
+	 * the time of the call. The channel is not closed.
+	 *
+	 * @param channel
+	 * @return The edges
+	 * @throws IOException
+	 *             If the channel cannot be read or has a malformed line
+	 */
+	public EdgeList read(final FileChannel channel) throws IOException {
+		long size = channel.size();
+		metrics.start(size);
+		int chunks = (int) Math.max(1, Math.min(parallelism, size / bufferSize));
+		List<Chunk> parsed = new ArrayList<>(chunks);
+		if (chunks == 1) {
+			Chunk chunk = new Chunk(channel, 0, size);
+			chunk.call();
+			parsed.add(chunk);
+		} else {
+			ForkJoinPool pool = new ForkJoinPool(chunks);
+			try {
+				List<Future<Chunk>> futures = new ArrayList<>(chunks);
+				for (int i = 0; i < chunks; i++) {
+					futures.add(pool.submit(new Chunk(channel, size * i / chunks, size * (i + 1) / chunks)));
+				}
+				for (Future<Chunk> f : futures) {
+					parsed.add(f.get());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while reading the edge list.", e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException) {
+					throw (IOException) e.getCause();
+				}
+				throw new IOException("Failed to read the edge list.", e.getCause());
+			} finally {
+				pool.shutdown();
+			}
+		}
+		EdgeList result = merge(parsed);
+		metrics.finish();
+		return result;
+	}
+
+	/*
+	 * Concatenates the chunks in file order, mapping their local vertex ids to
+	 * ids in the table of the first chunk.
+	 */
+	private static EdgeList merge(final List<Chunk> chunks) {
+		Chunk first = chunks.get(0);
+		if (chunks.size() == 1) {
+			return new EdgeList(first.keys, first.edgeCount, first.sources, first.targets, first.weights);
+		}
+		int edgeCount = 0;
+		for (Chunk c : chunks) {
+			edgeCount += c.edgeCount;
+		}
+		ByteKeyTable keys = first.keys;
+		int[] sources = Arrays.copyOf(first.sources, edgeCount);
+		int[] targets = Arrays.copyOf(first.targets, edgeCount);
+		int[] weights = Arrays.copyOf(first.weights, edgeCount);
+		int position = first.edgeCount;
+		for (Chunk c : chunks.subList(1, chunks.size())) {
+			int[] ids = new int[c.keys.size()];
+			for (int i = 0; i < ids.length; i++) {
+				ids[i] = keys.intern(c.keys, i);
+			}
+			for (int e = 0; e < c.edgeCount; e++, position++) {
+				sources[position] = ids[c.sources[e]];
+				targets[position] = ids[c.targets[e]];
+				weights[position] = c.weights[e];
+			}
+		}
+		return new EdgeList(keys, edgeCount, sources, targets, weights);
+	}
+
+	/**
+	 * Parses the lines that start in a range of the file.
+	 */
+	private final class Chunk implements Callable<Chunk> {
+
+		private final FileChannel channel;
+
+		private final long start;
+
+		private final long end;
+
+		final ByteKeyTable keys = new ByteKeyTable();
+
+		int edgeCount;
+
+		int[] sources = new int[1024];
+
+		int[] targets = new int[1024];
+
+		int[] weights = new int[1024];
+
+		Chunk(FileChannel channel, long start, long end) {
+			this.channel = channel;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public Chunk call() throws IOException {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+			long readPosition = start;
+
+			// File offset of index 0 of the buffer.
+			long bufferOffset = start;
+
+			/*
+			 * A chunk that starts within a line leaves it to the previous
+			 * chunk.
+			 */
+			boolean skipping = start > 0 && !startsLine();
+			boolean eof = false;
+			while (true) {
+				int read = 0;
+				while (buffer.hasRemaining() && !eof) {
+					int n = channel.read(buffer, readPosition);
+					if (n < 0) {
+						eof = true;
+					} else {
+						readPosition += n;
+						read += n;
+					}
+				}
+				metrics.bytesRead.addAndGet(read);
+				buffer.flip();
+
+				int lineStart = 0;
+				int limit = buffer.limit();
+				int lines = 0;
+				for (int i = 0; i < limit; i++) {
+					if (buffer.get(i) != '\n') {
+						continue;
+					}
+					if (skipping) {
+						skipping = false;
+					} else if (bufferOffset + lineStart < end) {
+						parseLine(buffer, lineStart, i, bufferOffset + lineStart);
+						lines++;
+					} else {
+						metrics.linesRead.addAndGet(lines);
+						return this;
+					}
+					lineStart = i + 1;
+				}
+				metrics.linesRead.addAndGet(lines);
+
+				if (eof) {
+					if (!skipping && lineStart < limit && bufferOffset + lineStart < end) {
+						parseLine(buffer, lineStart, limit, bufferOffset + lineStart);
+						metrics.linesRead.incrementAndGet();
+					}
+					return this;
+				}
+				if (lineStart == 0 && limit == buffer.capacity()) {
+					throw new IOException("Line at byte offset " + bufferOffset + " is longer than the buffer.");
+				}
+				buffer.position(lineStart);
+				buffer.compact();
+				bufferOffset += lineStart;
+			}
+		}
+
+		private boolean startsLine() throws IOException {
+			ByteBuffer previous = ByteBuffer.allocate(1);
+			channel.read(previous, start - 1);
+			return previous.get(0) == '\n';
+		}
+
+		private void parseLine(final ByteBuffer buffer, final int from, int to, final long offset)
+				throws IOException {
+			if (to > from && buffer.get(to - 1) == '\r') {
+				to--;
+			}
+			int i = skipSpaces(buffer, from, to);
+			if (i == to || buffer.get(i) == '#' || buffer.get(i) == '%') {
+				return;
+			}
+
+			int sourceEnd = fieldEnd(buffer, i, to);
+			int targetStart = skipSpaces(buffer, Math.min(sourceEnd + 1, to), to);
+			int targetEnd = fieldEnd(buffer, targetStart, to);
+			if (sourceEnd == to || targetEnd == targetStart) {
+				throw new IOException("Malformed edge at byte offset " + offset + ", expected source and target.");
+			}
+			int weight = 1;
+			if (targetEnd < to) {
+				int weightStart = skipSpaces(buffer, targetEnd + 1, to);
+				int weightEnd = fieldEnd(buffer, weightStart, to);
+				if (weightStart < weightEnd) {
+					weight = parseInt(buffer, weightStart, weightEnd, offset);
+				}
+			}
+
+			if (edgeCount == sources.length) {
+				sources = Arrays.copyOf(sources, edgeCount * 2);
+				targets = Arrays.copyOf(targets, edgeCount * 2);
+				weights = Arrays.copyOf(weights, edgeCount * 2);
+			}
+			sources[edgeCount] = keys.intern(buffer, i, trimEnd(buffer, i, sourceEnd));
+			targets[edgeCount] = keys.intern(buffer, targetStart, trimEnd(buffer, targetStart, targetEnd));
+			weights[edgeCount] = weight;
+			edgeCount++;
+			metrics.edgesRead.incrementAndGet();
+		}
+
+		private int fieldEnd(final ByteBuffer buffer, int i, final int to) {
+			while (i < to && buffer.get(i) != delimiter) {
+				i++;
+			}
+			return i;
+		}
+
+		private int skipSpaces(final ByteBuffer buffer, int i, final int to) {
+			while (i < to && buffer.get(i) == ' ' && delimiter != ' ') {
+				i++;
+			}
+			return i;
+		}
+
+		private int trimEnd(final ByteBuffer buffer, final int from, int to) {
+			while (to > from && buffer.get(to - 1) == ' ' && delimiter != ' ') {
+				to--;
+			}
+			return to;
+		}
+
+		private int parseInt(final ByteBuffer buffer, int i, int to, final long offset) throws IOException {
+			to = trimEnd(buffer, i, to);
+			boolean negative = buffer.get(i) == '-';
+			if (negative) {
+				i++;
+			}
+			if (i == to) {
+				throw new IOException("Malformed weight at byte offset " + offset + ".");
+			}
+			long value = 0;
+			for (; i < to; i++) {
+				int digit = buffer.get(i) - '0';
+				if (digit < 0 || digit > 9 || (value = value * 10 + digit) > Integer.MAX_VALUE + 1L) {
+					throw new IOException("Malformed weight at byte offset " + offset + ".");
+				}
+			}
+			value = negative ? -value : value;
+			if (value > Integer.MAX_VALUE) {
+				throw new IOException("Malformed weight at byte offset " + offset + ".");
+			}
+			return (int) value;
+		}
+	}
+
+	/**
+	 * Progress and throughput of the current or last read. The counters are
+	 * updated while the file is read and may be polled from another thread.
+	 */
+	public static final class Metrics {
+
+		private final AtomicLong bytesRead = new AtomicLong();
+
+		private final AtomicLong linesRead = new AtomicLong();
+
+		private final AtomicLong edgesRead = new AtomicLong();
+
+		private volatile long totalBytes;
+
+		private volatile long startNanos;
+
+		private volatile long endNanos;
+
+		private void start(final long size) {
+			bytesRead.set(0);
+			linesRead.set(0);
+			edgesRead.set(0);
+			totalBytes = size;
+			endNanos = 0;
+			startNanos = System.nanoTime();
+		}
+
+		private void finish() {
+			endNanos = System.nanoTime();
+		}
+
+		/**
+		 * Returns the number of bytes read so far. Chunks read slightly past
+		 * their end to finish their last line, so the count may exceed the
+		 * size of the file by a few lines.
+		 */
+		public long getBytesRead() {
+			return bytesRead.get();
+		}
+
+		public long getTotalBytes() {
+			return totalBytes;
+		}
+
+		public long getLinesRead() {
+			return linesRead.get();
+		}
+
+		public long getEdgesRead() {
+			return edgesRead.get();
+		}
+
+		/**
+		 * Returns the fraction of the file read so far, between 0 and 1.
+		 */
+		public double getProgress() {
+			return totalBytes == 0 ? 1 : Math.min(1, (double) bytesRead.get() / totalBytes);
+		}
+
+		/**
+		 * Returns the time spent on the current or last read.
+		 */
+		public long getElapsedNanos() {
+			long end = endNanos;
+			return (end == 0 ? System.nanoTime() : end) - startNanos;
+		}
+
+		public double getBytesPerSecond() {
+			return perSecond(bytesRead.get());
+		}
+
+		public double getEdgesPerSecond() {
+			return perSecond(edgesRead.get());
+		}
+
+		private double perSecond(final long count) {
+			long elapsed = getElapsedNanos();
+			return elapsed <= 0 ? 0 : count * 1e9 / elapsed;
+		}
+	}
+}
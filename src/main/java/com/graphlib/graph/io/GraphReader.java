@@ -0,0 +1,133 @@
+package com.graphlib.graph.io;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+import com.graphlib.graph.core.Edge;
+import com.graphlib.graph.core.EdgeFactory;
+import com.graphlib.graph.core.Graph;
+import com.graphlib.graph.core.GraphBuilder;
+import com.graphlib.graph.core.IndexedGraph;
+import com.graphlib.graph.core.WeightedEdge;
+
+/**
+ * Reads graphs written by {@link GraphWriter}, either into an existing
+ * {@link Graph} or, faster, straight into an {@link IndexedGraph} sized from
+ * the counts in the header and built in bulk. The input is buffered; the
+ * channel is not closed.
+ *
+ * @param <V>
+ *            Vertex type
+ * @param <E>
+ *            Edge type
+ */
+public class GraphReader<V, E extends Edge<V, E>> {
+
+	private final VertexCodec<V> vertexCodec;
+
+	private final EdgeCodec<V, E> edgeCodec;
+
+	public GraphReader(final VertexCodec<V> vertexCodec, final EdgeCodec<V, E> edgeCodec) {
+		if (vertexCodec == null || edgeCodec == null) {
+			throw new IllegalArgumentException("Codecs cannot be null.");
+		}
+		this.vertexCodec = vertexCodec;
+		this.edgeCodec = edgeCodec;
+	}
+
+	/**
+	 * Reads a graph into a new {@link IndexedGraph}.
+	 * 
+	 * @param channel
+	 * @param edgeFactory
+	 *            Edge factory of the new graph, may be null
+	 * @return The graph
+	 * @throws IOException
+	 *             If the channel cannot be read or holds no graph
+	 */
+	public IndexedGraph<V, E> readIndexedGraph(final ReadableByteChannel channel,
+			final EdgeFactory<V, E> edgeFactory) throws IOException {
+		GraphBuilder<V, E> builder = new GraphBuilder<>(edgeFactory);
+		load(channel, null, builder);
+		return builder.build();
+	}
+
+	/**
+	 * Reads a graph and adds its vertices and edges to the given graph.
+	 * 
+	 * @param channel
+	 * @param graph
+	 * @return The given graph
+	 * @throws IOException
+	 *             If the channel cannot be read or holds no graph
+	 */
+	public <G extends Graph<V, E>> G readInto(final ReadableByteChannel channel, final G graph) throws IOException {
+		if (graph == null) {
+			throw new IllegalArgumentException("Graph cannot be null.");
+		}
+		load(channel, graph, null);
+		return graph;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void load(final ReadableByteChannel channel, final Graph<V, E> graph, final GraphBuilder<V, E> builder)
+			throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel),
+				GraphWriter.BUFFER_SIZE));
+		if (in.readInt() != GraphWriter.MAGIC) {
+			throw new IOException("Not a graph file.");
+		}
+		int version = in.readInt();
+		if (version != GraphWriter.FORMAT_VERSION) {
+			throw new IOException("Unsupported graph format version " + version + ".");
+		}
+		int flags = in.readInt();
+		int vertexCount = in.readInt();
+		int edgeCount = in.readInt();
+		if (vertexCount < 0 || edgeCount < 0) {
+			throw new IOException("Graph file is corrupt.");
+		}
+		if (builder != null) {
+			builder.expectedVertices(vertexCount).expectedEdges(edgeCount);
+		}
+
+		Object[] vertices = new Object[vertexCount];
+		for (int i = 0; i < vertexCount; i++) {
+			V v = vertexCodec.decode(in);
+			vertices[i] = v;
+			if (builder != null) {
+				builder.addVertex(v);
+			} else {
+				graph.addVertex(v);
+			}
+		}
+
+		int[] weights = null;
+		if ((flags & GraphWriter.FLAG_WEIGHTED) != 0) {
+			weights = new int[edgeCount];
+			for (int i = 0; i < edgeCount; i++) {
+				weights[i] = in.readInt();
+			}
+		}
+
+		for (int i = 0; i < edgeCount; i++) {
+			int source = in.readInt();
+			int target = in.readInt();
+			if (source < 0 || source >= vertexCount || target < 0 || target >= vertexCount) {
+				throw new IOException("Graph file is corrupt, edge " + i + " has no endpoint.");
+			}
+			E e = edgeCodec.decode((V) vertices[source], (V) vertices[target], in);
+			if (weights != null && e instanceof WeightedEdge) {
+				((WeightedEdge<?, ?>) e).setEdgeWeight(weights[i]);
+			}
+			if (builder != null) {
+				builder.addEdge(e);
+			} else {
+				graph.addEdge(e);
+			}
+		}
+	}
+}
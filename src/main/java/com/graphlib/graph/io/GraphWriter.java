@@ -0,0 +1,125 @@
+package com.graphlib.graph.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.graphlib.graph.core.Edge;
+import com.graphlib.graph.core.Graph;
+import com.graphlib.graph.core.WeightedEdge;
+
+/**
+ * Writes graphs in a compact, versioned binary format that
+ * {@link GraphReader} loads back.
+ *
+ * <pre>
+ * int     magic, "GLGF"
+ * int     format version
+ * int     flags, bit 0 set when the weights column is present
+ * int     vertex count n
+ * int     edge count m
+ * vertex table   n vertices, written by the vertex codec
+ * weights column m ints, present if every edge is a WeightedEdge
+ * edge table     m edges: source index, target index, data written by the edge codec
+ * </pre>
+ *
+ * All numbers are big-endian. Vertices are referenced by their index in the
+ * vertex table. The output is buffered and the channel is not closed.
+ *
+ * @param <V>
+ *            Vertex type
+ * @param <E>
+ *            Edge type
+ */
+public class GraphWriter<V, E extends Edge<V, E>> {
+
+	static final int MAGIC = 0x474c4746;
+
+	static final int FORMAT_VERSION = 1;
+
+	static final int FLAG_WEIGHTED = 1;
+
+	static final int BUFFER_SIZE = 1 << 16;
+
+	private final VertexCodec<V> vertexCodec;
+
+	private final EdgeCodec<V, E> edgeCodec;
+
+	public GraphWriter(final VertexCodec<V> vertexCodec, final EdgeCodec<V, E> edgeCodec) {
+		if (vertexCodec == null || edgeCodec == null) {
+			throw new IllegalArgumentException("Codecs cannot be null.");
+		}
+		this.vertexCodec = vertexCodec;
+		this.edgeCodec = edgeCodec;
+	}
+
+	/**
+	 * Writes the given graph to the channel.
+	 * 
+	 * @param graph
+	 * @param channel
+	 * @throws IOException
+	 *             If the channel cannot be written
+	 */
+	public void write(final Graph<V, E> graph, final WritableByteChannel channel) throws IOException {
+		if (graph == null) {
+			throw new IllegalArgumentException("Graph cannot be null.");
+		}
+		/*
+		 * Copy the vertices and edges once, so that the counts and both edge
+		 * columns agree even when the graph returns weakly consistent or live
+		 * views.
+		 */
+		Object[] vertices = graph.getAllVertices().toArray();
+		Object[] edges = graph.getAllEdges().toArray();
+		boolean weighted = edges.length > 0;
+		for (Object e : edges) {
+			if (!(e instanceof WeightedEdge)) {
+				weighted = false;
+				break;
+			}
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel),
+				BUFFER_SIZE));
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		out.writeInt(weighted ? FLAG_WEIGHTED : 0);
+		out.writeInt(vertices.length);
+		out.writeInt(edges.length);
+
+		Map<V, Integer> ids = new HashMap<>(Math.max(16, (int) (vertices.length / 0.75f) + 1));
+		for (Object o : vertices) {
+			@SuppressWarnings("unchecked")
+			V v = (V) o;
+			ids.put(v, ids.size());
+			vertexCodec.encode(v, out);
+		}
+		if (weighted) {
+			for (Object e : edges) {
+				out.writeInt(((WeightedEdge<?, ?>) e).getEdgeWeight());
+			}
+		}
+		for (Object o : edges) {
+			@SuppressWarnings("unchecked")
+			E e = (E) o;
+			out.writeInt(idOf(ids, e.getSourceVertex()));
+			out.writeInt(idOf(ids, e.getTargetVertex()));
+			edgeCodec.encode(e, out);
+		}
+		// Flush without closing the channel.
+		out.flush();
+	}
+
+	private static <V> int idOf(final Map<V, Integer> ids, final V vertex) {
+		Integer id = ids.get(vertex);
+		if (id == null) {
+			throw new IllegalArgumentException("Edge endpoint " + vertex + " is not a vertex of the graph.");
+		}
+		return id;
+	}
+}
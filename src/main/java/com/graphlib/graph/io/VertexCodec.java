@@ -0,0 +1,33 @@
+package com.graphlib.graph.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Converts vertices to and from their binary form in the graph format of
+ * {@link GraphWriter} and {@link GraphReader}.
+ *
+ * @param <V>
+ *            Vertex type
+ */
+public interface VertexCodec<V> {
+
+	/**
+	 * Writes the given vertex.
+	 * 
+	 * @param vertex
+	 * @param out
+	 * @throws IOException
+	 */
+	public void encode(V vertex, DataOutput out) throws IOException;
+
+	/**
+	 * Reads a vertex written by {@link #encode(Object, DataOutput)}.
+	 * 
+	 * @param in
+	 * @return The vertex
+	 * @throws IOException
+	 */
+	public V decode(DataInput in) throws IOException;
+}
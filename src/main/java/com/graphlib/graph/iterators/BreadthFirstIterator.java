@@ -1,51 +1,53 @@
 package com.graphlib.graph.iterators;
 
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Set;
+import java.util.List;
+import java.util.NoSuchElementException;
 
+import com.graphlib.graph.algorithms.BreadthFirstSearch;
 import com.graphlib.graph.core.Edge;
 import com.graphlib.graph.core.Graph;
 
+/**
+ * Iterates over the vertices reachable from a start vertex in breadth first
+ * order, level by level. The levels come from a {@link BreadthFirstSearch}
+ * over a snapshot of the graph taken on construction, and each is expanded
+ * only once the previous one has been iterated. On a
+ * {@link com.graphlib.graph.core.CsrGraph} the traversal benefits from the
+ * locality of a graph renumbered with
+ * {@link com.graphlib.graph.core.VertexReordering}.
+ */
 public final class BreadthFirstIterator<V, E extends Edge<V, E>> implements Iterator<V> {
 
-	private final Graph<V, E> graph;
-	
-	private final Queue<V> bfsQueue;
-	
-	private final Set<V> visited;
-	
+	private final Iterator<List<V>> levels;
+
+	private Iterator<V> level = Collections.emptyIterator();
+
 	public BreadthFirstIterator(Graph<V, E> g, V startVertex) {
 		if(g == null) {
 			throw new IllegalArgumentException("Graph cannot be null.");
 		}
-		if(g.getAllVertices().isEmpty() || !g.getAllVertices().contains(startVertex)) {
+		if(!g.contains(startVertex)) {
 			throw new IllegalArgumentException("Graph does not contain the start vertex.");
 		}
-		this.graph = g;
-		this.bfsQueue = new LinkedList<>();
-		this.bfsQueue.add(startVertex);
-		this.visited = new HashSet<>();
+		this.levels = new BreadthFirstSearch<>(g).levels(startVertex);
 	}
-	
+
 	@Override
 	public boolean hasNext() {
-		return !bfsQueue.isEmpty();
+		while (!level.hasNext() && levels.hasNext()) {
+			level = levels.next().iterator();
+		}
+		return level.hasNext();
 	}
 
 	@Override
 	public V next() {
-		V vertex = bfsQueue.remove();
-		this.visited.add(vertex);
-		for(E e : graph.getOutgoingEdgesFor(vertex)) {
-			if(!visited.contains(e.getTargetVertex())) {
-				bfsQueue.add(e.getTargetVertex());
-			}
+		if (!hasNext()) {
+			throw new NoSuchElementException();
 		}
-		this.visited.addAll(bfsQueue);
-		return vertex;
+		return level.next();
 	}
 
 	@Override
@@ -1,51 +1,551 @@
 package com.graphlib.graph.layout;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import com.graphlib.graph.core.Edge;
 import com.graphlib.graph.core.Graph;
 
-public class DotExporter {
+/**
+ * Writes graphs in the DOT language. The document is streamed through a small
+ * character buffer to an {@link Appendable}, such as a {@link Writer}, or
+ * encoded as UTF-8 to a {@link WritableByteChannel}, so exporting a graph
+ * needs memory for its vertex ids only. Labels and ids are quoted and escaped
+ * where needed.
+ *
+ * <pre>
+ * new DotExporter&lt;City, Flight&gt;().direction(Direction.FORWARD).labels(false).export(graph, writer);
+ * </pre>
+ *
+ * @see <a
+ *      href="https://en.wikipedia.org/wiki/DOT_(graph_description_language)">DOT_(graph_description_language)</a>
+ */
+public class DotExporter<V, E extends Edge<V, E>> {
+
+	private static final int BUFFER_SIZE = 1 << 13;
+
+	/**
+	 * How edges are written.
+	 */
+	public enum Direction {
+		/** Directed edges from source to target. */
+		FORWARD,
+		/**
+		 * Directed edges written from target to source and drawn with the
+		 * arrow reversed, which ranks sources below their targets.
+		 */
+		BACKWARD,
+		/** Undirected edges. */
+		NONE
+	}
+
+	/**
+	 * Maps vertices to DOT node ids.
+	 */
+	public interface VertexIdProvider<V> {
+
+		/**
+		 * Returns the id of the given vertex, which must be unique in the
+		 * graph.
+		 *
+		 * @param vertex
+		 * @param index
+		 *            Position of the vertex in the exported vertex set
+		 * @return Node id
+		 */
+		public String getVertexId(V vertex, int index);
+	}
+
+	/**
+	 * Writes the DOT attributes of a vertex or an edge.
+	 */
+	public interface AttributeProvider<T> {
+
+		public void writeAttributes(T element, AttributeWriter writer) throws IOException;
+	}
+
+	/**
+	 * Receives the attributes of an element, written directly to the output.
+	 */
+	public interface AttributeWriter {
+
+		public AttributeWriter attribute(String name, CharSequence value) throws IOException;
+
+		public AttributeWriter attribute(String name, int value) throws IOException;
+	}
+
+	private Direction direction = Direction.FORWARD;
+
+	private String graphName = "G";
+
+	private boolean attributes = true;
+
+	private boolean labels = true;
+
+	private VertexIdProvider<? super V> vertexIds;
+
+	private AttributeProvider<? super V> vertexAttributes;
+
+	private AttributeProvider<? super E> edgeAttributes;
+
+	private final Map<String, String> nodeDefaults = new LinkedHashMap<>();
+
+	private final Map<String, String> edgeDefaults = new LinkedHashMap<>();
+
+	public DotExporter<V, E> direction(final Direction direction) {
+		if (direction == null) {
+			throw new IllegalArgumentException("Direction cannot be null.");
+		}
+		this.direction = direction;
+		return this;
+	}
+
+	public DotExporter<V, E> graphName(final String graphName) {
+		if (graphName == null) {
+			throw new IllegalArgumentException("Graph name cannot be null.");
+		}
+		this.graphName = graphName;
+		return this;
+	}
+
+	/**
+	 * Sets whether any attributes are written, true by default. Without
+	 * attributes the document only has the structure of the graph.
+	 *
+	 * @param attributes
+	 * @return This exporter
+	 */
+	public DotExporter<V, E> attributes(final boolean attributes) {
+		this.attributes = attributes;
+		return this;
+	}
+
+	/**
+	 * Sets whether vertices and edges are labelled with their string form,
+	 * true by default.
+	 *
+	 * @param labels
+	 * @return This exporter
+	 */
+	public DotExporter<V, E> labels(final boolean labels) {
+		this.labels = labels;
+		return this;
+	}
+
+	/**
+	 * Sets the node ids of the vertices. By default vertices are numbered in
+	 * the iteration order of the vertex set.
+	 *
+	 * @param vertexIds
+	 * @return This exporter
+	 */
+	public DotExporter<V, E> vertexIds(final VertexIdProvider<? super V> vertexIds) {
+		this.vertexIds = vertexIds;
+		return this;
+	}
+
+	public DotExporter<V, E> vertexAttributes(final AttributeProvider<? super V> vertexAttributes) {
+		this.vertexAttributes = vertexAttributes;
+		return this;
+	}
+
+	public DotExporter<V, E> edgeAttributes(final AttributeProvider<? super E> edgeAttributes) {
+		this.edgeAttributes = edgeAttributes;
+		return this;
+	}
+
+	/**
+	 * Adds an attribute written once for all nodes.
+	 *
+	 * @param name
+	 * @param value
+	 * @return This exporter
+	 */
+	public DotExporter<V, E> nodeDefault(final String name, final String value) {
+		nodeDefaults.put(name, value);
+		return this;
+	}
+
+	/**
+	 * Adds an attribute written once for all edges.
+	 *
+	 * @param name
+	 * @param value
+	 * @return This exporter
+	 */
+	public DotExporter<V, E> edgeDefault(final String name, final String value) {
+		edgeDefaults.put(name, value);
+		return this;
+	}
 
 	/**
-	 * Returns the DOT representation for this graph.
-	 * 
+	 * Writes the given graph to an appendable. The appendable is neither
+	 * flushed nor closed.
+	 *
+	 * @param graph
+	 * @param out
+	 * @throws IOException
+	 *             If the appendable cannot be written
+	 */
+	public void export(final Graph<V, E> graph, final Appendable out) throws IOException {
+		if (out == null) {
+			throw new IllegalArgumentException("Output cannot be null.");
+		}
+		export(graph, new DotWriter(out, null));
+	}
+
+	/**
+	 * Writes the given graph to a channel as UTF-8. The channel is not closed.
+	 *
+	 * @param graph
+	 * @param channel
+	 * @throws IOException
+	 *             If the channel cannot be written
+	 */
+	public void export(final Graph<V, E> graph, final WritableByteChannel channel) throws IOException {
+		if (channel == null) {
+			throw new IllegalArgumentException("Channel cannot be null.");
+		}
+		export(graph, new DotWriter(null, channel));
+	}
+
+	private void export(final Graph<V, E> graph, final DotWriter out) throws IOException {
+		if (graph == null) {
+			throw new IllegalArgumentException("Graph cannot be null.");
+		}
+		out.append(direction == Direction.NONE ? "graph " : "digraph ").id(graphName).append(" {\n");
+		if (attributes) {
+			defaults(out, "node", nodeDefaults);
+			defaults(out, "edge", edgeDefaults);
+		}
+
+		Map<V, Integer> indices = new HashMap<>(Math.max(16, (int) (graph.getAllVertices().size() / .75f) + 1));
+		String[] ids = vertexIds == null ? null : new String[graph.getAllVertices().size()];
+		int index = 0;
+		for (V vertex : graph.getAllVertices()) {
+			indices.put(vertex, index);
+			out.append('\t');
+			if (ids == null) {
+				out.append(index);
+			} else {
+				ids[index] = vertexIds.getVertexId(vertex, index);
+				out.id(ids[index]);
+			}
+			if (attributes) {
+				if (labels) {
+					out.attribute("label", String.valueOf(vertex));
+				}
+				if (vertexAttributes != null) {
+					vertexAttributes.writeAttributes(vertex, out);
+				}
+				out.endAttributes();
+			}
+			out.append(";\n");
+			index++;
+		}
+
+		String connector = direction == Direction.NONE ? " -- " : " -> ";
+		for (E edge : graph.getAllEdges()) {
+			int source = indices.get(edge.getSourceVertex());
+			int target = indices.get(edge.getTargetVertex());
+			if (direction == Direction.BACKWARD) {
+				int t = source;
+				source = target;
+				target = t;
+			}
+			out.append('\t');
+			node(out, ids, source).append(connector);
+			node(out, ids, target);
+			if (attributes) {
+				if (direction == Direction.BACKWARD) {
+					out.attribute("dir", "back");
+				}
+				if (labels) {
+					/*
+					 * NOTE: Spaces required before and after the label
+					 * otherwise the labels touch the edges in the rendered
+					 * graph.
+					 */
+					out.separator().append("label=\" ").escaped(String.valueOf(edge)).append(" \"");
+				}
+				if (edgeAttributes != null) {
+					edgeAttributes.writeAttributes(edge, out);
+				}
+				out.endAttributes();
+			}
+			out.append(";\n");
+		}
+		out.append("}\n");
+		out.flush();
+	}
+
+	private static DotWriter node(final DotWriter out, final String[] ids, final int index) throws IOException {
+		return ids == null ? out.append(index) : out.id(ids[index]);
+	}
+
+	private static void defaults(final DotWriter out, final String kind, final Map<String, String> defaults)
+			throws IOException {
+		if (!defaults.isEmpty()) {
+			out.append('\t').append(kind);
+			for (Map.Entry<String, String> e : defaults.entrySet()) {
+				out.attribute(e.getKey(), e.getValue());
+			}
+			out.endAttributes();
+			out.append(";\n");
+		}
+	}
+
+	/**
+	 * Returns the DOT representation for this graph, with edges drawn from
+	 * source to target. The whole document is built in memory; large graphs
+	 * should be streamed with {@link #export(Graph, Appendable)}.
+	 *
 	 * @return String DOT representation
-	 * 
+	 *
 	 * @see <a
 	 *      href="https://en.wikipedia.org/wiki/DOT_(graph_description_language)">DOT_(graph_description_language)</a>
 	 */
 	public static <V, E extends Edge<V, E>> String getDotRepresentation(Graph<V, E> graph) {
-		StringBuffer gvBuffer = new StringBuffer();
+		StringBuilder out = new StringBuilder();
+		try {
+			new DotExporter<V, E>().graphName("graphname").direction(Direction.BACKWARD)
+					.nodeDefault("color", "lightblue2").nodeDefault("style", "filled").edgeDefault("color", "grey")
+					.export(graph, out);
+		} catch (IOException e) {
+			// A StringBuilder does not throw.
+			throw new IllegalStateException(e);
+		}
+		return out.toString();
+	}
+
+	/**
+	 * Buffers the document and writes it to an appendable or a channel.
+	 */
+	private static final class DotWriter implements AttributeWriter {
+
+		private final Appendable out;
+
+		private final WritableByteChannel channel;
 
-		// Defining graph Header
-		gvBuffer.append("digraph graphname {node [color=lightblue2, style=filled]; ");
+		private final char[] chars = new char[BUFFER_SIZE];
 
-		// Creating and defining vertex node map.
-		int count = 0;
-		HashMap<V, Integer> vertexIntMap = new HashMap<>();
-		for (V obj : graph.getAllVertices()) {
-			vertexIntMap.put(obj, count);
-			gvBuffer.append(count + "[label=\"" + obj + "\"];");
-			count++;
+		private int length;
+
+		private final CharBuffer charView;
+
+		private final ByteBuffer bytes;
+
+		private final CharsetEncoder encoder;
+
+		private boolean inAttributes;
+
+		DotWriter(Appendable out, WritableByteChannel channel) {
+			this.out = out;
+			this.channel = channel;
+			if (channel == null) {
+				charView = null;
+				bytes = null;
+				encoder = null;
+			} else {
+				charView = CharBuffer.wrap(chars);
+				bytes = ByteBuffer.allocateDirect(BUFFER_SIZE * 2);
+				encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+						.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			}
 		}
 
-		for (E relation : graph.getAllEdges()) {
-			String color = "grey";
+		DotWriter append(final char c) throws IOException {
+			if (length == chars.length) {
+				drain(false);
+			}
+			chars[length++] = c;
+			return this;
+		}
 
-			/*
-			 * NOTE: Spaces required before and after the label otherwise the
-			 * labels touch the edges in the rendered graph.
-			 */
-			String label = " " + relation.toString() + " ";
+		DotWriter append(final String s) throws IOException {
+			for (int i = 0; i < s.length(); i++) {
+				append(s.charAt(i));
+			}
+			return this;
+		}
 
-			gvBuffer.append(vertexIntMap.get(relation.getTargetVertex()) + "->"
-					+ vertexIntMap.get(relation.getSourceVertex()) + "[color="
-					+ color + "][dir=back][label=\"" + label + "\"];");
+		DotWriter append(final int value) throws IOException {
+			if (value < 0) {
+				if (value == Integer.MIN_VALUE) {
+					return append(Integer.toString(value));
+				}
+				append('-');
+				return append(-value);
+			}
+			if (length + 10 > chars.length) {
+				drain(false);
+			}
+			int digits = 1;
+			for (int v = value / 10; v > 0; v /= 10) {
+				digits++;
+			}
+			int v = value;
+			for (int i = length + digits - 1; i >= length; i--) {
+				chars[i] = (char) ('0' + v % 10);
+				v /= 10;
+			}
+			length += digits;
+			return this;
 		}
 
-		gvBuffer.append("}");
+		/*
+		 * Writes a DOT id, quoted unless it is a plain identifier or number.
+		 */
+		DotWriter id(final CharSequence id) throws IOException {
+			if (isPlainId(id)) {
+				for (int i = 0; i < id.length(); i++) {
+					append(id.charAt(i));
+				}
+				return this;
+			}
+			return quoted(id);
+		}
 
-		return gvBuffer.toString();
+		DotWriter quoted(final CharSequence s) throws IOException {
+			return append('"').escaped(s).append('"');
+		}
+
+		DotWriter escaped(final CharSequence s) throws IOException {
+			for (int i = 0; i < s.length(); i++) {
+				char c = s.charAt(i);
+				switch (c) {
+				case '"':
+				case '\\':
+					append('\\').append(c);
+					break;
+				case '\n':
+					append('\\').append('n');
+					break;
+				case '\r':
+					break;
+				default:
+					append(c);
+				}
+			}
+			return this;
+		}
+
+		@Override
+		public AttributeWriter attribute(final String name, final CharSequence value) throws IOException {
+			separator().id(name).append('=').quoted(value == null ? "" : value);
+			return this;
+		}
+
+		@Override
+		public AttributeWriter attribute(final String name, final int value) throws IOException {
+			separator().id(name).append('=').append(value);
+			return this;
+		}
+
+		DotWriter separator() throws IOException {
+			if (inAttributes) {
+				return append(',').append(' ');
+			}
+			inAttributes = true;
+			return append(' ').append('[');
+		}
+
+		void endAttributes() throws IOException {
+			if (inAttributes) {
+				append(']');
+				inAttributes = false;
+			}
+		}
+
+		void flush() throws IOException {
+			drain(true);
+		}
+
+		private void drain(final boolean endOfInput) throws IOException {
+			if (channel == null) {
+				if (out instanceof Writer) {
+					((Writer) out).write(chars, 0, length);
+				} else if (out instanceof StringBuilder) {
+					((StringBuilder) out).append(chars, 0, length);
+				} else {
+					out.append(CharBuffer.wrap(chars, 0, length));
+				}
+				length = 0;
+				return;
+			}
+
+			charView.limit(length).position(0);
+			while (true) {
+				CoderResult result = encoder.encode(charView, bytes, endOfInput);
+				if (result.isOverflow()) {
+					writeBytes();
+				} else if (result.isUnderflow()) {
+					break;
+				} else {
+					result.throwException();
+				}
+			}
+			if (endOfInput) {
+				while (encoder.flush(bytes).isOverflow()) {
+					writeBytes();
+				}
+				writeBytes();
+			}
+
+			// Keep a trailing high surrogate for the next call.
+			int remaining = charView.remaining();
+			System.arraycopy(chars, charView.position(), chars, 0, remaining);
+			length = remaining;
+			charView.clear();
+		}
+
+		private void writeBytes() throws IOException {
+			bytes.flip();
+			while (bytes.hasRemaining()) {
+				channel.write(bytes);
+			}
+			bytes.clear();
+		}
+
+		private static boolean isPlainId(final CharSequence id) {
+			int n = id.length();
+			if (n == 0) {
+				return false;
+			}
+			boolean numeral = true;
+			for (int i = 0; i < n && numeral; i++) {
+				char c = id.charAt(i);
+				numeral = (c >= '0' && c <= '9') || (c == '-' && i == 0 && n > 1);
+			}
+			if (numeral) {
+				return true;
+			}
+			char first = id.charAt(0);
+			if (!(Character.isLetter(first) && first < 0x80) && first != '_') {
+				return false;
+			}
+			for (int i = 1; i < n; i++) {
+				char c = id.charAt(i);
+				if (!(c < 0x80 && (Character.isLetterOrDigit(c) || c == '_'))) {
+					return false;
+				}
+			}
+			if (n < 4 || n > 8) {
+				return true;
+			}
+			String s = id.toString();
+			return !(s.equalsIgnoreCase("graph") || s.equalsIgnoreCase("digraph") || s.equalsIgnoreCase("node")
+					|| s.equalsIgnoreCase("edge") || s.equalsIgnoreCase("subgraph") || s.equalsIgnoreCase("strict"));
+		}
 	}
 }
@@ -0,0 +1,771 @@
+package com.graphlib.graph.layout;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.graphlib.graph.core.Edge;
+import com.graphlib.graph.core.EdgeFactory;
+import com.graphlib.graph.core.Graph;
+import com.graphlib.graph.core.VertexFactory;
+
+/**
+ * Reads graphs in the DOT language, the counterpart of {@link DotExporter}.
+ * The input is tokenized incrementally and every statement is applied to the
+ * target graph as soon as it is parsed, so only the map from node ids to
+ * vertices is kept in memory. Vertices and edges are created by the given
+ * factories and their attributes are passed to {@link AttributeHandler}s.
+ *
+ * <p>
+ * Node and edge statements, edge chains, subgraphs as edge endpoints and
+ * {@code node} and {@code edge} default attributes, scoped by subgraph, are
+ * supported. Edges with {@code dir=back} in a digraph, as written by
+ * {@link DotExporter.Direction#BACKWARD}, are added from their head to their
+ * tail. Graph attributes and ports are parsed and ignored. In quoted
+ * strings, {@code \"}, {@code \\} and {@code \n} are unescaped, as written by
+ * {@link DotExporter}; other escape sequences are kept as they are.
+ *
+ * <pre>
+ * GraphLayout layout = DotImporter.readLayout(reader);
+ * </pre>
+ */
+public class DotImporter<V, E extends Edge<V, E>> {
+
+	private static final int BUFFER_SIZE = 1 << 13;
+
+	/**
+	 * Receives the vertices and edges created by an import and their
+	 * attributes.
+	 */
+	public interface AttributeHandler<T> {
+
+		/**
+		 * Called when an element is created, before any of its attributes.
+		 *
+		 * @param element
+		 * @param id
+		 *            DOT id of a node, null for an edge
+		 */
+		public void elementCreated(T element, String id);
+
+		public void attribute(T element, String name, String value);
+	}
+
+	private final VertexFactory<V, E> vertexFactory;
+
+	private final EdgeFactory<V, E> edgeFactory;
+
+	private AttributeHandler<? super V> vertexHandler;
+
+	private AttributeHandler<? super E> edgeHandler;
+
+	public DotImporter(final VertexFactory<V, E> vertexFactory, final EdgeFactory<V, E> edgeFactory) {
+		if (vertexFactory == null || edgeFactory == null) {
+			throw new IllegalArgumentException("Vertex and edge factories cannot be null.");
+		}
+		this.vertexFactory = vertexFactory;
+		this.edgeFactory = edgeFactory;
+	}
+
+	public DotImporter<V, E> vertexAttributes(final AttributeHandler<? super V> vertexHandler) {
+		this.vertexHandler = vertexHandler;
+		return this;
+	}
+
+	public DotImporter<V, E> edgeAttributes(final AttributeHandler<? super E> edgeHandler) {
+		this.edgeHandler = edgeHandler;
+		return this;
+	}
+
+	/**
+	 * Adds the vertices and edges of the DOT graph in the given reader to a
+	 * graph. The reader is not closed.
+	 *
+	 * @param in
+	 * @param graph
+	 * @return The graph
+	 * @throws IOException
+	 *             If the input cannot be read or is not valid DOT
+	 */
+	public <G extends Graph<V, E>> G read(final Reader in, final G graph) throws IOException {
+		if (in == null || graph == null) {
+			throw new IllegalArgumentException("Input and graph cannot be null.");
+		}
+		new Parser(new Tokenizer(in), graph).parseGraph();
+		return graph;
+	}
+
+	/**
+	 * Adds the vertices and edges of the UTF-8 DOT graph in the given channel
+	 * to a graph. The channel is not closed.
+	 *
+	 * @param channel
+	 * @param graph
+	 * @return The graph
+	 * @throws IOException
+	 *             If the input cannot be read or is not valid DOT
+	 */
+	public <G extends Graph<V, E>> G read(final ReadableByteChannel channel, final G graph) throws IOException {
+		if (channel == null) {
+			throw new IllegalArgumentException("Channel cannot be null.");
+		}
+		return read(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPORT), -1), graph);
+	}
+
+	/**
+	 * Returns an importer of {@link LayoutNode}s and {@link LayoutEdge}s. Node
+	 * labels default to their DOT ids; {@code label}, {@code width} and
+	 * {@code height} node attributes and {@code label}, {@code weight} and
+	 * {@code minlen} edge attributes are mapped onto the layout.
+	 *
+	 * @return Importer
+	 */
+	public static DotImporter<LayoutNode, LayoutEdge> forLayout() {
+		return new DotImporter<>(new LayoutNodeFactory(1), new LayoutEdgeFactory()).vertexAttributes(
+				new LayoutNodeHandler()).edgeAttributes(new LayoutEdgeHandler());
+	}
+
+	/**
+	 * Reads a DOT graph into a new {@link GraphLayout}. As with
+	 * {@link GraphLayoutBuilder}, labelled edges make room for their label.
+	 *
+	 * @param in
+	 * @return The layout graph
+	 * @throws IOException
+	 *             If the input cannot be read or is not valid DOT
+	 */
+	public static GraphLayout readLayout(final Reader in) throws IOException {
+		GraphLayout layout = forLayout().read(in, new GraphLayout());
+		for (LayoutEdge edge : layout.getAllEdges()) {
+			if (!edge.getLabel().isEmpty()) {
+				edge.setMinLength(edge.getMinLength() * 2);
+				layout.setHasLabels(true);
+			}
+		}
+		return layout;
+	}
+
+	private static final class LayoutNodeHandler implements AttributeHandler<LayoutNode> {
+
+		private static final double POINTS_PER_INCH = 72;
+
+		@Override
+		public void elementCreated(LayoutNode node, String id) {
+			node.setLabel(id);
+			node.setHeight(GraphLayoutParameters.DEFAULT_HEIGHT);
+			node.setLeftWidth(27);
+			node.setRightWidth(27);
+		}
+
+		@Override
+		public void attribute(LayoutNode node, String name, String value) {
+			switch (name) {
+			case "label":
+				node.setLabel(value);
+				break;
+			case "width":
+				double width = parseDouble(name, value) * POINTS_PER_INCH;
+				node.setLeftWidth(width / 2);
+				node.setRightWidth(width / 2);
+				break;
+			case "height":
+				node.setHeight(parseDouble(name, value) * POINTS_PER_INCH);
+				break;
+			default:
+			}
+		}
+	}
+
+	private static final class LayoutEdgeHandler implements AttributeHandler<LayoutEdge> {
+
+		@Override
+		public void elementCreated(LayoutEdge edge, String id) {
+			edge.setLabel("");
+		}
+
+		@Override
+		public void attribute(LayoutEdge edge, String name, String value) {
+			switch (name) {
+			case "label":
+				edge.setLabel(value);
+				break;
+			case "weight":
+				edge.setEdgeWeight(parseInt(name, value));
+				break;
+			case "minlen":
+				edge.setMinLength(parseInt(name, value));
+				break;
+			default:
+			}
+		}
+	}
+
+	private static int parseInt(final String name, final String value) {
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid " + name + " \"" + value + "\".", e);
+		}
+	}
+
+	private static double parseDouble(final String name, final String value) {
+		try {
+			return Double.parseDouble(value.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid " + name + " \"" + value + "\".", e);
+		}
+	}
+
+	/**
+	 * Default attributes and members of a graph or subgraph.
+	 */
+	private static final class Scope<V> {
+
+		final Scope<V> parent;
+
+		final Map<String, String> nodeDefaults;
+
+		final Map<String, String> edgeDefaults;
+
+		final Set<V> members = new LinkedHashSet<>();
+
+		Scope(Scope<V> parent) {
+			this.parent = parent;
+			this.nodeDefaults = parent == null ? new LinkedHashMap<String, String>()
+					: new LinkedHashMap<>(parent.nodeDefaults);
+			this.edgeDefaults = parent == null ? new LinkedHashMap<String, String>()
+					: new LinkedHashMap<>(parent.edgeDefaults);
+		}
+	}
+
+	/**
+	 * Recursive descent parser that applies statements to the graph as they
+	 * are read.
+	 */
+	private final class Parser {
+
+		private final Tokenizer tokens;
+
+		private final Graph<V, E> graph;
+
+		private final Map<String, V> nodes = new HashMap<>();
+
+		private boolean directed;
+
+		Parser(Tokenizer tokens, Graph<V, E> graph) {
+			this.tokens = tokens;
+			this.graph = graph;
+		}
+
+		void parseGraph() throws IOException {
+			tokens.next();
+			if (tokens.isKeyword("strict")) {
+				tokens.next();
+			}
+			if (tokens.isKeyword("digraph")) {
+				directed = true;
+			} else if (!tokens.isKeyword("graph")) {
+				throw tokens.error("expected graph or digraph");
+			}
+			tokens.next();
+			if (tokens.kind == Tokenizer.ID) {
+				tokens.next();
+			}
+			tokens.expect(Tokenizer.LBRACE, "{");
+			parseStatements(new Scope<V>(null));
+		}
+
+		/*
+		 * Parses statements up to and including the closing brace.
+		 */
+		private void parseStatements(final Scope<V> scope) throws IOException {
+			while (tokens.kind != Tokenizer.RBRACE) {
+				if (tokens.kind == Tokenizer.EOF) {
+					throw tokens.error("expected }");
+				}
+				parseStatement(scope);
+				if (tokens.kind == Tokenizer.SEMICOLON) {
+					tokens.next();
+				}
+			}
+			tokens.next();
+		}
+
+		private void parseStatement(final Scope<V> scope) throws IOException {
+			if (tokens.isKeyword("graph") || tokens.isKeyword("node") || tokens.isKeyword("edge")) {
+				String kind = tokens.text();
+				tokens.next();
+				List<String> attributes = parseAttributes();
+				Map<String, String> defaults = kind.equalsIgnoreCase("node") ? scope.nodeDefaults : kind
+						.equalsIgnoreCase("edge") ? scope.edgeDefaults : null;
+				for (int i = 0; defaults != null && i < attributes.size(); i += 2) {
+					defaults.put(attributes.get(i), attributes.get(i + 1));
+				}
+				return;
+			}
+
+			if (tokens.kind == Tokenizer.ID && !tokens.isKeyword("subgraph")) {
+				String id = tokens.text();
+				tokens.next();
+				if (tokens.kind == Tokenizer.EQUALS) {
+					// Graph attribute.
+					tokens.next();
+					tokens.expect(Tokenizer.ID, "attribute value");
+					return;
+				}
+				skipPort();
+				V node = node(id, scope);
+				if (tokens.kind == Tokenizer.EDGE) {
+					parseEdges(Collections.singletonList(node), scope);
+				} else {
+					apply(vertexHandler, node, parseAttributes());
+				}
+				return;
+			}
+
+			Set<V> subgraph = parseSubgraph(scope);
+			if (tokens.kind == Tokenizer.EDGE) {
+				parseEdges(subgraph, scope);
+			}
+		}
+
+		private void parseEdges(final Collection<V> first, final Scope<V> scope) throws IOException {
+			List<Collection<V>> operands = new ArrayList<>();
+			operands.add(first);
+			while (tokens.kind == Tokenizer.EDGE) {
+				if (tokens.directedEdge != directed) {
+					throw tokens.error(directed ? "expected -> in a digraph" : "expected -- in a graph");
+				}
+				tokens.next();
+				if (tokens.kind == Tokenizer.ID && !tokens.isKeyword("subgraph")) {
+					String id = tokens.text();
+					tokens.next();
+					skipPort();
+					operands.add(Collections.singletonList(node(id, scope)));
+				} else {
+					operands.add(parseSubgraph(scope));
+				}
+			}
+			List<String> attributes = parseAttributes();
+			boolean back = directed && "back".equals(direction(scope, attributes));
+			for (int i = 1; i < operands.size(); i++) {
+				for (V tail : operands.get(i - 1)) {
+					for (V head : operands.get(i)) {
+						E edge = back ? edgeFactory.createEdge(head, tail) : edgeFactory.createEdge(tail, head);
+						if (edgeHandler != null) {
+							edgeHandler.elementCreated(edge, null);
+							apply(edgeHandler, edge, scope.edgeDefaults);
+							apply(edgeHandler, edge, attributes);
+						}
+						graph.addEdge(edge);
+					}
+				}
+			}
+		}
+
+		/*
+		 * The dir attribute of an edge statement, the last one given winning
+		 * over the edge defaults.
+		 */
+		private String direction(final Scope<V> scope, final List<String> attributes) {
+			String dir = scope.edgeDefaults.get("dir");
+			for (int i = 0; i < attributes.size(); i += 2) {
+				if (attributes.get(i).equals("dir")) {
+					dir = attributes.get(i + 1);
+				}
+			}
+			return dir;
+		}
+
+		private Set<V> parseSubgraph(final Scope<V> scope) throws IOException {
+			if (tokens.isKeyword("subgraph")) {
+				tokens.next();
+				if (tokens.kind == Tokenizer.ID) {
+					tokens.next();
+				}
+			}
+			tokens.expect(Tokenizer.LBRACE, "{");
+			Scope<V> inner = new Scope<>(scope);
+			parseStatements(inner);
+			return inner.members;
+		}
+
+		private void skipPort() throws IOException {
+			for (int i = 0; i < 2 && tokens.kind == Tokenizer.COLON; i++) {
+				tokens.next();
+				tokens.expect(Tokenizer.ID, "port");
+			}
+		}
+
+		/*
+		 * Parses optional attribute lists into alternating names and values.
+		 */
+		private List<String> parseAttributes() throws IOException {
+			if (tokens.kind != Tokenizer.LBRACKET) {
+				return Collections.emptyList();
+			}
+			List<String> attributes = new ArrayList<>();
+			while (tokens.kind == Tokenizer.LBRACKET) {
+				tokens.next();
+				while (tokens.kind == Tokenizer.ID) {
+					attributes.add(tokens.text());
+					tokens.next();
+					tokens.expect(Tokenizer.EQUALS, "=");
+					if (tokens.kind != Tokenizer.ID) {
+						throw tokens.error("expected attribute value");
+					}
+					attributes.add(tokens.text());
+					tokens.next();
+					if (tokens.kind == Tokenizer.COMMA || tokens.kind == Tokenizer.SEMICOLON) {
+						tokens.next();
+					}
+				}
+				tokens.expect(Tokenizer.RBRACKET, "]");
+			}
+			return attributes;
+		}
+
+		private V node(final String id, final Scope<V> scope) {
+			V node = nodes.get(id);
+			if (node == null) {
+				node = vertexFactory.createVertex();
+				if (vertexHandler != null) {
+					vertexHandler.elementCreated(node, id);
+					apply(vertexHandler, node, scope.nodeDefaults);
+				}
+				graph.addVertex(node);
+				nodes.put(id, node);
+			}
+			for (Scope<V> s = scope; s.parent != null; s = s.parent) {
+				s.members.add(node);
+			}
+			return node;
+		}
+
+		private <T> void apply(final AttributeHandler<? super T> handler, final T element,
+				final List<String> attributes) {
+			for (int i = 0; handler != null && i < attributes.size(); i += 2) {
+				handler.attribute(element, attributes.get(i), attributes.get(i + 1));
+			}
+		}
+
+		private <T> void apply(final AttributeHandler<? super T> handler, final T element,
+				final Map<String, String> attributes) {
+			for (Map.Entry<String, String> e : attributes.entrySet()) {
+				handler.attribute(element, e.getKey(), e.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Splits DOT input into tokens, reading it through a fixed size buffer.
+	 */
+	private static final class Tokenizer {
+
+		static final int EOF = 0;
+
+		static final int ID = 1;
+
+		static final int LBRACE = 2;
+
+		static final int RBRACE = 3;
+
+		static final int LBRACKET = 4;
+
+		static final int RBRACKET = 5;
+
+		static final int SEMICOLON = 6;
+
+		static final int COMMA = 7;
+
+		static final int EQUALS = 8;
+
+		static final int COLON = 9;
+
+		static final int EDGE = 10;
+
+		private final Reader in;
+
+		private final char[] buffer = new char[BUFFER_SIZE];
+
+		private int position;
+
+		private int limit;
+
+		private int line = 1;
+
+		private int column;
+
+		private boolean lineStart = true;
+
+		int kind;
+
+		/*
+		 * Whether the current ID was quoted, and is therefore not a keyword.
+		 */
+		boolean quoted;
+
+		boolean directedEdge;
+
+		private final StringBuilder text = new StringBuilder();
+
+		private int tokenLine;
+
+		private int tokenColumn;
+
+		Tokenizer(Reader in) {
+			this.in = in;
+		}
+
+		String text() {
+			return text.toString();
+		}
+
+		boolean isKeyword(final String keyword) {
+			if (kind != ID || quoted || text.length() != keyword.length()) {
+				return false;
+			}
+			for (int i = 0; i < keyword.length(); i++) {
+				if (Character.toLowerCase(text.charAt(i)) != keyword.charAt(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		void expect(final int expected, final String description) throws IOException {
+			if (kind != expected) {
+				throw error("expected " + description);
+			}
+			next();
+		}
+
+		IOException error(final String message) {
+			return new IOException("Syntax error at line " + tokenLine + ", column " + tokenColumn + ": " + message
+					+ ".");
+		}
+
+		private int peek() throws IOException {
+			if (position == limit) {
+				limit = in.read(buffer, 0, buffer.length);
+				position = 0;
+				if (limit <= 0) {
+					limit = 0;
+					return -1;
+				}
+			}
+			return buffer[position];
+		}
+
+		private int read() throws IOException {
+			int c = peek();
+			if (c >= 0) {
+				position++;
+				if (c == '\n') {
+					line++;
+					column = 0;
+					lineStart = true;
+				} else {
+					column++;
+					if (!Character.isWhitespace(c)) {
+						lineStart = false;
+					}
+				}
+			}
+			return c;
+		}
+
+		void next() throws IOException {
+			skipWhitespaceAndComments();
+			tokenLine = line;
+			tokenColumn = column + 1;
+			text.setLength(0);
+			quoted = false;
+			int c = read();
+			switch (c) {
+			case -1:
+				kind = EOF;
+				return;
+			case '{':
+				kind = LBRACE;
+				return;
+			case '}':
+				kind = RBRACE;
+				return;
+			case '[':
+				kind = LBRACKET;
+				return;
+			case ']':
+				kind = RBRACKET;
+				return;
+			case ';':
+				kind = SEMICOLON;
+				return;
+			case ',':
+				kind = COMMA;
+				return;
+			case '=':
+				kind = EQUALS;
+				return;
+			case ':':
+				kind = COLON;
+				return;
+			case '"':
+				kind = ID;
+				quoted = true;
+				readQuoted();
+				return;
+			case '<':
+				kind = ID;
+				quoted = true;
+				readHtml();
+				return;
+			case '-':
+				int d = peek();
+				if (d == '>' || d == '-') {
+					read();
+					kind = EDGE;
+					directedEdge = d == '>';
+					return;
+				}
+				text.append('-');
+				readNumeral();
+				return;
+			default:
+				if (c == '.' || (c >= '0' && c <= '9')) {
+					text.append((char) c);
+					readNumeral();
+				} else if (isIdStart(c)) {
+					kind = ID;
+					text.append((char) c);
+					while (isIdStart(peek()) || (peek() >= '0' && peek() <= '9')) {
+						text.append((char) read());
+					}
+				} else {
+					throw error("unexpected character '" + (char) c + "'");
+				}
+			}
+		}
+
+		private void readNumeral() throws IOException {
+			kind = ID;
+			boolean dot = text.indexOf(".") >= 0;
+			int digits = dot || text.charAt(text.length() - 1) == '-' ? 0 : 1;
+			for (int c = peek(); (c >= '0' && c <= '9') || (c == '.' && !dot); c = peek()) {
+				dot |= c == '.';
+				digits += c == '.' ? 0 : 1;
+				text.append((char) read());
+			}
+			if (digits == 0) {
+				throw error("invalid numeral");
+			}
+		}
+
+		private void readQuoted() throws IOException {
+			while (true) {
+				int c = read();
+				if (c == -1) {
+					throw error("unterminated string");
+				} else if (c == '"') {
+					// Concatenation of quoted strings with '+'.
+					skipWhitespaceAndComments();
+					if (peek() != '+') {
+						return;
+					}
+					read();
+					skipWhitespaceAndComments();
+					if (read() != '"') {
+						throw error("expected a quoted string after +");
+					}
+				} else if (c == '\\') {
+					int d = read();
+					if (d == '"' || d == '\\') {
+						text.append((char) d);
+					} else if (d == 'n') {
+						text.append('\n');
+					} else if (d == '\r' && peek() == '\n') {
+						read();
+					} else if (d != '\n' && d != -1) {
+						text.append('\\').append((char) d);
+					}
+				} else {
+					text.append((char) c);
+				}
+			}
+		}
+
+		private void readHtml() throws IOException {
+			int depth = 1;
+			while (true) {
+				int c = read();
+				if (c == -1) {
+					throw error("unterminated HTML string");
+				} else if (c == '<') {
+					depth++;
+				} else if (c == '>' && --depth == 0) {
+					return;
+				}
+				text.append((char) c);
+			}
+		}
+
+		private void skipWhitespaceAndComments() throws IOException {
+			while (true) {
+				int c = peek();
+				if (c == -1) {
+					return;
+				} else if (Character.isWhitespace(c)) {
+					read();
+				} else if (c == '#' && lineStart) {
+					skipLine();
+				} else if (c == '/') {
+					read();
+					int d = peek();
+					if (d == '/') {
+						skipLine();
+					} else if (d == '*') {
+						read();
+						skipBlockComment();
+					} else {
+						throw error("unexpected character '/'");
+					}
+				} else {
+					return;
+				}
+			}
+		}
+
+		private void skipLine() throws IOException {
+			for (int c = read(); c != -1 && c != '\n'; c = read()) {
+			}
+		}
+
+		private void skipBlockComment() throws IOException {
+			int previous = 0;
+			for (int c = read(); c != -1; c = read()) {
+				if (previous == '*' && c == '/') {
+					return;
+				}
+				previous = c;
+			}
+			throw error("unterminated comment");
+		}
+
+		private static boolean isIdStart(final int c) {
+			return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c >= 0x80;
+		}
+	}
+}
@@ -5,7 +5,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import com.graphlib.graph.core.AbstractGraph;
+import com.graphlib.graph.core.IndexedGraph;
 
 /**
  * A dual graph of a polygon has triangles formed by polygon triangulation as
@@ -14,12 +14,10 @@ import com.graphlib.graph.core.AbstractGraph;
  * @author Chitresh Kakwani
  *
  */
-public class DualGraph extends AbstractGraph<Triangle, Diagonal> {
+public class DualGraph extends IndexedGraph<Triangle, Diagonal> {
 
 	public DualGraph() {
 		super();
-		vertices = new HashSet<Triangle>();
-		edges = new HashSet<Diagonal>();
 	}
 
 	public List<Diagonal> getTrianglePath(Point src, Point tgt) {
@@ -4,14 +4,13 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import com.graphlib.graph.core.AbstractGraph;
+import com.graphlib.graph.core.IndexedGraph;
 
-public class GraphLayout extends AbstractGraph<LayoutNode, LayoutEdge> {
+public class GraphLayout extends IndexedGraph<LayoutNode, LayoutEdge> {
 
 	private RenderingContext rc;
 
@@ -21,10 +20,7 @@ public class GraphLayout extends AbstractGraph<LayoutNode, LayoutEdge> {
 	boolean hasLabels = false;
 
 	public GraphLayout() {
-		super();
-		vertices = new HashSet<LayoutNode>();
-		edges = new HashSet<LayoutEdge>();
-		edgeFactory = new LayoutEdgeFactory();
+		super(new LayoutEdgeFactory());
 	}
 
 	public RenderingContext getRenderingContext() {
@@ -45,7 +41,7 @@ public class GraphLayout extends AbstractGraph<LayoutNode, LayoutEdge> {
 
 	public Map<LayoutNode, Integer> getVertexRankMap() {
 		Map<LayoutNode, Integer> rankMap = new HashMap<>();
-		for (LayoutNode n : getAllVertices()) {
+		for (LayoutNode n : vertices) {
 			rankMap.put(n, n.getRank());
 		}
 		return rankMap;
@@ -53,7 +49,7 @@ public class GraphLayout extends AbstractGraph<LayoutNode, LayoutEdge> {
 
 	public int getMaxRank() {
 		int maxRank = GraphLayoutParameters.MIN_RANK;
-		for (LayoutNode n : getAllVertices()) {
+		for (LayoutNode n : vertices) {
 			if (maxRank < n.getRank()) {
 				maxRank = n.getRank();
 			}
@@ -70,7 +66,7 @@ public class GraphLayout extends AbstractGraph<LayoutNode, LayoutEdge> {
 	 */
 	public List<LayoutNode> getRankOrder(int rank) {
 		List<LayoutNode> order = new ArrayList<>();
-		for (LayoutNode v : getAllVertices()) {
+		for (LayoutNode v : vertices) {
 			if (v.getRank() == rank) {
 				order.add(v);
 			}
@@ -222,43 +218,48 @@ public class GraphLayout extends AbstractGraph<LayoutNode, LayoutEdge> {
 		return crossings;
 	}
 
+	/**
+	 * Returns the box enclosing the non-virtual nodes horizontally and the
+	 * first nodes of the top and bottom ranks vertically. Computed in a single
+	 * pass over the vertices.
+	 * 
+	 * @return Bounding box
+	 */
 	public Box computeBoundingBox() {
 		double minLeftX = Integer.MAX_VALUE;
 		double maxRightX = Integer.MIN_VALUE;
 		double minLowerY = Integer.MAX_VALUE;
 		double maxUpperY = Integer.MIN_VALUE;
-		int maxRank = this.getMaxRank();
-
-		for (int i = 0; i <= maxRank; i++) {
-			List<LayoutNode> nodes = this.getRankOrder(i);
-			boolean hasNormalNode = false;
-			for (int j = 0; j < nodes.size(); j++) {
-				if (!nodes.get(j).isVirtual()) {
-					double nodeLeftX = nodes.get(j).getxCoordinate() - nodes.get(j).getLeftWidth();
-					minLeftX = Math.min(minLeftX, nodeLeftX);
-					hasNormalNode = true;
-				}
-			}
-			if (!hasNormalNode) {
+		int maxRank = GraphLayoutParameters.MIN_RANK;
+
+		// First nodes in order of the top and the bottom rank.
+		LayoutNode top = null;
+		LayoutNode bottom = null;
+
+		for (LayoutNode n : vertices) {
+			if (n.getRank() < 0) {
 				continue;
 			}
-
-			for (int j = nodes.size() - 1; j >= 0; j--) {
-				if (!nodes.get(j).isVirtual()) {
-					double nodeRightX = nodes.get(j).getxCoordinate() + nodes.get(j).getRightWidth();
-					maxRightX = Math.max(maxRightX, nodeRightX);
-				}
+			if (!n.isVirtual()) {
+				minLeftX = Math.min(minLeftX, n.getxCoordinate() - n.getLeftWidth());
+				maxRightX = Math.max(maxRightX, n.getxCoordinate() + n.getRightWidth());
+			}
+			if (n.getRank() == 0 && (top == null || n.getOrder() < top.getOrder())) {
+				top = n;
+			}
+			if (n.getRank() > maxRank) {
+				maxRank = n.getRank();
+				bottom = n;
+			} else if (n.getRank() == maxRank && (bottom == null || n.getOrder() < bottom.getOrder())) {
+				bottom = n;
 			}
 		}
-		
-		List<LayoutNode> nodes = this.getRankOrder(maxRank);
-		if(!nodes.isEmpty()) {
-			minLowerY = nodes.get(0).getyCoordinate() - nodes.get(0).getHeightBelowCenter();
+
+		if (bottom != null) {
+			minLowerY = bottom.getyCoordinate() - bottom.getHeightBelowCenter();
 		}
-		
-		nodes = this.getRankOrder(0);
-		if(!nodes.isEmpty()) {
-			maxUpperY = nodes.get(0).getyCoordinate() + nodes.get(0).getHeightAboveCenter();
+		if (top != null) {
+			maxUpperY = top.getyCoordinate() + top.getHeightAboveCenter();
 		}
 
 		Point ll = new Point(minLeftX, minLowerY);
@@ -0,0 +1,233 @@
+package com.graphlib.graph.layout;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes a computed {@link GraphLayout} as GraphML with a streaming XML
+ * writer, in a single pass over the nodes and edges. Layout properties are
+ * declared as GraphML keys: label, rank, order, x, y, width and height for
+ * nodes, label, weight, minlen and spline for edges, and the result of
+ * {@link GraphLayout#computeBoundingBox()} for the graph. A spline is written
+ * as its control points, {@code "x,y x,y ..."}, and the bounding box as its
+ * lower left and upper right corners in the same form.
+ *
+ * @see <a href="http://graphml.graphdrawing.org/">GraphML</a>
+ */
+public class GraphMLExporter {
+
+	private static final String NAMESPACE = "http://graphml.graphdrawing.org/xmlns";
+
+	private static final XMLOutputFactory XML = XMLOutputFactory.newInstance();
+
+	private boolean boundingBox = true;
+
+	/**
+	 * Sets whether the result of {@link GraphLayout#computeBoundingBox()} is
+	 * written, true by default.
+	 *
+	 * @param boundingBox
+	 * @return This exporter
+	 */
+	public GraphMLExporter boundingBox(final boolean boundingBox) {
+		this.boundingBox = boundingBox;
+		return this;
+	}
+
+	/**
+	 * Writes the layout as UTF-8 to the given stream, which is not closed.
+	 *
+	 * @param layout
+	 * @param out
+	 * @throws IOException
+	 *             If the stream cannot be written
+	 */
+	public void export(final GraphLayout layout, final OutputStream out) throws IOException {
+		if (out == null) {
+			throw new IllegalArgumentException("Output cannot be null.");
+		}
+		try {
+			export(layout, XML.createXMLStreamWriter(out, "UTF-8"), true);
+		} catch (XMLStreamException e) {
+			throw new IOException("Failed to write GraphML.", e);
+		}
+	}
+
+	/**
+	 * Writes the layout to the given writer, which is not closed.
+	 *
+	 * @param layout
+	 * @param out
+	 * @throws IOException
+	 *             If the writer cannot be written
+	 */
+	public void export(final GraphLayout layout, final Writer out) throws IOException {
+		if (out == null) {
+			throw new IllegalArgumentException("Output cannot be null.");
+		}
+		try {
+			export(layout, XML.createXMLStreamWriter(out), false);
+		} catch (XMLStreamException e) {
+			throw new IOException("Failed to write GraphML.", e);
+		}
+	}
+
+	private void export(final GraphLayout layout, final XMLStreamWriter xml, final boolean utf8)
+			throws XMLStreamException {
+		if (layout == null) {
+			throw new IllegalArgumentException("Layout cannot be null.");
+		}
+		if (utf8) {
+			xml.writeStartDocument("UTF-8", "1.0");
+		} else {
+			xml.writeStartDocument("1.0");
+		}
+		xml.writeCharacters("\n");
+		xml.writeStartElement("graphml");
+		xml.writeDefaultNamespace(NAMESPACE);
+		xml.writeCharacters("\n");
+		key(xml, "nlabel", "node", "label", "string");
+		key(xml, "rank", "node", "rank", "int");
+		key(xml, "order", "node", "order", "int");
+		key(xml, "x", "node", "x", "double");
+		key(xml, "y", "node", "y", "double");
+		key(xml, "width", "node", "width", "double");
+		key(xml, "height", "node", "height", "double");
+		key(xml, "elabel", "edge", "label", "string");
+		key(xml, "weight", "edge", "weight", "int");
+		key(xml, "minlen", "edge", "minlen", "int");
+		key(xml, "spline", "edge", "spline", "string");
+		key(xml, "bbox", "graph", "boundingBox", "string");
+
+		xml.writeStartElement("graph");
+		xml.writeAttribute("id", "G");
+		xml.writeAttribute("edgedefault", "directed");
+		xml.writeCharacters("\n");
+
+		DataWriter data = new DataWriter(xml);
+		if (boundingBox && !layout.getAllVertices().isEmpty()) {
+			Box box = layout.computeBoundingBox();
+			data.text.setLength(0);
+			data.text.append(box.getLowerLeft().getX()).append(',').append(box.getLowerLeft().getY()).append(' ')
+					.append(box.getUpperRight().getX()).append(',').append(box.getUpperRight().getY());
+			data.write("bbox");
+			xml.writeCharacters("\n");
+		}
+		for (LayoutNode node : layout.getAllVertices()) {
+			xml.writeStartElement("node");
+			xml.writeAttribute("id", "n" + node.id);
+			if (node.label != null) {
+				data.write("nlabel", node.label);
+			}
+			data.write("rank", node.rank);
+			data.write("order", node.order);
+			data.write("x", node.xCoordinate);
+			data.write("y", node.yCoordinate);
+			data.write("width", node.leftWidth + node.rightWidth);
+			data.write("height", node.height);
+			xml.writeEndElement();
+			xml.writeCharacters("\n");
+		}
+
+		for (LayoutEdge edge : layout.getAllEdges()) {
+			xml.writeStartElement("edge");
+			xml.writeAttribute("id", "e" + edge.id);
+			xml.writeAttribute("source", "n" + edge.source.id);
+			xml.writeAttribute("target", "n" + edge.target.id);
+			if (edge.label != null) {
+				data.write("elabel", edge.label);
+			}
+			data.write("weight", edge.weight);
+			data.write("minlen", edge.minLength);
+			if (edge.spline != null) {
+				StringBuilder text = data.text;
+				text.setLength(0);
+				for (int i = 0; i < edge.spline.curves.size(); i++) {
+					Point[] points = edge.spline.curves.get(i).controlPoints;
+					for (int j = i == 0 ? 0 : 1; j < points.length; j++) {
+						if (text.length() > 0) {
+							text.append(' ');
+						}
+						text.append(points[j].getX()).append(',').append(points[j].getY());
+					}
+				}
+				data.write("spline");
+			}
+			xml.writeEndElement();
+			xml.writeCharacters("\n");
+		}
+
+		xml.writeEndElement();
+		xml.writeCharacters("\n");
+		xml.writeEndElement();
+		xml.writeCharacters("\n");
+		xml.writeEndDocument();
+		xml.flush();
+		xml.close();
+	}
+
+	private static void key(final XMLStreamWriter xml, final String id, final String domain, final String name,
+			final String type) throws XMLStreamException {
+		xml.writeEmptyElement("key");
+		xml.writeAttribute("id", id);
+		xml.writeAttribute("for", domain);
+		xml.writeAttribute("attr.name", name);
+		xml.writeAttribute("attr.type", type);
+		xml.writeCharacters("\n");
+	}
+
+	/**
+	 * Writes data elements, formatting numbers through a reused buffer.
+	 */
+	private static final class DataWriter {
+
+		private final XMLStreamWriter xml;
+
+		final StringBuilder text = new StringBuilder();
+
+		private char[] chars = new char[64];
+
+		DataWriter(XMLStreamWriter xml) {
+			this.xml = xml;
+		}
+
+		void write(final String key, final int value) throws XMLStreamException {
+			text.setLength(0);
+			text.append(value);
+			write(key);
+		}
+
+		void write(final String key, final double value) throws XMLStreamException {
+			text.setLength(0);
+			text.append(value);
+			write(key);
+		}
+
+		void write(final String key, final String value) throws XMLStreamException {
+			xml.writeStartElement("data");
+			xml.writeAttribute("key", key);
+			xml.writeCharacters(value);
+			xml.writeEndElement();
+		}
+
+		/*
+		 * Writes the content of the text buffer.
+		 */
+		void write(final String key) throws XMLStreamException {
+			int length = text.length();
+			if (length > chars.length) {
+				chars = new char[Math.max(length, chars.length * 2)];
+			}
+			text.getChars(0, length, chars, 0);
+			xml.writeStartElement("data");
+			xml.writeAttribute("key", key);
+			xml.writeCharacters(chars, 0, length);
+			xml.writeEndElement();
+		}
+	}
+}
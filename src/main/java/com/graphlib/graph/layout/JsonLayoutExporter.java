@@ -0,0 +1,167 @@
+package com.graphlib.graph.layout;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes a computed {@link GraphLayout} as JSON with Jackson's streaming
+ * generator, in a single pass over the nodes and edges. The document can be
+ * read back with {@link JsonLayoutImporter}.
+ *
+ * <pre>
+ * {
+ *   "graph" : {
+ *     "nodes" : [ { "id" : 1, "label" : "a", "rank" : 0, "order" : 0, "pos" : [ 20.0, 130.0 ],
+ *                   "leftWidth" : 9.0, "rightWidth" : 9.0, "height" : 18.0 }, ... ],
+ *     "edges" : [ { "id" : 4, "label" : "ba", "from" : 2, "to" : 1, "weight" : 1, "minlen" : 1,
+ *                   "spline" : [ [ 10.0, 60.0 ], ... ] }, ... ]
+ *   },
+ *   "boundingBox" : { "lowerLeft" : [ 1.0, 11.0 ], "upperRight" : [ 39.0, 139.0 ] }
+ * }
+ * </pre>
+ *
+ * Virtual nodes and edges are flagged with {@code "virtual" : true}; edges
+ * without a spline have no {@code spline} field.
+ */
+public class JsonLayoutExporter {
+
+	static final JsonFactory JSON = new JsonFactory();
+
+	private boolean prettyPrint;
+
+	private boolean boundingBox = true;
+
+	public JsonLayoutExporter prettyPrint(final boolean prettyPrint) {
+		this.prettyPrint = prettyPrint;
+		return this;
+	}
+
+	/**
+	 * Sets whether the result of {@link GraphLayout#computeBoundingBox()} is
+	 * written, true by default.
+	 *
+	 * @param boundingBox
+	 * @return This exporter
+	 */
+	public JsonLayoutExporter boundingBox(final boolean boundingBox) {
+		this.boundingBox = boundingBox;
+		return this;
+	}
+
+	/**
+	 * Writes the layout as UTF-8 to the given stream, which is not closed.
+	 *
+	 * @param layout
+	 * @param out
+	 * @throws IOException
+	 *             If the stream cannot be written
+	 */
+	public void export(final GraphLayout layout, final OutputStream out) throws IOException {
+		if (out == null) {
+			throw new IllegalArgumentException("Output cannot be null.");
+		}
+		export(layout, JSON.createGenerator(out, JsonEncoding.UTF8));
+	}
+
+	/**
+	 * Writes the layout to the given writer, which is not closed.
+	 *
+	 * @param layout
+	 * @param out
+	 * @throws IOException
+	 *             If the writer cannot be written
+	 */
+	public void export(final GraphLayout layout, final Writer out) throws IOException {
+		if (out == null) {
+			throw new IllegalArgumentException("Output cannot be null.");
+		}
+		export(layout, JSON.createGenerator(out));
+	}
+
+	private void export(final GraphLayout layout, final JsonGenerator json) throws IOException {
+		if (layout == null) {
+			throw new IllegalArgumentException("Layout cannot be null.");
+		}
+		json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		if (prettyPrint) {
+			json.useDefaultPrettyPrinter();
+		}
+		try {
+			json.writeStartObject();
+			json.writeObjectFieldStart("graph");
+
+			json.writeArrayFieldStart("nodes");
+			for (LayoutNode node : layout.getAllVertices()) {
+				json.writeStartObject();
+				json.writeNumberField("id", node.id);
+				json.writeStringField("label", node.label);
+				json.writeNumberField("rank", node.rank);
+				json.writeNumberField("order", node.order);
+				json.writeArrayFieldStart("pos");
+				json.writeNumber(node.xCoordinate);
+				json.writeNumber(node.yCoordinate);
+				json.writeEndArray();
+				json.writeNumberField("leftWidth", node.leftWidth);
+				json.writeNumberField("rightWidth", node.rightWidth);
+				json.writeNumberField("height", node.height);
+				if (node.isVirtual) {
+					json.writeBooleanField("virtual", true);
+				}
+				json.writeEndObject();
+			}
+			json.writeEndArray();
+
+			json.writeArrayFieldStart("edges");
+			for (LayoutEdge edge : layout.getAllEdges()) {
+				json.writeStartObject();
+				json.writeNumberField("id", edge.id);
+				json.writeStringField("label", edge.label);
+				json.writeNumberField("from", edge.source.id);
+				json.writeNumberField("to", edge.target.id);
+				json.writeNumberField("weight", edge.weight);
+				json.writeNumberField("minlen", edge.minLength);
+				if (edge.isVirtual) {
+					json.writeBooleanField("virtual", true);
+				}
+				if (edge.spline != null) {
+					json.writeArrayFieldStart("spline");
+					for (int i = 0; i < edge.spline.curves.size(); i++) {
+						Point[] points = edge.spline.curves.get(i).controlPoints;
+						for (int j = i == 0 ? 0 : 1; j < points.length; j++) {
+							writePoint(json, points[j]);
+						}
+					}
+					json.writeEndArray();
+				}
+				json.writeEndObject();
+			}
+			json.writeEndArray();
+			json.writeEndObject();
+
+			if (boundingBox && !layout.getAllVertices().isEmpty()) {
+				Box box = layout.computeBoundingBox();
+				json.writeObjectFieldStart("boundingBox");
+				json.writeFieldName("lowerLeft");
+				writePoint(json, box.getLowerLeft());
+				json.writeFieldName("upperRight");
+				writePoint(json, box.getUpperRight());
+				json.writeEndObject();
+			}
+			json.writeEndObject();
+		} finally {
+			json.close();
+		}
+	}
+
+	private static void writePoint(final JsonGenerator json, final Point point) throws IOException {
+		json.writeStartArray();
+		json.writeNumber(point.getX());
+		json.writeNumber(point.getY());
+		json.writeEndArray();
+	}
+}
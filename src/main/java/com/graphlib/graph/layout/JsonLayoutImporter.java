@@ -0,0 +1,242 @@
+package com.graphlib.graph.layout;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Reads a {@link GraphLayout} written by {@link JsonLayoutExporter} with
+ * Jackson's streaming parser, creating nodes and edges as they are read.
+ * Nodes must precede the edges that refer to them. Numbers may also be given
+ * as strings, and a {@code width} field is split evenly between the left and
+ * right widths of a node. The bounding box and unknown fields are skipped.
+ */
+public class JsonLayoutImporter {
+
+	/**
+	 * Reads a layout from the given UTF-8 stream, which is not closed.
+	 *
+	 * @param in
+	 * @return The layout
+	 * @throws IOException
+	 *             If the stream cannot be read or is not a layout document
+	 */
+	public GraphLayout read(final InputStream in) throws IOException {
+		if (in == null) {
+			throw new IllegalArgumentException("Input cannot be null.");
+		}
+		return read(JsonLayoutExporter.JSON.createParser(in));
+	}
+
+	/**
+	 * Reads a layout from the given reader, which is not closed.
+	 *
+	 * @param in
+	 * @return The layout
+	 * @throws IOException
+	 *             If the reader cannot be read or is not a layout document
+	 */
+	public GraphLayout read(final Reader in) throws IOException {
+		if (in == null) {
+			throw new IllegalArgumentException("Input cannot be null.");
+		}
+		return read(JsonLayoutExporter.JSON.createParser(in));
+	}
+
+	private GraphLayout read(final JsonParser json) throws IOException {
+		json.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+		try {
+			GraphLayout layout = new GraphLayout();
+			Map<Integer, LayoutNode> nodes = new HashMap<>();
+			expect(json, json.nextToken(), JsonToken.START_OBJECT);
+			while (json.nextToken() == JsonToken.FIELD_NAME) {
+				String section = json.getCurrentName();
+				json.nextToken();
+				if ("graph".equals(section)) {
+					expect(json, json.getCurrentToken(), JsonToken.START_OBJECT);
+					while (json.nextToken() == JsonToken.FIELD_NAME) {
+						String field = json.getCurrentName();
+						json.nextToken();
+						if ("nodes".equals(field)) {
+							expect(json, json.getCurrentToken(), JsonToken.START_ARRAY);
+							while (json.nextToken() == JsonToken.START_OBJECT) {
+								LayoutNode node = readNode(json);
+								layout.addVertex(node);
+								nodes.put(node.id, node);
+							}
+						} else if ("edges".equals(field)) {
+							expect(json, json.getCurrentToken(), JsonToken.START_ARRAY);
+							while (json.nextToken() == JsonToken.START_OBJECT) {
+								layout.addEdge(readEdge(json, nodes));
+							}
+						} else {
+							json.skipChildren();
+						}
+					}
+				} else {
+					json.skipChildren();
+				}
+			}
+			return layout;
+		} finally {
+			json.close();
+		}
+	}
+
+	private static LayoutNode readNode(final JsonParser json) throws IOException {
+		Integer id = null;
+		String label = null;
+		LayoutNode node = new LayoutNode(0, null);
+		while (json.nextToken() == JsonToken.FIELD_NAME) {
+			String field = json.getCurrentName();
+			json.nextToken();
+			switch (field) {
+			case "id":
+				id = json.getValueAsInt();
+				break;
+			case "label":
+				label = json.getValueAsString();
+				break;
+			case "rank":
+				node.rank = json.getValueAsInt();
+				break;
+			case "order":
+				node.order = json.getValueAsInt();
+				break;
+			case "pos":
+				expect(json, json.getCurrentToken(), JsonToken.START_ARRAY);
+				json.nextToken();
+				node.xCoordinate = json.getValueAsDouble();
+				json.nextToken();
+				node.yCoordinate = json.getValueAsDouble();
+				expect(json, json.nextToken(), JsonToken.END_ARRAY);
+				break;
+			case "width":
+				node.leftWidth = json.getValueAsDouble() / 2;
+				node.rightWidth = node.leftWidth;
+				break;
+			case "leftWidth":
+				node.leftWidth = json.getValueAsDouble();
+				break;
+			case "rightWidth":
+				node.rightWidth = json.getValueAsDouble();
+				break;
+			case "height":
+				node.height = json.getValueAsDouble();
+				break;
+			case "virtual":
+				node.isVirtual = json.getValueAsBoolean();
+				break;
+			default:
+				json.skipChildren();
+			}
+		}
+		if (id == null) {
+			throw new IOException("Node without an id at " + json.getCurrentLocation() + ".");
+		}
+		node.id = id;
+		node.label = label;
+		return node;
+	}
+
+	private static LayoutEdge readEdge(final JsonParser json, final Map<Integer, LayoutNode> nodes)
+			throws IOException {
+		Integer id = null;
+		LayoutNode source = null;
+		LayoutNode target = null;
+		String label = LayoutEdge.DEFAULT_EDGE_LABEL;
+		int weight = LayoutEdge.DEFAULT_EDGE_WEIGHT;
+		int minLength = LayoutEdge.DEFAULT_MIN_EDGE_LENGTH;
+		boolean virtual = false;
+		Spline spline = null;
+		while (json.nextToken() == JsonToken.FIELD_NAME) {
+			String field = json.getCurrentName();
+			json.nextToken();
+			switch (field) {
+			case "id":
+				id = json.getValueAsInt();
+				break;
+			case "label":
+				label = json.getValueAsString();
+				break;
+			case "from":
+				source = node(json, nodes);
+				break;
+			case "to":
+				target = node(json, nodes);
+				break;
+			case "weight":
+				weight = json.getValueAsInt();
+				break;
+			case "minlen":
+				minLength = json.getValueAsInt();
+				break;
+			case "virtual":
+				virtual = json.getValueAsBoolean();
+				break;
+			case "spline":
+				spline = readSpline(json);
+				break;
+			default:
+				json.skipChildren();
+			}
+		}
+		if (id == null || source == null || target == null) {
+			throw new IOException("Edge without an id, source or target at " + json.getCurrentLocation() + ".");
+		}
+		LayoutEdge edge = new LayoutEdge(id, source, target, weight, minLength, label);
+		edge.setVirtual(virtual);
+		edge.setSpline(spline);
+		return edge;
+	}
+
+	private static LayoutNode node(final JsonParser json, final Map<Integer, LayoutNode> nodes) throws IOException {
+		LayoutNode node = nodes.get(json.getValueAsInt());
+		if (node == null) {
+			throw new IOException("Edge refers to unknown node " + json.getText() + " at "
+					+ json.getCurrentLocation() + ".");
+		}
+		return node;
+	}
+
+	/*
+	 * Reads the control points of a spline: the first point, then three
+	 * points per Bezier curve.
+	 */
+	private static Spline readSpline(final JsonParser json) throws IOException {
+		expect(json, json.getCurrentToken(), JsonToken.START_ARRAY);
+		Spline spline = new Spline();
+		Point[] curve = new Point[4];
+		int count = 0;
+		while (json.nextToken() == JsonToken.START_ARRAY) {
+			json.nextToken();
+			double x = json.getValueAsDouble();
+			json.nextToken();
+			double y = json.getValueAsDouble();
+			expect(json, json.nextToken(), JsonToken.END_ARRAY);
+			curve[count++] = new Point(x, y);
+			if (count == 4) {
+				spline.addCurve(curve[0], curve[1], curve[2], curve[3]);
+				curve[0] = curve[3];
+				count = 1;
+			}
+		}
+		if (count != 1 && !(count == 0 && spline.curves.isEmpty())) {
+			throw new IOException("Spline points do not form Bezier curves at " + json.getCurrentLocation() + ".");
+		}
+		return spline;
+	}
+
+	private static void expect(final JsonParser json, final JsonToken actual, final JsonToken expected)
+			throws IOException {
+		if (actual != expected) {
+			throw new IOException("Expected " + expected + " but found " + actual + " at "
+					+ json.getCurrentLocation() + ".");
+		}
+	}
+}
@@ -26,6 +26,11 @@ public class LayoutEdge implements WeightedEdge<LayoutNode, LayoutEdge> {
 
 	boolean isVirtual;
 
+	/*
+	 * Route of the edge, once drawn.
+	 */
+	Spline spline;
+
 	public LayoutEdge(int id, LayoutNode source, LayoutNode target, int weight, int minLength, String label) {
 		this.id = id;
 		this.source = source;
@@ -121,6 +126,14 @@ public class LayoutEdge implements WeightedEdge<LayoutNode, LayoutEdge> {
 		this.isVirtual = isVirtual;
 	}
 
+	public Spline getSpline() {
+		return spline;
+	}
+
+	public void setSpline(Spline spline) {
+		this.spline = spline;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
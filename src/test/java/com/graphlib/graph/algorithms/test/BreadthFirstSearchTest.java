@@ -0,0 +1,116 @@
+package com.graphlib.graph.algorithms.test;
+
+import static com.graphlib.graph.algorithms.test.IntGraphFixtures.graph;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.graphlib.graph.algorithms.BreadthFirstSearch;
+import com.graphlib.graph.algorithms.BreadthFirstSearch.Result;
+import com.graphlib.graph.core.CsrGraph;
+import com.graphlib.graph.core.Graph;
+import com.graphlib.graph.core.IntAdjacencyGraph;
+import com.graphlib.graph.core.IntEdge;
+import com.graphlib.graph.core.IntGraphs;
+import com.graphlib.graph.iterators.BreadthFirstIterator;
+
+public class BreadthFirstSearchTest {
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@After
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	/*
+	 * Distances by a plain queue based search, for comparison.
+	 */
+	private static int[] distances(Graph<Integer, IntEdge> graph, int source) {
+		int[] distances = new int[graph.getAllVertices().size()];
+		Arrays.fill(distances, -1);
+		distances[source] = 0;
+		int[] queue = new int[distances.length];
+		int tail = 0;
+		queue[tail++] = source;
+		for (int head = 0; head < tail; head++) {
+			int v = queue[head];
+			for (IntEdge e : graph.getOutgoingEdgesFor(v)) {
+				if (distances[e.getTarget()] < 0) {
+					distances[e.getTarget()] = distances[v] + 1;
+					queue[tail++] = e.getTarget();
+				}
+			}
+		}
+		return distances;
+	}
+
+	@Test
+	public void testSearch() {
+		// 0 -> 1 -> 3, 0 -> 2 -> 3 -> 4, and 5 unreachable.
+		Graph<Integer, IntEdge> graph = graph(6, 0, 1, 0, 2, 1, 3, 2, 3, 3, 4, 5, 0);
+		Result<Integer> result = new BreadthFirstSearch<>(graph).search(0);
+		assertArrayEquals(new int[] { 0, 1, 1, 2, 3, -1 }, result.getDistances());
+		assertEquals(5, result.getReachedCount());
+		assertNull(result.getParent(0));
+		assertNull(result.getParent(5));
+		assertEquals(3, (int) result.getParent(4));
+		assertTrue(Arrays.asList(1, 2).contains(result.getParent(3)));
+
+		Iterator<List<Integer>> levels = new BreadthFirstSearch<>(graph).levels(0);
+		assertEquals(Arrays.asList(0), levels.next());
+		assertEquals(Arrays.asList(1, 2), levels.next());
+		assertEquals(Arrays.asList(3), levels.next());
+		assertEquals(Arrays.asList(4), levels.next());
+		assertFalse(levels.hasNext());
+	}
+
+	@Test
+	public void testDirectionOptimizing() {
+		// Low diameter random graph, where the middle levels run bottom-up.
+		int n = 50000;
+		Random random = new Random(17);
+		IntAdjacencyGraph g = new IntAdjacencyGraph(n, 16 * n);
+		g.addVertices(n);
+		for (int i = 0; i < 8 * n; i++) {
+			int a = random.nextInt(n);
+			int b = random.nextInt(n);
+			g.addEdge(a, b);
+			g.addEdge(b, a);
+		}
+		Graph<Integer, IntEdge> graph = IntGraphs.asGraph(g);
+		int[] expected = distances(graph, 0);
+
+		BreadthFirstSearch<Integer, IntEdge> search = new BreadthFirstSearch<>(new CsrGraph<>(graph));
+		assertArrayEquals(expected, search.search(0).getDistances());
+		Result<Integer> parallel = search.search(0, pool);
+		int[] distances = parallel.getDistances();
+		assertArrayEquals(expected, distances);
+		int[] parents = parallel.getParents();
+		for (int v = 1; v < n; v++) {
+			if (distances[v] > 0) {
+				assertEquals(distances[v] - 1, distances[parents[v]]);
+				assertFalse(graph.getEdges(parents[v], v).isEmpty());
+			}
+		}
+	}
+
+	@Test
+	public void testIterator() {
+		Graph<Integer, IntEdge> graph = graph(5, 0, 1, 0, 2, 1, 3, 2, 3, 4, 0);
+		List<Integer> visited = new ArrayList<>();
+		BreadthFirstIterator<Integer, IntEdge> it = new BreadthFirstIterator<>(graph, 0);
+		while (it.hasNext()) {
+			visited.add(it.next());
+		}
+		assertEquals(Arrays.asList(0, 1, 2, 3), visited);
+	}
+}
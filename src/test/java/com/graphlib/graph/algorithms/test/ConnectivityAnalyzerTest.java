@@ -0,0 +1,87 @@
+package com.graphlib.graph.algorithms.test;
+
+import static com.graphlib.graph.algorithms.test.IntGraphFixtures.graph;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.graphlib.graph.algorithms.ConnectedComponents;
+import com.graphlib.graph.algorithms.ConnectivityAnalyzer;
+import com.graphlib.graph.core.CsrGraph;
+import com.graphlib.graph.core.Graph;
+import com.graphlib.graph.core.IntAdjacencyGraph;
+import com.graphlib.graph.core.IntEdge;
+import com.graphlib.graph.core.IntGraphs;
+
+public class ConnectivityAnalyzerTest {
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@After
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void testComponents() {
+		// {0, 1, 2}, {3, 4}, {5}
+		Graph<Integer, IntEdge> graph = graph(6, 1, 0, 2, 1, 4, 3);
+		ConnectedComponents<Integer> components = new ConnectivityAnalyzer<>(graph).analyze();
+		assertEquals(3, components.getComponentCount());
+		assertArrayEquals(new int[] { 0, 0, 0, 1, 1, 2 }, components.getComponentIds());
+		assertTrue(components.sameComponent(0, 2));
+		assertFalse(components.sameComponent(2, 3));
+		assertEquals(new HashSet<>(Arrays.asList(3, 4)), components.getComponent(1));
+		assertTrue(components.getComponent(0).contains(1));
+		assertFalse(components.getComponent(0).contains(5));
+		assertEquals(1, components.getComponent(2).size());
+
+		Set<Set<Integer>> expected = new HashSet<>();
+		expected.add(new HashSet<>(Arrays.asList(0, 1, 2)));
+		expected.add(new HashSet<>(Arrays.asList(3, 4)));
+		expected.add(new HashSet<>(Arrays.asList(5)));
+		assertEquals(expected, new ConnectivityAnalyzer<>(graph).getComponents());
+		assertEquals(expected, new ConnectivityAnalyzer<>(new CsrGraph<>(graph)).getComponents());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownVertex() {
+		new ConnectivityAnalyzer<>(graph(2, 0, 1)).analyze().sameComponent(0, 7);
+	}
+
+	@Test
+	public void testParallelMatchesSequential() {
+		int n = 100000;
+		Random random = new Random(3);
+		IntAdjacencyGraph graph = new IntAdjacencyGraph(n, n);
+		graph.addVertices(n);
+		for (int i = 0; i < n * 9 / 10; i++) {
+			graph.addEdge(random.nextInt(n), random.nextInt(n));
+		}
+		ConnectivityAnalyzer<Integer, IntEdge> analyzer = new ConnectivityAnalyzer<>(IntGraphs.asGraph(graph));
+		ConnectedComponents<Integer> sequential = analyzer.analyze();
+		ConnectedComponents<Integer> parallel = analyzer.analyze(pool);
+		assertEquals(sequential.getComponentCount(), parallel.getComponentCount());
+		assertArrayEquals(sequential.getComponentIds(), parallel.getComponentIds());
+	}
+
+	@Test
+	public void testLongPath() {
+		int n = 200000;
+		IntAdjacencyGraph path = new IntAdjacencyGraph(n, n);
+		path.addVertices(n);
+		for (int v = 0; v + 1 < n; v++) {
+			path.addEdge(v + 1, v);
+		}
+		ConnectedComponents<Integer> components = new ConnectivityAnalyzer<>(IntGraphs.asGraph(path)).analyze(pool);
+		assertEquals(1, components.getComponentCount());
+		assertEquals(n, components.getComponent(0).size());
+	}
+}
@@ -0,0 +1,70 @@
+package com.graphlib.graph.algorithms.test;
+
+import static com.graphlib.graph.algorithms.test.IntGraphFixtures.graph;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.graphlib.graph.algorithms.CycleDetectionAlgorithm;
+import com.graphlib.graph.core.Graph;
+import com.graphlib.graph.core.IntAdjacencyGraph;
+import com.graphlib.graph.core.IntEdge;
+import com.graphlib.graph.core.IntGraphs;
+import com.graphlib.graph.core.test.City;
+import com.graphlib.graph.core.test.Flight;
+import com.graphlib.graph.core.test.FlightGraph;
+
+public class CycleDetectionAlgorithmTest {
+
+	private final CycleDetectionAlgorithm<Integer, IntEdge> algorithm = new CycleDetectionAlgorithm<>();
+
+	@Test
+	public void testAcyclic() {
+		Graph<Integer, IntEdge> graph = graph(4, 0, 1, 0, 2, 1, 3, 2, 3);
+		assertFalse(algorithm.isCyclic(graph));
+		assertTrue(algorithm.findCycle(graph).isEmpty());
+	}
+
+	@Test
+	public void testFindCycle() {
+		// 0 -> 1 -> 2 -> 3 -> 1, 3 -> 4
+		Graph<Integer, IntEdge> graph = graph(5, 0, 1, 1, 2, 2, 3, 3, 1, 3, 4);
+		assertTrue(algorithm.isCyclic(graph));
+		assertEquals(Arrays.asList(1, 2, 3), algorithm.findCycle(graph));
+
+		assertEquals(Collections.singletonList(1), algorithm.findCycle(graph(2, 0, 1, 1, 1)));
+	}
+
+	@Test
+	public void testDeepChain() {
+		int n = 200000;
+		IntAdjacencyGraph chain = new IntAdjacencyGraph(n, n);
+		chain.addVertices(n);
+		for (int v = 0; v + 1 < n; v++) {
+			chain.addEdge(v, v + 1);
+		}
+		assertFalse(algorithm.isCyclic(IntGraphs.asGraph(chain)));
+
+		chain.addEdge(n - 1, 0);
+		List<Integer> cycle = algorithm.findCycle(IntGraphs.asGraph(chain));
+		assertEquals(n, cycle.size());
+		assertEquals(0, (int) cycle.get(0));
+	}
+
+	@Test
+	public void testHasCycles() {
+		FlightGraph graph = new FlightGraph();
+		City a = new City("A");
+		City b = new City("B");
+		graph.addVertex(a);
+		graph.addVertex(b);
+		graph.addEdge(new Flight(a, b, "AB1"));
+		assertFalse(graph.hasCycles());
+		graph.addEdge(new Flight(b, a, "BA1"));
+		assertTrue(graph.hasCycles());
+	}
+}
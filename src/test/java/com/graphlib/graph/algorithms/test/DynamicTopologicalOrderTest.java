@@ -0,0 +1,155 @@
+package com.graphlib.graph.algorithms.test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.graphlib.graph.algorithms.CyclicGraphException;
+import com.graphlib.graph.algorithms.DynamicTopologicalOrder;
+import com.graphlib.graph.core.test.City;
+import com.graphlib.graph.core.test.Flight;
+import com.graphlib.graph.core.test.FlightGraph;
+
+public class DynamicTopologicalOrderTest {
+
+	private static void assertTopological(DynamicTopologicalOrder<City, Flight> graph) {
+		List<City> order = graph.getOrder();
+		assertEquals(graph.getAllVertices().size(), order.size());
+		Map<City, Integer> position = new HashMap<>();
+		for (int i = 0; i < order.size(); i++) {
+			position.put(order.get(i), i);
+		}
+		for (Flight f : graph.getAllEdges()) {
+			assertTrue(position.get(f.getSourceVertex()) < position.get(f.getTargetVertex()));
+		}
+	}
+
+	@Test
+	public void testReorderAndReject() {
+		City a = new City("A");
+		City b = new City("B");
+		City c = new City("C");
+		City d = new City("D");
+		FlightGraph base = new FlightGraph();
+		base.addVertex(a);
+		base.addVertex(b);
+		DynamicTopologicalOrder<City, Flight> graph = new DynamicTopologicalOrder<>(base);
+		graph.addVertex(c);
+		graph.addVertex(d);
+
+		graph.addEdge(new Flight(c, d, "CD"));
+		graph.addEdge(new Flight(d, a, "DA"));
+		graph.addEdge(new Flight(b, c, "BC"));
+		assertTopological(graph);
+		assertEquals(Arrays.asList(b, c, d, a), graph.getOrder());
+		assertTrue(graph.precedes(c, a));
+
+		try {
+			graph.addEdge(new Flight(a, b, "AB"));
+			fail("Expected a CyclicGraphException");
+		} catch (CyclicGraphException e) {
+			assertEquals(4, e.getComponent().size());
+		}
+		assertEquals(3, graph.getAllEdges().size());
+		assertFalse(graph.hasCycles());
+
+		try {
+			graph.addEdge(new Flight(a, a, "AA"));
+			fail("Expected a CyclicGraphException");
+		} catch (CyclicGraphException e) {
+			assertEquals(1, e.getComponent().size());
+		}
+
+		graph.removeVertex(c);
+		graph.addEdge(new Flight(a, b, "AB"));
+		assertTopological(graph);
+	}
+
+	@Test
+	public void testNewSourceBeforeExistingTarget() {
+		City x = new City("X");
+		City y = new City("Y");
+		City z = new City("Z");
+		FlightGraph base = new FlightGraph();
+		base.addVertex(y);
+		DynamicTopologicalOrder<City, Flight> graph = new DynamicTopologicalOrder<>(base);
+
+		graph.addEdge(new Flight(x, y, "XY"));
+		assertTrue(graph.precedes(x, y));
+		assertTopological(graph);
+
+		try {
+			graph.addEdge(new Flight(y, x, "YX"));
+			fail("Expected a CyclicGraphException");
+		} catch (CyclicGraphException e) {
+			assertEquals(2, e.getComponent().size());
+		}
+		assertEquals(1, graph.getAllEdges().size());
+		assertFalse(base.hasCycles());
+
+		try {
+			graph.addEdge(new Flight(z, z, "ZZ"));
+			fail("Expected a CyclicGraphException");
+		} catch (CyclicGraphException e) {
+			assertEquals(1, e.getComponent().size());
+		}
+		assertFalse(graph.contains(z));
+		assertEquals(Arrays.asList(x, y), graph.getOrder());
+
+		// New sources go in front, and survive compaction.
+		List<City> chain = new ArrayList<>();
+		City next = x;
+		for (int i = 0; i < 40; i++) {
+			City city = new City("P" + i);
+			graph.addEdge(new Flight(city, next, "F" + i));
+			chain.add(0, city);
+			next = city;
+		}
+		assertEquals(chain.get(0), graph.getOrder().get(0));
+		for (int i = 0; i < 30; i++) {
+			graph.removeVertex(chain.get(i));
+		}
+		assertEquals(12, graph.getOrder().size());
+		graph.addEdge(new Flight(chain.get(30), y, "P-Y"));
+		try {
+			graph.addEdge(new Flight(y, chain.get(30), "Y-P"));
+			fail("Expected a CyclicGraphException");
+		} catch (CyclicGraphException e) {
+			assertEquals(12, e.getComponent().size());
+		}
+		assertTopological(graph);
+	}
+
+	@Test
+	public void testRandomInsertions() {
+		Random random = new Random(9);
+		FlightGraph base = new FlightGraph();
+		List<City> cities = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			City city = new City("C" + i);
+			cities.add(city);
+			base.addVertex(city);
+		}
+		DynamicTopologicalOrder<City, Flight> graph = new DynamicTopologicalOrder<>(base);
+		int rejected = 0;
+		for (int i = 0; i < 3000; i++) {
+			City from = cities.get(random.nextInt(300));
+			City to = cities.get(random.nextInt(300));
+			try {
+				graph.addEdge(new Flight(from, to, "F" + i));
+			} catch (CyclicGraphException e) {
+				rejected++;
+			}
+		}
+		assertTrue(rejected > 0);
+		assertTopological(graph);
+		assertFalse(base.hasCycles());
+	}
+}
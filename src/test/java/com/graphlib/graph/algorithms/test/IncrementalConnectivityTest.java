@@ -0,0 +1,95 @@
+package com.graphlib.graph.algorithms.test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.graphlib.graph.algorithms.ConnectivityAnalyzer;
+import com.graphlib.graph.algorithms.IncrementalConnectivity;
+import com.graphlib.graph.core.DefaultListenableGraph;
+import com.graphlib.graph.core.test.City;
+import com.graphlib.graph.core.test.Flight;
+import com.graphlib.graph.core.test.FlightGraph;
+
+public class IncrementalConnectivityTest {
+
+	@Test
+	public void testUpdates() {
+		City delhi = new City("Delhi");
+		City mumbai = new City("Mumbai");
+		City chennai = new City("Chennai");
+		City jaipur = new City("Jaipur");
+
+		FlightGraph base = new FlightGraph();
+		base.addVertex(delhi);
+		base.addVertex(mumbai);
+		base.addVertex(chennai);
+		Flight delhiToMumbai = new Flight(delhi, mumbai, "DEL-MUM-1");
+		base.addEdge(delhiToMumbai);
+
+		DefaultListenableGraph<City, Flight> graph = new DefaultListenableGraph<>(base);
+		IncrementalConnectivity<City, Flight> connectivity = new IncrementalConnectivity<>(graph);
+		assertEquals(2, connectivity.getComponentCount());
+		assertTrue(connectivity.sameComponent(delhi, mumbai));
+		assertFalse(connectivity.isConnected());
+
+		Flight mumbaiToChennai = new Flight(mumbai, chennai, "MUM-CHE-1");
+		graph.addEdge(mumbaiToChennai);
+		assertTrue(connectivity.isConnected());
+
+		// A second route keeps the component together when the first goes.
+		Flight chennaiToDelhi = new Flight(chennai, delhi, "CHE-DEL-1");
+		graph.addEdge(chennaiToDelhi);
+		graph.removeEdge(delhiToMumbai);
+		assertTrue(connectivity.isConnected());
+
+		graph.removeEdge(mumbaiToChennai);
+		assertFalse(connectivity.sameComponent(mumbai, delhi));
+		assertEquals(new HashSet<>(Arrays.asList(delhi, chennai)), connectivity.getComponent(chennai));
+
+		graph.addVertex(jaipur);
+		assertEquals(3, connectivity.getComponentCount());
+		graph.removeVertex(chennai);
+		assertEquals(3, connectivity.getComponentCount());
+		assertEquals(new HashSet<>(Arrays.asList(delhi)), connectivity.getComponent(delhi));
+		try {
+			connectivity.getComponent(chennai);
+			fail("Expected an IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	public void testMatchesAnalyzer() {
+		Random random = new Random(5);
+		List<City> cities = new ArrayList<>();
+		FlightGraph base = new FlightGraph();
+		for (int i = 0; i < 200; i++) {
+			City city = new City("C" + i);
+			cities.add(city);
+			base.addVertex(city);
+		}
+		DefaultListenableGraph<City, Flight> graph = new DefaultListenableGraph<>(base);
+		IncrementalConnectivity<City, Flight> connectivity = new IncrementalConnectivity<>(graph);
+
+		List<Flight> flights = new ArrayList<>();
+		for (int step = 0; step < 2000; step++) {
+			if (flights.isEmpty() || random.nextInt(3) > 0) {
+				Flight flight = new Flight(cities.get(random.nextInt(200)), cities.get(random.nextInt(200)), "F" + step);
+				flights.add(flight);
+				graph.addEdge(flight);
+			} else {
+				graph.removeEdge(flights.remove(random.nextInt(flights.size())));
+			}
+			if (step % 50 == 0) {
+				assertEquals(new ConnectivityAnalyzer<>(graph).getComponents(), connectivity.getComponents());
+			}
+		}
+	}
+}
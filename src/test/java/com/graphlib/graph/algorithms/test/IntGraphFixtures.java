@@ -0,0 +1,28 @@
+package com.graphlib.graph.algorithms.test;
+
+import com.graphlib.graph.core.Graph;
+import com.graphlib.graph.core.IntAdjacencyGraph;
+import com.graphlib.graph.core.IntEdge;
+import com.graphlib.graph.core.IntGraphs;
+
+/**
+ * Small int graphs for the algorithm tests.
+ */
+public final class IntGraphFixtures {
+
+	/**
+	 * Returns a graph with the given number of vertices and the edges given as
+	 * source, target pairs.
+	 */
+	public static Graph<Integer, IntEdge> graph(int vertices, int... edges) {
+		IntAdjacencyGraph graph = new IntAdjacencyGraph();
+		graph.addVertices(vertices);
+		for (int i = 0; i < edges.length; i += 2) {
+			graph.addEdge(edges[i], edges[i + 1]);
+		}
+		return IntGraphs.asGraph(graph);
+	}
+
+	private IntGraphFixtures() {
+	}
+}
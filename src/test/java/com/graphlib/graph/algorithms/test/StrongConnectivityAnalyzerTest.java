@@ -0,0 +1,89 @@
+package com.graphlib.graph.algorithms.test;
+
+import static com.graphlib.graph.algorithms.test.IntGraphFixtures.graph;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.graphlib.graph.algorithms.ConnectedComponents;
+import com.graphlib.graph.algorithms.StrongConnectivityAnalyzer;
+import com.graphlib.graph.algorithms.TopologicalSort;
+import com.graphlib.graph.core.Graph;
+import com.graphlib.graph.core.IntAdjacencyGraph;
+import com.graphlib.graph.core.IntEdge;
+import com.graphlib.graph.core.IntGraphs;
+
+public class StrongConnectivityAnalyzerTest {
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@After
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void testComponentsAndCondensation() {
+		// {0, 1, 2} -> {3, 4} -> {5}, with two edges from the first to the second.
+		Graph<Integer, IntEdge> graph = graph(6, 0, 1, 1, 2, 2, 0, 2, 3, 1, 4, 3, 4, 4, 3, 4, 5);
+		StrongConnectivityAnalyzer<Integer, IntEdge> analyzer = new StrongConnectivityAnalyzer<>(graph);
+		ConnectedComponents<Integer> components = analyzer.analyze();
+		assertEquals(3, components.getComponentCount());
+		assertArrayEquals(new int[] { 0, 0, 0, 1, 1, 2 }, components.getComponentIds());
+		assertEquals(new HashSet<>(Arrays.asList(3, 4)), components.getComponent(1));
+		assertArrayEquals(components.getComponentIds(), analyzer.analyze(pool).getComponentIds());
+
+		Graph<Integer, IntEdge> condensation = analyzer.condense(components);
+		assertEquals(3, condensation.getAllVertices().size());
+		assertEquals(2, condensation.getAllEdges().size());
+		assertEquals(2, condensation.getEdges(0, 1).iterator().next().getEdgeWeight());
+		assertEquals(Arrays.asList(0, 1, 2), TopologicalSort.apply(condensation));
+	}
+
+	@Test
+	public void testParallelMatchesSequential() {
+		int n = 60000;
+		Random random = new Random(13);
+		IntAdjacencyGraph graph = new IntAdjacencyGraph(n, 2 * n);
+		graph.addVertices(n);
+		for (int i = 0; i < 2 * n; i++) {
+			// Mostly forward edges, with some back edges closing cycles.
+			int a = random.nextInt(n);
+			int b = random.nextInt(n);
+			if (a < b || random.nextInt(8) == 0) {
+				graph.addEdge(a, b);
+			}
+		}
+		StrongConnectivityAnalyzer<Integer, IntEdge> analyzer = new StrongConnectivityAnalyzer<>(
+				IntGraphs.asGraph(graph));
+		ConnectedComponents<Integer> sequential = analyzer.analyze();
+		ConnectedComponents<Integer> parallel = analyzer.analyze(pool);
+		assertTrue(sequential.getComponentCount() > 1);
+		assertTrue(sequential.getComponentCount() < n);
+		assertArrayEquals(sequential.getComponentIds(), parallel.getComponentIds());
+
+		List<Integer> order = TopologicalSort.apply(analyzer.condense(parallel));
+		assertEquals(sequential.getComponentCount(), order.size());
+	}
+
+	@Test
+	public void testLongCycle() {
+		int n = 200000;
+		IntAdjacencyGraph cycle = new IntAdjacencyGraph(n, n);
+		cycle.addVertices(n);
+		for (int v = 0; v < n; v++) {
+			cycle.addEdge(v, (v + 1) % n);
+		}
+		StrongConnectivityAnalyzer<Integer, IntEdge> analyzer = new StrongConnectivityAnalyzer<>(
+				IntGraphs.asGraph(cycle));
+		assertEquals(1, analyzer.analyze().getComponentCount());
+		assertEquals(1, analyzer.analyze(pool).getComponentCount());
+	}
+}
@@ -0,0 +1,91 @@
+package com.graphlib.graph.algorithms.test;
+
+import static com.graphlib.graph.algorithms.test.IntGraphFixtures.graph;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.graphlib.graph.algorithms.CyclicGraphException;
+import com.graphlib.graph.algorithms.TopologicalSort;
+import com.graphlib.graph.core.CsrGraph;
+import com.graphlib.graph.core.Graph;
+import com.graphlib.graph.core.IntAdjacencyGraph;
+import com.graphlib.graph.core.IntEdge;
+import com.graphlib.graph.core.IntGraphs;
+
+public class TopologicalSortTest {
+
+	private static void assertTopological(Graph<Integer, IntEdge> graph, List<Integer> sorted) {
+		assertEquals(graph.getAllVertices().size(), sorted.size());
+		Map<Integer, Integer> position = new HashMap<>();
+		for (int i = 0; i < sorted.size(); i++) {
+			position.put(sorted.get(i), i);
+		}
+		for (IntEdge e : graph.getAllEdges()) {
+			assertTrue(position.get(e.getSourceVertex()) < position.get(e.getTargetVertex()));
+		}
+	}
+
+	@Test
+	public void testOrders() {
+		Graph<Integer, IntEdge> graph = graph(6, 5, 2, 5, 0, 4, 0, 4, 1, 2, 3, 3, 1);
+		assertTopological(graph, TopologicalSort.apply(graph));
+		assertEquals(Arrays.asList(4, 5, 0, 2, 3, 1), TopologicalSort.applyStable(graph));
+		assertEquals(Arrays.asList(5, 4, 2, 3, 1, 0),
+				TopologicalSort.apply(graph, Collections.<Integer> reverseOrder()));
+		assertEquals(TopologicalSort.applyStable(graph), TopologicalSort.apply(graph, new Comparator<Integer>() {
+
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return 0;
+			}
+		}));
+	}
+
+	@Test
+	public void testParallelEdgesAndCsr() {
+		Graph<Integer, IntEdge> graph = graph(3, 0, 1, 0, 1, 1, 2);
+		assertEquals(Arrays.asList(0, 1, 2), TopologicalSort.apply(graph));
+		assertEquals(Arrays.asList(0, 1, 2), TopologicalSort.apply(new CsrGraph<>(graph)));
+	}
+
+	@Test
+	public void testCycleReportsComponent() {
+		// 0 -> 1 -> 2 -> 3 -> 1, and 3 -> 4 behind the cycle.
+		Graph<Integer, IntEdge> graph = graph(5, 0, 1, 1, 2, 2, 3, 3, 1, 3, 4);
+		try {
+			TopologicalSort.apply(graph);
+			fail("Expected a CyclicGraphException");
+		} catch (CyclicGraphException e) {
+			assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), e.getComponent());
+		}
+
+		try {
+			TopologicalSort.applyStable(graph(2, 0, 1, 1, 1));
+			fail("Expected a CyclicGraphException");
+		} catch (UnsupportedOperationException e) {
+			assertEquals(Collections.singleton(1), ((CyclicGraphException) e).getComponent());
+		}
+	}
+
+	@Test
+	public void testLongChain() {
+		int n = 200000;
+		IntAdjacencyGraph chain = new IntAdjacencyGraph(n, n);
+		chain.addVertices(n);
+		for (int v = n - 1; v > 0; v--) {
+			chain.addEdge(v, v - 1);
+		}
+		List<Integer> sorted = TopologicalSort.apply(IntGraphs.asGraph(chain));
+		assertEquals(n - 1, (int) sorted.get(0));
+		assertEquals(0, (int) sorted.get(n - 1));
+	}
+}
@@ -0,0 +1,141 @@
+package com.graphlib.graph.algorithms.test;
+
+import static com.graphlib.graph.algorithms.test.IntGraphFixtures.graph;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.graphlib.graph.algorithms.CyclicGraphException;
+import com.graphlib.graph.algorithms.TopologicalWavefront;
+import com.graphlib.graph.algorithms.TopologicalWavefront.VertexAction;
+import com.graphlib.graph.core.Graph;
+import com.graphlib.graph.core.IntAdjacencyGraph;
+import com.graphlib.graph.core.IntEdge;
+import com.graphlib.graph.core.IntGraphs;
+
+public class TopologicalWavefrontTest {
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@After
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	private static Graph<Integer, IntEdge> randomDag(int n, int m, long seed) {
+		Random random = new Random(seed);
+		IntAdjacencyGraph graph = new IntAdjacencyGraph(n, m);
+		graph.addVertices(n);
+		for (int i = 0; i < m; i++) {
+			int a = random.nextInt(n);
+			int b = random.nextInt(n);
+			if (a != b) {
+				graph.addEdge(Math.min(a, b), Math.max(a, b));
+			}
+		}
+		return IntGraphs.asGraph(graph);
+	}
+
+	@Test
+	public void testLevels() {
+		// 0 -> 1 -> 3, 0 -> 2 -> 3, 4 -> 3, 3 -> 5
+		Graph<Integer, IntEdge> graph = graph(6, 0, 1, 1, 3, 0, 2, 2, 3, 4, 3, 3, 5);
+		List<List<Integer>> expected = Arrays.asList(Arrays.asList(0, 4), Arrays.asList(1, 2), Arrays.asList(3),
+				Arrays.asList(5));
+		assertEquals(expected, TopologicalWavefront.levels(graph));
+		assertEquals(expected, TopologicalWavefront.levels(graph, pool));
+	}
+
+	@Test
+	public void testParallelLevelsMatchSequential() {
+		Graph<Integer, IntEdge> graph = randomDag(50000, 200000, 7);
+		List<List<Integer>> levels = TopologicalWavefront.levels(graph);
+		assertEquals(levels, TopologicalWavefront.levels(graph, pool));
+
+		int total = 0;
+		for (List<Integer> level : levels) {
+			total += level.size();
+		}
+		assertEquals(50000, total);
+	}
+
+	@Test
+	public void testCycle() {
+		Graph<Integer, IntEdge> graph = graph(4, 0, 1, 1, 2, 2, 1, 2, 3);
+		try {
+			TopologicalWavefront.levels(graph, pool);
+			fail("Expected a CyclicGraphException");
+		} catch (CyclicGraphException e) {
+			assertEquals(new HashSet<>(Arrays.asList(1, 2)), e.getComponent());
+		}
+
+		final AtomicInteger runs = new AtomicInteger();
+		try {
+			TopologicalWavefront.execute(graph, new VertexAction<Integer>() {
+
+				@Override
+				public void execute(Integer vertex) {
+					runs.incrementAndGet();
+				}
+			}, pool);
+			fail("Expected a CyclicGraphException");
+		} catch (CyclicGraphException e) {
+			assertEquals(0, runs.get());
+		} catch (Exception e) {
+			fail(e.toString());
+		}
+	}
+
+	@Test
+	public void testExecuteRespectsDependencies() throws Exception {
+		final Graph<Integer, IntEdge> graph = randomDag(5000, 20000, 11);
+		final ConcurrentHashMap<Integer, Boolean> finished = new ConcurrentHashMap<>();
+		final AtomicInteger violations = new AtomicInteger();
+		TopologicalWavefront.execute(graph, new VertexAction<Integer>() {
+
+			@Override
+			public void execute(Integer vertex) {
+				for (IntEdge e : graph.getIncomingEdgesFor(vertex)) {
+					if (!finished.containsKey(e.getSourceVertex())) {
+						violations.incrementAndGet();
+					}
+				}
+				finished.put(vertex, Boolean.TRUE);
+			}
+		}, pool);
+		assertEquals(0, violations.get());
+		assertEquals(5000, finished.size());
+	}
+
+	@Test
+	public void testExecuteFailure() throws Exception {
+		Graph<Integer, IntEdge> graph = graph(4, 0, 1, 1, 2, 2, 3);
+		final AtomicInteger runs = new AtomicInteger();
+		try {
+			TopologicalWavefront.execute(graph, new VertexAction<Integer>() {
+
+				@Override
+				public void execute(Integer vertex) throws Exception {
+					runs.incrementAndGet();
+					if (vertex == 1) {
+						throw new IllegalStateException("boom");
+					}
+				}
+			}, pool);
+			fail("Expected an ExecutionException");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+			assertEquals(2, runs.get());
+		}
+	}
+}
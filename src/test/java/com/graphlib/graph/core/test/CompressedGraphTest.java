@@ -0,0 +1,140 @@
+package com.graphlib.graph.core.test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.graphlib.graph.algorithms.ConnectivityAnalyzer;
+import com.graphlib.graph.core.CompressedGraph;
+import com.graphlib.graph.core.Graph;
+import com.graphlib.graph.core.IntAdjacencyGraph;
+import com.graphlib.graph.core.IntCursor;
+import com.graphlib.graph.core.IntEdge;
+import com.graphlib.graph.core.IntGraph;
+import com.graphlib.graph.core.IntGraphs;
+
+public class CompressedGraphTest {
+
+	/*
+	 * Vertices linked to a few close neighbors, with similar lists for
+	 * consecutive vertices, some multi-edges and an isolated vertex.
+	 */
+	private IntAdjacencyGraph localGraph(int n) {
+		Random random = new Random(42);
+		IntAdjacencyGraph graph = new IntAdjacencyGraph();
+		graph.addVertices(n);
+		for (int v = 0; v < n - 1; v++) {
+			for (int d = 1; d <= 4; d++) {
+				graph.addEdge(v, (v / 8 * 8 + d * 3) % (n - 1), random.nextInt(3) == 0 ? 2 : 1);
+			}
+			graph.addEdge(v, random.nextInt(n - 1));
+			if (v % 10 == 0) {
+				graph.addEdge(v, v + 1);
+				graph.addEdge(v, v + 1);
+			}
+		}
+		return graph;
+	}
+
+	private static List<Integer> sorted(IntCursor cursor) {
+		List<Integer> values = new ArrayList<>();
+		while (cursor.hasNext()) {
+			values.add(cursor.next());
+		}
+		Collections.sort(values);
+		return values;
+	}
+
+	private static List<Integer> values(IntCursor cursor) {
+		List<Integer> values = new ArrayList<>();
+		while (cursor.hasNext()) {
+			values.add(cursor.next());
+		}
+		return values;
+	}
+
+	private void assertSameGraph(IntGraph expected, CompressedGraph actual) {
+		assertEquals(expected.getVertexCount(), actual.getVertexCount());
+		assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+		assertArrayEquals(expected.getOutDegrees(), actual.getOutDegrees());
+		assertArrayEquals(expected.getInDegrees(), actual.getInDegrees());
+		for (int v = 0; v < expected.getVertexCount(); v++) {
+			List<Integer> successors = values(actual.getSuccessors(v));
+			assertEquals(sorted(expected.getSuccessors(v)), successors);
+			List<Integer> predecessors = values(actual.getPredecessors(v));
+			assertEquals(sorted(expected.getPredecessors(v)), predecessors);
+
+			IntCursor out = actual.getOutgoingEdges(v);
+			for (int i = 0; out.hasNext(); i++) {
+				int e = out.next();
+				assertEquals(v, actual.getEdgeSource(e));
+				assertEquals((int) successors.get(i), actual.getEdgeTarget(e));
+			}
+			IntCursor in = actual.getIncomingEdges(v);
+			for (int i = 0; in.hasNext(); i++) {
+				int e = in.next();
+				assertEquals(v, actual.getEdgeTarget(e));
+				assertEquals((int) predecessors.get(i), actual.getEdgeSource(e));
+			}
+		}
+	}
+
+	@Test
+	public void testRoundTrip() {
+		IntAdjacencyGraph graph = localGraph(200);
+		assertSameGraph(graph, new CompressedGraph(graph));
+		assertSameGraph(graph, new CompressedGraph(graph, 0, 0));
+		assertSameGraph(graph, new CompressedGraph(graph, 16, 1));
+	}
+
+	@Test
+	public void testWeights() {
+		IntAdjacencyGraph graph = localGraph(50);
+		CompressedGraph compressed = new CompressedGraph(graph);
+		long expected = 0;
+		long actual = 0;
+		for (int e = 0; e < graph.getEdgeCount(); e++) {
+			expected += graph.getEdgeWeight(e);
+			actual += compressed.getEdgeWeight(e);
+		}
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void testCompression() {
+		IntAdjacencyGraph graph = localGraph(2000);
+		CompressedGraph plain = new CompressedGraph(graph, 0, 0);
+		CompressedGraph referenced = new CompressedGraph(graph);
+		// Both directions as int arrays take 8 bytes per edge.
+		assertTrue(plain.getEncodedSize() < 8L * graph.getEdgeCount());
+		assertTrue(referenced.getEncodedSize() < plain.getEncodedSize());
+	}
+
+	@Test
+	public void testGraphView() {
+		IntAdjacencyGraph graph = localGraph(100);
+		CompressedGraph compressed = new CompressedGraph(graph);
+		Graph<Integer, IntEdge> view = IntGraphs.asGraph(compressed);
+		assertEquals(2, new ConnectivityAnalyzer<>(view).getComponents().size());
+
+		Set<IntEdge> all = view.getAllEdges();
+		assertEquals(compressed.getEdgeCount(), new HashSet<>(all).size());
+		Set<IntEdge> incoming = new HashSet<>();
+		for (int v = 0; v < compressed.getVertexCount(); v++) {
+			for (IntEdge e : view.getOutgoingEdgesFor(v)) {
+				assertEquals(v, e.getSource());
+				assertEquals(compressed.getEdgeTarget(e.getId()), e.getTarget());
+				assertTrue(all.contains(e));
+			}
+			incoming.addAll(view.getIncomingEdgesFor(v));
+		}
+		assertEquals(new HashSet<>(all), incoming);
+	}
+}
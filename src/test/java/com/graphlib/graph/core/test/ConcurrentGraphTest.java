@@ -0,0 +1,117 @@
+package com.graphlib.graph.core.test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.graphlib.graph.core.ConcurrentGraph;
+
+public class ConcurrentGraphTest {
+
+	private static final int THREADS = 8;
+
+	private static final int CITIES_PER_THREAD = 50;
+
+	@Test
+	public void testSequentialSemantics() {
+		ConcurrentGraph<City, Flight> graph = new ConcurrentGraph<>(new FlightFactory());
+		City delhi = new City("Delhi");
+		City bangalore = new City("Bangalore");
+		Flight delhiToBangalore = new Flight(delhi, bangalore, "DEL-BLR-270");
+
+		assertTrue(graph.addEdge(delhiToBangalore));
+		assertFalse(graph.addEdge(delhiToBangalore));
+		assertEquals(1, graph.getOutDegreeFor(delhi));
+		assertEquals(1, graph.getInDegreeFor(bangalore));
+		assertEquals(1, graph.getEdges(bangalore, delhi).size());
+		assertTrue(graph.isConnected());
+
+		assertTrue(graph.removeVertex(bangalore));
+		assertFalse(graph.contains(delhiToBangalore));
+		assertEquals(0, graph.getOutDegreeFor(delhi));
+		assertEquals(1, graph.getAllVertices().size());
+	}
+
+	@Test
+	public void testConcurrentMutationsAndReads() throws Exception {
+		final ConcurrentGraph<City, Flight> graph = new ConcurrentGraph<>(new FlightFactory(), THREADS);
+		final City hub = new City("Hub");
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+		try {
+			List<Future<Integer>> writers = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				final int thread = t;
+				writers.add(executor.submit(new Callable<Integer>() {
+
+					@Override
+					public Integer call() {
+						City previous = hub;
+						for (int i = 0; i < CITIES_PER_THREAD; i++) {
+							City city = new City("City-" + thread + "-" + i);
+							graph.addEdge(new Flight(previous, city, "F-" + thread + "-" + i));
+							graph.addEdge(new Flight(city, hub, "R-" + thread + "-" + i));
+							previous = city;
+						}
+						/*
+						 * Remove every other city along with its flights.
+						 */
+						for (int i = 0; i < CITIES_PER_THREAD; i += 2) {
+							graph.removeVertex(new City("City-" + thread + "-" + i));
+						}
+						return thread;
+					}
+				}));
+			}
+			Future<Integer> reader = executor.submit(new Callable<Integer>() {
+
+				@Override
+				public Integer call() {
+					/*
+					 * Views are weakly consistent, so iterating while the
+					 * writers run must not fail.
+					 */
+					int passes = 0;
+					for (int i = 0; i < 100; i++) {
+						for (Flight f : graph.getIncomingEdgesFor(hub)) {
+							assertEquals(hub, f.getTargetVertex());
+						}
+						for (City c : graph.getAllVertices()) {
+							graph.getOutDegreeFor(c);
+						}
+						passes++;
+					}
+					return passes;
+				}
+			});
+			for (Future<Integer> f : writers) {
+				f.get();
+			}
+			assertEquals(100, (int) reader.get());
+		} finally {
+			executor.shutdown();
+		}
+
+		int expectedCities = THREADS * CITIES_PER_THREAD / 2;
+		assertEquals(expectedCities + 1, graph.getAllVertices().size());
+		assertEquals(expectedCities, graph.getInDegreeFor(hub));
+
+		int outDegrees = 0;
+		int inDegrees = 0;
+		for (City c : graph.getAllVertices()) {
+			outDegrees += graph.getOutDegreeFor(c);
+			inDegrees += graph.getInDegreeFor(c);
+			for (Flight f : graph.getOutgoingEdgesFor(c)) {
+				assertTrue(graph.contains(f.getTargetVertex()));
+			}
+		}
+		assertEquals(graph.getAllEdges().size(), outDegrees);
+		assertEquals(graph.getAllEdges().size(), inDegrees);
+	}
+}
@@ -0,0 +1,126 @@
+package com.graphlib.graph.core.test;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.graphlib.graph.algorithms.ConnectivityAnalyzer;
+import com.graphlib.graph.algorithms.TopologicalSort;
+import com.graphlib.graph.core.CsrGraph;
+import com.graphlib.graph.core.IndexedGraph;
+import com.graphlib.graph.iterators.BreadthFirstIterator;
+
+public class CsrGraphTest {
+
+	private IndexedGraph<City, Flight> graph;
+
+	private City delhi, bangalore, jaipur, mumbai, chennai;
+
+	private Flight delhiToBangalore, jaipurToBangalore, bangaloreToMumbai, delhiToJaipur;
+
+	@Before
+	public void setUp() {
+		graph = new IndexedGraph<>(new FlightFactory());
+		delhi = new City("Delhi");
+		bangalore = new City("Bangalore");
+		jaipur = new City("Jaipur");
+		mumbai = new City("Mumbai");
+		chennai = new City("Chennai");
+
+		delhiToBangalore = new Flight(delhi, bangalore, "DEL-BLR-270");
+		jaipurToBangalore = new Flight(jaipur, bangalore, "JAI-BLR-222");
+		bangaloreToMumbai = new Flight(bangalore, mumbai, "BLR-MUM-440");
+		delhiToJaipur = new Flight(delhi, jaipur, "DEL-JAI-101");
+
+		graph.addVertex(chennai);
+		graph.addEdge(delhiToBangalore);
+		graph.addEdge(jaipurToBangalore);
+		graph.addEdge(bangaloreToMumbai);
+		graph.addEdge(delhiToJaipur);
+	}
+
+	@Test
+	public void testReadApiMatchesSource() {
+		CsrGraph<City, Flight> csr = new CsrGraph<>(graph);
+
+		assertEquals(graph.getAllVertices(), csr.getAllVertices());
+		assertEquals(graph.getAllEdges(), csr.getAllEdges());
+		for (City c : graph.getAllVertices()) {
+			assertEquals(graph.getIncomingEdgesFor(c), csr.getIncomingEdgesFor(c));
+			assertEquals(graph.getOutgoingEdgesFor(c), csr.getOutgoingEdgesFor(c));
+			assertEquals(graph.getAllEdges(c), csr.getAllEdges(c));
+			assertEquals(graph.getInDegreeFor(c), csr.getInDegreeFor(c));
+			assertEquals(graph.getOutDegreeFor(c), csr.getOutDegreeFor(c));
+		}
+		assertEquals(graph.getEdges(bangalore, delhi), csr.getEdges(delhi, bangalore));
+		assertTrue(csr.contains(delhiToJaipur));
+		assertFalse(csr.contains(new Flight(delhi, mumbai, "DEL-MUM-100")));
+		assertFalse(csr.contains(new City("Goa")));
+	}
+
+	@Test
+	public void testAlgorithmsRunOnSnapshot() {
+		CsrGraph<City, Flight> csr = new CsrGraph<>(graph);
+
+		assertFalse(csr.hasCycles());
+		assertFalse(csr.isConnected());
+		assertEquals(2, new ConnectivityAnalyzer<>(csr).getComponents().size());
+
+		List<City> sorted = TopologicalSort.apply(csr);
+		assertTrue(sorted.indexOf(delhi) < sorted.indexOf(jaipur));
+		assertTrue(sorted.indexOf(jaipur) < sorted.indexOf(bangalore));
+		assertTrue(sorted.indexOf(bangalore) < sorted.indexOf(mumbai));
+
+		Set<City> reached = new HashSet<>();
+		BreadthFirstIterator<City, Flight> it = new BreadthFirstIterator<>(csr, delhi);
+		while (it.hasNext()) {
+			reached.add(it.next());
+		}
+		assertEquals(4, reached.size());
+		assertFalse(reached.contains(chennai));
+	}
+
+	@Test
+	public void testPrimitiveApi() {
+		CsrGraph<City, Flight> csr = new CsrGraph<>(graph);
+		assertEquals(5, csr.getVertexCount());
+		assertEquals(4, csr.getEdgeCount());
+		assertEquals(-1, csr.getVertexId(new City("Goa")));
+
+		int d = csr.getVertexId(delhi);
+		Set<City> targets = new HashSet<>();
+		for (int i = 0; i < csr.getOutDegree(d); i++) {
+			int e = csr.getOutEdge(d, i);
+			assertEquals(d, csr.getEdgeSource(e));
+			assertEquals(csr.getOutNeighbor(d, i), csr.getEdgeTarget(e));
+			assertEquals(delhi, csr.getEdge(e).getSourceVertex());
+			targets.add(csr.getVertex(csr.getOutNeighbor(d, i)));
+		}
+		assertEquals(new HashSet<>(Arrays.asList(bangalore, jaipur)), targets);
+
+		int b = csr.getVertexId(bangalore);
+		assertEquals(2, csr.getInDegree(b));
+		for (int i = 0; i < csr.getInDegree(b); i++) {
+			assertEquals(b, csr.getEdgeTarget(csr.getInEdge(b, i)));
+			assertEquals(csr.getEdgeSource(csr.getInEdge(b, i)), csr.getInNeighbor(b, i));
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSnapshotIsImmutable() {
+		CsrGraph<City, Flight> csr = new CsrGraph<>(graph);
+		csr.addEdge(new Flight(mumbai, chennai, "MUM-CHE-340"));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testViewsAreImmutable() {
+		CsrGraph<City, Flight> csr = new CsrGraph<>(graph);
+		csr.getAllVertices().remove(delhi);
+	}
+}
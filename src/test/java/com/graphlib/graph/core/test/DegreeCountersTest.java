@@ -0,0 +1,96 @@
+package com.graphlib.graph.core.test;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.graphlib.graph.core.CsrGraph;
+import com.graphlib.graph.core.DefaultListenableGraph;
+import com.graphlib.graph.core.IntAdjacencyGraph;
+import com.graphlib.graph.core.ListenableGraph;
+import com.graphlib.graph.core.Subgraph;
+
+public class DegreeCountersTest {
+
+	private final City delhi = new City("Delhi");
+
+	private final City bangalore = new City("Bangalore");
+
+	private final City jaipur = new City("Jaipur");
+
+	private final Flight delhiToBangalore = new Flight(delhi, bangalore, "DEL-BLR-270");
+
+	private final Flight jaipurToBangalore = new Flight(jaipur, bangalore, "JAI-BLR-222");
+
+	private final Flight bangaloreToDelhi = new Flight(bangalore, delhi, "BLR-DEL-271");
+
+	private FlightGraph flights() {
+		FlightGraph graph = new FlightGraph();
+		graph.addEdge(delhiToBangalore);
+		graph.addEdge(jaipurToBangalore);
+		graph.addEdge(bangaloreToDelhi);
+		return graph;
+	}
+
+	@Test
+	public void testSubgraphCounters() {
+		ListenableGraph<City, Flight> graph = new DefaultListenableGraph<>(flights());
+		Set<City> vertices = new HashSet<>(graph.getAllVertices());
+		Set<Flight> edges = new HashSet<>();
+		edges.add(delhiToBangalore);
+		Subgraph<City, Flight, ListenableGraph<City, Flight>> sub = new Subgraph<>(graph, vertices, edges);
+
+		assertEquals(1, sub.getInDegreeFor(bangalore));
+		assertEquals(1, sub.getOutDegreeFor(delhi));
+		assertEquals(0, sub.getOutDegreeFor(jaipur));
+
+		sub.addEdge(jaipurToBangalore);
+		sub.addEdge(bangaloreToDelhi);
+		assertEquals(2, sub.getInDegreeFor(bangalore));
+		assertEquals(1, sub.getInDegreeFor(delhi));
+
+		// Removal from the base graph propagates to the subgraph.
+		graph.removeEdge(jaipurToBangalore);
+		assertEquals(1, sub.getInDegreeFor(bangalore));
+		assertEquals(0, sub.getOutDegreeFor(jaipur));
+
+		sub.removeVertex(delhi);
+		assertEquals(0, sub.getInDegreeFor(bangalore));
+		assertEquals(0, sub.getOutDegreeFor(bangalore));
+		assertEquals(1, graph.getInDegreeFor(bangalore));
+	}
+
+	@Test
+	public void testDegreesWithoutIndex() {
+		FlightGraph graph = flights();
+		assertEquals(2, graph.getInDegreeFor(bangalore));
+		assertEquals(1, graph.getOutDegreeFor(bangalore));
+		assertEquals(0, graph.getInDegreeFor(jaipur));
+	}
+
+	@Test
+	public void testDegreeSequences() {
+		CsrGraph<City, Flight> csr = new CsrGraph<>(flights());
+		int[] out = csr.getOutDegrees();
+		int[] in = csr.getInDegrees();
+		assertEquals(3, out.length);
+		for (City c : csr.getAllVertices()) {
+			int v = csr.getVertexId(c);
+			assertEquals(csr.getOutDegreeFor(c), out[v]);
+			assertEquals(csr.getInDegreeFor(c), in[v]);
+		}
+
+		IntAdjacencyGraph graph = new IntAdjacencyGraph();
+		graph.addVertices(3);
+		graph.addEdge(0, 1);
+		graph.addEdge(0, 2);
+		graph.addEdge(2, 1);
+		assertArrayEquals(new int[] { 2, 0, 1 }, graph.getOutDegrees());
+		assertArrayEquals(new int[] { 0, 2, 1 }, graph.getInDegrees());
+		graph.getOutDegrees()[0] = 7;
+		assertEquals(2, graph.getOutDegree(0));
+	}
+}
@@ -0,0 +1,72 @@
+package com.graphlib.graph.core.test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.graphlib.graph.core.GraphBuilder;
+import com.graphlib.graph.core.IndexedGraph;
+
+public class GraphBuilderTest {
+
+	@Test
+	public void testBuildMatchesIncrementalInsertion() {
+		City delhi = new City("Delhi");
+		City bangalore = new City("Bangalore");
+		City jaipur = new City("Jaipur");
+		City mumbai = new City("Mumbai");
+		Flight[] flights = { new Flight(delhi, bangalore, "DEL-BLR-270"), new Flight(delhi, bangalore, "DEL-BLR-272"),
+				new Flight(jaipur, bangalore, "JAI-BLR-222"), new Flight(bangalore, delhi, "BLR-DEL-271") };
+
+		IndexedGraph<City, Flight> graph = new GraphBuilder<City, Flight>(new FlightFactory()).expectedVertices(4)
+				.expectedEdges(4).addEdges(flights).addEdge(flights[0]).addVertex(mumbai).build();
+
+		assertEquals(4, graph.getAllVertices().size());
+		assertEquals(4, graph.getAllEdges().size());
+		assertEquals(2, graph.getOutDegreeFor(delhi));
+		assertEquals(3, graph.getInDegreeFor(bangalore));
+		assertEquals(3, graph.getEdges(bangalore, delhi).size());
+		assertEquals(0, graph.getAllEdges(mumbai).size());
+
+		// The result is an ordinary mutable graph.
+		assertTrue(graph.removeVertex(bangalore));
+		assertEquals(0, graph.getOutDegreeFor(delhi));
+		assertTrue(graph.addEdge(new Flight(mumbai, delhi, "BOM-DEL-101")));
+		assertEquals(1, graph.getInDegreeFor(delhi));
+	}
+
+	@Test
+	public void testParallelBuild() {
+		int count = 20000;
+		List<Flight> flights = new ArrayList<>();
+		City[] cities = new City[count];
+		for (int i = 0; i < count; i++) {
+			cities[i] = new City("City-" + i);
+		}
+		for (int i = 0; i < count; i++) {
+			flights.add(new Flight(cities[i], cities[(i + 1) % count], "F-" + i));
+			flights.add(new Flight(cities[i], cities[(i * 7) % count], "G-" + i));
+		}
+
+		IndexedGraph<City, Flight> graph = new GraphBuilder<City, Flight>().expectedEdges(flights.size())
+				.addEdges(flights).parallel(true).build();
+
+		assertEquals(count, graph.getAllVertices().size());
+		assertEquals(2 * count, graph.getAllEdges().size());
+		int inDegrees = 0;
+		for (City c : graph.getAllVertices()) {
+			assertEquals(2, graph.getOutDegreeFor(c));
+			inDegrees += graph.getInDegreeFor(c);
+		}
+		assertEquals(2 * count, inDegrees);
+		assertEquals(2, graph.getIncomingEdgesFor(cities[0]).size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullEdge() {
+		new GraphBuilder<City, Flight>().addEdge(null);
+	}
+}
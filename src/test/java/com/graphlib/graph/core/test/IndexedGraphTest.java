@@ -0,0 +1,88 @@
+package com.graphlib.graph.core.test;
+
+import static org.junit.Assert.*;
+
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.graphlib.graph.core.IndexedGraph;
+
+public class IndexedGraphTest {
+
+	private IndexedGraph<City, Flight> graph;
+
+	private City delhi, bangalore, jaipur, mumbai;
+
+	private Flight delhiToBangalore, bangaloreToDelhi, jaipurToBangalore, mumbaiToDelhi;
+
+	@Before
+	public void setUp() {
+		graph = new IndexedGraph<>(new FlightFactory());
+		delhi = new City("Delhi");
+		bangalore = new City("Bangalore");
+		jaipur = new City("Jaipur");
+		mumbai = new City("Mumbai");
+
+		delhiToBangalore = new Flight(delhi, bangalore, "DEL-BLR-270");
+		bangaloreToDelhi = new Flight(bangalore, delhi, "BLR-DEL-271");
+		jaipurToBangalore = new Flight(jaipur, bangalore, "JAI-BLR-222");
+		mumbaiToDelhi = new Flight(mumbai, delhi, "MUM-DEL-445");
+
+		graph.addEdge(delhiToBangalore);
+		graph.addEdge(bangaloreToDelhi);
+		graph.addEdge(jaipurToBangalore);
+		graph.addEdge(mumbaiToDelhi);
+	}
+
+	@Test
+	public void testNeighborhoodQueries() {
+		assertEquals(4, graph.getAllVertices().size());
+		assertEquals(2, graph.getInDegreeFor(bangalore));
+		assertEquals(1, graph.getOutDegreeFor(bangalore));
+		assertEquals(3, graph.getAllEdges(bangalore).size());
+		assertTrue(graph.getIncomingEdgesFor(delhi).contains(mumbaiToDelhi));
+		assertTrue(graph.getOutgoingEdgesFor(jaipur).contains(jaipurToBangalore));
+
+		Set<Flight> between = graph.getEdges(bangalore, delhi);
+		assertEquals(2, between.size());
+		assertTrue(between.contains(delhiToBangalore));
+		assertTrue(between.contains(bangaloreToDelhi));
+		assertTrue(graph.getEdges(jaipur, mumbai).isEmpty());
+		assertTrue(graph.getOutgoingEdgesFor(new City("Chennai")).isEmpty());
+	}
+
+	@Test
+	public void testRemovalKeepsIndexInSync() {
+		assertTrue(graph.removeEdge(delhiToBangalore));
+		assertFalse(graph.removeEdge(delhiToBangalore));
+		assertEquals(1, graph.getInDegreeFor(bangalore));
+		assertFalse(graph.getOutgoingEdgesFor(delhi).contains(delhiToBangalore));
+
+		assertTrue(graph.removeVertex(delhi));
+		assertFalse(graph.contains(delhi));
+		assertFalse(graph.contains(bangaloreToDelhi));
+		assertFalse(graph.contains(mumbaiToDelhi));
+		assertEquals(0, graph.getOutDegreeFor(bangalore));
+		assertEquals(0, graph.getOutDegreeFor(mumbai));
+		assertEquals(1, graph.getAllEdges().size());
+
+		graph.removeAllEdges();
+		assertEquals(0, graph.getInDegreeFor(bangalore));
+		assertEquals(3, graph.getAllVertices().size());
+
+		graph.removeAllVertices();
+		assertTrue(graph.getAllVertices().isEmpty());
+		assertTrue(graph.addEdge(delhiToBangalore));
+		assertEquals(1, graph.getInDegreeFor(bangalore));
+	}
+
+	@Test
+	public void testIncomingEdgesAreCopies() {
+		Set<Flight> in = graph.getIncomingEdgesFor(bangalore);
+		graph.removeAllEdges(in);
+		assertEquals(0, graph.getInDegreeFor(bangalore));
+		assertEquals(2, in.size());
+	}
+}
@@ -0,0 +1,111 @@
+package com.graphlib.graph.core.test;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.graphlib.graph.algorithms.ConnectivityAnalyzer;
+import com.graphlib.graph.algorithms.TopologicalSort;
+import com.graphlib.graph.core.CsrGraph;
+import com.graphlib.graph.core.Graph;
+import com.graphlib.graph.core.IndexedGraph;
+import com.graphlib.graph.core.IntAdjacencyGraph;
+import com.graphlib.graph.core.IntCursor;
+import com.graphlib.graph.core.IntEdge;
+import com.graphlib.graph.core.IntGraphs;
+
+public class IntGraphTest {
+
+	@Test
+	public void testAdjacencyGraph() {
+		IntAdjacencyGraph graph = new IntAdjacencyGraph(0, 0);
+		int a = graph.addVertex();
+		int b = graph.addVertex();
+		int c = graph.addVertices(2);
+		int d = c + 1;
+
+		int ab = graph.addEdge(a, b, 5);
+		graph.addEdge(a, c);
+		graph.addEdge(b, d, 2);
+		graph.addEdge(c, d);
+		graph.addEdge(a, b);
+
+		assertEquals(4, graph.getVertexCount());
+		assertEquals(5, graph.getEdgeCount());
+		assertEquals(3, graph.getOutDegree(a));
+		assertEquals(2, graph.getInDegree(b));
+		assertEquals(5, graph.getEdgeWeight(ab));
+		assertEquals(a, graph.getEdgeSource(ab));
+		assertEquals(b, graph.getEdgeTarget(ab));
+
+		int sum = 0;
+		IntCursor successors = graph.getSuccessors(a);
+		while (successors.hasNext()) {
+			sum += successors.next();
+		}
+		assertEquals(b + c + b, sum);
+
+		IntCursor in = graph.getIncomingEdges(d);
+		while (in.hasNext()) {
+			assertEquals(d, graph.getEdgeTarget(in.next()));
+		}
+
+		IntCursor predecessors = graph.getPredecessors(a);
+		assertFalse(predecessors.hasNext());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEdgeToMissingVertex() {
+		IntAdjacencyGraph graph = new IntAdjacencyGraph();
+		graph.addVertex();
+		graph.addEdge(0, 1);
+	}
+
+	@Test
+	public void testGraphView() {
+		IntAdjacencyGraph graph = new IntAdjacencyGraph();
+		graph.addVertices(5);
+		graph.addEdge(3, 1);
+		graph.addEdge(1, 0, 7);
+		graph.addEdge(3, 0);
+		graph.addEdge(2, 4);
+
+		Graph<Integer, IntEdge> view = IntGraphs.asGraph(graph);
+		assertEquals(5, view.getAllVertices().size());
+		assertEquals(4, view.getAllEdges().size());
+		assertTrue(view.contains(4));
+		assertFalse(view.contains(5));
+		assertEquals(2, view.getInDegreeFor(0));
+		assertEquals(7, view.getEdges(0, 1).iterator().next().getEdgeWeight());
+		assertFalse(view.hasCycles());
+		assertEquals(2, new ConnectivityAnalyzer<>(view).getComponents().size());
+
+		List<Integer> sorted = TopologicalSort.apply(view);
+		assertTrue(sorted.indexOf(3) < sorted.indexOf(1));
+		assertTrue(sorted.indexOf(1) < sorted.indexOf(0));
+
+		graph.addEdge(0, 3);
+		assertTrue(view.hasCycles());
+	}
+
+	@Test
+	public void testFromGraphMirrorsWeights() {
+		IndexedGraph<City, Flight> graph = new IndexedGraph<>(new FlightFactory());
+		City delhi = new City("Delhi");
+		City bangalore = new City("Bangalore");
+		graph.addEdge(new Flight(delhi, bangalore, "DEL-BLR-270", 300));
+		graph.addEdge(new Flight(bangalore, delhi, "BLR-DEL-271", 250));
+
+		CsrGraph<City, Flight> csr = IntGraphs.fromGraph(graph);
+		for (int e = 0; e < csr.getEdgeCount(); e++) {
+			assertEquals(csr.getEdge(e).getEdgeWeight(), csr.getEdgeWeight(e));
+		}
+
+		Set<IntEdge> out = IntGraphs.asGraph(csr).getOutgoingEdgesFor(csr.getVertexId(delhi));
+		assertEquals(1, out.size());
+		assertEquals(300, out.iterator().next().getEdgeWeight());
+	}
+}
@@ -0,0 +1,95 @@
+package com.graphlib.graph.core.test;
+
+import static org.junit.Assert.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.graphlib.graph.core.AbstractGraph;
+import com.graphlib.graph.core.IndexedGraph;
+
+public class LiveViewsTest {
+
+	private final City delhi = new City("Delhi");
+
+	private final City bangalore = new City("Bangalore");
+
+	private final City jaipur = new City("Jaipur");
+
+	private void populate(AbstractGraph<City, Flight> graph) {
+		graph.addEdge(new Flight(delhi, bangalore, "DEL-BLR-270"));
+		graph.addEdge(new Flight(jaipur, bangalore, "JAI-BLR-222"));
+	}
+
+	@Test
+	public void testCopiesByDefault() {
+		FlightGraph graph = new FlightGraph();
+		populate(graph);
+		assertFalse(graph.isLiveViews());
+
+		Set<City> vertices = graph.getAllVertices();
+		graph.removeVertex(jaipur);
+		assertEquals(3, vertices.size());
+		vertices.clear();
+		assertEquals(2, graph.getAllVertices().size());
+	}
+
+	@Test
+	public void testLiveViewsReflectChanges() {
+		FlightGraph graph = new FlightGraph();
+		populate(graph);
+		graph.setLiveViews(true);
+
+		Set<City> vertices = graph.getAllVertices();
+		Set<Flight> edges = graph.getAllEdges();
+		graph.removeVertex(jaipur);
+		assertEquals(2, vertices.size());
+		assertEquals(1, edges.size());
+		assertFalse(vertices.contains(jaipur));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testLiveViewsAreUnmodifiable() {
+		FlightGraph graph = new FlightGraph();
+		populate(graph);
+		graph.setLiveViews(true);
+		graph.getAllEdges().clear();
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void testIteratorsFailFast() {
+		FlightGraph graph = new FlightGraph();
+		populate(graph);
+		graph.setLiveViews(true);
+
+		Iterator<City> it = graph.getAllVertices().iterator();
+		it.next();
+		graph.addVertex(new City("Mumbai"));
+		it.hasNext();
+	}
+
+	@Test
+	public void testIndexedGraphAdjacencyViews() {
+		IndexedGraph<City, Flight> graph = new IndexedGraph<>(new FlightFactory());
+		populate(graph);
+		graph.setLiveViews(true);
+
+		Set<Flight> in = graph.getIncomingEdgesFor(bangalore);
+		assertEquals(2, in.size());
+		graph.removeAllIncomingEdges(bangalore);
+		assertTrue(in.isEmpty());
+		assertTrue(graph.getOutgoingEdgesFor(new City("Mumbai")).isEmpty());
+
+		Iterator<Flight> it = graph.getOutgoingEdgesFor(delhi).iterator();
+		graph.addEdge(new Flight(delhi, jaipur, "DEL-JAI-101"));
+		try {
+			it.next();
+			fail("Iterator should fail after the graph is modified.");
+		} catch (ConcurrentModificationException e) {
+			// Expected.
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package com.graphlib.graph.core.test;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.graphlib.graph.algorithms.ConnectivityAnalyzer;
+import com.graphlib.graph.core.Graph;
+import com.graphlib.graph.core.IntAdjacencyGraph;
+import com.graphlib.graph.core.IntCursor;
+import com.graphlib.graph.core.IntEdge;
+import com.graphlib.graph.core.MappedGraph;
+
+public class MappedGraphTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private IntAdjacencyGraph graph() {
+		IntAdjacencyGraph graph = new IntAdjacencyGraph();
+		graph.addVertices(5);
+		// Edges are added out of source order on purpose.
+		graph.addEdge(2, 3, 7);
+		graph.addEdge(0, 1, 5);
+		graph.addEdge(0, 2);
+		graph.addEdge(1, 2, 3);
+		graph.addEdge(0, 1);
+		return graph;
+	}
+
+	private static Set<String> successors(IntCursor cursor) {
+		Set<String> result = new HashSet<>();
+		while (cursor.hasNext()) {
+			result.add(String.valueOf(cursor.next()));
+		}
+		return result;
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		IntAdjacencyGraph source = graph();
+		Path file = folder.newFile("graph.bin").toPath();
+		MappedGraph.write(source, file);
+
+		try (MappedGraph mapped = MappedGraph.open(file)) {
+			assertEquals(5, mapped.getVertexCount());
+			assertEquals(5, mapped.getEdgeCount());
+			assertArrayEquals(source.getOutDegrees(), mapped.getOutDegrees());
+			assertArrayEquals(source.getInDegrees(), mapped.getInDegrees());
+			for (int v = 0; v < 5; v++) {
+				assertEquals(successors(source.getSuccessors(v)), successors(mapped.getSuccessors(v)));
+				assertEquals(successors(source.getPredecessors(v)), successors(mapped.getPredecessors(v)));
+
+				IntCursor out = mapped.getOutgoingEdges(v);
+				while (out.hasNext()) {
+					assertEquals(v, mapped.getEdgeSource(out.next()));
+				}
+				IntCursor in = mapped.getIncomingEdges(v);
+				IntCursor predecessors = mapped.getPredecessors(v);
+				while (in.hasNext()) {
+					int e = in.next();
+					assertEquals(v, mapped.getEdgeTarget(e));
+					assertEquals(predecessors.next(), mapped.getEdgeSource(e));
+				}
+			}
+
+			int weight = 0;
+			for (int e = 0; e < mapped.getEdgeCount(); e++) {
+				weight += mapped.getEdgeWeight(e);
+			}
+			assertEquals(5 + 1 + 1 + 3 + 7, weight);
+		}
+	}
+
+	@Test
+	public void testGraphView() throws IOException {
+		Path file = folder.newFile("graph.bin").toPath();
+		MappedGraph.write(graph(), file);
+
+		try (MappedGraph mapped = MappedGraph.open(file)) {
+			Graph<Integer, IntEdge> view = mapped.asGraph();
+			assertEquals(5, view.getAllVertices().size());
+			assertEquals(2, view.getEdges(1, 0).size());
+			assertEquals(3, view.getOutDegreeFor(0));
+			assertEquals(2, new ConnectivityAnalyzer<>(view).getComponents().size());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testRejectsOtherFiles() throws IOException {
+		Path file = folder.newFile("other.bin").toPath();
+		Files.write(file, "not a graph, just some text".getBytes("UTF-8"));
+		MappedGraph.open(file);
+	}
+}
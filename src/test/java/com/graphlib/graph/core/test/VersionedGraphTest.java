@@ -0,0 +1,154 @@
+package com.graphlib.graph.core.test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.graphlib.graph.core.VersionedGraph;
+
+public class VersionedGraphTest {
+
+	private final City delhi = new City("Delhi");
+
+	private final City bangalore = new City("Bangalore");
+
+	private final City jaipur = new City("Jaipur");
+
+	@Test
+	public void testSnapshotIsolation() {
+		VersionedGraph<City, Flight> graph = new VersionedGraph<>(new FlightFactory());
+		Flight delhiToBangalore = new Flight(delhi, bangalore, "DEL-BLR-270");
+		assertTrue(graph.addEdge(delhiToBangalore));
+		assertFalse(graph.addEdge(delhiToBangalore));
+		long version = graph.getVersion();
+
+		try (VersionedGraph<City, Flight>.Snapshot snapshot = graph.snapshot()) {
+			assertEquals(version, snapshot.getVersion());
+
+			graph.addEdge(new Flight(jaipur, bangalore, "JAI-BLR-222"));
+			graph.removeVertex(delhi);
+
+			assertEquals(2, snapshot.getAllVertices().size());
+			assertTrue(snapshot.contains(delhiToBangalore));
+			assertEquals(1, snapshot.getInDegreeFor(bangalore));
+			assertFalse(snapshot.contains(jaipur));
+			assertEquals(1, snapshot.getEdges(bangalore, delhi).size());
+
+			assertFalse(graph.contains(delhi));
+			assertFalse(graph.contains(delhiToBangalore));
+			assertEquals(1, graph.getInDegreeFor(bangalore));
+			assertEquals(2, graph.getAllVertices().size());
+		}
+	}
+
+	@Test
+	public void testConnectivity() {
+		VersionedGraph<City, Flight> graph = new VersionedGraph<>(new FlightFactory());
+		assertTrue(graph.isConnected());
+		graph.addVertex(delhi);
+		graph.addVertex(bangalore);
+		assertFalse(graph.isConnected());
+		graph.addEdge(new Flight(bangalore, delhi, "BLR-DEL-271"));
+		try (VersionedGraph<City, Flight>.Snapshot snapshot = graph.snapshot()) {
+			graph.addVertex(jaipur);
+			assertFalse(graph.isConnected());
+			assertTrue(snapshot.isConnected());
+		}
+		graph.addEdge(new Flight(delhi, jaipur, "DEL-JAI-101"));
+		assertTrue(graph.isConnected());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSnapshotIsImmutable() {
+		VersionedGraph<City, Flight> graph = new VersionedGraph<>(new FlightFactory());
+		graph.addVertex(delhi);
+		graph.snapshot().addVertex(jaipur);
+	}
+
+	@Test
+	public void testReaddedVertexStartsEmpty() {
+		VersionedGraph<City, Flight> graph = new VersionedGraph<>(new FlightFactory());
+		graph.addEdge(new Flight(delhi, bangalore, "DEL-BLR-270"));
+		VersionedGraph<City, Flight>.Snapshot before = graph.snapshot();
+		graph.removeVertex(bangalore);
+		graph.addVertex(bangalore);
+		graph.compact();
+
+		assertEquals(0, graph.getInDegreeFor(bangalore));
+		assertEquals(0, graph.getOutDegreeFor(delhi));
+		assertEquals(1, before.getInDegreeFor(bangalore));
+		before.close();
+		graph.compact();
+		assertEquals(2, graph.getAllVertices().size());
+		assertTrue(graph.getAllEdges().isEmpty());
+	}
+
+	@Test
+	public void testSnapshotsAreConsistentUnderWrites() throws Exception {
+		final VersionedGraph<City, Flight> graph = new VersionedGraph<>(new FlightFactory());
+		final City hub = new City("Hub");
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<?> writer = executor.submit(new Runnable() {
+
+				@Override
+				public void run() {
+					/*
+					 * Every city is added with a flight to and from the hub,
+					 * and removed again for every other city.
+					 */
+					for (int i = 0; i < 500; i++) {
+						City city = new City("City-" + i);
+						graph.addEdge(new Flight(hub, city, "F-" + i));
+						graph.addEdge(new Flight(city, hub, "R-" + i));
+						if (i % 2 == 0) {
+							graph.removeVertex(city);
+						}
+					}
+				}
+			});
+			List<Future<Integer>> readers = new ArrayList<>();
+			for (int t = 0; t < 3; t++) {
+				readers.add(executor.submit(new Callable<Integer>() {
+
+					@Override
+					public Integer call() {
+						int passes = 0;
+						for (int i = 0; i < 200; i++) {
+							try (VersionedGraph<City, Flight>.Snapshot s = graph.snapshot()) {
+								int edges = s.getAllEdges().size();
+								int outDegrees = 0;
+								for (City c : s.getAllVertices()) {
+									outDegrees += s.getOutDegreeFor(c);
+									for (Flight f : s.getOutgoingEdgesFor(c)) {
+										assertTrue(s.contains(f.getTargetVertex()));
+									}
+								}
+								assertEquals(edges, outDegrees);
+							}
+							passes++;
+						}
+						return passes;
+					}
+				}));
+			}
+			writer.get();
+			for (Future<Integer> f : readers) {
+				assertEquals(200, (int) f.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		graph.compact();
+		assertEquals(251, graph.getAllVertices().size());
+		assertEquals(500, graph.getAllEdges().size());
+	}
+}
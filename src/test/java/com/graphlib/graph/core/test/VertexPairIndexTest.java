@@ -0,0 +1,79 @@
+package com.graphlib.graph.core.test;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.graphlib.graph.core.AbstractGraph;
+import com.graphlib.graph.core.IndexedGraph;
+
+public class VertexPairIndexTest {
+
+	private final City delhi = new City("Delhi");
+
+	private final City bangalore = new City("Bangalore");
+
+	private final City jaipur = new City("Jaipur");
+
+	private void populate(AbstractGraph<City, Flight> graph) {
+		for (int i = 0; i < 5; i++) {
+			graph.addEdge(new Flight(delhi, bangalore, "DEL-BLR-" + i));
+		}
+		graph.addEdge(new Flight(bangalore, delhi, "BLR-DEL-271"));
+		graph.addEdge(new Flight(jaipur, bangalore, "JAI-BLR-222"));
+	}
+
+	private void verify(AbstractGraph<City, Flight> graph) {
+		assertTrue(graph.isPairIndexed());
+		assertEquals(6, graph.getEdges(delhi, bangalore).size());
+		assertEquals(6, graph.getEdges(bangalore, delhi).size());
+		assertEquals(1, graph.getEdges(bangalore, jaipur).size());
+		assertTrue(graph.getEdges(delhi, jaipur).isEmpty());
+
+		graph.removeEdge(new Flight(delhi, bangalore, "DEL-BLR-0"));
+		assertEquals(5, graph.getEdges(delhi, bangalore).size());
+
+		assertTrue(graph.removeAllEdges(delhi, bangalore));
+		assertTrue(graph.getEdges(bangalore, delhi).isEmpty());
+		assertEquals(1, graph.getAllEdges().size());
+
+		graph.removeVertex(jaipur);
+		assertTrue(graph.getEdges(jaipur, bangalore).isEmpty());
+
+		graph.addEdge(new Flight(jaipur, bangalore, "JAI-BLR-222"));
+		assertEquals(1, graph.getEdges(bangalore, jaipur).size());
+		graph.removeAllEdges();
+		assertTrue(graph.getEdges(bangalore, jaipur).isEmpty());
+	}
+
+	@Test
+	public void testIndexBuiltFromExistingEdges() {
+		FlightGraph graph = new FlightGraph();
+		populate(graph);
+		graph.setPairIndexed(true);
+		verify(graph);
+	}
+
+	@Test
+	public void testIndexedGraph() {
+		IndexedGraph<City, Flight> graph = new IndexedGraph<>(new FlightFactory());
+		graph.setPairIndexed(true);
+		populate(graph);
+		verify(graph);
+	}
+
+	@Test
+	public void testMatchesScan() {
+		FlightGraph graph = new FlightGraph();
+		populate(graph);
+		Set<Flight> scanned = new HashSet<>(graph.getEdges(delhi, bangalore));
+		graph.setPairIndexed(true);
+		assertEquals(scanned, graph.getEdges(bangalore, delhi));
+		graph.setPairIndexed(false);
+		assertFalse(graph.isPairIndexed());
+		assertEquals(scanned, graph.getEdges(bangalore, delhi));
+	}
+}
@@ -0,0 +1,133 @@
+package com.graphlib.graph.core.test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.graphlib.graph.algorithms.ConnectivityAnalyzer;
+import com.graphlib.graph.core.CsrGraph;
+import com.graphlib.graph.core.IndexedGraph;
+import com.graphlib.graph.core.VertexReordering;
+import com.graphlib.graph.iterators.BreadthFirstIterator;
+
+public class VertexReorderingTest {
+
+	private static final int SIZE = 10;
+
+	/*
+	 * A grid of cities with flights to the right and downwards, plus an
+	 * isolated city.
+	 */
+	private CsrGraph<City, Flight> grid() {
+		IndexedGraph<City, Flight> graph = new IndexedGraph<>(new FlightFactory());
+		for (int r = 0; r < SIZE; r++) {
+			for (int c = 0; c < SIZE; c++) {
+				City city = new City(r + "," + c);
+				if (c + 1 < SIZE) {
+					graph.addEdge(new Flight(city, new City(r + "," + (c + 1)), "H" + r + "," + c));
+				}
+				if (r + 1 < SIZE) {
+					graph.addEdge(new Flight(city, new City((r + 1) + "," + c), "V" + r + "," + c));
+				}
+			}
+		}
+		graph.addVertex(new City("Isolated"));
+		return new CsrGraph<>(graph);
+	}
+
+	private static void assertPermutation(int[] permutation) {
+		int[] sorted = permutation.clone();
+		Arrays.sort(sorted);
+		for (int i = 0; i < sorted.length; i++) {
+			assertEquals(i, sorted[i]);
+		}
+	}
+
+	/*
+	 * Largest difference between the ids of the endpoints of an edge.
+	 */
+	private static int bandwidth(CsrGraph<City, Flight> csr) {
+		int bandwidth = 0;
+		for (int e = 0; e < csr.getEdgeCount(); e++) {
+			bandwidth = Math.max(bandwidth, Math.abs(csr.getEdgeSource(e) - csr.getEdgeTarget(e)));
+		}
+		return bandwidth;
+	}
+
+	@Test
+	public void testPermuteKeepsGraph() {
+		CsrGraph<City, Flight> csr = grid();
+		int[] permutation = VertexReordering.reverseCuthillMcKee(csr);
+		assertPermutation(permutation);
+		CsrGraph<City, Flight> permuted = csr.permute(permutation);
+
+		assertEquals(csr.getAllVertices(), permuted.getAllVertices());
+		assertEquals(csr.getAllEdges(), permuted.getAllEdges());
+		for (int v = 0; v < csr.getVertexCount(); v++) {
+			assertEquals(csr.getVertex(v), permuted.getVertex(permutation[v]));
+			assertEquals(csr.getOutDegree(v), permuted.getOutDegree(permutation[v]));
+		}
+		int[] inverse = VertexReordering.invert(permutation);
+		for (int v = 0; v < csr.getVertexCount(); v++) {
+			assertEquals(v, inverse[permutation[v]]);
+		}
+		for (int v = 0; v < permuted.getVertexCount(); v++) {
+			for (int i = 1; i < permuted.getOutDegree(v); i++) {
+				assertTrue(permuted.getOutNeighbor(v, i - 1) <= permuted.getOutNeighbor(v, i));
+			}
+		}
+	}
+
+	@Test
+	public void testOrderingsImproveLocality() {
+		CsrGraph<City, Flight> csr = grid();
+		int[] scrambled = new int[csr.getVertexCount()];
+		for (int v = 0; v < scrambled.length; v++) {
+			// 37 is coprime to 101 vertices.
+			scrambled[v] = (v * 37) % scrambled.length;
+		}
+		csr = csr.permute(scrambled);
+
+		int[] rcm = VertexReordering.reverseCuthillMcKee(csr);
+		assertPermutation(rcm);
+		assertTrue(bandwidth(csr.permute(rcm)) <= SIZE + 1);
+		int[] bfs = VertexReordering.breadthFirst(csr);
+		assertPermutation(bfs);
+		assertTrue(bandwidth(csr.permute(bfs)) < bandwidth(csr));
+
+		int[] degree = VertexReordering.degreeDescending(csr);
+		assertPermutation(degree);
+		CsrGraph<City, Flight> byDegree = csr.permute(degree);
+		for (int v = 1; v < byDegree.getVertexCount(); v++) {
+			assertTrue(byDegree.getOutDegree(v - 1) + byDegree.getInDegree(v - 1) >= byDegree.getOutDegree(v)
+					+ byDegree.getInDegree(v));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidPermutation() {
+		CsrGraph<City, Flight> csr = grid();
+		csr.permute(new int[csr.getVertexCount()]);
+	}
+
+	@Test
+	public void testTraversalsOnPermutedGraph() {
+		CsrGraph<City, Flight> csr = grid();
+		CsrGraph<City, Flight> permuted = csr.permute(VertexReordering.reverseCuthillMcKee(csr));
+
+		List<City> visited = new ArrayList<>();
+		BreadthFirstIterator<City, Flight> it = new BreadthFirstIterator<>(permuted, new City("0,0"));
+		while (it.hasNext()) {
+			visited.add(it.next());
+		}
+		assertEquals(SIZE * SIZE, visited.size());
+		assertEquals(new City("0,0"), visited.get(0));
+		assertEquals(new City((SIZE - 1) + "," + (SIZE - 1)), visited.get(visited.size() - 1));
+
+		assertEquals(2, new ConnectivityAnalyzer<>(permuted).getComponents().size());
+	}
+}
@@ -51,6 +51,13 @@ public class ListenableGraphTest {
 		assertFalse(listener.getVerticesRemoved().isEmpty());
 		assertTrue(listener.getVerticesRemoved().size() == 1);
 		assertTrue(listener.getVerticesRemoved().contains(chennai));
+
+		listener.clear();
+		Flight mumbaiToDelhi = new Flight(mumbai, delhi, "MUM-DEL-120");
+		listenableGraph.addEdge(mumbaiToDelhi);
+		assertTrue(listener.getEdgesRemoved().isEmpty());
+		assertTrue(listener.getEdgesAdded().size() == 1);
+		assertTrue(listener.getEdgesAdded().contains(mumbaiToDelhi));
 	}
 	
 	public class FlightGraphListener implements GraphListener<City, Flight> {
@@ -0,0 +1,177 @@
+package com.graphlib.graph.io.test;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.graphlib.graph.core.IndexedGraph;
+import com.graphlib.graph.core.IntAdjacencyGraph;
+import com.graphlib.graph.core.WeightedEdge;
+import com.graphlib.graph.core.WeightedEdgeFactory;
+import com.graphlib.graph.io.EdgeList;
+import com.graphlib.graph.io.EdgeListReader;
+
+public class EdgeListReaderTest {
+
+	private static final class Road implements WeightedEdge<String, Road> {
+
+		private String source;
+
+		private String target;
+
+		private int weight;
+
+		Road(String source, String target, int weight) {
+			this.source = source;
+			this.target = target;
+			this.weight = weight;
+		}
+
+		@Override
+		public String getSourceVertex() {
+			return source;
+		}
+
+		@Override
+		public void setSourceVertex(String source) {
+			this.source = source;
+		}
+
+		@Override
+		public String getTargetVertex() {
+			return target;
+		}
+
+		@Override
+		public void setTargetVertex(String target) {
+			this.target = target;
+		}
+
+		@Override
+		public int getEdgeWeight() {
+			return weight;
+		}
+
+		@Override
+		public void setEdgeWeight(int weight) {
+			this.weight = weight;
+		}
+	}
+
+	private static final WeightedEdgeFactory<String, Road> ROADS = new WeightedEdgeFactory<String, Road>() {
+
+		@Override
+		public Road createWeightedEdge(String source, String target, int weight) {
+			return new Road(source, target, weight);
+		}
+	};
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path write(String content) throws IOException {
+		Path file = folder.newFile().toPath();
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	@Test
+	public void testRead() throws IOException {
+		Path file = write("# cities\nDelhi\tJaipur\t5\r\n\n  Jaipur \t Mumbai\n% note\nMumbai\tDelhi\t-2");
+		EdgeListReader reader = new EdgeListReader();
+		EdgeList edges = reader.read(file);
+
+		assertEquals(3, edges.getVertexCount());
+		assertEquals(3, edges.getEdgeCount());
+		assertEquals("Delhi", edges.getVertexKey(0));
+		assertEquals("Jaipur", edges.getVertexKey(1));
+		assertEquals("Mumbai", edges.getVertexKey(2));
+		assertEquals(1, edges.getTarget(0));
+		assertEquals(5, edges.getWeight(0));
+		assertEquals(1, edges.getWeight(1));
+		assertEquals(-2, edges.getWeight(2));
+		assertEquals(0, edges.getTarget(2));
+
+		assertEquals(6, reader.getMetrics().getLinesRead());
+		assertEquals(3, reader.getMetrics().getEdgesRead());
+		assertEquals(Files.size(file), reader.getMetrics().getBytesRead());
+		assertEquals(1.0, reader.getMetrics().getProgress(), 0);
+	}
+
+	@Test
+	public void testDelimiter() throws IOException {
+		EdgeList edges = new EdgeListReader().delimiter(',').read(write("a,b,3\nb,c\n"));
+		assertEquals(3, edges.getVertexCount());
+		assertEquals(3, edges.getWeight(0));
+		assertEquals("c", edges.getVertexKey(edges.getTarget(1)));
+	}
+
+	@Test
+	public void testParallelMatchesSequential() throws IOException {
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 5000; i++) {
+			content.append("v").append(i % 397).append('\t').append("v").append((i * 31) % 1009).append('\t')
+					.append(i % 13).append('\n');
+		}
+		Path file = write(content.toString());
+
+		EdgeList sequential = new EdgeListReader().read(file);
+		EdgeListReader parallelReader = new EdgeListReader().parallelism(4).bufferSize(256);
+		EdgeList parallel = parallelReader.read(file);
+
+		assertEquals(5000, parallel.getEdgeCount());
+		assertEquals(5000, parallelReader.getMetrics().getEdgesRead());
+		assertEquals(sequential.getVertexCount(), parallel.getVertexCount());
+		for (int e = 0; e < 5000; e++) {
+			assertEquals(sequential.getVertexKey(sequential.getSource(e)),
+					parallel.getVertexKey(parallel.getSource(e)));
+			assertEquals(sequential.getVertexKey(sequential.getTarget(e)),
+					parallel.getVertexKey(parallel.getTarget(e)));
+			assertEquals(sequential.getWeight(e), parallel.getWeight(e));
+		}
+	}
+
+	@Test
+	public void testToGraphs() throws IOException {
+		EdgeList edges = new EdgeListReader().read(write("a\tb\t2\nb\tc\t4\na\tc\t1\n"));
+
+		IntAdjacencyGraph intGraph = edges.toIntGraph();
+		assertEquals(3, intGraph.getVertexCount());
+		assertEquals(2, intGraph.getOutDegree(0));
+		assertEquals(4, intGraph.getEdgeWeight(1));
+
+		IndexedGraph<String, Road> graph = edges.toGraph(ROADS);
+		assertEquals(3, graph.getAllVertices().size());
+		assertEquals(3, graph.getAllEdges().size());
+		assertEquals(2, graph.getInDegreeFor("c"));
+		assertEquals(4, graph.getEdges("b", "c").iterator().next().getEdgeWeight());
+	}
+
+	@Test
+	public void testMalformedLine() throws IOException {
+		try {
+			new EdgeListReader().read(write("a\tb\nlonely\n"));
+			fail("Expected an IOException");
+		} catch (IOException e) {
+			assertTrue(e.getMessage().contains("offset 4"));
+		}
+		try {
+			new EdgeListReader().read(write("a\tb\tx1\n"));
+			fail("Expected an IOException");
+		} catch (IOException e) {
+			assertTrue(e.getMessage().contains("weight"));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidDelimiter() {
+		new EdgeListReader().delimiter('\n');
+	}
+}
@@ -0,0 +1,162 @@
+package com.graphlib.graph.io.test;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.graphlib.graph.core.IndexedGraph;
+import com.graphlib.graph.core.test.City;
+import com.graphlib.graph.core.test.Flight;
+import com.graphlib.graph.core.test.FlightFactory;
+import com.graphlib.graph.core.test.FlightGraph;
+import com.graphlib.graph.io.EdgeCodec;
+import com.graphlib.graph.io.GraphReader;
+import com.graphlib.graph.io.GraphWriter;
+import com.graphlib.graph.io.VertexCodec;
+
+public class GraphReaderWriterTest {
+
+	private static final class CityCodec implements VertexCodec<City> {
+
+		@Override
+		public void encode(City vertex, DataOutput out) throws IOException {
+			out.writeUTF(vertex.getName());
+		}
+
+		@Override
+		public City decode(DataInput in) throws IOException {
+			return new City(in.readUTF());
+		}
+	}
+
+	private static final class FlightCodec implements EdgeCodec<City, Flight> {
+
+		@Override
+		public void encode(Flight edge, DataOutput out) throws IOException {
+			out.writeUTF(edge.getFlightNumber());
+		}
+
+		@Override
+		public Flight decode(City source, City target, DataInput in) throws IOException {
+			return new Flight(source, target, in.readUTF());
+		}
+	}
+
+	private final GraphWriter<City, Flight> writer = new GraphWriter<>(new CityCodec(), new FlightCodec());
+
+	private final GraphReader<City, Flight> reader = new GraphReader<>(new CityCodec(), new FlightCodec());
+
+	private FlightGraph flights() {
+		City delhi = new City("Delhi");
+		City bangalore = new City("Bangalore");
+		City jaipur = new City("Jaipur");
+		FlightGraph graph = new FlightGraph();
+		graph.addEdge(new Flight(delhi, bangalore, "DEL-BLR-270", 270));
+		graph.addEdge(new Flight(delhi, bangalore, "DEL-BLR-272", 290));
+		graph.addEdge(new Flight(jaipur, bangalore, "JAI-BLR-222", 222));
+		graph.addVertex(new City("Mumbai"));
+		return graph;
+	}
+
+	private byte[] write(FlightGraph graph) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		writer.write(graph, Channels.newChannel(bytes));
+		return bytes.toByteArray();
+	}
+
+	private static int cost(Iterable<Flight> flights, String number) {
+		for (Flight f : flights) {
+			if (f.getFlightNumber().equals(number)) {
+				return f.getEdgeWeight();
+			}
+		}
+		return -1;
+	}
+
+	@Test
+	public void testRoundTripIntoIndexedGraph() throws IOException {
+		FlightGraph graph = flights();
+		byte[] bytes = write(graph);
+
+		IndexedGraph<City, Flight> read = reader.readIndexedGraph(Channels.newChannel(new ByteArrayInputStream(bytes)),
+				new FlightFactory());
+		assertEquals(graph.getAllVertices(), read.getAllVertices());
+		assertEquals(graph.getAllEdges(), read.getAllEdges());
+		assertEquals(2, read.getEdges(new City("Bangalore"), new City("Delhi")).size());
+		assertEquals(290, cost(read.getAllEdges(), "DEL-BLR-272"));
+		assertEquals(222, cost(read.getAllEdges(), "JAI-BLR-222"));
+	}
+
+	@Test
+	public void testRoundTripIntoGivenGraph() throws IOException {
+		FlightGraph graph = flights();
+		byte[] bytes = write(graph);
+
+		FlightGraph read = reader.readInto(Channels.newChannel(new ByteArrayInputStream(bytes)), new FlightGraph());
+		assertEquals(graph.getAllVertices(), read.getAllVertices());
+		assertEquals(graph.getAllEdges(), read.getAllEdges());
+		assertEquals(270, cost(read.getAllEdges(), "DEL-BLR-270"));
+	}
+
+	/*
+	 * The edges come out in a different order on every iteration, as they may
+	 * from a weakly consistent or live view.
+	 */
+	private static final class ShufflingFlightGraph extends FlightGraph {
+
+		@Override
+		public Set<Flight> getAllEdges() {
+			final List<Flight> flights = new ArrayList<>(super.getAllEdges());
+			return new AbstractSet<Flight>() {
+
+				@Override
+				public Iterator<Flight> iterator() {
+					Collections.reverse(flights);
+					return new ArrayList<>(flights).iterator();
+				}
+
+				@Override
+				public int size() {
+					return flights.size();
+				}
+			};
+		}
+	}
+
+	@Test
+	public void testWeightsFollowEdgesInUnstableOrder() throws IOException {
+		FlightGraph graph = new ShufflingFlightGraph();
+		graph.addEdges(flights().getAllEdges());
+		byte[] bytes = write(graph);
+
+		FlightGraph read = reader.readInto(Channels.newChannel(new ByteArrayInputStream(bytes)), new FlightGraph());
+		assertEquals(270, cost(read.getAllEdges(), "DEL-BLR-270"));
+		assertEquals(290, cost(read.getAllEdges(), "DEL-BLR-272"));
+		assertEquals(222, cost(read.getAllEdges(), "JAI-BLR-222"));
+	}
+
+	@Test
+	public void testEmptyGraph() throws IOException {
+		byte[] bytes = write(new FlightGraph());
+		IndexedGraph<City, Flight> read = reader.readIndexedGraph(Channels.newChannel(new ByteArrayInputStream(bytes)), null);
+		assertTrue(read.getAllVertices().isEmpty());
+	}
+
+	@Test(expected = IOException.class)
+	public void testRejectsOtherData() throws IOException {
+		reader.readIndexedGraph(Channels.newChannel(new ByteArrayInputStream("not a graph file".getBytes("UTF-8"))), null);
+	}
+}
@@ -0,0 +1,107 @@
+package com.graphlib.graph.layout.test;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.graphlib.graph.core.test.City;
+import com.graphlib.graph.core.test.Flight;
+import com.graphlib.graph.core.test.FlightGraph;
+import com.graphlib.graph.layout.DotExporter;
+import com.graphlib.graph.layout.DotExporter.AttributeProvider;
+import com.graphlib.graph.layout.DotExporter.AttributeWriter;
+import com.graphlib.graph.layout.DotExporter.Direction;
+import com.graphlib.graph.layout.DotExporter.VertexIdProvider;
+
+public class DotExporterTest {
+
+	private final City delhi = new City("Delhi");
+
+	private final City quoted = new City("Say \"hi\"\\");
+
+	private FlightGraph graph() {
+		FlightGraph graph = new FlightGraph();
+		graph.addVertex(delhi);
+		graph.addVertex(quoted);
+		graph.addEdge(new Flight(delhi, quoted, "AI-101"));
+		return graph;
+	}
+
+	private static final VertexIdProvider<City> NAMES = new VertexIdProvider<City>() {
+
+		@Override
+		public String getVertexId(City vertex, int index) {
+			return vertex.getName();
+		}
+	};
+
+	@Test
+	public void testIdsAndEscaping() throws IOException {
+		StringWriter out = new StringWriter();
+		new DotExporter<City, Flight>().vertexIds(NAMES).export(graph(), out);
+		String dot = out.toString();
+
+		assertTrue(dot.startsWith("digraph G {\n"));
+		assertTrue(dot.contains("\tDelhi [label=\"Delhi\"];\n"));
+		assertTrue(dot.contains("\t\"Say \\\"hi\\\"\\\\\" [label=\"Say \\\"hi\\\"\\\\\"];\n"));
+		assertTrue(dot.contains("\tDelhi -> \"Say \\\"hi\\\"\\\\\" [label=\" AI-101 \"];\n"));
+		assertTrue(dot.endsWith("}\n"));
+	}
+
+	@Test
+	public void testOptions() throws IOException {
+		StringBuilder out = new StringBuilder();
+		new DotExporter<City, Flight>().vertexIds(NAMES).direction(Direction.NONE).labels(false)
+				.edgeAttributes(new AttributeProvider<Flight>() {
+
+					@Override
+					public void writeAttributes(Flight edge, AttributeWriter writer) throws IOException {
+						writer.attribute("weight", 3).attribute("color", "red");
+					}
+				}).export(graph(), out);
+		String dot = out.toString();
+
+		assertTrue(dot.startsWith("graph G {\n"));
+		assertTrue(dot.contains("\tDelhi;\n"));
+		assertTrue(dot.contains("\tDelhi -- \"Say \\\"hi\\\"\\\\\" [weight=3, color=\"red\"];\n"));
+
+		out.setLength(0);
+		new DotExporter<City, Flight>().attributes(false).nodeDefault("shape", "box").export(graph(), out);
+		assertFalse(out.toString().contains("["));
+	}
+
+	@Test
+	public void testChannelMatchesAppendable() throws IOException {
+		FlightGraph graph = new FlightGraph();
+		City previous = new City("Z\u00fcrich");
+		graph.addVertex(previous);
+		for (int i = 0; i < 2000; i++) {
+			City next = new City("Ville " + i + " \u00e9\u4e2d");
+			graph.addVertex(next);
+			graph.addEdge(new Flight(previous, next, "F" + i));
+			previous = next;
+		}
+		DotExporter<City, Flight> exporter = new DotExporter<>();
+		StringBuilder chars = new StringBuilder();
+		exporter.export(graph, chars);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		exporter.export(graph, Channels.newChannel(bytes));
+
+		assertEquals(chars.toString(), new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testDotRepresentation() {
+		String dot = DotExporter.getDotRepresentation(graph());
+		assertTrue(dot.startsWith("digraph graphname {\n\tnode [color=\"lightblue2\", style=\"filled\"];\n"));
+		assertTrue(dot.contains("\tedge [color=\"grey\"];\n"));
+		assertTrue(dot.contains("1 -> 0 [dir=\"back\", label=\" AI-101 \"];") || dot.contains(
+				"0 -> 1 [dir=\"back\", label=\" AI-101 \"];"));
+	}
+}
@@ -0,0 +1,144 @@
+package com.graphlib.graph.layout.test;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.graphlib.graph.core.test.City;
+import com.graphlib.graph.core.test.Flight;
+import com.graphlib.graph.core.test.FlightGraph;
+import com.graphlib.graph.layout.DotExporter;
+import com.graphlib.graph.layout.DotImporter;
+import com.graphlib.graph.layout.GraphLayout;
+import com.graphlib.graph.layout.LayoutEdge;
+import com.graphlib.graph.layout.LayoutNode;
+
+public class DotImporterTest {
+
+	private static Map<String, LayoutNode> byLabel(GraphLayout layout) {
+		Map<String, LayoutNode> nodes = new HashMap<>();
+		for (LayoutNode node : layout.getAllVertices()) {
+			nodes.put(node.getLabel(), node);
+		}
+		return nodes;
+	}
+
+	private static LayoutEdge edge(GraphLayout layout, LayoutNode source, LayoutNode target) {
+		return layout.getEdges(source, target).iterator().next();
+	}
+
+	@Test
+	public void testReadLayout() throws IOException {
+		String dot = "/* header */\n"
+				+ "strict digraph \"flights\" {\n"
+				+ "# preprocessor line\n"
+				+ "  rankdir = LR; // graph attribute\n"
+				+ "  node [width=1.5];\n"
+				+ "  a [label=\"Delhi \\\"DEL\\\"\"];\n"
+				+ "  a -> b -> c [weight=4, minlen=2];\n"
+				+ "  edge [weight=3]\n"
+				+ "  c:n -> { d; \"e\" + \"f\" } [label=\"x\"];\n"
+				+ "  subgraph cluster { node [height=1]; g }\n"
+				+ "}\n";
+		GraphLayout layout = DotImporter.readLayout(new StringReader(dot));
+		Map<String, LayoutNode> nodes = byLabel(layout);
+
+		assertEquals(6, nodes.size());
+		assertEquals(4, layout.getAllEdges().size());
+		assertTrue(nodes.containsKey("Delhi \"DEL\""));
+		assertTrue(nodes.containsKey("ef"));
+		assertEquals(108, nodes.get("b").getLeftWidth() * 2, 1e-9);
+		assertEquals(72, nodes.get("g").getHeight(), 1e-9);
+
+		LayoutEdge ab = edge(layout, nodes.get("Delhi \"DEL\""), nodes.get("b"));
+		assertEquals(4, ab.getEdgeWeight());
+		assertEquals(2, ab.getMinLength());
+		assertEquals("", ab.getLabel());
+
+		LayoutEdge cd = edge(layout, nodes.get("c"), nodes.get("d"));
+		assertEquals(3, cd.getEdgeWeight());
+		assertEquals("x", cd.getLabel());
+		assertEquals(2, cd.getMinLength());
+		assertTrue(layout.isHasLabels());
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		FlightGraph flights = new FlightGraph();
+		City delhi = new City("Delhi");
+		City odd = new City("Line\nbreak \\ \"quoted\"");
+		City jaipur = new City("Jaipur");
+		flights.addVertex(delhi);
+		flights.addVertex(odd);
+		flights.addVertex(jaipur);
+		flights.addEdge(new Flight(delhi, odd, "AI-1"));
+		flights.addEdge(new Flight(odd, jaipur, "AI-2"));
+		StringBuilder out = new StringBuilder();
+		new DotExporter<City, Flight>().export(flights, out);
+
+		byte[] bytes = out.toString().getBytes(StandardCharsets.UTF_8);
+		GraphLayout layout = DotImporter.forLayout().read(Channels.newChannel(new ByteArrayInputStream(bytes)),
+				new GraphLayout());
+		Map<String, LayoutNode> nodes = byLabel(layout);
+
+		Set<String> names = new HashSet<>();
+		for (City city : flights.getAllVertices()) {
+			names.add(city.getName());
+		}
+		assertEquals(names, nodes.keySet());
+		assertEquals(" AI-2 ", edge(layout, nodes.get(odd.getName()), nodes.get("Jaipur")).getLabel());
+	}
+
+	@Test
+	public void testBackwardEdgesRoundTrip() throws IOException {
+		FlightGraph flights = new FlightGraph();
+		City delhi = new City("Delhi");
+		City mumbai = new City("Mumbai");
+		City jaipur = new City("Jaipur");
+		flights.addEdge(new Flight(delhi, mumbai, "AI-1"));
+		flights.addEdge(new Flight(mumbai, jaipur, "AI-2"));
+		flights.addEdge(new Flight(delhi, jaipur, "AI-3"));
+		String dot = DotExporter.getDotRepresentation(flights);
+		assertTrue(dot.contains("dir=\"back\""));
+
+		GraphLayout layout = DotImporter.readLayout(new StringReader(dot));
+		Map<String, LayoutNode> nodes = byLabel(layout);
+		assertEquals(3, layout.getAllEdges().size());
+		for (Flight flight : flights.getAllEdges()) {
+			LayoutNode source = nodes.get(flight.getSourceVertex().getName());
+			LayoutNode target = nodes.get(flight.getTargetVertex().getName());
+			LayoutEdge edge = edge(layout, source, target);
+			assertEquals(source, edge.getSourceVertex());
+			assertEquals(target, edge.getTargetVertex());
+		}
+
+		layout = DotImporter.readLayout(new StringReader("digraph { edge [dir=back]; a -> b; c -> d [dir=forward] }"));
+		nodes = byLabel(layout);
+		assertEquals(nodes.get("b"), edge(layout, nodes.get("a"), nodes.get("b")).getSourceVertex());
+		assertEquals(nodes.get("c"), edge(layout, nodes.get("c"), nodes.get("d")).getSourceVertex());
+	}
+
+	@Test
+	public void testSyntaxErrors() {
+		String[] invalid = { "digraph { a -> }", "graph { a -> b }", "digraph { a [label=] }", "digraph { a ",
+				"tree { }", "digraph { \"a }" };
+		for (String dot : invalid) {
+			try {
+				DotImporter.readLayout(new StringReader(dot));
+				fail("Expected an IOException for " + dot);
+			} catch (IOException e) {
+				assertTrue(e.getMessage().startsWith("Syntax error at line 1"));
+			}
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package com.graphlib.graph.layout.test;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import com.graphlib.graph.layout.Box;
+import com.graphlib.graph.layout.GraphLayout;
+import com.graphlib.graph.layout.GraphMLExporter;
+import com.graphlib.graph.layout.JsonLayoutExporter;
+import com.graphlib.graph.layout.JsonLayoutImporter;
+import com.graphlib.graph.layout.LayoutEdge;
+import com.graphlib.graph.layout.LayoutNode;
+import com.graphlib.graph.layout.Point;
+import com.graphlib.graph.layout.Spline;
+
+public class LayoutExportTest {
+
+	private GraphLayout layout() {
+		GraphLayout layout = new GraphLayout();
+		LayoutNode a = new LayoutNode(1, "a <&>");
+		a.setRank(0);
+		a.setxCoordinate(20);
+		a.setyCoordinate(130);
+		a.setLeftWidth(9);
+		a.setRightWidth(9);
+		a.setHeight(18);
+		LayoutNode b = new LayoutNode(2, "b \"quoted\"");
+		b.setRank(1);
+		b.setOrder(1);
+		b.setxCoordinate(10);
+		b.setyCoordinate(60);
+		b.setLeftWidth(9);
+		b.setRightWidth(9);
+		b.setHeight(18);
+		layout.addVertex(a);
+		layout.addVertex(b);
+
+		LayoutEdge edge = new LayoutEdge(3, a, b, 2, 1, "ab");
+		Spline spline = new Spline();
+		spline.addCurve(new Point(20, 121), new Point(18, 100), new Point(14, 90), new Point(12, 80));
+		spline.addCurve(new Point(12, 80), new Point(11, 75), new Point(10, 72), new Point(10, 69));
+		edge.setSpline(spline);
+		layout.addEdge(edge);
+		return layout;
+	}
+
+	@Test
+	public void testJsonRoundTrip() throws IOException {
+		GraphLayout layout = layout();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new JsonLayoutExporter().export(layout, out);
+
+		GraphLayout copy = new JsonLayoutImporter().read(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(layout.getAllVertices(), copy.getAllVertices());
+		assertEquals(layout.getAllEdges(), copy.getAllEdges());
+		assertEquals(layout.computeBoundingBox(), copy.computeBoundingBox());
+
+		LayoutEdge edge = copy.getAllEdges().iterator().next();
+		assertEquals(2, edge.getEdgeWeight());
+		assertEquals("ab", edge.getLabel());
+		assertEquals(layout.getAllEdges().iterator().next().getSpline().getPoints(), edge.getSpline().getPoints());
+		for (LayoutNode node : copy.getAllVertices()) {
+			if (node.getId() == 2) {
+				assertEquals("b \"quoted\"", node.getLabel());
+				assertEquals(1, node.getRank());
+				assertEquals(1, node.getOrder());
+				assertEquals(60, node.getyCoordinate(), 0);
+			}
+		}
+	}
+
+	@Test
+	public void testJsonBoundingBox() throws IOException {
+		StringWriter out = new StringWriter();
+		new JsonLayoutExporter().prettyPrint(true).export(layout(), out);
+		assertTrue(out.toString().contains("\"boundingBox\""));
+
+		out = new StringWriter();
+		new JsonLayoutExporter().boundingBox(false).export(layout(), out);
+		assertFalse(out.toString().contains("\"boundingBox\""));
+	}
+
+	@Test
+	public void testReadTestResource() throws IOException {
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		try (InputStream in = loader.getResourceAsStream("bounding_box_0.json")) {
+			GraphLayout layout = new JsonLayoutImporter().read(in);
+			assertEquals(3, layout.getAllVertices().size());
+			assertEquals(3, layout.getAllEdges().size());
+			assertEquals(new Box(new Point(1, 11), new Point(39, 139)), layout.computeBoundingBox());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testUnknownNode() throws IOException {
+		new JsonLayoutImporter().read(new StringReader("{\"graph\":{\"nodes\":[{\"id\":1}],"
+				+ "\"edges\":[{\"id\":2,\"from\":1,\"to\":7}]}}"));
+	}
+
+	@Test
+	public void testGraphML() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new GraphMLExporter().export(layout(), out);
+
+		Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+				.parse(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals("graphml", document.getDocumentElement().getTagName());
+		NodeList nodes = document.getElementsByTagName("node");
+		assertEquals(2, nodes.getLength());
+		NodeList edges = document.getElementsByTagName("edge");
+		assertEquals(1, edges.getLength());
+		Element edge = (Element) edges.item(0);
+		assertEquals("n1", edge.getAttribute("source"));
+		assertEquals("n2", edge.getAttribute("target"));
+
+		boolean labelFound = false;
+		boolean splineFound = false;
+		boolean boxFound = false;
+		NodeList data = document.getElementsByTagName("data");
+		for (int i = 0; i < data.getLength(); i++) {
+			Element d = (Element) data.item(i);
+			if (d.getAttribute("key").equals("nlabel") && d.getTextContent().equals("a <&>")) {
+				labelFound = true;
+			}
+			if (d.getAttribute("key").equals("spline")) {
+				assertEquals("20.0,121.0 18.0,100.0 14.0,90.0 12.0,80.0 11.0,75.0 10.0,72.0 10.0,69.0",
+						d.getTextContent());
+				splineFound = true;
+			}
+			if (d.getAttribute("key").equals("bbox")) {
+				assertEquals("graph", ((Element) d.getParentNode()).getTagName());
+				Box box = layout().computeBoundingBox();
+				assertEquals(box.getLowerLeft().getX() + "," + box.getLowerLeft().getY() + " "
+						+ box.getUpperRight().getX() + "," + box.getUpperRight().getY(), d.getTextContent());
+				boxFound = true;
+			}
+		}
+		assertTrue(labelFound);
+		assertTrue(splineFound);
+		assertTrue(boxFound);
+
+		out = new ByteArrayOutputStream();
+		new GraphMLExporter().boundingBox(false).export(layout(), out);
+		assertFalse(out.toString("UTF-8").contains("key=\"bbox\">"));
+	}
+}